@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
@@ -39,6 +40,13 @@ public abstract class AbstractCallExpressionCheck extends PythonSubscriptionChec
     return false;
   }
 
+  /**
+   * Called for each issue raised on a call, to add secondary locations to it.
+   */
+  protected void addSecondaries(SubscriptionContext ctx, CallExpression callExpression, PreciseIssue issue) {
+    // no secondary location by default
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::visitNode);
@@ -48,7 +56,7 @@ public abstract class AbstractCallExpressionCheck extends PythonSubscriptionChec
     CallExpression node = (CallExpression) ctx.syntaxNode();
     Symbol symbol = node.calleeSymbol();
     if (!isException(node) && symbol != null && functionsToCheck().contains(symbol.fullyQualifiedName())) {
-      ctx.addIssue(node.callee(), message());
+      addSecondaries(ctx, node, ctx.addIssue(node.callee(), message()));
     }
   }
 
@@ -42,13 +42,13 @@ public class AfterJumpStatementCheck extends PythonSubscriptionCheck {
     context.registerSyntaxNodeConsumer(Kind.FILE_INPUT, ctx ->
       {
         FileInput fileInput = (FileInput) ctx.syntaxNode();
-        checkCfg(ControlFlowGraph.build(fileInput, ctx.pythonFile()), ctx, fileInput.statements());
+        checkCfg(ctx.cfg(fileInput), ctx, fileInput.statements());
       }
     );
     context.registerSyntaxNodeConsumer(Kind.FUNCDEF, ctx ->
       {
         FunctionDef functionDef = (FunctionDef) ctx.syntaxNode();
-        checkCfg(ControlFlowGraph.build(functionDef, ctx.pythonFile()), ctx, functionDef.body());
+        checkCfg(ctx.cfg(functionDef), ctx, functionDef.body());
       }
     );
 
@@ -87,7 +87,7 @@ public class AfterJumpStatementCheck extends PythonSubscriptionCheck {
     @Override
     public void visitTryStatement(TryStatement tryStatement) {
       if (!hasTryStatementContainingJump) {
-        hasTryStatementContainingJump = TreeUtils.hasDescendant(tryStatement, tree -> tree.is(Kind.BREAK_STMT, Kind.CONTINUE_STMT, Kind.RETURN_STMT));
+        hasTryStatementContainingJump = TreeUtils.hasDescendantOfKind(tryStatement, Kind.BREAK_STMT, Kind.CONTINUE_STMT, Kind.RETURN_STMT);
       }
     }
   }
@@ -19,7 +19,10 @@
  */
 package org.sonar.python.checks;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.ArgList;
@@ -28,6 +31,7 @@ import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.api.PythonTokenType;
+import org.sonar.python.tree.PyTree;
 import org.sonar.python.tree.TreeUtils;
 
 public class CheckUtils {
@@ -43,23 +47,42 @@ public class CheckUtils {
     if (leftTree == null || rightTree == null) {
       return false;
     }
-    if (leftTree.getKind() != rightTree.getKind() || leftTree.children().size() != rightTree.children().size()) {
+    PyTree left = (PyTree) leftTree;
+    PyTree right = (PyTree) rightTree;
+    if (left.getKind() != right.getKind() || left.structuralHash() != right.structuralHash() || left.childrenCount() != right.childrenCount()) {
       return false;
     }
-    if (leftTree.children().isEmpty() && rightTree.children().isEmpty()) {
-      return areLeavesEquivalent(leftTree, rightTree);
+    if (left.childrenCount() == 0) {
+      return areLeavesEquivalent(left, right);
     }
 
-    List<Tree> children1 = leftTree.children();
-    List<Tree> children2 = rightTree.children();
-    for (int i = 0; i < children1.size(); i++) {
-      if (!areEquivalent(children1.get(i), children2.get(i))) {
+    for (int i = 0; i < left.childrenCount(); i++) {
+      if (!areEquivalent(left.child(i), right.child(i))) {
         return false;
       }
     }
     return true;
   }
 
+  /**
+   * Equivalent trees (see {@link #areEquivalent(Tree, Tree)}) have the same structural hash.
+   */
+  public static int structuralHash(@Nullable Tree tree) {
+    return tree == null ? 0 : ((PyTree) tree).structuralHash();
+  }
+
+  /**
+   * Groups the given trees by structural hash, keeping their relative order in each group.
+   * Only trees of the same group need to be compared with {@link #areEquivalent(Tree, Tree)}.
+   */
+  public static <T extends Tree> Map<Integer, List<T>> groupByStructuralHash(List<T> trees) {
+    Map<Integer, List<T>> groups = new HashMap<>();
+    for (T tree : trees) {
+      groups.computeIfAbsent(structuralHash(tree), k -> new ArrayList<>()).add(tree);
+    }
+    return groups;
+  }
+
   private static boolean areLeavesEquivalent(Tree leftLeaf, Tree rightLeaf) {
     if (leftLeaf.firstToken() == null && rightLeaf.firstToken() == null) {
       return true;
@@ -21,6 +21,8 @@ package org.sonar.python.checks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -43,20 +45,25 @@ public class DuplicatedMethodImplementationCheck extends PythonSubscriptionCheck
       MethodVisitor methodVisitor = new MethodVisitor();
       classDef.body().accept(methodVisitor);
 
+      List<StatementList> bodies = methodVisitor.methods.stream().map(FunctionDef::body).collect(Collectors.toList());
+      Map<Integer, List<StatementList>> bodiesByHash = CheckUtils.groupByStructuralHash(bodies);
       for (int i = 1; i < methodVisitor.methods.size(); i++) {
-        checkMethods(methodVisitor.methods.get(i), methodVisitor.methods, i, ctx);
+        FunctionDef method = methodVisitor.methods.get(i);
+        checkMethods(method, bodiesByHash.get(CheckUtils.structuralHash(method.body())), ctx);
       }
     });
   }
 
-  private static void checkMethods(FunctionDef suspiciousMethod, List<FunctionDef> methods, int index, SubscriptionContext ctx) {
+  private static void checkMethods(FunctionDef suspiciousMethod, List<StatementList> candidateBodies, SubscriptionContext ctx) {
     StatementList suspiciousBody = suspiciousMethod.body();
     if (isException(suspiciousMethod)) {
       return;
     }
-    for (int j = 0; j < index; j++) {
-      FunctionDef originalMethod = methods.get(j);
-      Tree originalBody = originalMethod.body();
+    for (StatementList originalBody : candidateBodies) {
+      if (originalBody == suspiciousBody) {
+        break;
+      }
+      FunctionDef originalMethod = (FunctionDef) originalBody.parent();
       if (CheckUtils.areEquivalent(originalBody, suspiciousBody)) {
         int line = originalMethod.name().firstToken().line();
         String message = String.format(MESSAGE, originalMethod.name().name(), line);
@@ -23,10 +23,11 @@ import java.util.Arrays;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.python.LocationIndex;
+import org.sonar.python.SubscriptionVisitor;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.python.tree.TreeUtils;
 
 @Rule(key = "S1186")
 public class EmptyFunctionCheck extends PythonSubscriptionCheck {
@@ -45,10 +46,11 @@ public class EmptyFunctionCheck extends PythonSubscriptionCheck {
       }
 
       if (functionDef.body().statements().size() == 1 && functionDef.body().statements().get(0).is(Tree.Kind.PASS_STMT)) {
-        if (TreeUtils.tokens(functionDef).stream().anyMatch(t -> !t.trivia().isEmpty())) {
+        LocationIndex locationIndex = SubscriptionVisitor.locationIndex(ctx);
+        if (locationIndex.hasComments(functionDef)) {
           return;
         }
-        if (hasCommentAbove(functionDef)) {
+        if (hasCommentAbove(functionDef, locationIndex)) {
           return;
         }
         String type = functionDef.isMethodDefinition() ? "method" : "function";
@@ -57,16 +59,8 @@ public class EmptyFunctionCheck extends PythonSubscriptionCheck {
     });
   }
 
-  private static boolean hasCommentAbove(FunctionDef functionDef) {
-    Tree parent = functionDef.parent();
-    List<Token> tokens = TreeUtils.tokens(parent);
-    Token defKeyword = functionDef.defKeyword();
-    int index = tokens.indexOf(defKeyword);
-    if (index == 0) {
-      parent = parent.parent();
-      tokens = TreeUtils.tokens(parent);
-      index = tokens.indexOf(defKeyword);
-    }
-    return index > 0 && !tokens.get(index - 1).trivia().isEmpty();
+  private static boolean hasCommentAbove(FunctionDef functionDef, LocationIndex locationIndex) {
+    Token previous = locationIndex.previousToken(functionDef.defKeyword());
+    return previous != null && !previous.trivia().isEmpty();
   }
 }
@@ -19,15 +19,15 @@
  */
 package org.sonar.python.checks;
 
-import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.python.LocationIndex;
+import org.sonar.python.SubscriptionVisitor;
 import org.sonar.python.api.PythonTokenType;
 import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.Tree.Kind;
-import org.sonar.python.tree.TreeUtils;
 
 @Rule(key = EmptyNestedBlockCheck.CHECK_KEY)
 public class EmptyNestedBlockCheck extends PythonSubscriptionCheck {
@@ -45,13 +45,17 @@ public class EmptyNestedBlockCheck extends PythonSubscriptionCheck {
       if (parent.is(Kind.FUNCDEF) || parent.is(Kind.CLASSDEF) || parent.is(Kind.EXCEPT_CLAUSE)) {
         return;
       }
-      List<Token> parentTokens = TreeUtils.tokens(statementListTree.parent());
-      int from = parentTokens.stream().filter(t -> t.type() == PythonTokenType.NEWLINE).findFirst()
-        .map(parentTokens::indexOf)
-        .orElseThrow(() -> new IllegalStateException(String.format("No newline token in parent of statement list at line %s", statementListTree.firstToken().line())));
-      // sublist call is excluding last index and token following last token of statement list (dedent) should be included in the comment verification.
-      int to = parentTokens.indexOf(statementListTree.lastToken()) + 2;
-      if (!containsComment(parentTokens.subList(from, to))) {
+      LocationIndex locationIndex = SubscriptionVisitor.locationIndex(ctx);
+      Token newLine = parent.firstToken();
+      while (newLine != null && newLine.type() != PythonTokenType.NEWLINE) {
+        newLine = locationIndex.nextToken(newLine);
+      }
+      if (newLine == null) {
+        throw new IllegalStateException(String.format("No newline token in parent of statement list at line %s", statementListTree.firstToken().line()));
+      }
+      // token following last token of statement list (dedent) should be included in the comment verification.
+      Token following = locationIndex.nextToken(statementListTree.lastToken());
+      if (!locationIndex.hasComments(newLine, following == null ? statementListTree.lastToken() : following)) {
         if (statementListTree.statements().isEmpty()) {
           ctx.addIssue(statementListTree.firstToken(), MESSAGE);
         } else {
@@ -60,8 +64,4 @@ public class EmptyNestedBlockCheck extends PythonSubscriptionCheck {
       }
     });
   }
-
-  private static boolean containsComment(List<Token> tokens) {
-    return tokens.stream().anyMatch(t -> !t.trivia().isEmpty());
-  }
 }
@@ -24,10 +24,10 @@ import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
-import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.python.cfg.CfgUtils;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.cfg.fixpoint.DataflowResults;
 import org.sonar.python.cfg.fixpoint.LiveVariablesAnalysis;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
@@ -44,13 +44,13 @@ public class IgnoredParameterCheck extends PythonSubscriptionCheck {
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> {
       FunctionDef functionDef = (FunctionDef) ctx.syntaxNode();
-      ControlFlowGraph cfg = ControlFlowGraph.build(functionDef, ctx.pythonFile());
-      if (cfg == null) {
+      DataflowResults dataflow = SubscriptionVisitor.dataflow(ctx, functionDef);
+      if (dataflow == null) {
         return;
       }
-      LiveVariablesAnalysis lva = LiveVariablesAnalysis.analyze(cfg);
-      Set<CfgBlock> unreachableBlocks = CfgUtils.unreachableBlocks(cfg);
-      cfg.blocks().forEach(block -> {
+      LiveVariablesAnalysis lva = dataflow.liveVariables();
+      Set<CfgBlock> unreachableBlocks = dataflow.unreachableBlocks();
+      dataflow.cfg().blocks().forEach(block -> {
         List<DeadStoreUtils.UnnecessaryAssignment> unnecessaryAssignments =
           DeadStoreUtils.findUnnecessaryAssignments(block, lva.getLiveVariables(block), functionDef);
         unnecessaryAssignments.stream()
@@ -38,6 +38,8 @@ import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.Tree.Kind;
 import org.sonar.plugins.python.api.tree.WhileStatement;
+import org.sonar.python.cfg.CfgUtils;
+import org.sonar.python.cfg.LoopNestingForest;
 import org.sonar.python.tree.TreeUtils;
 
 @Rule(key = "S1751")
@@ -46,10 +48,10 @@ public class LoopExecutingAtMostOnceCheck extends PythonSubscriptionCheck {
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Kind.FUNCDEF, ctx ->
-      checkCfg(ControlFlowGraph.build((FunctionDef) ctx.syntaxNode(), ctx.pythonFile()), ctx)
+      checkCfg(ctx.cfg((FunctionDef) ctx.syntaxNode()), ctx)
     );
     context.registerSyntaxNodeConsumer(Kind.FILE_INPUT, ctx ->
-      checkCfg(ControlFlowGraph.build((FileInput) ctx.syntaxNode(), ctx.pythonFile()), ctx)
+      checkCfg(ctx.cfg((FileInput) ctx.syntaxNode()), ctx)
     );
   }
 
@@ -57,10 +59,13 @@ public class LoopExecutingAtMostOnceCheck extends PythonSubscriptionCheck {
     if (cfg == null) {
       return;
     }
+    LoopNestingForest loops = CfgUtils.loops(cfg);
     cfg.blocks().stream()
       .filter(CfgBranchingBlock.class::isInstance)
       .map(CfgBranchingBlock.class::cast)
       .filter(b -> b.branchingTree().is(Kind.WHILE_STMT))
+      // the header of a natural loop is the target of a back edge: the loop can be executed multiple times
+      .filter(b -> loops.loop(b) == null)
       .forEach(b -> checkLoop(b, ctx));
   }
 
@@ -87,7 +92,7 @@ public class LoopExecutingAtMostOnceCheck extends PythonSubscriptionCheck {
           .forEach(workList::push);
       }
     }
-    if (TreeUtils.hasDescendant(loop, t -> t.is(Kind.TRY_STMT))) {
+    if (TreeUtils.hasDescendantOfKind(loop, Kind.TRY_STMT)) {
       return;
     }
     PreciseIssue issue = ctx.addIssue(loop.firstToken(), "Refactor this loop to do more than one iteration.");
@@ -21,6 +21,7 @@ package org.sonar.python.checks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
@@ -70,18 +71,22 @@ public class SameBranchCheck extends PythonSubscriptionCheck {
     return CheckUtils.areEquivalent(body, ifStmt.elseBranch().body());
   }
 
-  private static void findSameBranches(List<? extends Tree> branches, SubscriptionContext ctx) {
+  private static <T extends Tree> void findSameBranches(List<T> branches, SubscriptionContext ctx) {
+    Map<Integer, List<T>> branchesByHash = CheckUtils.groupByStructuralHash(branches);
     for (int i = 1; i < branches.size(); i++) {
-      checkBranches(branches, i, ctx);
+      Tree duplicateBlock = branches.get(i);
+      checkBranches(branches, duplicateBlock, branchesByHash.get(CheckUtils.structuralHash(duplicateBlock)), ctx);
     }
   }
 
-  private static void checkBranches(List<? extends Tree> branches, int index, SubscriptionContext ctx) {
-    Tree duplicateBlock = branches.get(index);
+  private static void checkBranches(List<? extends Tree> branches, Tree duplicateBlock, List<? extends Tree> candidates, SubscriptionContext ctx) {
     boolean isOnASingleLine = isOnASingleLine(duplicateBlock);
     List<Tree> equivalentBlocks = new ArrayList<>();
-    for (int j = 0; j < index; j++) {
-      Tree originalBlock = branches.get(j);
+    // candidates are the branches with the same structural hash, in their original order
+    for (Tree originalBlock : candidates) {
+      if (originalBlock == duplicateBlock) {
+        break;
+      }
       if (CheckUtils.areEquivalent(originalBlock, duplicateBlock)) {
         equivalentBlocks.add(originalBlock);
         boolean allBranchesIdentical = equivalentBlocks.size() == branches.size() - 1;
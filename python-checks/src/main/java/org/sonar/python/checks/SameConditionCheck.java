@@ -21,6 +21,7 @@ package org.sonar.python.checks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
@@ -73,16 +74,21 @@ public class SameConditionCheck extends PythonSubscriptionCheck {
   }
 
   private static void findSameConditions(List<Expression> conditions, SubscriptionContext ctx) {
+    Map<Integer, List<Expression>> conditionsByHash = CheckUtils.groupByStructuralHash(conditions);
     for (int i = 1; i < conditions.size(); i++) {
-      compareConditions(conditions, i, ctx);
+      Expression condition = conditions.get(i);
+      compareConditions(condition, conditionsByHash.get(CheckUtils.structuralHash(condition)), ctx);
     }
   }
 
-  private static void compareConditions(List<Expression> conditions, int index, SubscriptionContext ctx) {
-    for (int j = 0; j < index; j++) {
-      if (CheckUtils.areEquivalent(conditions.get(j), conditions.get(index))) {
-        String message = String.format(MESSAGE, conditions.get(j).firstToken().line());
-        ctx.addIssue(conditions.get(index), message).secondary(conditions.get(j), "Original");
+  private static void compareConditions(Expression condition, List<Expression> candidates, SubscriptionContext ctx) {
+    for (Expression original : candidates) {
+      if (original == condition) {
+        return;
+      }
+      if (CheckUtils.areEquivalent(original, condition)) {
+        String message = String.format(MESSAGE, original.firstToken().line());
+        ctx.addIssue(condition, message).secondary(original, "Original");
         return;
       }
     }
@@ -28,7 +28,6 @@ import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
-import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.CallExpression;
@@ -37,7 +36,8 @@ import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.ImportFrom;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.python.cfg.CfgUtils;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.cfg.fixpoint.DataflowResults;
 import org.sonar.python.cfg.fixpoint.DefinedVariablesAnalysis;
 import org.sonar.python.cfg.fixpoint.DefinedVariablesAnalysis.DefinedVariables;
 import org.sonar.plugins.python.api.symbols.Symbol;
@@ -63,16 +63,16 @@ public class UndeclaredNameUsageCheck extends PythonSubscriptionCheck {
     context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> {
       List<Symbol> ignoredSymbols = new ArrayList<>();
       FunctionDef functionDef = (FunctionDef) ctx.syntaxNode();
-      if (TreeUtils.hasDescendant(functionDef, tree -> tree.is(Tree.Kind.TRY_STMT))) {
+      if (TreeUtils.hasDescendantOfKind(functionDef, Tree.Kind.TRY_STMT)) {
         return;
       }
-      ControlFlowGraph cfg = ControlFlowGraph.build(functionDef, ctx.pythonFile());
-      if (cfg == null) {
+      DataflowResults dataflow = SubscriptionVisitor.dataflow(ctx, functionDef);
+      if (dataflow == null) {
         return;
       }
-      DefinedVariablesAnalysis analysis = DefinedVariablesAnalysis.analyze(cfg, functionDef.localVariables());
-      Set<CfgBlock> unreachableBlocks = CfgUtils.unreachableBlocks(cfg);
-      cfg.blocks().forEach(block -> checkCfgBlock(block, ctx, analysis.getDefinedVariables(block), unreachableBlocks, analysis, ignoredSymbols));
+      DefinedVariablesAnalysis analysis = dataflow.definedVariables();
+      Set<CfgBlock> unreachableBlocks = dataflow.unreachableBlocks();
+      dataflow.cfg().blocks().forEach(block -> checkCfgBlock(block, ctx, analysis.getDefinedVariables(block), unreachableBlocks, analysis, ignoredSymbols));
     });
   }
 
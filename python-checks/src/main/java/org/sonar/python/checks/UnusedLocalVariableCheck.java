@@ -83,7 +83,7 @@ public class UnusedLocalVariableCheck extends PythonSubscriptionCheck {
   }
 
   private static boolean isCallingLocalsFunction(Tree tree) {
-    return TreeUtils.hasDescendant(tree, t -> t.is(Kind.CALL_EXPR) && calleeHasNameLocals(((CallExpression) t)));
+    return TreeUtils.descendantsOfKind(tree, Kind.CALL_EXPR).stream().anyMatch(t -> calleeHasNameLocals((CallExpression) t));
   }
 
   private static boolean calleeHasNameLocals(CallExpression callExpression) {
@@ -25,9 +25,10 @@ import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.taint.TaintSummariesConsumer;
 
 @Rule(key = "S1523")
-public class DynamicCodeExecutionCheck extends PythonSubscriptionCheck {
+public class DynamicCodeExecutionCheck extends PythonSubscriptionCheck implements TaintSummariesConsumer {
   private static final String MESSAGE = "Make sure that this dynamic injection or execution of code is safe.";
 
   @Override
@@ -35,7 +36,7 @@ public class DynamicCodeExecutionCheck extends PythonSubscriptionCheck {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
       CallExpression callExpr = (CallExpression) ctx.syntaxNode();
       if (isFuncNameExecOrEval(callExpr)) {
-        ctx.addIssue(callExpr, MESSAGE);
+        TaintedArguments.addSecondaries(ctx, callExpr, ctx.addIssue(callExpr, MESSAGE));
       }
     });
   }
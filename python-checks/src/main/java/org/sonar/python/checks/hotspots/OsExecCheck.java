@@ -23,10 +23,14 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.python.checks.AbstractCallExpressionCheck;
+import org.sonar.python.taint.TaintSummariesConsumer;
 
 @Rule(key = OsExecCheck.CHECK_KEY)
-public class OsExecCheck extends AbstractCallExpressionCheck {
+public class OsExecCheck extends AbstractCallExpressionCheck implements TaintSummariesConsumer {
 
   public static final String CHECK_KEY = "S4721";
   private static final String MESSAGE = "Make sure that executing this OS command is safe here.";
@@ -74,4 +78,9 @@ public class OsExecCheck extends AbstractCallExpressionCheck {
   protected String message() {
     return MESSAGE;
   }
+
+  @Override
+  protected void addSecondaries(SubscriptionContext ctx, CallExpression callExpression, PreciseIssue issue) {
+    TaintedArguments.addSecondaries(ctx, callExpression, issue);
+  }
 }
@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.AliasedName;
@@ -42,10 +43,11 @@ import org.sonar.plugins.python.api.tree.RegularArgument;
 import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.checks.Expressions;
+import org.sonar.python.taint.TaintSummariesConsumer;
 import org.sonar.plugins.python.api.symbols.Symbol;
 
 @Rule(key = SQLQueriesCheck.CHECK_KEY)
-public class SQLQueriesCheck extends PythonSubscriptionCheck {
+public class SQLQueriesCheck extends PythonSubscriptionCheck implements TaintSummariesConsumer {
   public static final String CHECK_KEY = "S2077";
   private static final String MESSAGE = "Make sure that formatting this SQL query is safe here.";
   private boolean isUsingDjangoModel = false;
@@ -116,7 +118,15 @@ public class SQLQueriesCheck extends PythonSubscriptionCheck {
 
   private static void addIssue(SubscriptionContext context, CallExpression callExpression) {
     Optional<Tree> secondary = sensitiveArgumentValue(callExpression);
-    secondary.ifPresent(tree ->  context.addIssue(callExpression, MESSAGE).secondary(tree, null));
+    if (secondary.isPresent()) {
+      context.addIssue(callExpression, MESSAGE).secondary(secondary.get(), null);
+      return;
+    }
+    List<Argument> userControlledArguments = TaintedArguments.userControlledArguments(context, callExpression);
+    if (!userControlledArguments.isEmpty()) {
+      PreciseIssue issue = context.addIssue(callExpression, MESSAGE);
+      userControlledArguments.forEach(argument -> issue.secondary(argument, TaintedArguments.SECONDARY_MESSAGE));
+    }
   }
 
   private static boolean isException(CallExpression callExpression, String functionName) {
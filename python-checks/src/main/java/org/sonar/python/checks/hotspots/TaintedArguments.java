@@ -0,0 +1,70 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.checks.hotspots;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.taint.TaintResults;
+import org.sonar.python.tree.TreeUtils;
+
+class TaintedArguments {
+
+  static final String SECONDARY_MESSAGE = "User-controlled data flows into this argument.";
+
+  private TaintedArguments() {
+  }
+
+  /**
+   * Arguments of the given call which may be user-controlled, according to the taint summaries of the project.
+   */
+  static List<Argument> userControlledArguments(SubscriptionContext ctx, CallExpression callExpression) {
+    Tree scope = TreeUtils.firstAncestorOfKind(callExpression, Tree.Kind.FUNCDEF, Tree.Kind.LAMBDA, Tree.Kind.FILE_INPUT);
+    TaintResults taintResults = null;
+    if (scope != null && scope.is(Tree.Kind.FUNCDEF)) {
+      taintResults = SubscriptionVisitor.taint(ctx, (FunctionDef) scope);
+    } else if (scope != null && scope.is(Tree.Kind.FILE_INPUT)) {
+      taintResults = SubscriptionVisitor.taint(ctx, (FileInput) scope);
+    }
+    if (taintResults == null) {
+      return Collections.emptyList();
+    }
+    List<Argument> arguments = callExpression.arguments();
+    List<Argument> userControlledArguments = new ArrayList<>();
+    for (int i = 0; i < arguments.size(); i++) {
+      if (taintResults.isUserControlled(callExpression, i)) {
+        userControlledArguments.add(arguments.get(i));
+      }
+    }
+    return userControlledArguments;
+  }
+
+  static void addSecondaries(SubscriptionContext ctx, CallExpression callExpression, PreciseIssue issue) {
+    userControlledArguments(ctx, callExpression).forEach(argument -> issue.secondary(argument, SECONDARY_MESSAGE));
+  }
+}
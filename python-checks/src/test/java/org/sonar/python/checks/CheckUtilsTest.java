@@ -21,7 +21,10 @@ package org.sonar.python.checks;
 
 import com.sonar.sslr.api.AstNode;
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.junit.Test;
@@ -93,6 +96,19 @@ public class CheckUtilsTest {
     assertThat(CheckUtils.areEquivalent(parse("x = lambda a : a + 10"), parse("x = lambda a : a + 5"))).isFalse();
   }
 
+  @Test
+  public void structural_hash() {
+    assertThat(CheckUtils.structuralHash(parse("x = x + 1"))).isEqualTo(CheckUtils.structuralHash(parse("x = x + 1")));
+    assertThat(CheckUtils.structuralHash(parse("x = x + 1"))).isNotEqualTo(CheckUtils.structuralHash(parse("x = x + 2")));
+    assertThat(CheckUtils.structuralHash(parse("if x:\n  foo()"))).isEqualTo(CheckUtils.structuralHash(parse("if x:\n    foo()")));
+    assertThat(CheckUtils.structuralHash(null)).isZero();
+
+    List<Tree> trees = Arrays.asList(parse("foo()"), parse("bar()"), parse("foo()"));
+    Map<Integer, List<Tree>> groups = CheckUtils.groupByStructuralHash(trees);
+    assertThat(groups.get(CheckUtils.structuralHash(trees.get(0)))).containsExactly(trees.get(0), trees.get(2));
+    assertThat(groups.get(CheckUtils.structuralHash(trees.get(1)))).containsExactly(trees.get(1));
+  }
+
   @Test
   public void no_parent_class() {
     FileInput file = (FileInput) parse("" +
@@ -6,3 +6,14 @@ def evaluate(command, file, mode):
     eval.f() # OK
     myModule.eval() # OK
     myEval(code) # OK
+
+def evaluate_user_input():
+    expression = input()
+    eval(expression) # Noncompliant
+#   ^^^^^^^^^^^^^^^^
+#        ^^^^^^^^^^@-1<
+    eval(len(expression)) # Noncompliant
+#   ^^^^^^^^^^^^^^^^^^^^^
+    exec(compile(expression, "<string>", "exec")) # Noncompliant
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^
+#        ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^@-1<
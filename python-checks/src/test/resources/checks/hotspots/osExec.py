@@ -1,5 +1,7 @@
 import os
+import shlex
 import subprocess
+import sys
 from subprocess import run, call, check_call, check_output, Popen
 
 # See https://docs.python.org/3/library/subprocess.html
@@ -47,3 +49,34 @@ os.execv(path, params)  # Noncompliant
 os.execve(path, params, env)  # Noncompliant
 os.execvp(file, params)  # Noncompliant
 os.execvpe(file, params, env)  # Noncompliant
+
+def run_user_command():
+    command = input()
+    os.system(command)  # Noncompliant
+#   ^^^^^^^^^ ^^^^^^^<
+    os.system(shlex.quote(command))  # Noncompliant
+#   ^^^^^^^^^
+    os.system(strip_command(command))  # Noncompliant
+#   ^^^^^^^^^ ^^^^^^^^^^^^^^^^^^^^^^<
+    os.system(constant_command(command))  # Noncompliant
+#   ^^^^^^^^^
+    subprocess.run(["ls", user_directory()], check=True)  # Noncompliant
+#   ^^^^^^^^^^^^^^ ^^^^^^^^^^^^^^^^^^^^^^^^<
+    run_command(command)
+
+def strip_command(command):
+    return command.strip()
+
+def constant_command(command):
+    return "ls"
+
+def user_directory():
+    return sys.argv[1]
+
+def run_command(command):
+    os.system(command)  # Noncompliant
+#   ^^^^^^^^^ ^^^^^^^<
+
+def run_other_command(command):
+    os.system(command)  # Noncompliant
+#   ^^^^^^^^^
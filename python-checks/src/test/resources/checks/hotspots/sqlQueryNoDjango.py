@@ -30,3 +30,8 @@ class MyUser(models.Model):
         MyUser.objects.extra({ 'mycol': "select col from sometable here mycol = %s and othercol = " + value}) #  
         MyUser.objects.extra({ 'mycol': "select col from sometable here mycol = %s and othercol = " + ""}) #  
 
+
+def query_user_input():
+    query = input()
+    MyUser.objects.raw(query)  # OK, Django is not imported
+    cursor.execute(query)  # OK
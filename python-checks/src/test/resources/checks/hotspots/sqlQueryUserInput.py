@@ -0,0 +1,50 @@
+from django.db import models
+from django.db import connection
+from django.db.models.expressions import RawSQL
+
+class MyUser(models.Model):
+    pass
+
+def query_user_input(name):
+    query = input()
+    MyUser.objects.raw(query)  # Noncompliant {{Make sure that formatting this SQL query is safe here.}}
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^
+#                      ^^^^^@-1< {{User-controlled data flows into this argument.}}
+    MyUser.objects.raw(int(query))  # OK, sanitized
+    MyUser.objects.raw(build_query(query))  # Noncompliant
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^
+#                      ^^^^^^^^^^^^^^^^^^@-1<
+    MyUser.objects.raw(constant_query(query))  # OK
+    MyUser.objects.raw(name)  # Noncompliant
+#   ^^^^^^^^^^^^^^^^^^^^^^^^
+#                      ^^^^@-1<
+    MyUser.objects.raw("SELECT * FROM mytable WHERE name = %s", [query])  # Noncompliant
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^
+#                                                               ^^^^^^^@-1<
+    MyUser.objects.raw(params=query)  # Noncompliant
+    MyUser.objects.filter(query)  # OK, not a SQL query
+
+def execute_user_input():
+    value = input()
+    with connection.cursor() as cursor:
+        cursor.execute(value)  # Noncompliant
+#       ^^^^^^^^^^^^^^^^^^^^^
+#                      ^^^^^@-1<
+        cursor.execute("SELECT 1")  # OK
+    RawSQL(value, ())  # Noncompliant
+#   ^^^^^^^^^^^^^^^^^
+#          ^^^^^@-1<
+    RawSQL("SELECT 1", ())  # OK
+
+def build_query(value):
+    return value.strip()
+
+def constant_query(value):
+    return "SELECT 1"
+
+def query_user_name():
+    query_user_input(input())
+
+def query_constant_name():
+    # "name" receives user-controlled data from query_user_name only
+    query_user_input("admin")
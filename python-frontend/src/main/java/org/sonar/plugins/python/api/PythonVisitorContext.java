@@ -22,15 +22,28 @@ package org.sonar.plugins.python.api;
 import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.StatementList;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.LocationIndex;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.cfg.FileControlFlowGraph;
+import org.sonar.python.cfg.fixpoint.DataflowResults;
+import org.sonar.python.semantic.FunctionSummaries;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.taint.TaintResults;
 
 public class PythonVisitorContext {
 
@@ -39,6 +52,13 @@ public class PythonVisitorContext {
   private File workingDirectory = null;
   private final RecognitionException parsingException;
   private List<PreciseIssue> issues = new ArrayList<>();
+  private final Map<StatementList, ControlFlowGraph> cfgs = new HashMap<>();
+  private final Map<FunctionDef, DataflowResults> dataflowResults = new HashMap<>();
+  private final Map<Tree, TaintResults> taintResults = new HashMap<>();
+  private final CfgBuildContext cfgBuildContext;
+  private FileControlFlowGraph fileCfg = null;
+  private LocationIndex locationIndex = null;
+  private final FunctionSummaries functionSummaries;
 
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, @Nullable String packageName) {
@@ -46,22 +66,49 @@ public class PythonVisitorContext {
     this.pythonFile = pythonFile;
     this.workingDirectory = workingDirectory;
     this.parsingException = null;
+    this.cfgBuildContext = new CfgBuildContext();
+    this.functionSummaries = FunctionSummaries.empty();
     SymbolTableBuilder symbolTableBuilder = packageName != null ? new SymbolTableBuilder(packageName, pythonFile): new SymbolTableBuilder(pythonFile);
     symbolTableBuilder.visitFileInput(rootTree);
   }
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName, Map<String, Set<Symbol>> globalSymbols) {
+    this(rootTree, pythonFile, workingDirectory, packageName, ProjectLevelSymbolTable.from(globalSymbols));
+  }
+
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, new CfgBuildContext());
+  }
+
+  /**
+   * @param cfgBuildContext size limits and failures of the control flow graphs, shared by the files of an analysis
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, CfgBuildContext cfgBuildContext) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, cfgBuildContext, FunctionSummaries.empty());
+  }
+
+  /**
+   * @param functionSummaries summaries of the functions of the project, shared by the files of an analysis
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, CfgBuildContext cfgBuildContext, FunctionSummaries functionSummaries) {
     this.rootTree = rootTree;
     this.pythonFile = pythonFile;
     this.workingDirectory = workingDirectory;
     this.parsingException = null;
-    new SymbolTableBuilder(packageName, pythonFile, globalSymbols).visitFileInput(rootTree);
+    this.cfgBuildContext = cfgBuildContext;
+    this.functionSummaries = functionSummaries;
+    new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
   }
 
   public PythonVisitorContext(PythonFile pythonFile, RecognitionException parsingException) {
     this.rootTree = null;
     this.pythonFile = pythonFile;
     this.parsingException = parsingException;
+    this.cfgBuildContext = new CfgBuildContext();
+    this.functionSummaries = FunctionSummaries.empty();
   }
 
   public FileInput rootTree() {
@@ -88,4 +135,107 @@ public class PythonVisitorContext {
   public File workingDirectory() {
     return workingDirectory;
   }
+
+  /**
+   * Index of the tokens and comments of the file by position, built on first access.
+   * Returns null when the file could not be parsed.
+   */
+  @CheckForNull
+  public LocationIndex locationIndex() {
+    if (locationIndex == null && rootTree != null) {
+      locationIndex = new LocationIndex(rootTree, pythonFile);
+    }
+    return locationIndex;
+  }
+
+  /**
+   * Control flow graph of the body of the given function, built on first access.
+   * Returns null when the control flow graph cannot be built or exceeds the size limits.
+   */
+  @CheckForNull
+  public ControlFlowGraph cfg(FunctionDef functionDef) {
+    return cfg(functionDef.body(), () -> {
+      FileControlFlowGraph fileGraph = fileCfg();
+      int id = fileGraph == null ? -1 : fileGraph.id(functionDef);
+      return id >= 0 ? fileGraph.graph(id) : ControlFlowGraph.build(functionDef, pythonFile, cfgBuildContext);
+    });
+  }
+
+  /**
+   * Control flow graph of the statements of the given file, built on first access.
+   * Returns null when the control flow graph cannot be built or exceeds the size limits.
+   */
+  @CheckForNull
+  public ControlFlowGraph cfg(FileInput fileInput) {
+    return cfg(fileInput.statements(), () -> fileInput == rootTree
+      ? fileCfg().graph(FileControlFlowGraph.MODULE_ID)
+      : ControlFlowGraph.build(fileInput, pythonFile, cfgBuildContext));
+  }
+
+  /**
+   * Control flow graphs of the file and of all its functions, built in one pass on first access.
+   * Returns null when the file could not be parsed.
+   */
+  @CheckForNull
+  public FileControlFlowGraph fileCfg() {
+    if (fileCfg == null && rootTree != null) {
+      fileCfg = cfgBuildContext.buildFile(rootTree, pythonFile);
+    }
+    return fileCfg;
+  }
+
+  /**
+   * Dataflow facts of the given function, shared by all the checks analyzing the file.
+   * Returns null when the control flow graph of the function cannot be built.
+   */
+  @CheckForNull
+  public DataflowResults dataflow(FunctionDef functionDef) {
+    ControlFlowGraph cfg = cfg(functionDef);
+    if (cfg == null) {
+      return null;
+    }
+    return dataflowResults.computeIfAbsent(functionDef, f -> new DataflowResults(f, cfg));
+  }
+
+  /**
+   * User-controlled arguments of the calls of the given function, shared by all the checks analyzing the file.
+   * Returns null when the control flow graph of the function cannot be built.
+   */
+  @CheckForNull
+  public TaintResults taint(FunctionDef functionDef) {
+    ControlFlowGraph cfg = cfg(functionDef);
+    if (cfg == null) {
+      return null;
+    }
+    return taintResults.computeIfAbsent(functionDef, f -> TaintResults.analyze(functionDef, cfg, functionSummaries.taint()));
+  }
+
+  /**
+   * User-controlled arguments of the calls of the statements of the given file, shared by all the checks analyzing the file.
+   * Returns null when the control flow graph of the file cannot be built.
+   */
+  @CheckForNull
+  public TaintResults taint(FileInput fileInput) {
+    ControlFlowGraph cfg = cfg(fileInput);
+    if (cfg == null) {
+      return null;
+    }
+    return taintResults.computeIfAbsent(fileInput, f -> TaintResults.analyze(fileInput, cfg, functionSummaries.taint()));
+  }
+
+  /**
+   * Summaries of the functions of the project, computed before the files are analyzed.
+   */
+  public FunctionSummaries functionSummaries() {
+    return functionSummaries;
+  }
+
+  @CheckForNull
+  private ControlFlowGraph cfg(@Nullable StatementList statementList, Supplier<ControlFlowGraph> builder) {
+    // a null graph is cached as well, so that a failure is not reported again
+    if (!cfgs.containsKey(statementList)) {
+      cfgs.put(statementList, builder.get());
+    }
+    return cfgs.get(statementList);
+  }
 }
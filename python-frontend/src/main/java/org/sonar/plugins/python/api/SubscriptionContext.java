@@ -22,6 +22,9 @@ package org.sonar.plugins.python.api;
 import java.io.File;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 
@@ -47,4 +50,24 @@ public interface SubscriptionContext {
    */
   @CheckForNull
   File workingDirectory();
+
+  /**
+   * Control flow graph of the body of the given function, built once for all the checks analyzing the file.
+   * Returns null when the control flow graph cannot be built.
+   * The default implementation builds a new control flow graph on each call.
+   */
+  @CheckForNull
+  default ControlFlowGraph cfg(FunctionDef functionDef) {
+    return ControlFlowGraph.build(functionDef, pythonFile());
+  }
+
+  /**
+   * Control flow graph of the statements of the given file, built once for all the checks analyzing the file.
+   * Returns null when the control flow graph cannot be built.
+   * The default implementation builds a new control flow graph on each call.
+   */
+  @CheckForNull
+  default ControlFlowGraph cfg(FileInput fileInput) {
+    return ControlFlowGraph.build(fileInput, pythonFile());
+  }
 }
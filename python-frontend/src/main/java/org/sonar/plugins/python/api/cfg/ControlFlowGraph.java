@@ -20,64 +20,57 @@
 package org.sonar.plugins.python.api.cfg;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
-import javax.annotation.Nullable;
-import org.sonar.api.utils.log.Logger;
-import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
-import org.sonar.plugins.python.api.tree.StatementList;
-import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.PythonFile;
-import org.sonar.python.cfg.ControlFlowGraphBuilder;
+import org.sonar.python.cfg.CfgBuildContext;
 
 public class ControlFlowGraph {
 
-  private static final Logger LOG = Loggers.get(ControlFlowGraph.class);
-
   private final Set<CfgBlock> blocks;
   private final CfgBlock start;
   private final CfgBlock end;
 
-  // we shouldn't prevent trees from being garbage collected
-  private static Set<Tree> treesWithCfgErrors = Collections.newSetFromMap(new WeakHashMap<>());
-
   public ControlFlowGraph(Set<CfgBlock> blocks, CfgBlock start, CfgBlock end) {
     this.blocks = blocks;
     this.start = start;
     this.end = end;
   }
 
+  /**
+   * Builds the control flow graph of the given function with the default size limits.
+   * Returns null when it cannot be built: a graph which failed to be built is not built again.
+   */
   @CheckForNull
-  private static ControlFlowGraph build(@Nullable StatementList statementList, PythonFile file) {
-    if (!treesWithCfgErrors.contains(statementList)) {
-      try {
-        return new ControlFlowGraphBuilder(statementList).getCfg();
-      } catch (Exception e) {
-        treesWithCfgErrors.add(statementList);
-        LOG.warn("Failed to build control flow graph in file [{}]: {}", file, e.getMessage());
-      }
-    }
-    return null;
+  public static ControlFlowGraph build(FunctionDef functionDef, PythonFile file) {
+    return build(functionDef, file, CfgBuildContext.withoutAnalysis());
   }
 
   @CheckForNull
-  public static ControlFlowGraph build(FunctionDef functionDef, PythonFile file) {
-    return build(functionDef.body(), file);
+  public static ControlFlowGraph build(FileInput fileInput, PythonFile file) {
+    return build(fileInput, file, CfgBuildContext.withoutAnalysis());
   }
 
+  /**
+   * Builds the control flow graph of the given function within the limits of the given context, which records failures.
+   * Returns null when it cannot be built, or was already found not to be buildable in this context.
+   */
   @CheckForNull
-  public static ControlFlowGraph build(FileInput fileInput, PythonFile file) {
-    return build(fileInput.statements(), file);
+  public static ControlFlowGraph build(FunctionDef functionDef, PythonFile file, CfgBuildContext buildContext) {
+    return buildContext.build(functionDef.body(), file);
+  }
+
+  @CheckForNull
+  public static ControlFlowGraph build(FileInput fileInput, PythonFile file, CfgBuildContext buildContext) {
+    return buildContext.build(fileInput.statements(), file);
   }
 
   public CfgBlock start() {
@@ -0,0 +1,243 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import com.sonar.sslr.api.GenericTokenType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Trivia;
+import org.sonar.python.tree.PyTree;
+import org.sonar.python.tree.TreeUtils;
+
+/**
+ * Index of the tokens and comments of a file by position, built once per file.
+ * Lines are 1-based and columns are 0-based, as in {@link Token}. INDENT, DEDENT, NEWLINE and end of file tokens are not indexed by
+ * position, but all tokens are numbered in document order so that the comments attached to a range of tokens are counted in constant time.
+ */
+public class LocationIndex {
+
+  private final PythonFile pythonFile;
+  private final Token[] tokens;
+  private final long[] startPositions;
+  private final long[] endPositions;
+  private final Token[] allTokens;
+  private final Map<Token, Integer> tokenIndexes = new IdentityHashMap<>();
+  // number of comments attached to the tokens before a token, indexed by the number of the token
+  private final int[] commentsBefore;
+  private final List<Trivia> comments = new ArrayList<>();
+  private int[] lineLengths = null;
+
+  public LocationIndex(FileInput fileInput, PythonFile pythonFile) {
+    this.pythonFile = pythonFile;
+    allTokens = TreeUtils.tokens(fileInput).toArray(new Token[0]);
+    commentsBefore = new int[allTokens.length + 1];
+    for (int i = 0; i < allTokens.length; i++) {
+      tokenIndexes.put(allTokens[i], i);
+      comments.addAll(allTokens[i].trivia());
+      commentsBefore[i + 1] = comments.size();
+    }
+    tokens = TreeUtils.nonWhitespaceTokens(fileInput).stream()
+      .filter(token -> token.type() != GenericTokenType.EOF)
+      .toArray(Token[]::new);
+    startPositions = new long[tokens.length];
+    endPositions = new long[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      TokenLocation location = new TokenLocation(tokens[i]);
+      startPositions[i] = position(location.startLine(), location.startLineOffset());
+      endPositions[i] = position(location.endLine(), location.endLineOffset());
+    }
+  }
+
+  /**
+   * Tokens starting on the given line, in document order.
+   */
+  public List<Token> tokensOnLine(int line) {
+    int from = lowerBound(position(line, 0));
+    int to = lowerBound(position(line + 1, 0));
+    return Collections.unmodifiableList(Arrays.asList(tokens).subList(from, to));
+  }
+
+  @CheckForNull
+  public Token firstTokenOnLine(int line) {
+    List<Token> lineTokens = tokensOnLine(line);
+    return lineTokens.isEmpty() ? null : lineTokens.get(0);
+  }
+
+  @CheckForNull
+  public Token lastTokenOnLine(int line) {
+    List<Token> lineTokens = tokensOnLine(line);
+    return lineTokens.isEmpty() ? null : lineTokens.get(lineTokens.size() - 1);
+  }
+
+  /**
+   * Token covering the given position, if any. A position right after the last character of a token is not covered by it.
+   */
+  @CheckForNull
+  public Token tokenAt(int line, int column) {
+    int index = lastStartingAtOrBefore(position(line, column));
+    if (index >= 0 && position(line, column) < endPositions[index]) {
+      return tokens[index];
+    }
+    return null;
+  }
+
+  /**
+   * Innermost tree whose range, from its first token to its last token, covers the given position.
+   */
+  @CheckForNull
+  public Tree treeAt(int line, int column) {
+    long position = position(line, column);
+    int index = lastStartingAtOrBefore(position);
+    if (index < 0) {
+      return null;
+    }
+    Tree tree = tokens[index];
+    while (tree != null && !covers(tree, position)) {
+      tree = tree.parent();
+    }
+    return tree;
+  }
+
+  /**
+   * Comments of the file, in document order.
+   */
+  public List<Trivia> comments() {
+    return Collections.unmodifiableList(comments);
+  }
+
+  /**
+   * Token preceding the given one in the file, whitespace tokens included.
+   */
+  @CheckForNull
+  public Token previousToken(Token token) {
+    int index = index(token);
+    return index > 0 ? allTokens[index - 1] : null;
+  }
+
+  /**
+   * Token following the given one in the file, whitespace tokens included.
+   */
+  @CheckForNull
+  public Token nextToken(Token token) {
+    int index = index(token);
+    return index < allTokens.length - 1 ? allTokens[index + 1] : null;
+  }
+
+  /**
+   * Whether comments are attached to the tokens from the first to the last given token, both included.
+   */
+  public boolean hasComments(Token from, Token to) {
+    return commentsBefore[index(to) + 1] - commentsBefore[index(from)] > 0;
+  }
+
+  /**
+   * Whether comments are attached to the tokens of the given tree, its trailing NEWLINE and DEDENT tokens included.
+   */
+  public boolean hasComments(Tree tree) {
+    Token first = tree.firstToken();
+    return first != null && hasComments(first, lastTokenOf(tree));
+  }
+
+  /**
+   * Number of lines of the file, computed with {@link #lineLength(int)} from the content of the file on first call.
+   */
+  public int lineCount() {
+    return lineLengths().length;
+  }
+
+  /**
+   * Number of characters of the given line, line terminator excluded.
+   */
+  public int lineLength(int line) {
+    return lineLengths()[line - 1];
+  }
+
+  private int[] lineLengths() {
+    if (lineLengths == null) {
+      String content = pythonFile.content();
+      List<Integer> lengths = new ArrayList<>();
+      int lineStart = 0;
+      int i = 0;
+      while (i < content.length()) {
+        char c = content.charAt(i);
+        if (c == '\n' || c == '\r') {
+          lengths.add(i - lineStart);
+          i += (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') ? 2 : 1;
+          lineStart = i;
+        } else {
+          i++;
+        }
+      }
+      lengths.add(content.length() - lineStart);
+      lineLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+    }
+    return lineLengths;
+  }
+
+  private int index(Token token) {
+    Integer index = tokenIndexes.get(token);
+    if (index == null) {
+      throw new IllegalStateException("Token is not part of the file: " + token.value());
+    }
+    return index;
+  }
+
+  private static Token lastTokenOf(Tree tree) {
+    // unlike Tree#lastToken(), trailing NEWLINE and semicolon tokens of statements are included
+    Tree last = tree;
+    while (!last.is(Tree.Kind.TOKEN) && !last.is(Tree.Kind.STRING_ELEMENT) && ((PyTree) last).childrenCount() > 0) {
+      PyTree pyTree = (PyTree) last;
+      last = pyTree.child(pyTree.childrenCount() - 1);
+    }
+    return last.is(Tree.Kind.TOKEN) ? (Token) last : last.lastToken();
+  }
+
+  private static boolean covers(Tree tree, long position) {
+    Token lastToken = tree.lastToken();
+    if (lastToken == null) {
+      return false;
+    }
+    TokenLocation location = new TokenLocation(lastToken);
+    return position < position(location.endLine(), location.endLineOffset());
+  }
+
+  private int lastStartingAtOrBefore(long position) {
+    return lowerBound(position + 1) - 1;
+  }
+
+  private int lowerBound(long position) {
+    // indexed tokens are not empty, so start positions are strictly increasing
+    int index = Arrays.binarySearch(startPositions, position);
+    return index >= 0 ? index : (-index - 1);
+  }
+
+  private static long position(int line, int column) {
+    return ((long) line << 32) | column;
+  }
+}
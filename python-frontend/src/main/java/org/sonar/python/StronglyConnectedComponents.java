@@ -0,0 +1,110 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Strongly connected components of a directed graph, computed with an iterative version of Tarjan's algorithm,
+ * so that long chains of nodes do not overflow the stack.
+ * A component is returned after the components of all the nodes it leads to.
+ */
+public class StronglyConnectedComponents<T> {
+
+  private final Function<T, Collection<T>> successors;
+  private final Map<T, Integer> indexes = new HashMap<>();
+  private final Map<T, Integer> lowLinks = new HashMap<>();
+  private final Deque<T> stack = new ArrayDeque<>();
+  private final Set<T> onStack = new HashSet<>();
+  private final List<List<T>> components = new ArrayList<>();
+
+  private StronglyConnectedComponents(Function<T, Collection<T>> successors) {
+    this.successors = successors;
+  }
+
+  /**
+   * @param nodes nodes of the graph, in the order in which they are explored
+   * @param successors the nodes an edge leads to from a given node
+   */
+  public static <T> List<List<T>> of(Collection<T> nodes, Function<T, Collection<T>> successors) {
+    StronglyConnectedComponents<T> tarjan = new StronglyConnectedComponents<>(successors);
+    for (T node : nodes) {
+      if (!tarjan.indexes.containsKey(node)) {
+        tarjan.visit(node);
+      }
+    }
+    return tarjan.components;
+  }
+
+  private void visit(T root) {
+    Deque<T> callStack = new ArrayDeque<>();
+    Deque<Iterator<T>> pendingSuccessors = new ArrayDeque<>();
+    enter(root, callStack, pendingSuccessors);
+    while (!callStack.isEmpty()) {
+      T node = callStack.peek();
+      Iterator<T> nodeSuccessors = pendingSuccessors.peek();
+      if (nodeSuccessors.hasNext()) {
+        T successor = nodeSuccessors.next();
+        if (!indexes.containsKey(successor)) {
+          enter(successor, callStack, pendingSuccessors);
+        } else if (onStack.contains(successor)) {
+          lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(successor)));
+        }
+        continue;
+      }
+      callStack.pop();
+      pendingSuccessors.pop();
+      T caller = callStack.peek();
+      if (caller != null) {
+        lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(node)));
+      }
+      if (lowLinks.get(node).equals(indexes.get(node))) {
+        List<T> component = new ArrayList<>();
+        T member;
+        do {
+          member = stack.pop();
+          onStack.remove(member);
+          component.add(member);
+        } while (!member.equals(node));
+        components.add(component);
+      }
+    }
+  }
+
+  private void enter(T node, Deque<T> callStack, Deque<Iterator<T>> pendingSuccessors) {
+    int index = indexes.size();
+    indexes.put(node, index);
+    lowLinks.put(node, index);
+    stack.push(node);
+    onStack.add(node);
+    callStack.push(node);
+    pendingSuccessors.push(successors.apply(node).iterator());
+  }
+}
@@ -37,10 +37,16 @@ import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.python.cfg.fixpoint.DataflowResults;
+import org.sonar.python.taint.TaintResults;
+import org.sonar.python.taint.TaintSummaries;
+import org.sonar.python.tree.PyTree;
 
 public class SubscriptionVisitor {
 
@@ -57,6 +63,61 @@ public class SubscriptionVisitor {
     }
   }
 
+  /**
+   * Dataflow facts of the given function, shared by the checks of this plugin. Contexts which are not created by this visitor get facts
+   * computed for the call. Returns null when the control flow graph of the function cannot be built.
+   */
+  @CheckForNull
+  public static DataflowResults dataflow(SubscriptionContext ctx, FunctionDef functionDef) {
+    if (ctx instanceof SubscriptionContextImpl) {
+      return ((SubscriptionContextImpl) ctx).visitorContext().dataflow(functionDef);
+    }
+    ControlFlowGraph cfg = ctx.cfg(functionDef);
+    return cfg == null ? null : new DataflowResults(functionDef, cfg);
+  }
+
+  /**
+   * User-controlled arguments of the calls of the given function, shared by the checks of this plugin. Contexts which are not created by
+   * this visitor get results computed for the call, without the summaries of the project. Returns null when the control flow graph of the
+   * function cannot be built.
+   */
+  @CheckForNull
+  public static TaintResults taint(SubscriptionContext ctx, FunctionDef functionDef) {
+    if (ctx instanceof SubscriptionContextImpl) {
+      return ((SubscriptionContextImpl) ctx).visitorContext().taint(functionDef);
+    }
+    ControlFlowGraph cfg = ctx.cfg(functionDef);
+    return cfg == null ? null : TaintResults.analyze(functionDef, cfg, TaintSummaries.empty());
+  }
+
+  /**
+   * User-controlled arguments of the calls of the statements of the given file, see {@link #taint(SubscriptionContext, FunctionDef)}.
+   */
+  @CheckForNull
+  public static TaintResults taint(SubscriptionContext ctx, FileInput fileInput) {
+    if (ctx instanceof SubscriptionContextImpl) {
+      return ((SubscriptionContextImpl) ctx).visitorContext().taint(fileInput);
+    }
+    ControlFlowGraph cfg = ctx.cfg(fileInput);
+    return cfg == null ? null : TaintResults.analyze(fileInput, cfg, TaintSummaries.empty());
+  }
+
+  /**
+   * Location index of the file analyzed by the given subscription context. Contexts which are not created by this visitor get an index
+   * built for the call.
+   */
+  public static LocationIndex locationIndex(SubscriptionContext ctx) {
+    if (ctx instanceof SubscriptionContextImpl) {
+      // files are visited only when they could be parsed
+      return ((SubscriptionContextImpl) ctx).visitorContext().locationIndex();
+    }
+    Tree root = ctx.syntaxNode();
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    return new LocationIndex((FileInput) root, ctx.pythonFile());
+  }
+
   private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
     this.pythonVisitorContext = pythonVisitorContext;
     for (PythonSubscriptionCheck check : checks) {
@@ -73,10 +134,9 @@ public class SubscriptionVisitor {
     while (!stack.isEmpty()) {
       currentElement = stack.pop();
       consumers.getOrDefault(currentElement.getKind(), Collections.emptyList()).forEach(SubscriptionContextImpl::execute);
-      for (int i = currentElement.children().size() - 1; i >= 0; i--) {
-        if (currentElement.children().get(i) != null) {
-          stack.push(currentElement.children().get(i));
-        }
+      PyTree tree = (PyTree) currentElement;
+      for (int i = tree.childrenCount() - 1; i >= 0; i--) {
+        stack.push(tree.child(i));
       }
     }
   }
@@ -94,6 +154,10 @@ public class SubscriptionVisitor {
       consumer.accept(this);
     }
 
+    PythonVisitorContext visitorContext() {
+      return pythonVisitorContext;
+    }
+
     @Override
     public Tree syntaxNode() {
       return SubscriptionVisitor.this.currentElement;
@@ -145,5 +209,17 @@ public class SubscriptionVisitor {
     public File workingDirectory() {
       return pythonVisitorContext.workingDirectory();
     }
+
+    @Override
+    @CheckForNull
+    public ControlFlowGraph cfg(FunctionDef functionDef) {
+      return pythonVisitorContext.cfg(functionDef);
+    }
+
+    @Override
+    @CheckForNull
+    public ControlFlowGraph cfg(FileInput fileInput) {
+      return pythonVisitorContext.cfg(fileInput);
+    }
   }
 }
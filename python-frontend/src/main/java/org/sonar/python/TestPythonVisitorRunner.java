@@ -35,7 +35,10 @@ import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.cfg.CfgBuildContext;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.FunctionSummaries;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolUtils;
 import org.sonar.python.tree.PythonTreeMaker;
 
@@ -63,11 +66,20 @@ public class TestPythonVisitorRunner {
   }
 
   public static PythonVisitorContext createContext(File file, @Nullable File workingDirectory, String packageName, Map<String, Set<Symbol>> globalSymbols) {
+    return createContext(file, workingDirectory, packageName, ProjectLevelSymbolTable.from(globalSymbols));
+  }
+
+  public static PythonVisitorContext createContext(File file, @Nullable File workingDirectory, String packageName, ProjectLevelSymbolTable projectLevelSymbolTable) {
+    return createContext(file, workingDirectory, packageName, projectLevelSymbolTable, FunctionSummaries.empty());
+  }
+
+  public static PythonVisitorContext createContext(File file, @Nullable File workingDirectory, String packageName, ProjectLevelSymbolTable projectLevelSymbolTable,
+    FunctionSummaries functionSummaries) {
     PythonParser parser = PythonParser.create();
     TestPythonFile pythonFile = new TestPythonFile(file);
     AstNode astNode = parser.parse(pythonFile.content());
     FileInput rootTree = new PythonTreeMaker().fileInput(astNode);
-    return new PythonVisitorContext(rootTree, pythonFile, workingDirectory, packageName, globalSymbols);
+    return new PythonVisitorContext(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, new CfgBuildContext(), functionSummaries);
   }
 
   public static Map<String, Set<Symbol>> globalSymbols(List<File> files, File baseDir) {
@@ -83,6 +95,20 @@ public class TestPythonVisitorRunner {
     return globalSymbols;
   }
 
+  public static FunctionSummaries functionSummaries(List<File> files, File baseDir) {
+    FunctionSummaries.Builder builder = new FunctionSummaries.Builder();
+    CfgBuildContext cfgBuildContext = new CfgBuildContext();
+    for (File file : files) {
+      TestPythonFile pythonFile = new TestPythonFile(file);
+      AstNode astNode = PythonParser.create().parse(pythonFile.content());
+      FileInput astRoot = new PythonTreeMaker().fileInput(astNode);
+      // computes the symbols of the tree like the first phase of an analysis
+      SymbolUtils.globalSymbols(astRoot, pythonPackageName(file, baseDir), pythonFile);
+      builder.addFile(astRoot, pythonFile, cfgBuildContext);
+    }
+    return builder.build();
+  }
+
   private static class TestPythonFile implements PythonFile {
 
     private final File file;
@@ -0,0 +1,149 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.StatementList;
+import org.sonar.plugins.python.api.tree.Tree;
+
+/**
+ * Size limits and failures of the control flow graphs built during one analysis.
+ * <p>
+ * A graph whose construction failed or exceeded the limits is not built again. Graphs exceeding the limits are reported by
+ * {@link #skippedForSize()}. Instances can be shared by threads building graphs concurrently.
+ */
+public class CfgBuildContext {
+
+  private static final Logger LOG = Loggers.get(CfgBuildContext.class);
+
+  public static final int DEFAULT_MAX_STATEMENTS = 10_000;
+  public static final int DEFAULT_MAX_BLOCKS = 10_000;
+
+  // shared by the graphs built outside of an analysis: failures are weakly referenced, skipped locations are not recorded
+  private static final CfgBuildContext WITHOUT_ANALYSIS = new CfgBuildContext(DEFAULT_MAX_STATEMENTS, DEFAULT_MAX_BLOCKS, false);
+
+  private final int maxStatements;
+  private final int maxBlocks;
+  private final boolean recordsSkippedLocations;
+  // we shouldn't prevent trees from being garbage collected
+  private final Set<Tree> treesWithCfgErrors = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+  // a graph may be built more than once, from different trees of the same file
+  private final Set<String> skippedForSize = Collections.synchronizedSet(new LinkedHashSet<>());
+
+  public CfgBuildContext() {
+    this(DEFAULT_MAX_STATEMENTS, DEFAULT_MAX_BLOCKS);
+  }
+
+  public CfgBuildContext(int maxStatements, int maxBlocks) {
+    this(maxStatements, maxBlocks, true);
+  }
+
+  private CfgBuildContext(int maxStatements, int maxBlocks, boolean recordsSkippedLocations) {
+    this.maxStatements = maxStatements;
+    this.maxBlocks = maxBlocks;
+    this.recordsSkippedLocations = recordsSkippedLocations;
+  }
+
+  /**
+   * Context of the graphs built outside of an analysis, with the default limits: a graph which cannot be built is not built again.
+   */
+  public static CfgBuildContext withoutAnalysis() {
+    return WITHOUT_ANALYSIS;
+  }
+
+  public int maxStatements() {
+    return maxStatements;
+  }
+
+  public int maxBlocks() {
+    return maxBlocks;
+  }
+
+  /**
+   * Control flow graph of the given statements, or null if it cannot be built or exceeds the size limits.
+   */
+  @CheckForNull
+  public ControlFlowGraph build(@Nullable StatementList statementList, PythonFile file) {
+    ControlFlowGraphBuilder builder = builder(statementList, file);
+    return builder == null ? null : builder.getCfg();
+  }
+
+  /**
+   * Control flow graphs of the given file and of all the functions it defines. Each graph is subject to the size limits.
+   */
+  public FileControlFlowGraph buildFile(FileInput fileInput, PythonFile file) {
+    return new FileControlFlowGraph(fileInput, statementList -> builder(statementList, file));
+  }
+
+  @CheckForNull
+  private ControlFlowGraphBuilder builder(@Nullable StatementList statementList, PythonFile file) {
+    if (treesWithCfgErrors.contains(statementList)) {
+      return null;
+    }
+    try {
+      return new ControlFlowGraphBuilder(statementList, maxStatements, maxBlocks);
+    } catch (ControlFlowGraphBuilder.SizeLimitExceededException e) {
+      treesWithCfgErrors.add(statementList);
+      String location = location(statementList, file);
+      if (recordsSkippedLocations) {
+        skippedForSize.add(location);
+      }
+      LOG.debug("Control flow graph of [{}] not built: {}", location, e.getMessage());
+    } catch (Exception e) {
+      treesWithCfgErrors.add(statementList);
+      LOG.warn("Failed to build control flow graph in file [{}]: {}", file, e.getMessage());
+    }
+    return null;
+  }
+
+  private static String location(@Nullable StatementList statementList, PythonFile file) {
+    if (statementList == null) {
+      return file.toString();
+    }
+    Tree parent = statementList.parent();
+    if (parent.is(Tree.Kind.FUNCDEF)) {
+      FunctionDef functionDef = (FunctionDef) parent;
+      return file + ":" + functionDef.firstToken().line() + " (" + functionDef.name().name() + ")";
+    }
+    return file + ":" + statementList.firstToken().line();
+  }
+
+  /**
+   * Locations of the functions, or files, whose control flow graph was not built because it exceeds the size limits.
+   */
+  public List<String> skippedForSize() {
+    synchronized (skippedForSize) {
+      return new ArrayList<>(skippedForSize);
+    }
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.Tree;
+
+/**
+ * Array-backed representation of a control flow graph.
+ * <p>
+ * Blocks are numbered densely from 0 when the graph is built, or on demand for graphs which were built from their blocks by other means. Successors and predecessors of a block are stored as slices of
+ * flat int arrays, and elements of a block as a slice of a flat array of trees. Blocks, their successors, predecessors and
+ * elements are exposed through the {@link CfgBlock} API as views over these arrays.
+ */
+public final class CfgStructure {
+
+  private final CfgBlock[] blocks;
+  // identifiers of the blocks of a graph which was not built by ControlFlowGraphBuilder, null otherwise
+  private final Map<CfgBlock, Integer> foreignIds;
+  private final int start;
+  private final int end;
+  private final int[] successorOffsets;
+  private final int[] successors;
+  private final int[] predecessorOffsets;
+  private final int[] predecessors;
+  private final int[] elementOffsets;
+  private final Tree[] elements;
+  private final Set<CfgBlock> blockSet;
+  private DominatorTree dominators = null;
+  private DominatorTree postDominators = null;
+  private LoopNestingForest loops = null;
+
+  /**
+   * Numbers the given blocks in iteration order and freezes them: their successors, predecessors and elements can no longer change.
+   */
+  CfgStructure(List<PythonCfgBlock> blockList, PythonCfgBlock startBlock, PythonCfgBlock endBlock) {
+    this(blockList.toArray(new CfgBlock[0]), null, startBlock, endBlock);
+    for (CfgBlock block : blocks) {
+      ((PythonCfgBlock) block).freeze();
+    }
+  }
+
+  private CfgStructure(CfgBlock[] blocks, @Nullable Map<CfgBlock, Integer> foreignIds, CfgBlock startBlock, CfgBlock endBlock) {
+    int size = blocks.length;
+    this.blocks = blocks;
+    this.foreignIds = foreignIds;
+    if (foreignIds == null) {
+      for (int id = 0; id < size; id++) {
+        ((PythonCfgBlock) blocks[id]).number(this, id);
+      }
+    }
+    start = id(startBlock);
+    end = id(endBlock);
+
+    successorOffsets = new int[size + 1];
+    elementOffsets = new int[size + 1];
+    int[] predecessorCounts = new int[size];
+    for (int id = 0; id < size; id++) {
+      Set<CfgBlock> blockSuccessors = successorsOf(blocks[id]);
+      successorOffsets[id + 1] = successorOffsets[id] + blockSuccessors.size();
+      blockSuccessors.forEach(successor -> predecessorCounts[id(successor)]++);
+      elementOffsets[id + 1] = elementOffsets[id] + elementsOf(blocks[id]).size();
+    }
+    successors = new int[successorOffsets[size]];
+    elements = new Tree[elementOffsets[size]];
+    predecessorOffsets = new int[size + 1];
+    for (int id = 0; id < size; id++) {
+      predecessorOffsets[id + 1] = predecessorOffsets[id] + predecessorCounts[id];
+    }
+    predecessors = new int[predecessorOffsets[size]];
+    int[] predecessorPositions = Arrays.copyOf(predecessorOffsets, size);
+    for (int id = 0; id < size; id++) {
+      int position = successorOffsets[id];
+      for (CfgBlock successor : successorsOf(blocks[id])) {
+        int successorId = id(successor);
+        successors[position++] = successorId;
+        predecessors[predecessorPositions[successorId]++] = id;
+      }
+      position = elementOffsets[id];
+      for (Tree element : elementsOf(blocks[id])) {
+        elements[position++] = element;
+      }
+    }
+    blockSet = new BlockSet(0, size, null);
+  }
+
+  /**
+   * Structure of the given graph. For a graph built by {@link ControlFlowGraphBuilder}, this is the structure shared by its blocks.
+   * Otherwise, the blocks of the graph, and the blocks they lead to, are numbered in iteration order into a new structure
+   * which is not retained by the blocks.
+   */
+  public static CfgStructure of(ControlFlowGraph cfg) {
+    CfgBlock start = cfg.start();
+    CfgStructure structure = start instanceof PythonCfgBlock ? ((PythonCfgBlock) start).structure() : null;
+    return structure == null ? foreign(cfg) : structure;
+  }
+
+  DominatorTree dominators() {
+    if (dominators == null) {
+      dominators = new DominatorTree(this, false);
+    }
+    return dominators;
+  }
+
+  DominatorTree postDominators() {
+    if (postDominators == null) {
+      postDominators = new DominatorTree(this, true);
+    }
+    return postDominators;
+  }
+
+  LoopNestingForest loops() {
+    if (loops == null) {
+      loops = new LoopNestingForest(dominators());
+    }
+    return loops;
+  }
+
+  private static CfgStructure foreign(ControlFlowGraph cfg) {
+    Map<CfgBlock, Integer> ids = new IdentityHashMap<>();
+    List<CfgBlock> blockList = new ArrayList<>();
+    Deque<CfgBlock> workList = new ArrayDeque<>(cfg.blocks());
+    workList.add(cfg.start());
+    workList.add(cfg.end());
+    while (!workList.isEmpty()) {
+      CfgBlock block = workList.removeFirst();
+      if (!ids.containsKey(block)) {
+        ids.put(block, blockList.size());
+        blockList.add(block);
+        workList.addAll(block.successors());
+      }
+    }
+    return new CfgStructure(blockList.toArray(new CfgBlock[0]), ids, cfg.start(), cfg.end());
+  }
+
+  private Set<CfgBlock> successorsOf(CfgBlock block) {
+    return foreignIds == null ? ((PythonCfgBlock) block).successorsWhileBuilding() : block.successors();
+  }
+
+  private List<Tree> elementsOf(CfgBlock block) {
+    return foreignIds == null ? ((PythonCfgBlock) block).elementsWhileBuilding() : block.elements();
+  }
+
+  /**
+   * Identifier of the given block in this graph, or -1 if it does not belong to it.
+   */
+  public int id(CfgBlock block) {
+    if (foreignIds != null) {
+      Integer id = foreignIds.get(block);
+      return id == null ? -1 : id;
+    }
+    if (block instanceof PythonCfgBlock) {
+      PythonCfgBlock pythonCfgBlock = (PythonCfgBlock) block;
+      if (pythonCfgBlock.structure() == this) {
+        return pythonCfgBlock.id();
+      }
+    }
+    return -1;
+  }
+
+  public int size() {
+    return blocks.length;
+  }
+
+  public CfgBlock block(int id) {
+    return blocks[id];
+  }
+
+  public int start() {
+    return start;
+  }
+
+  public int end() {
+    return end;
+  }
+
+  public int successorCount(int id) {
+    return successorOffsets[id + 1] - successorOffsets[id];
+  }
+
+  public int successor(int id, int index) {
+    return successors[successorOffsets[id] + index];
+  }
+
+  public int predecessorCount(int id) {
+    return predecessorOffsets[id + 1] - predecessorOffsets[id];
+  }
+
+  public int predecessor(int id, int index) {
+    return predecessors[predecessorOffsets[id] + index];
+  }
+
+  /**
+   * Identifiers of the blocks in reverse postorder of a depth-first traversal from the start block, following successors,
+   * or from the end block, following predecessors when {@code backward} is true.
+   * When {@code allBlocks} is true, blocks which cannot be reached come afterwards, in reverse postorder of traversals from each of them.
+   */
+  public int[] reversePostorder(boolean backward, boolean allBlocks) {
+    int size = blocks.length;
+    int[] offsets = backward ? predecessorOffsets : successorOffsets;
+    int[] targets = backward ? predecessors : successors;
+    BitSet visited = new BitSet(size);
+    int[] result = new int[size];
+    int resultSize = 0;
+    int[] postorder = new int[size];
+    int[] stack = new int[size];
+    int[] nextTarget = new int[size];
+    int root = backward ? end : start;
+    while (root < size) {
+      int postorderSize = 0;
+      visited.set(root);
+      int top = 0;
+      stack[0] = root;
+      nextTarget[root] = offsets[root];
+      while (top >= 0) {
+        int current = stack[top];
+        if (nextTarget[current] < offsets[current + 1]) {
+          int target = targets[nextTarget[current]];
+          nextTarget[current]++;
+          if (!visited.get(target)) {
+            visited.set(target);
+            top++;
+            stack[top] = target;
+            nextTarget[target] = offsets[target];
+          }
+        } else {
+          postorder[postorderSize++] = current;
+          top--;
+        }
+      }
+      for (int i = postorderSize - 1; i >= 0; i--) {
+        result[resultSize++] = postorder[i];
+      }
+      root = allBlocks ? visited.nextClearBit(0) : size;
+    }
+    return Arrays.copyOf(result, resultSize);
+  }
+
+  public Set<CfgBlock> blocks() {
+    return blockSet;
+  }
+
+  Set<CfgBlock> successors(int id) {
+    return new BlockSet(successorOffsets[id], successorOffsets[id + 1], successors);
+  }
+
+  Set<CfgBlock> predecessors(int id) {
+    return new BlockSet(predecessorOffsets[id], predecessorOffsets[id + 1], predecessors);
+  }
+
+  List<Tree> elements(int id) {
+    return Collections.unmodifiableList(Arrays.asList(elements).subList(elementOffsets[id], elementOffsets[id + 1]));
+  }
+
+  /**
+   * Unmodifiable set of the blocks whose identifiers are in a slice of an array, or in a range when the array is null.
+   */
+  private class BlockSet extends AbstractSet<CfgBlock> {
+
+    private final int from;
+    private final int to;
+    private final int[] ids;
+
+    private BlockSet(int from, int to, @Nullable int[] ids) {
+      this.from = from;
+      this.to = to;
+      this.ids = ids;
+    }
+
+    private int idAt(int position) {
+      return ids == null ? position : ids[position];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      int id = o instanceof CfgBlock ? id((CfgBlock) o) : -1;
+      if (id < 0) {
+        return false;
+      }
+      if (ids == null) {
+        return from <= id && id < to;
+      }
+      for (int position = from; position < to; position++) {
+        if (ids[position] == id) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<CfgBlock> iterator() {
+      return new Iterator<CfgBlock>() {
+        private int position = from;
+
+        @Override
+        public boolean hasNext() {
+          return position < to;
+        }
+
+        @Override
+        public CfgBlock next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return blocks[idAt(position++)];
+        }
+      };
+    }
+  }
+}
@@ -19,8 +19,7 @@
  */
 package org.sonar.python.cfg;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
@@ -33,21 +32,37 @@ public class CfgUtils {
   }
 
   public static Set<CfgBlock> unreachableBlocks(ControlFlowGraph cfg) {
-    Set<CfgBlock> reachableBlocks = new HashSet<>();
-    Deque<CfgBlock> workList = new ArrayDeque<>();
-    workList.push(cfg.start());
-    while (!workList.isEmpty()) {
-      CfgBlock currentBlock = workList.pop();
-      if (reachableBlocks.add(currentBlock)) {
-        currentBlock.successors().forEach(workList::push);
-      }
+    CfgStructure structure = CfgStructure.of(cfg);
+    BitSet reachableBlocks = new BitSet(structure.size());
+    for (int id : structure.reversePostorder(false, false)) {
+      reachableBlocks.set(id);
     }
-    return difference(cfg.blocks(), reachableBlocks);
+    Set<CfgBlock> result = new HashSet<>();
+    for (int id = reachableBlocks.nextClearBit(0); id < structure.size(); id = reachableBlocks.nextClearBit(id + 1)) {
+      result.add(structure.block(id));
+    }
+    return result;
   }
 
-  private static Set<CfgBlock> difference(Set<CfgBlock> a, Set<CfgBlock> b) {
-    Set<CfgBlock> result = new HashSet<>(a);
-    result.removeAll(b);
-    return result;
+  /**
+   * Dominator tree of the blocks reachable from the start block of the given graph.
+   * It is computed once for a graph built by {@link ControlFlowGraphBuilder}, and on each call for other graphs.
+   */
+  public static DominatorTree dominators(ControlFlowGraph cfg) {
+    return CfgStructure.of(cfg).dominators();
+  }
+
+  /**
+   * Post-dominator tree of the blocks of the given graph from which the end block can be reached, see {@link #dominators(ControlFlowGraph)}.
+   */
+  public static DominatorTree postDominators(ControlFlowGraph cfg) {
+    return CfgStructure.of(cfg).postDominators();
+  }
+
+  /**
+   * Natural loops of the blocks reachable from the start block of the given graph, see {@link #dominators(ControlFlowGraph)}.
+   */
+  public static LoopNestingForest loops(ControlFlowGraph cfg) {
+    return CfgStructure.of(cfg).loops();
   }
 }
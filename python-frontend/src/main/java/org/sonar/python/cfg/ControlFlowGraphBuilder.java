@@ -20,6 +20,7 @@
 package org.sonar.python.cfg;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -64,8 +65,23 @@ public class ControlFlowGraphBuilder {
   private final Deque<Loop> loops = new ArrayDeque<>();
   private final Deque<PythonCfgBlock> exceptionTargets = new ArrayDeque<>();
   private final Deque<PythonCfgBlock> exitTargets = new ArrayDeque<>();
+  private final CfgStructure structure;
+  private final int maxStatements;
+  private final int maxBlocks;
+  private int statementCount = 0;
+  private final List<FunctionDef> nestedFunctions = new ArrayList<>();
 
   public ControlFlowGraphBuilder(@Nullable StatementList statementList) {
+    this(statementList, Integer.MAX_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Builds the control flow graph of the given statements, giving up with a {@link SizeLimitExceededException}
+   * as soon as it contains more statements or blocks than allowed.
+   */
+  public ControlFlowGraphBuilder(@Nullable StatementList statementList, int maxStatements, int maxBlocks) {
+    this.maxStatements = maxStatements;
+    this.maxBlocks = maxBlocks;
     blocks.add(end);
     exceptionTargets.push(end);
     exitTargets.push(end);
@@ -76,7 +92,7 @@ public class ControlFlowGraphBuilder {
       start = end;
     }
     removeEmptyBlocks();
-    computePredecessors();
+    structure = new CfgStructure(new ArrayList<>(blocks), start, end);
   }
 
   private void addParametersToStartBlock(StatementList statementList) {
@@ -100,14 +116,6 @@ public class ControlFlowGraphBuilder {
     }
   }
 
-  private void computePredecessors() {
-    for (PythonCfgBlock block : blocks) {
-      for (CfgBlock successor : block.successors()) {
-        ((PythonCfgBlock) successor).addPredecessor(block);
-      }
-    }
-  }
-
   private void removeEmptyBlocks() {
     Map<PythonCfgBlock, PythonCfgBlock> emptyBlockReplacements = new HashMap<>();
     for (PythonCfgBlock block : blocks) {
@@ -127,24 +135,38 @@ public class ControlFlowGraphBuilder {
   }
 
   public ControlFlowGraph getCfg() {
-    return new ControlFlowGraph(Collections.unmodifiableSet(blocks), start, end);
+    return new ControlFlowGraph(structure.blocks(), structure.block(structure.start()), structure.block(structure.end()));
+  }
+
+  /**
+   * Function definitions met while building the graph, whose bodies are not part of it. Functions nested in them are not included.
+   */
+  public List<FunctionDef> nestedFunctions() {
+    return Collections.unmodifiableList(nestedFunctions);
+  }
+
+  private void addBlock(PythonCfgBlock block) {
+    blocks.add(block);
+    if (blocks.size() > maxBlocks) {
+      throw new SizeLimitExceededException("more than " + maxBlocks + " blocks");
+    }
   }
 
   private PythonCfgSimpleBlock createSimpleBlock(CfgBlock successor) {
     PythonCfgSimpleBlock block = new PythonCfgSimpleBlock(successor);
-    blocks.add(block);
+    addBlock(block);
     return block;
   }
 
   private PythonCfgBranchingBlock createBranchingBlock(Tree branchingTree, CfgBlock trueSuccessor, CfgBlock falseSuccessor) {
     PythonCfgBranchingBlock block = new PythonCfgBranchingBlock(branchingTree, trueSuccessor, falseSuccessor);
-    blocks.add(block);
+    addBlock(block);
     return block;
   }
 
   private PythonCfgBranchingBlock createBranchingBlock(Tree branchingTree, CfgBlock falseSuccessor) {
     PythonCfgBranchingBlock block = new PythonCfgBranchingBlock(branchingTree, null, falseSuccessor);
-    blocks.add(block);
+    addBlock(block);
     return block;
   }
 
@@ -158,6 +180,10 @@ public class ControlFlowGraphBuilder {
   }
 
   private PythonCfgBlock build(Statement statement, PythonCfgBlock currentBlock) {
+    statementCount++;
+    if (statementCount > maxStatements) {
+      throw new SizeLimitExceededException("more than " + maxStatements + " statements");
+    }
     switch (statement.getKind()) {
       case WITH_STMT:
         return buildWithStatement((WithStatement) statement, currentBlock);
@@ -182,6 +208,10 @@ public class ControlFlowGraphBuilder {
         return tryStatement(((TryStatement) statement), currentBlock);
       case BREAK_STMT:
         return buildBreakStatement((BreakStatement) statement, currentBlock);
+      case FUNCDEF:
+        nestedFunctions.add((FunctionDef) statement);
+        currentBlock.addElement(statement);
+        break;
       default:
         currentBlock.addElement(statement);
     }
@@ -377,4 +407,13 @@ public class ControlFlowGraphBuilder {
       this.continueTarget = continueTarget;
     }
   }
+
+  /**
+   * Thrown when the control flow graph being built exceeds the size limits given to the builder.
+   */
+  public static class SizeLimitExceededException extends IllegalStateException {
+    SizeLimitExceededException(String message) {
+      super(message);
+    }
+  }
 }
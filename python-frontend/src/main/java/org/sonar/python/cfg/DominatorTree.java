@@ -0,0 +1,200 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+
+/**
+ * Dominator tree of the blocks reachable from the entry of a control flow graph, computed with the algorithm of
+ * Cooper, Harvey and Kennedy ("A Simple, Fast Dominance Algorithm").
+ * <p>
+ * A block A dominates a block B when every path from the entry to B goes through A. Post-dominators are the dominators of the
+ * reversed graph, whose entry is the end block: A post-dominates B when every path from B to the end block goes through A.
+ * Blocks which are not reachable from the entry are not part of the tree.
+ */
+public class DominatorTree {
+
+  private static final int UNDEFINED = -1;
+
+  private final CfgStructure structure;
+  private final boolean backward;
+  // block identifiers in reverse postorder, and position of each block identifier in this order
+  private final int[] order;
+  private final int[] positions;
+  private final int[] immediateDominators;
+  private final List<List<CfgBlock>> children = new ArrayList<>();
+  // preorder and postorder numbers in the dominator tree: A dominates B iff B is numbered within the interval of A
+  private final int[] preorder;
+  private final int[] postorder;
+
+  DominatorTree(CfgStructure structure, boolean backward) {
+    this.structure = structure;
+    this.backward = backward;
+    order = structure.reversePostorder(backward, false);
+    positions = new int[structure.size()];
+    Arrays.fill(positions, UNDEFINED);
+    for (int position = 0; position < order.length; position++) {
+      positions[order[position]] = position;
+      children.add(new ArrayList<>());
+    }
+    immediateDominators = new int[order.length];
+    preorder = new int[order.length];
+    postorder = new int[order.length];
+    computeImmediateDominators();
+    for (int position = 1; position < order.length; position++) {
+      children.get(immediateDominators[position]).add(structure.block(order[position]));
+    }
+    number();
+  }
+
+  /**
+   * Blocks are processed in reverse postorder, so that the immediate dominator of a block is known to have a lower position,
+   * and the intersection of two dominator chains can be found by walking up from the block with the higher position.
+   */
+  private void computeImmediateDominators() {
+    Arrays.fill(immediateDominators, UNDEFINED);
+    immediateDominators[0] = 0;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int position = 1; position < order.length; position++) {
+        int id = order[position];
+        int newImmediateDominator = UNDEFINED;
+        int predecessorCount = backward ? structure.successorCount(id) : structure.predecessorCount(id);
+        for (int i = 0; i < predecessorCount; i++) {
+          int predecessorPosition = positions[backward ? structure.successor(id, i) : structure.predecessor(id, i)];
+          if (predecessorPosition == UNDEFINED || immediateDominators[predecessorPosition] == UNDEFINED) {
+            continue;
+          }
+          newImmediateDominator = newImmediateDominator == UNDEFINED ? predecessorPosition : intersect(predecessorPosition, newImmediateDominator);
+        }
+        if (immediateDominators[position] != newImmediateDominator) {
+          immediateDominators[position] = newImmediateDominator;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  private int intersect(int first, int second) {
+    int finger1 = first;
+    int finger2 = second;
+    while (finger1 != finger2) {
+      while (finger1 > finger2) {
+        finger1 = immediateDominators[finger1];
+      }
+      while (finger2 > finger1) {
+        finger2 = immediateDominators[finger2];
+      }
+    }
+    return finger1;
+  }
+
+  private void number() {
+    int counter = 0;
+    int[] stack = new int[order.length];
+    int[] nextChild = new int[order.length];
+    int top = 0;
+    stack[0] = 0;
+    preorder[0] = counter++;
+    while (top >= 0) {
+      int current = stack[top];
+      List<CfgBlock> currentChildren = children.get(current);
+      if (nextChild[current] < currentChildren.size()) {
+        int child = position(currentChildren.get(nextChild[current]));
+        nextChild[current]++;
+        preorder[child] = counter++;
+        top++;
+        stack[top] = child;
+      } else {
+        postorder[current] = counter++;
+        top--;
+      }
+    }
+  }
+
+  private int position(CfgBlock block) {
+    int id = structure.id(block);
+    return id < 0 ? UNDEFINED : positions[id];
+  }
+
+  /**
+   * Entry block of the graph, root of the tree.
+   */
+  public CfgBlock root() {
+    return structure.block(order[0]);
+  }
+
+  /**
+   * Closest strict dominator of the given block, or null for the root and for blocks which are not reachable from it.
+   */
+  @CheckForNull
+  public CfgBlock immediateDominator(CfgBlock block) {
+    int position = position(block);
+    if (position == UNDEFINED || position == 0) {
+      return null;
+    }
+    return structure.block(order[immediateDominators[position]]);
+  }
+
+  /**
+   * Blocks whose immediate dominator is the given block.
+   */
+  public List<CfgBlock> children(CfgBlock block) {
+    int position = position(block);
+    return position == UNDEFINED ? Collections.emptyList() : Collections.unmodifiableList(children.get(position));
+  }
+
+  /**
+   * Whether every path from the root to {@code block} goes through {@code dominator}. A reachable block dominates itself.
+   * Runs in constant time.
+   */
+  public boolean dominates(CfgBlock dominator, CfgBlock block) {
+    int dominatorPosition = position(dominator);
+    int blockPosition = position(block);
+    if (dominatorPosition == UNDEFINED || blockPosition == UNDEFINED) {
+      return false;
+    }
+    return preorder[dominatorPosition] <= preorder[blockPosition] && postorder[blockPosition] <= postorder[dominatorPosition];
+  }
+
+  /**
+   * Whether the given block can be reached from the root.
+   */
+  public boolean contains(CfgBlock block) {
+    return position(block) != UNDEFINED;
+  }
+
+  /**
+   * Blocks of the tree in reverse postorder of the graph: a block comes after its dominators.
+   */
+  public List<CfgBlock> blocks() {
+    List<CfgBlock> blocks = new ArrayList<>(order.length);
+    for (int id : order) {
+      blocks.add(structure.block(id));
+    }
+    return blocks;
+  }
+}
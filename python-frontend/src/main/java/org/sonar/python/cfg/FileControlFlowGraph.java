@@ -0,0 +1,129 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.StatementList;
+import org.sonar.plugins.python.api.tree.Token;
+
+/**
+ * Control flow graphs of a file and of all the functions it defines, built in a single pass over its statements.
+ * <p>
+ * The graph of the module has id 0. The bodies of class definitions are part of the graph which contains them, while the body of
+ * each function is a sub-graph with its own id. A function comes after the graph defining it, and the functions defined by the same
+ * graph are in source order. The functions defined in a graph which cannot be built are not part of the hierarchy.
+ */
+public class FileControlFlowGraph {
+
+  public static final int MODULE_ID = 0;
+
+  private final List<FunctionDef> functionDefs = new ArrayList<>();
+  private final List<ControlFlowGraph> graphs = new ArrayList<>();
+  private final List<Integer> parents = new ArrayList<>();
+  private final List<List<Integer>> children = new ArrayList<>();
+  private final Map<FunctionDef, Integer> ids = new HashMap<>();
+
+  /**
+   * @param builders builder of the graph of the given statements, or null when the graph cannot be built
+   */
+  FileControlFlowGraph(FileInput fileInput, Function<StatementList, ControlFlowGraphBuilder> builders) {
+    add(null, -1);
+    // functions are appended while graphs are built: the loop also builds them
+    for (int id = 0; id < functionDefs.size(); id++) {
+      FunctionDef functionDef = functionDefs.get(id);
+      ControlFlowGraphBuilder builder = builders.apply(functionDef == null ? fileInput.statements() : functionDef.body());
+      if (builder != null) {
+        graphs.set(id, builder.getCfg());
+        List<FunctionDef> nestedFunctions = new ArrayList<>(builder.nestedFunctions());
+        nestedFunctions.sort(Comparator.comparing(FunctionDef::firstToken, Comparator.comparingInt(Token::line).thenComparingInt(Token::column)));
+        for (FunctionDef nestedFunction : nestedFunctions) {
+          add(nestedFunction, id);
+        }
+      }
+    }
+  }
+
+  private void add(@Nullable FunctionDef functionDef, int parent) {
+    int id = functionDefs.size();
+    functionDefs.add(functionDef);
+    graphs.add(null);
+    parents.add(parent);
+    children.add(new ArrayList<>());
+    if (functionDef != null) {
+      children.get(parent).add(id);
+      ids.put(functionDef, id);
+    }
+  }
+
+  /**
+   * Number of graphs, including the graph of the module.
+   */
+  public int size() {
+    return graphs.size();
+  }
+
+  /**
+   * Id of the graph of the given function, or -1 if the function is not part of the hierarchy.
+   */
+  public int id(FunctionDef functionDef) {
+    return ids.getOrDefault(functionDef, -1);
+  }
+
+  /**
+   * Graph with the given id, or null if it could not be built.
+   */
+  @CheckForNull
+  public ControlFlowGraph graph(int id) {
+    return graphs.get(id);
+  }
+
+  /**
+   * Function whose body is the graph with the given id, or null for the module.
+   */
+  @CheckForNull
+  public FunctionDef functionDef(int id) {
+    return functionDefs.get(id);
+  }
+
+  /**
+   * Id of the graph defining the function of the given graph, or -1 for the module.
+   */
+  public int parent(int id) {
+    return parents.get(id);
+  }
+
+  /**
+   * Ids of the graphs of the functions defined in the given graph.
+   */
+  public List<Integer> children(int id) {
+    return Collections.unmodifiableList(children.get(id));
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+
+/**
+ * Natural loops of a control flow graph and their nesting.
+ * <p>
+ * An edge from B to H is a back edge when H dominates B. The natural loop of a header H is made of H and of the blocks which can
+ * reach the source of a back edge to H without going through H. Loops sharing a header are merged. A loop is nested in another one
+ * when its header belongs to the other loop.
+ */
+public class LoopNestingForest {
+
+  private final List<Loop> loops = new ArrayList<>();
+  private final List<Loop> outermostLoops = new ArrayList<>();
+  private final Map<CfgBlock, Loop> loopsByHeader = new HashMap<>();
+  private final Map<CfgBlock, Loop> innermostLoops = new HashMap<>();
+
+  LoopNestingForest(DominatorTree dominators) {
+    List<CfgBlock> blocks = dominators.blocks();
+    // inner loops have headers dominated by the headers of the enclosing loops: they come later in reverse postorder
+    for (int i = blocks.size() - 1; i >= 0; i--) {
+      CfgBlock header = blocks.get(i);
+      List<CfgBlock> backEdgeSources = new ArrayList<>();
+      for (CfgBlock predecessor : header.predecessors()) {
+        if (dominators.dominates(header, predecessor)) {
+          backEdgeSources.add(predecessor);
+        }
+      }
+      if (!backEdgeSources.isEmpty()) {
+        addLoop(header, backEdgeSources, dominators);
+      }
+    }
+    Collections.reverse(loops);
+    for (Loop loop : loops) {
+      if (loop.parent == null) {
+        outermostLoops.add(loop);
+      }
+    }
+  }
+
+  private void addLoop(CfgBlock header, List<CfgBlock> backEdgeSources, DominatorTree dominators) {
+    Loop loop = new Loop(header);
+    loops.add(loop);
+    loopsByHeader.put(header, loop);
+    claim(loop, header);
+    Deque<CfgBlock> workList = new ArrayDeque<>(backEdgeSources);
+    while (!workList.isEmpty()) {
+      CfgBlock block = workList.pop();
+      if (loop.blocks.contains(block)) {
+        continue;
+      }
+      claim(loop, block);
+      block.predecessors().stream().filter(dominators::contains).forEach(workList::push);
+    }
+  }
+
+  private void claim(Loop loop, CfgBlock block) {
+    loop.blocks.add(block);
+    Loop innermostLoop = innermostLoops.putIfAbsent(block, loop);
+    if (innermostLoop != null) {
+      Loop outermostKnownLoop = innermostLoop;
+      while (outermostKnownLoop.parent != null && outermostKnownLoop.parent != loop) {
+        outermostKnownLoop = outermostKnownLoop.parent;
+      }
+      if (outermostKnownLoop.parent == null) {
+        outermostKnownLoop.parent = loop;
+        loop.children.add(outermostKnownLoop);
+      }
+    }
+  }
+
+  /**
+   * All loops, an enclosing loop coming before the loops nested in it.
+   */
+  public List<Loop> loops() {
+    return Collections.unmodifiableList(loops);
+  }
+
+  /**
+   * Loops which are not nested in another loop.
+   */
+  public List<Loop> outermostLoops() {
+    return Collections.unmodifiableList(outermostLoops);
+  }
+
+  /**
+   * Loop whose header is the given block, or null if the block is not the target of a back edge.
+   */
+  @CheckForNull
+  public Loop loop(CfgBlock header) {
+    return loopsByHeader.get(header);
+  }
+
+  /**
+   * Innermost loop containing the given block, or null if the block is not part of any loop.
+   */
+  @CheckForNull
+  public Loop innermostLoop(CfgBlock block) {
+    return innermostLoops.get(block);
+  }
+
+  public static class Loop {
+
+    private final CfgBlock header;
+    private final Set<CfgBlock> blocks = new LinkedHashSet<>();
+    private final List<Loop> children = new ArrayList<>();
+    private Loop parent = null;
+
+    private Loop(CfgBlock header) {
+      this.header = header;
+    }
+
+    public CfgBlock header() {
+      return header;
+    }
+
+    /**
+     * Blocks of the loop, including the header and the blocks of nested loops.
+     */
+    public Set<CfgBlock> blocks() {
+      return Collections.unmodifiableSet(blocks);
+    }
+
+    public boolean contains(CfgBlock block) {
+      return blocks.contains(block);
+    }
+
+    /**
+     * Closest enclosing loop, or null for an outermost loop.
+     */
+    @CheckForNull
+    public Loop parent() {
+      return parent;
+    }
+
+    /**
+     * Loops directly nested in this one.
+     */
+    public List<Loop> children() {
+      return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Number of enclosing loops.
+     */
+    public int depth() {
+      int depth = 0;
+      Loop current = parent;
+      while (current != null) {
+        depth++;
+        current = current.parent;
+      }
+      return depth;
+    }
+  }
+}
@@ -19,29 +19,49 @@
  */
 package org.sonar.python.cfg;
 
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 
 public abstract class PythonCfgBlock implements CfgBlock {
 
-  private final LinkedList<Tree> elements = new LinkedList<>();
-  private final Set<CfgBlock> predecessors = new LinkedHashSet<>();
+  // elements are added while the graph is built, then moved to the structure of the graph
+  private LinkedList<Tree> elements = new LinkedList<>();
+  private CfgStructure structure = null;
+  private int id = -1;
 
+  @Override
+  public final Set<CfgBlock> successors() {
+    return structure == null ? successorsWhileBuilding() : structure.successors(id);
+  }
+
+  /**
+   * Successors of the block before the graph is numbered.
+   */
+  abstract Set<CfgBlock> successorsWhileBuilding();
+
+  /**
+   * Predecessors of the block, empty until the graph is numbered.
+   */
   @Override
   public Set<CfgBlock> predecessors() {
-    return predecessors;
+    return structure == null ? Collections.emptySet() : structure.predecessors(id);
   }
 
   @Override
   public List<Tree> elements() {
+    return structure == null ? elements : structure.elements(id);
+  }
+
+  List<Tree> elementsWhileBuilding() {
     return elements;
   }
 
@@ -49,8 +69,32 @@ public abstract class PythonCfgBlock implements CfgBlock {
     elements.addFirst(tree);
   }
 
+  void number(CfgStructure structure, int id) {
+    this.structure = structure;
+    this.id = id;
+  }
+
+  /**
+   * Called once the structure of the graph holds the elements of the block.
+   */
+  void freeze() {
+    elements = null;
+  }
+
+  /**
+   * Identifier of the block in its control flow graph, or -1 if the graph is not built yet.
+   */
+  public int id() {
+    return id;
+  }
+
+  @CheckForNull
+  CfgStructure structure() {
+    return structure;
+  }
+
   public boolean isEmptyBlock() {
-    return elements.isEmpty() && successors().size() == 1;
+    return elements().isEmpty() && successors().size() == 1;
   }
 
   PythonCfgBlock firstNonEmptySuccessor() {
@@ -76,18 +120,15 @@ public abstract class PythonCfgBlock implements CfgBlock {
 
   @Override
   public String toString() {
-    return toStringDisplayPosition() + elements.stream().map(elem -> elem.getKind().toString()).collect(Collectors.joining(";"));
+    return toStringDisplayPosition() + elements().stream().map(elem -> elem.getKind().toString()).collect(Collectors.joining(";"));
   }
 
   protected String toStringDisplayPosition() {
-    if (elements.isEmpty()) {
+    List<Tree> blockElements = elements();
+    if (blockElements.isEmpty()) {
       return "empty";
     }
-    Token token = elements.get(0).firstToken();
+    Token token = blockElements.get(0).firstToken();
     return token.line() + ":" + token.column() + ":";
   }
-
-  void addPredecessor(PythonCfgBlock block) {
-    predecessors.add(block);
-  }
 }
@@ -43,7 +43,7 @@ public class PythonCfgBranchingBlock extends PythonCfgBlock implements CfgBranch
   }
 
   @Override
-  public Set<CfgBlock> successors() {
+  Set<CfgBlock> successorsWhileBuilding() {
     return new LinkedHashSet<>(Arrays.asList(trueSuccessor, falseSuccessor));
   }
 
@@ -30,7 +30,7 @@ import org.sonar.plugins.python.api.tree.Tree;
 public class PythonCfgEndBlock extends PythonCfgBlock {
 
   @Override
-  public Set<CfgBlock> successors() {
+  Set<CfgBlock> successorsWhileBuilding() {
     return Collections.emptySet();
   }
 
@@ -36,7 +36,7 @@ public class PythonCfgSimpleBlock extends PythonCfgBlock {
   }
 
   @Override
-  public Set<CfgBlock> successors() {
+  Set<CfgBlock> successorsWhileBuilding() {
     return Collections.singleton(successor);
   }
 
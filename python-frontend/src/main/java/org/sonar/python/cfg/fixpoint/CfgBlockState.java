@@ -19,10 +19,11 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.cfg.fixpoint.ReadWriteVisitor.SymbolReadWrite;
@@ -34,18 +35,23 @@ public abstract class CfgBlockState {
   protected final Map<Tree, Map<Symbol, SymbolReadWrite>> variableReadWritesPerElement;
 
   /**
-   * variables that are being read in the block
+   * Numbering of the symbols of the analysis
    */
-  protected final Set<Symbol> gen = new HashSet<>();
+  protected final SymbolIndex symbolIndex;
 
   /**
-   * variables that are being written in the block
+   * variables that are being read in the block, as bits indexed by the symbol numbering
    */
-  protected final Set<Symbol> kill = new HashSet<>();
+  protected final BitSet genBits = new BitSet();
 
+  /**
+   * variables that are being written in the block, as bits indexed by the symbol numbering
+   */
+  protected final BitSet killBits = new BitSet();
 
-  CfgBlockState(CfgBlock block) {
+  CfgBlockState(CfgBlock block, SymbolIndex symbolIndex) {
     this.block = block;
+    this.symbolIndex = symbolIndex;
     this.variableReadWritesPerElement = new HashMap<>();
   }
 
@@ -53,43 +59,45 @@ public abstract class CfgBlockState {
     return variableReadWritesPerElement.get(tree);
   }
 
-  protected void init(CfgBlock block) {
+  /**
+   * @param symbolReadWrites computes, or returns already computed, reads and writes of symbols of a CFG element
+   */
+  protected void init(CfgBlock block, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
     // 'writtenOnly' has variables that are WRITE-ONLY inside at least one element
     // (as opposed to 'kill' which can have a variable that inside an element is both READ and WRITTEN)
-    Set<Symbol> writtenOnly = new HashSet<>();
+    BitSet writtenOnly = new BitSet();
     for (Tree element : block.elements()) {
-      ReadWriteVisitor readWriteVisitor = new ReadWriteVisitor();
-      element.accept(readWriteVisitor);
-      variableReadWritesPerElement.put(element, readWriteVisitor.symbolToUsages());
-      computeGenAndKill(writtenOnly, readWriteVisitor.symbolToUsages());
+      Map<Symbol, SymbolReadWrite> elementReadWrites = symbolReadWrites.apply(element);
+      variableReadWritesPerElement.put(element, elementReadWrites);
+      computeGenAndKill(writtenOnly, elementReadWrites);
     }
   }
 
   /**
    * This has side effects on 'writtenOnly'
    */
-  private void computeGenAndKill(Set<Symbol> writtenOnly, Map<Symbol, SymbolReadWrite> symbolToUsages) {
+  private void computeGenAndKill(BitSet writtenOnly, Map<Symbol, SymbolReadWrite> symbolToUsages) {
     for (Map.Entry<Symbol, SymbolReadWrite> symbolListEntry : symbolToUsages.entrySet()) {
-      Symbol symbol = symbolListEntry.getKey();
+      int index = symbolIndex.add(symbolListEntry.getKey());
       SymbolReadWrite usage = symbolListEntry.getValue();
-      if (usage.isRead() && !writtenOnly.contains(symbol)) {
-        gen.add(symbol);
+      if (usage.isRead() && !writtenOnly.get(index)) {
+        genBits.set(index);
       }
       if (usage.isWrite()) {
-        kill.add(symbol);
+        killBits.set(index);
         if (!usage.isRead()) {
-          writtenOnly.add(symbol);
+          writtenOnly.set(index);
         }
       }
     }
   }
 
   public Set<Symbol> getGen() {
-    return gen;
+    return symbolIndex.symbols(genBits);
   }
 
   public Set<Symbol> getKill() {
-    return kill;
+    return symbolIndex.symbols(killBits);
   }
 
   public boolean isSymbolUsedInBlock(Symbol symbol) {
@@ -0,0 +1,57 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+
+/**
+ * Monotone dataflow problem over a control flow graph, solved by {@link DataflowSolver}.
+ * <p>
+ * A block has an input state, which is the join of the output states of its neighbours (predecessors of a forward problem,
+ * successors of a backward problem), and an output state, computed from the input state by the transfer function of the block.
+ * States must form a lattice of finite height, and the join and transfer functions must be monotone, for the computation to terminate.
+ *
+ * @param <S> states of the lattice, compared with {@link Object#equals(Object)}
+ */
+public interface DataflowProblem<S> {
+
+  enum Direction {
+    FORWARD,
+    BACKWARD
+  }
+
+  Direction direction();
+
+  /**
+   * Input state of the given block before joining the output states of its neighbours: the bottom of the lattice, or an
+   * initial state such as the parameters of a function. A new instance must be returned on each call.
+   */
+  S initialState(CfgBlock block);
+
+  /**
+   * Joins the output state of a neighbour into the given input state. The input state may be modified and returned.
+   */
+  S join(S input, S neighbourOutput);
+
+  /**
+   * Output state of the given block. The input state must not be modified.
+   */
+  S transfer(CfgBlock block, S input);
+}
@@ -0,0 +1,82 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.cfg.CfgUtils;
+import org.sonar.python.cfg.fixpoint.ReadWriteVisitor.SymbolReadWrite;
+
+/**
+ * Dataflow facts of a function, each computed on first access and shared by all the checks analyzing the function.
+ * Reads and writes of symbols are computed once per CFG element, whatever the number of analyses using them.
+ */
+public class DataflowResults {
+
+  private final FunctionDef functionDef;
+  private final ControlFlowGraph cfg;
+  private final Map<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWritesPerElement = new HashMap<>();
+  private LiveVariablesAnalysis liveVariablesAnalysis = null;
+  private DefinedVariablesAnalysis definedVariablesAnalysis = null;
+  private Set<CfgBlock> unreachableBlocks = null;
+
+  public DataflowResults(FunctionDef functionDef, ControlFlowGraph cfg) {
+    this.functionDef = functionDef;
+    this.cfg = cfg;
+  }
+
+  public ControlFlowGraph cfg() {
+    return cfg;
+  }
+
+  /**
+   * Reads and writes of symbols within the given CFG element.
+   */
+  public Map<Symbol, SymbolReadWrite> symbolReadWrites(Tree element) {
+    return symbolReadWritesPerElement.computeIfAbsent(element, ReadWriteVisitor::symbolReadWrites);
+  }
+
+  public LiveVariablesAnalysis liveVariables() {
+    if (liveVariablesAnalysis == null) {
+      liveVariablesAnalysis = LiveVariablesAnalysis.analyze(cfg, this::symbolReadWrites);
+    }
+    return liveVariablesAnalysis;
+  }
+
+  public DefinedVariablesAnalysis definedVariables() {
+    if (definedVariablesAnalysis == null) {
+      definedVariablesAnalysis = DefinedVariablesAnalysis.analyze(cfg, functionDef.localVariables(), this::symbolReadWrites);
+    }
+    return definedVariablesAnalysis;
+  }
+
+  public Set<CfgBlock> unreachableBlocks() {
+    if (unreachableBlocks == null) {
+      unreachableBlocks = CfgUtils.unreachableBlocks(cfg);
+    }
+    return unreachableBlocks;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.python.cfg.CfgStructure;
+import org.sonar.python.cfg.fixpoint.DataflowProblem.Direction;
+
+/**
+ * Worklist solver of monotone dataflow problems.
+ * <p>
+ * Blocks are visited in reverse postorder of the control flow graph for forward problems, and in reverse postorder of the reversed
+ * control flow graph for backward problems, so that a block is usually visited after the neighbours it depends on.
+ * A block is in the worklist at most once, and the worklist always yields the block which comes first in this order.
+ */
+public class DataflowSolver<S> {
+
+  private final DataflowProblem<S> problem;
+  private final CfgStructure structure;
+  private final boolean forward;
+  // block identifiers in visiting order, and position of each block identifier in this order
+  private final int[] order;
+  private final int[] positions;
+  private final List<S> inputs;
+  private final List<S> outputs;
+  private int iterations = 0;
+
+  private DataflowSolver(ControlFlowGraph cfg, DataflowProblem<S> problem) {
+    this.problem = problem;
+    this.structure = CfgStructure.of(cfg);
+    this.forward = problem.direction() == Direction.FORWARD;
+    this.order = structure.reversePostorder(!forward, true);
+    this.positions = new int[order.length];
+    for (int position = 0; position < order.length; position++) {
+      positions[order[position]] = position;
+    }
+    this.inputs = new ArrayList<>(Collections.nCopies(order.length, null));
+    this.outputs = new ArrayList<>(Collections.nCopies(order.length, null));
+  }
+
+  public static <S> DataflowSolver<S> solve(ControlFlowGraph cfg, DataflowProblem<S> problem) {
+    DataflowSolver<S> solver = new DataflowSolver<>(cfg, problem);
+    solver.solve();
+    return solver;
+  }
+
+  private void solve() {
+    BitSet workList = new BitSet(order.length);
+    workList.set(0, order.length);
+    int position = workList.nextSetBit(0);
+    while (position >= 0) {
+      workList.clear(position);
+      iterations++;
+      int id = order[position];
+      CfgBlock block = structure.block(id);
+      S input = problem.initialState(block);
+      int dependencyCount = forward ? structure.predecessorCount(id) : structure.successorCount(id);
+      for (int i = 0; i < dependencyCount; i++) {
+        S neighbourOutput = outputs.get(forward ? structure.predecessor(id, i) : structure.successor(id, i));
+        if (neighbourOutput != null) {
+          input = problem.join(input, neighbourOutput);
+        }
+      }
+      inputs.set(id, input);
+      S output = problem.transfer(block, input);
+      if (!output.equals(outputs.set(id, output))) {
+        int dependentCount = forward ? structure.successorCount(id) : structure.predecessorCount(id);
+        for (int i = 0; i < dependentCount; i++) {
+          workList.set(positions[forward ? structure.successor(id, i) : structure.predecessor(id, i)]);
+        }
+      }
+      position = workList.nextSetBit(0);
+    }
+  }
+
+  /**
+   * Input state of the given block at the fixpoint, or null if the block is not part of the control flow graph.
+   */
+  @CheckForNull
+  public S input(CfgBlock block) {
+    int id = structure.id(block);
+    return id < 0 ? null : inputs.get(id);
+  }
+
+  /**
+   * Output state of the given block at the fixpoint, or null if the block is not part of the control flow graph.
+   */
+  @CheckForNull
+  public S output(CfgBlock block) {
+    int id = structure.id(block);
+    return id < 0 ? null : outputs.get(id);
+  }
+
+  /**
+   * Number of times a transfer function was applied before reaching the fixpoint.
+   */
+  public int iterations() {
+    return iterations;
+  }
+}
@@ -19,44 +19,110 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
 import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.cfg.fixpoint.DataflowProblem.Direction;
+import org.sonar.python.cfg.fixpoint.ReadWriteVisitor.SymbolReadWrite;
 
 public class DefinedVariablesAnalysis {
 
   private final Map<CfgBlock, DefinedVariables> definedVariablesPerBlock = new HashMap<>();
+  private int iterations;
 
   public static DefinedVariablesAnalysis analyze(ControlFlowGraph cfg, Set<Symbol> localVariables) {
+    return analyze(cfg, localVariables, ReadWriteVisitor::symbolReadWrites);
+  }
+
+  public static DefinedVariablesAnalysis analyze(ControlFlowGraph cfg, Set<Symbol> localVariables,
+    Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
     DefinedVariablesAnalysis instance = new DefinedVariablesAnalysis();
-    instance.compute(cfg, localVariables);
+    instance.compute(cfg, localVariables, symbolReadWrites);
     return instance;
   }
 
-  private void compute(ControlFlowGraph cfg, Set<Symbol> localVariables) {
-    Map<Symbol, VariableDefinition> initialState = new HashMap<>();
+  private void compute(ControlFlowGraph cfg, Set<Symbol> localVariables, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
+    SymbolIndex symbolIndex = new SymbolIndex();
+    localVariables.forEach(symbolIndex::add);
+    cfg.blocks().forEach(block -> definedVariablesPerBlock.put(block, DefinedVariables.build(block, symbolReadWrites, symbolIndex)));
+    BitSet initialState = new BitSet();
     for (Symbol variable : localVariables) {
+      int index = symbolIndex.index(variable);
+      initialState.set(variableBit(index));
       boolean isParameter = variable.usages().stream().anyMatch(u -> u.kind() == Usage.Kind.PARAMETER);
-      initialState.put(variable, isParameter ? VariableDefinition.DEFINED : VariableDefinition.UNDEFINED);
-    }
-    Set<CfgBlock> blocks = cfg.blocks();
-    blocks.forEach(block -> definedVariablesPerBlock.put(block, DefinedVariables.build(block, initialState)));
-    Deque<CfgBlock> workList = new ArrayDeque<>(blocks);
-    while (!workList.isEmpty()) {
-      CfgBlock currentBlock = workList.pop();
-      DefinedVariables definedVariables = this.definedVariablesPerBlock.get(currentBlock);
-      boolean outHasChanged = definedVariables.propagate(this.definedVariablesPerBlock);
-      if (outHasChanged) {
-        currentBlock.successors().forEach(workList::push);
+      if (isParameter) {
+        initialState.set(definedBit(index));
       }
     }
+    DataflowSolver<BitSet> solver = DataflowSolver.solve(cfg, new DefinedVariablesProblem(initialState));
+    definedVariablesPerBlock.forEach((block, definedVariables) -> {
+      definedVariables.in = solver.input(block);
+      definedVariables.out = solver.output(block);
+    });
+    iterations = solver.iterations();
+  }
+
+  // Two bits per symbol: whether the symbol has a definition state, and whether this state is DEFINED
+  private static int variableBit(int symbolIndex) {
+    return 2 * symbolIndex;
+  }
+
+  private static int definedBit(int symbolIndex) {
+    return 2 * symbolIndex + 1;
+  }
+
+  /**
+   * Number of times the transfer function of a block was applied before reaching the fixpoint.
+   */
+  public int iterations() {
+    return iterations;
+  }
+
+  private class DefinedVariablesProblem implements DataflowProblem<BitSet> {
+
+    private final BitSet initialState;
+
+    private DefinedVariablesProblem(BitSet initialState) {
+      this.initialState = initialState;
+    }
+
+    @Override
+    public Direction direction() {
+      return Direction.FORWARD;
+    }
+
+    @Override
+    public BitSet initialState(CfgBlock block) {
+      return (BitSet) initialState.clone();
+    }
+
+    /**
+     * A variable is DEFINED when it is DEFINED in at least one predecessor.
+     */
+    @Override
+    public BitSet join(BitSet input, BitSet neighbourOutput) {
+      input.or(neighbourOutput);
+      return input;
+    }
+
+    /**
+     * Variables written in the block are DEFINED.
+     */
+    @Override
+    public BitSet transfer(CfgBlock block, BitSet input) {
+      BitSet output = (BitSet) input.clone();
+      BitSet killBits = definedVariablesPerBlock.get(block).killBits;
+      killBits.stream().forEach(i -> output.set(variableBit(i), definedBit(i) + 1));
+      return output;
+    }
   }
 
   public DefinedVariables getDefinedVariables(CfgBlock block) {
@@ -65,69 +131,60 @@ public class DefinedVariablesAnalysis {
 
   public enum VariableDefinition {
     UNDEFINED,
-    DEFINED;
-
-    static VariableDefinition join(VariableDefinition v1, VariableDefinition v2) {
-      if (v1 == UNDEFINED && v2 == UNDEFINED) {
-        return UNDEFINED;
-      }
-      return DEFINED;
-    }
+    DEFINED
   }
 
   public static class DefinedVariables extends CfgBlockState {
 
-    private Map<Symbol, VariableDefinition> in = new HashMap<>();
+    private BitSet in = new BitSet();
+
+    private BitSet out = new BitSet();
+
+    private Map<Symbol, VariableDefinition> inState = null;
 
-    private Map<Symbol, VariableDefinition> out = new HashMap<>();
+    private Map<Symbol, VariableDefinition> outState = null;
 
-    private DefinedVariables(CfgBlock block) {
-      super(block);
+    private DefinedVariables(CfgBlock block, SymbolIndex symbolIndex) {
+      super(block, symbolIndex);
     }
 
     /**
      * Builds a new DefinedVariables instance for the given block and initializes the 'kill' symbol sets.
      */
-    public static DefinedVariables build(CfgBlock block, Map<Symbol, VariableDefinition> initialState) {
-      DefinedVariables instance = new DefinedVariables(block);
-      instance.in = initialState;
-      instance.init(block);
+    private static DefinedVariables build(CfgBlock block, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites, SymbolIndex symbolIndex) {
+      DefinedVariables instance = new DefinedVariables(block, symbolIndex);
+      instance.init(block, symbolReadWrites);
       return instance;
     }
 
-    /**
-     * Propagates forward: first computes the in set from all predecessors, then the out set.
-     */
-    private boolean propagate(Map<CfgBlock, DefinedVariables> definedVariablesPerBlock) {
-      block.predecessors().stream()
-        .map(definedVariablesPerBlock::get)
-        .map(DefinedVariables::getOut)
-        .forEach(predecessorOuts -> in = join(in, predecessorOuts));
-      Map<Symbol, VariableDefinition> newOut = new HashMap<>(in);
-      kill.forEach(symbol -> newOut.put(symbol, VariableDefinition.DEFINED));
-      boolean outHasChanged = !newOut.equals(out);
-      out = newOut;
-      return outHasChanged;
-    }
-
-    private static Map<Symbol, VariableDefinition> join(Map<Symbol, VariableDefinition> programState1, Map<Symbol, VariableDefinition> programState2) {
-      Map<Symbol, VariableDefinition> result = new HashMap<>();
-      Set<Symbol> allKeys = new HashSet<>(programState1.keySet());
-      allKeys.addAll(programState2.keySet());
-      for (Symbol key : allKeys) {
-        VariableDefinition varDef1 = programState1.getOrDefault(key, VariableDefinition.UNDEFINED);
-        VariableDefinition varDef2 = programState2.getOrDefault(key, VariableDefinition.UNDEFINED);
-        result.put(key, VariableDefinition.join(varDef1, varDef2));
+    private Map<Symbol, VariableDefinition> programState(BitSet bits) {
+      Map<Symbol, VariableDefinition> programState = new HashMap<>();
+      for (int i = 0; i < symbolIndex.size(); i++) {
+        if (bits.get(variableBit(i))) {
+          programState.put(symbolIndex.symbol(i), bits.get(definedBit(i)) ? VariableDefinition.DEFINED : VariableDefinition.UNDEFINED);
+        }
       }
-      return result;
+      return Collections.unmodifiableMap(programState);
     }
 
+    /**
+     * Definition state at the entry of the block, computed on first call.
+     */
     public Map<Symbol, VariableDefinition> getIn() {
-      return in;
+      if (inState == null) {
+        inState = programState(in);
+      }
+      return inState;
     }
 
+    /**
+     * Definition state at the exit of the block, computed on first call.
+     */
     public Map<Symbol, VariableDefinition> getOut() {
-      return out;
+      if (outState == null) {
+        outState = programState(out);
+      }
+      return outState;
     }
   }
 }
@@ -19,24 +19,32 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
 import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.cfg.fixpoint.DataflowProblem.Direction;
 import org.sonar.python.cfg.fixpoint.ReadWriteVisitor.SymbolReadWrite;
 import org.sonar.plugins.python.api.symbols.Symbol;
 
 public class LiveVariablesAnalysis {
 
   private final Map<CfgBlock, LiveVariables> liveVariablesPerBlock = new HashMap<>();
+  private Set<Symbol> readSymbols = null;
+  private int iterations;
 
   public static LiveVariablesAnalysis analyze(ControlFlowGraph cfg) {
+    return analyze(cfg, ReadWriteVisitor::symbolReadWrites);
+  }
+
+  public static LiveVariablesAnalysis analyze(ControlFlowGraph cfg, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
     LiveVariablesAnalysis instance = new LiveVariablesAnalysis();
-    instance.compute(cfg);
+    instance.compute(cfg, symbolReadWrites);
     return instance;
   }
 
@@ -44,16 +52,52 @@ public class LiveVariablesAnalysis {
    * See "worklist algorithm" in http://www.cs.cornell.edu/courses/cs4120/2013fa/lectures/lec26-fa13.pdf
    * An alternative terminology for "kill/gen" is "def/use"
    */
-  private void compute(ControlFlowGraph cfg) {
-    cfg.blocks().forEach(block -> liveVariablesPerBlock.put(block, LiveVariables.build(block)));
-    Deque<CfgBlock> workList = new ArrayDeque<>(cfg.blocks());
-    while (!workList.isEmpty()) {
-      CfgBlock currentBlock = workList.pop();
-      LiveVariables liveVariables = liveVariablesPerBlock.get(currentBlock);
-      boolean liveInHasChanged = liveVariables.propagate(liveVariablesPerBlock);
-      if (liveInHasChanged) {
-        currentBlock.predecessors().forEach(workList::push);
-      }
+  private void compute(ControlFlowGraph cfg, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
+    SymbolIndex symbolIndex = new SymbolIndex();
+    cfg.blocks().forEach(block -> liveVariablesPerBlock.put(block, LiveVariables.build(block, symbolReadWrites, symbolIndex)));
+    DataflowSolver<BitSet> solver = DataflowSolver.solve(cfg, new LiveVariablesProblem());
+    liveVariablesPerBlock.forEach((block, liveVariables) -> {
+      liveVariables.out = solver.input(block);
+      liveVariables.in = solver.output(block);
+    });
+    iterations = solver.iterations();
+  }
+
+  /**
+   * Number of times the transfer function of a block was applied before reaching the fixpoint.
+   */
+  public int iterations() {
+    return iterations;
+  }
+
+  private class LiveVariablesProblem implements DataflowProblem<BitSet> {
+
+    @Override
+    public Direction direction() {
+      return Direction.BACKWARD;
+    }
+
+    @Override
+    public BitSet initialState(CfgBlock block) {
+      return new BitSet();
+    }
+
+    @Override
+    public BitSet join(BitSet input, BitSet neighbourOutput) {
+      input.or(neighbourOutput);
+      return input;
+    }
+
+    /**
+     * in = gen + (out - kill)
+     */
+    @Override
+    public BitSet transfer(CfgBlock block, BitSet input) {
+      LiveVariables liveVariables = liveVariablesPerBlock.get(block);
+      BitSet output = (BitSet) input.clone();
+      output.andNot(liveVariables.killBits);
+      output.or(liveVariables.genBits);
+      return output;
     }
   }
 
@@ -61,7 +105,13 @@ public class LiveVariablesAnalysis {
     return liveVariablesPerBlock.get(block);
   }
 
+  /**
+   * Symbols which are read at least once in the control flow graph, computed on first call.
+   */
   public Set<Symbol> getReadSymbols() {
+    if (readSymbols != null) {
+      return readSymbols;
+    }
     Set<Symbol> readAtLeastOnce = new HashSet<>();
     for (LiveVariables liveVariables : liveVariablesPerBlock.values()) {
       for (Map<Symbol, SymbolReadWrite> symbolVariableUsageMap : liveVariables.variableReadWritesPerElement.values()) {
@@ -72,6 +122,7 @@ public class LiveVariablesAnalysis {
         }
       }
     }
+    readSymbols = readAtLeastOnce;
     return readAtLeastOnce;
   }
 
@@ -82,56 +133,36 @@ public class LiveVariablesAnalysis {
      * OR
      * - are needed by a successor block and are not killed in this block.
      */
-    private Set<Symbol> in = new HashSet<>();
+    private BitSet in = new BitSet();
 
     /**
      * The Live-Out variables are variables which are needed by successors.
      */
-    private Set<Symbol> out = new HashSet<>();
+    private BitSet out = new BitSet();
 
-    private LiveVariables(CfgBlock block) {
-      super(block);
+    private LiveVariables(CfgBlock block, SymbolIndex symbolIndex) {
+      super(block, symbolIndex);
     }
 
     /**
      * Builds a new LiveVariables instance for the given block and initializes the 'kill' and 'gen' symbol sets.
      */
-    public static LiveVariables build(CfgBlock block) {
-      LiveVariables instance = new LiveVariables(block);
-      instance.init(block);
-      return instance;
+    public static LiveVariables build(CfgBlock block, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites) {
+      return build(block, symbolReadWrites, new SymbolIndex());
     }
 
-    /**
-     * Propagates backwards: first computes the 'out' set, then the 'in' set.
-     */
-    private boolean propagate(Map<CfgBlock, LiveVariables> liveVariablesPerBlock) {
-      out.clear();
-      block.successors().stream()
-        .map(liveVariablesPerBlock::get)
-        .map(LiveVariables::getIn)
-        .forEach(out::addAll);
-      // in = gen + (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen);
-      newIn.addAll(difference(out, kill));
-      boolean inHasChanged = !newIn.equals(in);
-      in = newIn;
-      return inHasChanged;
-    }
-
-    private static Set<Symbol> difference(Set<Symbol> out, Set<Symbol> kill) {
-      Set<Symbol> result = new HashSet<>(out);
-      result.removeIf(kill::contains);
-      return result;
+    private static LiveVariables build(CfgBlock block, Function<Tree, Map<Symbol, SymbolReadWrite>> symbolReadWrites, SymbolIndex symbolIndex) {
+      LiveVariables instance = new LiveVariables(block, symbolIndex);
+      instance.init(block, symbolReadWrites);
+      return instance;
     }
 
-
     public Set<Symbol> getIn() {
-      return in;
+      return symbolIndex.symbols(in);
     }
 
     public Set<Symbol> getOut() {
-      return out;
+      return symbolIndex.symbols(out);
     }
   }
 }
@@ -28,6 +28,7 @@ import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.LambdaExpression;
 import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
 
@@ -38,6 +39,15 @@ public class ReadWriteVisitor extends BaseTreeVisitor {
     return symbolToUsages;
   }
 
+  /**
+   * Reads and writes of symbols within the given CFG element.
+   */
+  public static Map<Symbol, SymbolReadWrite> symbolReadWrites(Tree element) {
+    ReadWriteVisitor readWriteVisitor = new ReadWriteVisitor();
+    element.accept(readWriteVisitor);
+    return readWriteVisitor.symbolToUsages();
+  }
+
   @Override
   public void visitFunctionDef(FunctionDef functionDef) {
     Optional.ofNullable(functionDef.name().symbol()).ifPresent(symbol ->
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import org.sonar.plugins.python.api.symbols.Symbol;
+
+/**
+ * Numbering of the symbols of a control flow graph, so that sets of symbols are represented as bit sets during the fixpoint computation.
+ */
+class SymbolIndex {
+
+  private final Map<Symbol, Integer> indexes = new HashMap<>();
+  private final List<Symbol> symbols = new ArrayList<>();
+
+  int add(Symbol symbol) {
+    return indexes.computeIfAbsent(symbol, s -> {
+      symbols.add(s);
+      return symbols.size() - 1;
+    });
+  }
+
+  int size() {
+    return symbols.size();
+  }
+
+  int index(Symbol symbol) {
+    return indexes.get(symbol);
+  }
+
+  Symbol symbol(int index) {
+    return symbols.get(index);
+  }
+
+  /**
+   * Unmodifiable view of the given bits as a set of symbols.
+   */
+  Set<Symbol> symbols(BitSet bits) {
+    return new SymbolSet(bits);
+  }
+
+  private class SymbolSet extends AbstractSet<Symbol> {
+
+    private final BitSet bits;
+
+    private SymbolSet(BitSet bits) {
+      this.bits = bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer index = indexes.get(o);
+      return index != null && bits.get(index);
+    }
+
+    @Override
+    public Iterator<Symbol> iterator() {
+      PrimitiveIterator.OfInt indexIterator = bits.stream().iterator();
+      return new Iterator<Symbol>() {
+        @Override
+        public boolean hasNext() {
+          return indexIterator.hasNext();
+        }
+
+        @Override
+        public Symbol next() {
+          return symbols.get(indexIterator.nextInt());
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return bits.cardinality();
+    }
+  }
+}
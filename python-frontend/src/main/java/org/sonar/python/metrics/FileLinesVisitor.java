@@ -70,17 +70,18 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> visitFile());
+    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, this::visitFile);
     EXECUTABLE_LINES.forEach(kind -> context.registerSyntaxNodeConsumer(kind, this::visitNode));
     context.registerSyntaxNodeConsumer(Tree.Kind.TOKEN, ctx -> visitToken((Token) ctx.syntaxNode()));
   }
 
-  private void visitFile() {
+  private void visitFile(SubscriptionContext ctx) {
     noSonar.clear();
     linesOfCode.clear();
     linesOfComments.clear();
     linesOfDocstring.clear();
     executableLines.clear();
+    SubscriptionVisitor.locationIndex(ctx).comments().forEach(this::visitComment);
   }
 
   private void visitNode(SubscriptionContext ctx) {
@@ -112,8 +113,8 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
   }
 
   /**
-   * Gets the lines of codes and lines of comments (with character #).
-   * Does not get the lines of docstrings.
+   * Gets the lines of codes.
+   * Does not get the lines of docstrings. Lines of comments (with character #) are read from the location index of the file.
    */
   private void visitToken(Token token) {
     if (token.type().equals(GenericTokenType.EOF)) {
@@ -128,10 +129,6 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
         linesOfCode.add(line);
       }
     }
-
-    for (Trivia trivia : token.trivia()) {
-      visitComment(trivia);
-    }
   }
 
   private void visitComment(Trivia trivia) {
@@ -35,7 +35,7 @@ import org.sonar.python.lexer.PythonLexer;
 
 public final class PythonParser {
 
-  private final Parser<Grammar> sslrParser;
+  private final SslrPythonParser sslrParser;
 
   public static PythonParser create() {
     return new PythonParser();
@@ -49,6 +49,20 @@ public final class PythonParser {
     return sslrParser.parse(source);
   }
 
+  /**
+   * Tokens of the source code, as they are parsed by {@link #parse(String)}. The list is a copy, as the lexer reuses its own.
+   */
+  public List<Token> lex(String source) {
+    return new ArrayList<>(sslrParser.lex(source));
+  }
+
+  /**
+   * Parses tokens which were already produced by {@link #lex(String)}.
+   */
+  public AstNode parse(List<Token> tokens) {
+    return sslrParser.parse(tokens);
+  }
+
   public void setRootRule(Rule rule) {
     sslrParser.setRootRule(rule);
   }
@@ -78,9 +92,13 @@ public final class PythonParser {
 
     @Override
     public AstNode parse(String source) {
+      return super.parse(lex(source));
+    }
+
+    private List<Token> lex(String source) {
       lexerState.reset();
       lexer.lex(source);
-      return super.parse(tokens());
+      return tokens();
     }
 
     private List<Token> tokens() {
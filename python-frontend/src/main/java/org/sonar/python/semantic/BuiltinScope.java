@@ -0,0 +1,79 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.Map;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.python.types.InferredTypes;
+import org.sonar.python.types.TypeShed;
+
+/**
+ * Builtin names, shared by all the analyzed files.
+ * The module scope of a file only creates a symbol for a builtin name when this name is referenced in the file.
+ * Such a symbol holds the usages of the file, while the members and super classes of builtin classes are the TypeShed
+ * symbols themselves: they are frozen so that they never record usages of the analyzed files.
+ */
+class BuiltinScope {
+
+  private final Map<String, Symbol> typeShedSymbols;
+
+  private BuiltinScope(Map<String, Symbol> typeShedSymbols) {
+    this.typeShedSymbols = typeShedSymbols;
+    for (Symbol symbol : typeShedSymbols.values()) {
+      if (symbol.kind() == Symbol.Kind.CLASS) {
+        ((ClassSymbol) symbol).declaredMembers().forEach(member -> ((SymbolImpl) member).freeze());
+      }
+    }
+  }
+
+  static BuiltinScope instance() {
+    return Holder.INSTANCE;
+  }
+
+  private static class Holder {
+    private static final BuiltinScope INSTANCE = new BuiltinScope(TypeShed.typeShedSymbols());
+  }
+
+  boolean contains(String name) {
+    return BuiltinSymbols.all().contains(name);
+  }
+
+  /**
+   * Creates the symbol of a builtin name for one file.
+   */
+  SymbolImpl createSymbol(String name) {
+    SymbolImpl symbol;
+    Symbol typeShedSymbol = typeShedSymbols.get(name);
+    if (typeShedSymbol == null) {
+      symbol = new SymbolImpl(name, name);
+    } else if (typeShedSymbol.kind() == Symbol.Kind.CLASS) {
+      symbol = ((ClassSymbolImpl) typeShedSymbol).copySharingMembers(name);
+    } else if (typeShedSymbol.kind() == Symbol.Kind.FUNCTION) {
+      symbol = ((FunctionSymbolImpl) typeShedSymbol).copyWithoutUsages();
+    } else {
+      symbol = new SymbolImpl(typeShedSymbol.name(), typeShedSymbol.fullyQualifiedName());
+    }
+    if ("True".equals(name) || "False".equals(name)) {
+      symbol.setInferredType(InferredTypes.BOOL);
+    }
+    return symbol;
+  }
+}
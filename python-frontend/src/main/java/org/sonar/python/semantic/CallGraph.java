@@ -0,0 +1,152 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.sonar.python.StronglyConnectedComponents;
+
+/**
+ * Functions of a project, identified by their fully qualified name, and the functions of the project they call.
+ */
+public class CallGraph {
+
+  /**
+   * Number of components summarized in parallel before {@link SummaryProblem#componentSummarized} is called for each of them:
+   * the threads of the common pool and the calling thread.
+   */
+  public static final int PARALLEL_BATCH_SIZE = ForkJoinPool.getCommonPoolParallelism() + 1;
+
+  private final Map<String, Set<String>> calleesByFunction;
+  private final Map<String, Set<String>> callersByFunction = new HashMap<>();
+
+  /**
+   * @param calledNamesByFunction for each function of the project, the fully qualified names of the functions it calls.
+   *                              Names which are not functions of the project are ignored.
+   */
+  public CallGraph(Map<String, Set<String>> calledNamesByFunction) {
+    Map<String, Set<String>> callees = new TreeMap<>();
+    calledNamesByFunction.keySet().forEach(function -> callersByFunction.put(function, new TreeSet<>()));
+    for (Map.Entry<String, Set<String>> entry : calledNamesByFunction.entrySet()) {
+      Set<String> functionCallees = new TreeSet<>();
+      for (String calledName : entry.getValue()) {
+        Set<String> callers = callersByFunction.get(calledName);
+        if (callers != null) {
+          functionCallees.add(calledName);
+          callers.add(entry.getKey());
+        }
+      }
+      callees.put(entry.getKey(), Collections.unmodifiableSet(functionCallees));
+    }
+    this.calleesByFunction = Collections.unmodifiableMap(callees);
+  }
+
+  public Set<String> functions() {
+    return calleesByFunction.keySet();
+  }
+
+  public Set<String> callees(String function) {
+    return calleesByFunction.getOrDefault(function, Collections.emptySet());
+  }
+
+  public Set<String> callers(String function) {
+    return Collections.unmodifiableSet(callersByFunction.getOrDefault(function, Collections.emptySet()));
+  }
+
+  /**
+   * Strongly connected components of the graph, in bottom-up order: a component comes after the components of the functions it calls.
+   */
+  public List<Set<String>> stronglyConnectedComponents() {
+    return StronglyConnectedComponents.of(calleesByFunction.keySet(), this::callees).stream()
+      .map(component -> Collections.unmodifiableSet(new TreeSet<>(component)))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Summaries of all the functions of the graph, each one computed once its callees outside of its strongly connected component are
+   * summarized. Components which do not depend on each other are summarized in parallel, by batches of {@link #PARALLEL_BATCH_SIZE}
+   * components taken in the order of {@link #levels()}: the given problem must be thread-safe.
+   */
+  public <S> Map<String, S> summaries(SummaryProblem<S> problem) {
+    Map<String, S> summaries = new ConcurrentHashMap<>();
+    for (List<Set<String>> level : levels()) {
+      for (int from = 0; from < level.size(); from += PARALLEL_BATCH_SIZE) {
+        List<Set<String>> batch = level.subList(from, Math.min(level.size(), from + PARALLEL_BATCH_SIZE));
+        batch.parallelStream().forEach(component -> summarize(component, problem, summaries));
+        batch.forEach(component -> problem.componentSummarized(component, summaries));
+      }
+    }
+    return summaries;
+  }
+
+  /**
+   * Components grouped by their height in the graph of components: a component only calls components of previous levels.
+   * Components of a level are sorted by their first function.
+   */
+  List<List<Set<String>>> levels() {
+    Map<String, Integer> levelByFunction = new HashMap<>();
+    List<List<Set<String>>> levels = new ArrayList<>();
+    for (Set<String> component : stronglyConnectedComponents()) {
+      int level = 0;
+      for (String function : component) {
+        for (String callee : callees(function)) {
+          Integer calleeLevel = levelByFunction.get(callee);
+          if (calleeLevel != null) {
+            level = Math.max(level, calleeLevel + 1);
+          }
+        }
+      }
+      for (String function : component) {
+        levelByFunction.put(function, level);
+      }
+      if (level == levels.size()) {
+        levels.add(new ArrayList<>());
+      }
+      levels.get(level).add(component);
+    }
+    levels.forEach(level -> level.sort(Comparator.comparing(component -> component.iterator().next())));
+    return levels;
+  }
+
+  private <S> void summarize(Set<String> component, SummaryProblem<S> problem, Map<String, S> summaries) {
+    component.forEach(function -> summaries.put(function, problem.initialSummary(function)));
+    boolean recursive = component.size() > 1 || component.stream().anyMatch(function -> callees(function).contains(function));
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (String function : component) {
+        S summary = problem.summary(function, summaries::get);
+        if (!summary.equals(summaries.put(function, summary))) {
+          changed = recursive;
+        }
+      }
+    }
+  }
+}
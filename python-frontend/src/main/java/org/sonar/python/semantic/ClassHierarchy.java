@@ -0,0 +1,87 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+
+/**
+ * Precomputed type hierarchy of a class: the fully qualified names of the class and of all its super classes,
+ * and the member resolved for each name, following the order in which super classes are explored.
+ */
+class ClassHierarchy {
+
+  private final Set<String> fullyQualifiedNames = new HashSet<>();
+  private final Map<String, Symbol> membersByName = new HashMap<>();
+  private boolean hasClassWithoutFullyQualifiedName = false;
+  private boolean hasUnresolvedTypeHierarchy = false;
+
+  ClassHierarchy(ClassSymbolImpl classSymbol) {
+    Set<Symbol> allSuperClasses = new LinkedHashSet<>();
+    exploreSuperClasses(classSymbol, allSuperClasses);
+    for (Symbol superClass : allSuperClasses) {
+      String fullyQualifiedName = superClass.fullyQualifiedName();
+      if (fullyQualifiedName == null) {
+        hasClassWithoutFullyQualifiedName = true;
+      } else {
+        fullyQualifiedNames.add(fullyQualifiedName);
+      }
+      if (superClass.kind() == Symbol.Kind.CLASS) {
+        ClassSymbolImpl superClassSymbol = (ClassSymbolImpl) superClass;
+        hasUnresolvedTypeHierarchy |= superClassSymbol.hasSuperClassWithoutSymbol();
+        superClassSymbol.declaredMembers().forEach(member -> membersByName.putIfAbsent(member.name(), member));
+      } else {
+        hasUnresolvedTypeHierarchy = true;
+      }
+    }
+  }
+
+  private static void exploreSuperClasses(Symbol symbol, Set<Symbol> set) {
+    if (set.add(symbol) && symbol.kind() == Symbol.Kind.CLASS) {
+      ClassSymbol classSymbol = (ClassSymbol) symbol;
+      for (Symbol superClass : classSymbol.superClasses()) {
+        exploreSuperClasses(superClass, set);
+      }
+    }
+  }
+
+  boolean isOrExtends(String fullyQualifiedClassName) {
+    return fullyQualifiedNames.contains(fullyQualifiedClassName);
+  }
+
+  boolean hasClassWithoutFullyQualifiedName() {
+    return hasClassWithoutFullyQualifiedName;
+  }
+
+  boolean hasUnresolvedTypeHierarchy() {
+    return hasUnresolvedTypeHierarchy;
+  }
+
+  @CheckForNull
+  Symbol member(String memberName) {
+    return membersByName.get(memberName);
+  }
+}
@@ -24,32 +24,48 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.types.InferredType;
 
 public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
 
   private final List<Symbol> superClasses = new ArrayList<>();
-  private Set<Symbol> allSuperClasses = null;
   private boolean hasSuperClassWithoutSymbol = false;
   private final Set<Symbol> members = new HashSet<>();
-  private Map<String, Symbol> membersByName = null;
   private boolean hasAlreadyReadSuperClasses = false;
   private boolean hasAlreadyReadMembers = false;
+  @Nullable
+  private ClassSymbolImpl definition = null;
+  private ClassHierarchy hierarchy = null;
+  private InferredType runtimeType = null;
 
   public ClassSymbolImpl(String name, @Nullable String fullyQualifiedName) {
     super(name, fullyQualifiedName);
     this.setKind(Kind.CLASS);
   }
 
+  /**
+   * Returns a copy without usages which shares the super classes, the members and the type hierarchy of this symbol.
+   */
+  ClassSymbolImpl copySharingMembers(String name) {
+    ClassSymbolImpl copiedClassSymbol = new ClassSymbolImpl(name, fullyQualifiedName());
+    copiedClassSymbol.definition = definition();
+    copiedClassSymbol.hasAlreadyReadSuperClasses = true;
+    copiedClassSymbol.hasAlreadyReadMembers = true;
+    return copiedClassSymbol;
+  }
+
+  ClassSymbolImpl definition() {
+    return definition != null ? definition : this;
+  }
+
   @Override
   ClassSymbolImpl copyWithoutUsages() {
     ClassSymbolImpl copiedClassSymbol = new ClassSymbolImpl(name(), fullyQualifiedName());
@@ -60,8 +76,8 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
         copiedClassSymbol.superClasses.add(new SymbolImpl(superClass.name(), superClass.fullyQualifiedName()));
       }
     }
-    copiedClassSymbol.addMembers(members.stream().map(m -> ((SymbolImpl) m).copyWithoutUsages()).collect(Collectors.toList()));
-    if (hasSuperClassWithoutSymbol) {
+    copiedClassSymbol.addMembers(declaredMembers().stream().map(m -> ((SymbolImpl) m).copyWithoutUsages()).collect(Collectors.toList()));
+    if (hasSuperClassWithoutSymbol()) {
       copiedClassSymbol.setHasSuperClassWithoutSymbol();
     }
     return copiedClassSymbol;
@@ -69,6 +85,9 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
 
   @Override
   public List<Symbol> superClasses() {
+    if (definition != null) {
+      return definition.superClasses();
+    }
     hasAlreadyReadSuperClasses = true;
     return Collections.unmodifiableList(superClasses);
   }
@@ -82,55 +101,55 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
 
   @Override
   public boolean hasUnresolvedTypeHierarchy() {
-    for (Symbol superClassSymbol : allSuperClasses()) {
-      if (superClassSymbol.kind() != Kind.CLASS) {
-        return true;
-      }
-
-      ClassSymbolImpl superClass = (ClassSymbolImpl) superClassSymbol;
-      if (superClass.hasSuperClassWithoutSymbol) {
-        return true;
-      }
-    }
-    return false;
+    return hierarchy().hasUnresolvedTypeHierarchy();
   }
 
   @Override
   public Set<Symbol> declaredMembers() {
+    if (definition != null) {
+      return definition.declaredMembers();
+    }
     hasAlreadyReadMembers = true;
     return members;
   }
 
   @Override
   public Optional<Symbol> resolveMember(String memberName) {
-    for (Symbol symbol : allSuperClasses()) {
-      if (symbol.kind() == Kind.CLASS) {
-        ClassSymbolImpl classSymbol = (ClassSymbolImpl) symbol;
-        Symbol matchingMember = classSymbol.membersByName().get(memberName);
-        if (matchingMember != null) {
-          return Optional.of(matchingMember);
-        }
-      }
-    }
-    return Optional.empty();
+    return Optional.ofNullable(hierarchy().member(memberName));
   }
 
   @Override
   public boolean isOrExtends(String fullyQualifiedClassName) {
-    return allSuperClasses().stream().anyMatch(c -> c.fullyQualifiedName() != null && Objects.equals(fullyQualifiedClassName, c.fullyQualifiedName()));
+    return hierarchy().isOrExtends(fullyQualifiedClassName);
   }
 
   @Override
   public boolean isOrExtends(ClassSymbol other) {
     // TODO there should be only 1 class with a given fullyQualifiedName when analyzing a python file
-    return allSuperClasses().stream().anyMatch(c -> Objects.equals(c.fullyQualifiedName(), other.fullyQualifiedName()));
+    String otherFullyQualifiedName = other.fullyQualifiedName();
+    return otherFullyQualifiedName == null ? hierarchy().hasClassWithoutFullyQualifiedName() : hierarchy().isOrExtends(otherFullyQualifiedName);
   }
 
-  private Map<String, Symbol> membersByName() {
-    if (membersByName == null) {
-      membersByName = declaredMembers().stream().collect(Collectors.toMap(Symbol::name, m -> m, (s1, s2) -> s1));
+  /**
+   * Type hierarchy of this class, computed once and shared by all the copies of this class.
+   */
+  private ClassHierarchy hierarchy() {
+    ClassSymbolImpl classDefinition = definition();
+    if (classDefinition.hierarchy == null) {
+      classDefinition.hierarchy = new ClassHierarchy(classDefinition);
     }
-    return membersByName;
+    return classDefinition.hierarchy;
+  }
+
+  /**
+   * Runtime type of this class, created once with the given factory and shared by all the copies of this class.
+   */
+  public InferredType runtimeType(Function<ClassSymbol, InferredType> typeFactory) {
+    ClassSymbolImpl classDefinition = definition();
+    if (classDefinition.runtimeType == null) {
+      classDefinition.runtimeType = typeFactory.apply(classDefinition);
+    }
+    return classDefinition.runtimeType;
   }
 
   public void addMembers(Collection<Symbol> members) {
@@ -143,24 +162,11 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
       .forEach(m -> ((FunctionSymbolImpl) m).setOwner(this));
   }
 
-  public void setHasSuperClassWithoutSymbol() {
-    this.hasSuperClassWithoutSymbol = true;
-  }
-
-  private Set<Symbol> allSuperClasses() {
-    if (allSuperClasses == null) {
-      allSuperClasses = new LinkedHashSet<>();
-      exploreSuperClasses(this, allSuperClasses);
-    }
-    return allSuperClasses;
+  boolean hasSuperClassWithoutSymbol() {
+    return definition().hasSuperClassWithoutSymbol;
   }
 
-  private static void exploreSuperClasses(Symbol symbol, Set<Symbol> set) {
-    if (set.add(symbol) && symbol.kind() == Kind.CLASS) {
-      ClassSymbol classSymbol = (ClassSymbol) symbol;
-      for (Symbol superClass : classSymbol.superClasses()) {
-        exploreSuperClasses(superClass, set);
-      }
-    }
+  public void setHasSuperClassWithoutSymbol() {
+    this.hasSuperClassWithoutSymbol = true;
   }
 }
@@ -0,0 +1,262 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.CfgBranchingBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ExpressionStatement;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.LambdaExpression;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.ReturnStatement;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.WhileStatement;
+import org.sonar.plugins.python.api.tree.YieldExpression;
+import org.sonar.python.cfg.CfgStructure;
+import org.sonar.python.tree.TreeUtils;
+
+/**
+ * Facts about the body of a function which do not depend on the functions it calls, extracted from its control flow graph so that
+ * the syntax tree of its file is not kept until the summaries of all the functions of the project are computed.
+ */
+class FunctionFacts {
+
+  @Nullable
+  private final FunctionSummary constantSummary;
+  private final Set<String> calledNames = new LinkedHashSet<>();
+  private final int start;
+  private final int end;
+  private final int[][] successors;
+  private final BitSet raiseBlocks = new BitSet();
+  private final BitSet notNoneReturnBlocks = new BitSet();
+  private final Map<Integer, String> returnedCalls = new HashMap<>();
+  // functions called by the elements of a block, and functions called by a statement of the block which is not inside a "try"
+  private final Map<Integer, List<String>> callsByBlock = new HashMap<>();
+  private final Map<Integer, List<String>> statementCallsByBlock = new HashMap<>();
+
+  private FunctionFacts(@Nullable FunctionSummary constantSummary, int start, int end, int blockCount) {
+    this.constantSummary = constantSummary;
+    this.start = start;
+    this.end = end;
+    this.successors = new int[blockCount][];
+  }
+
+  /**
+   * Facts of a function whose summary does not depend on its body.
+   */
+  static FunctionFacts constant(FunctionSummary summary) {
+    return new FunctionFacts(summary, 0, 0, 0);
+  }
+
+  /**
+   * @param cfg control flow graph of the body of the function, or null if it could not be built
+   */
+  static FunctionFacts of(FunctionDef functionDef, @Nullable ControlFlowGraph cfg) {
+    if (cfg == null || !functionDef.decorators().isEmpty()) {
+      // decorators may replace the function by anything
+      return constant(FunctionSummary.UNKNOWN);
+    }
+    CfgStructure structure = CfgStructure.of(cfg);
+    FunctionFacts facts = new FunctionFacts(null, structure.start(), structure.end(), structure.size());
+    CallVisitor visitor = new CallVisitor();
+    for (int id = 0; id < structure.size(); id++) {
+      CfgBlock block = structure.block(id);
+      if (isInfiniteLoop(block)) {
+        facts.successors[id] = new int[] {structure.id(((CfgBranchingBlock) block).trueSuccessor())};
+      } else {
+        facts.successors[id] = new int[structure.successorCount(id)];
+        for (int i = 0; i < facts.successors[id].length; i++) {
+          facts.successors[id][i] = structure.successor(id, i);
+        }
+      }
+      facts.addElements(id, block, visitor);
+    }
+    if (functionDef.asyncKeyword() != null || visitor.hasYield) {
+      // the body of generators and coroutines is not executed by the call
+      return constant(FunctionSummary.of(true, false, true));
+    }
+    return facts;
+  }
+
+  private static boolean isInfiniteLoop(CfgBlock block) {
+    if (block instanceof CfgBranchingBlock && ((CfgBranchingBlock) block).branchingTree().is(Tree.Kind.WHILE_STMT)) {
+      Expression condition = ((WhileStatement) ((CfgBranchingBlock) block).branchingTree()).condition();
+      return condition.is(Tree.Kind.NAME) && "True".equals(((Name) condition).name());
+    }
+    return false;
+  }
+
+  private void addElements(int id, CfgBlock block, CallVisitor visitor) {
+    List<Tree> elements = block.elements();
+    for (Tree element : elements) {
+      visitor.calledNames.clear();
+      element.accept(visitor);
+      if (!visitor.calledNames.isEmpty()) {
+        calledNames.addAll(visitor.calledNames);
+        callsByBlock.computeIfAbsent(id, k -> new ArrayList<>()).addAll(visitor.calledNames);
+      }
+      String statementCall = statementCall(element);
+      if (statementCall != null) {
+        statementCallsByBlock.computeIfAbsent(id, k -> new ArrayList<>()).add(statementCall);
+      }
+      if (element.is(Tree.Kind.RETURN_STMT)) {
+        addReturnedValue(id, (ReturnStatement) element);
+      }
+    }
+    if (!elements.isEmpty() && elements.get(elements.size() - 1).is(Tree.Kind.RAISE_STMT)) {
+      raiseBlocks.set(id);
+    }
+  }
+
+  private void addReturnedValue(int id, ReturnStatement returnStatement) {
+    List<Expression> expressions = returnStatement.expressions();
+    if (expressions.isEmpty()) {
+      return;
+    }
+    Expression expression = expressions.get(0);
+    if (expressions.size() == 1 && expression.is(Tree.Kind.NONE)) {
+      return;
+    }
+    String calledName = expressions.size() == 1 && expression.is(Tree.Kind.CALL_EXPR) ? calledName((CallExpression) expression) : null;
+    if (calledName != null) {
+      returnedCalls.put(id, calledName);
+    } else {
+      notNoneReturnBlocks.set(id);
+    }
+  }
+
+  /**
+   * Name of the function called by a statement which is only a call, or only returns the result of a call, when an exception raised
+   * by this call cannot be caught by the function: the statements following such a call are not executed when the called function
+   * never returns.
+   */
+  @CheckForNull
+  private static String statementCall(Tree element) {
+    List<Expression> expressions;
+    if (element.is(Tree.Kind.EXPRESSION_STMT)) {
+      expressions = ((ExpressionStatement) element).expressions();
+    } else if (element.is(Tree.Kind.RETURN_STMT)) {
+      expressions = ((ReturnStatement) element).expressions();
+    } else {
+      return null;
+    }
+    if (expressions.size() != 1 || !expressions.get(0).is(Tree.Kind.CALL_EXPR)
+      || TreeUtils.firstAncestorOfKind(element, Tree.Kind.TRY_STMT, Tree.Kind.FUNCDEF).is(Tree.Kind.TRY_STMT)) {
+      return null;
+    }
+    return calledName((CallExpression) expressions.get(0));
+  }
+
+  @CheckForNull
+  private static String calledName(CallExpression callExpression) {
+    Symbol symbol = callExpression.calleeSymbol();
+    return symbol == null ? null : symbol.fullyQualifiedName();
+  }
+
+  Set<String> calledNames() {
+    return Collections.unmodifiableSet(calledNames);
+  }
+
+  /**
+   * @param calleeSummaries summary of a called function, given its fully qualified name
+   */
+  FunctionSummary summary(Function<String, FunctionSummary> calleeSummaries) {
+    if (constantSummary != null) {
+      return constantSummary;
+    }
+    boolean mayReturn = start == end;
+    boolean mayRaise = false;
+    boolean mayReturnNotNone = false;
+    BitSet visited = new BitSet(successors.length);
+    Deque<Integer> workList = new ArrayDeque<>();
+    visited.set(start);
+    workList.push(start);
+    while (!workList.isEmpty()) {
+      int id = workList.pop();
+      for (String calledName : callsByBlock.getOrDefault(id, Collections.emptyList())) {
+        mayRaise |= calleeSummaries.apply(calledName).mayRaise();
+      }
+      if (statementCallsByBlock.getOrDefault(id, Collections.emptyList()).stream().anyMatch(name -> calleeSummaries.apply(name).neverReturns())) {
+        continue;
+      }
+      String returnedCall = returnedCalls.get(id);
+      mayReturnNotNone |= notNoneReturnBlocks.get(id) || (returnedCall != null && calleeSummaries.apply(returnedCall).mayReturnNotNone());
+      for (int successor : successors[id]) {
+        if (successor == end) {
+          mayRaise |= raiseBlocks.get(id);
+          mayReturn |= !raiseBlocks.get(id);
+        } else if (!visited.get(successor)) {
+          visited.set(successor);
+          workList.push(successor);
+        }
+      }
+    }
+    return FunctionSummary.of(mayReturn, mayRaise, mayReturnNotNone);
+  }
+
+  private static class CallVisitor extends BaseTreeVisitor {
+
+    private final Set<String> calledNames = new LinkedHashSet<>();
+    private boolean hasYield = false;
+
+    @Override
+    public void visitCallExpression(CallExpression callExpression) {
+      String calledName = calledName(callExpression);
+      if (calledName != null) {
+        calledNames.add(calledName);
+      }
+      super.visitCallExpression(callExpression);
+    }
+
+    @Override
+    public void visitYieldExpression(YieldExpression yieldExpression) {
+      hasYield = true;
+      super.visitYieldExpression(yieldExpression);
+    }
+
+    @Override
+    public void visitFunctionDef(FunctionDef functionDef) {
+      // the body of a nested function is not executed by the function
+    }
+
+    @Override
+    public void visitLambda(LambdaExpression lambdaExpression) {
+      // the body of a lambda is not executed by the function
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.cfg.FileControlFlowGraph;
+import org.sonar.python.taint.TaintConfiguration;
+import org.sonar.python.taint.TaintSummaries;
+
+/**
+ * Summaries of the functions of a project, computed bottom-up on its call graph once the functions of all its files are known.
+ * Functions are identified by their fully qualified name: a name defined more than once has an unknown summary.
+ */
+public class FunctionSummaries {
+
+  private static final Map<String, FunctionSummary> EXTERNAL_SUMMARIES = new HashMap<>();
+
+  static {
+    FunctionSummary raisesSystemExit = FunctionSummary.of(false, true, false);
+    EXTERNAL_SUMMARIES.put("exit", raisesSystemExit);
+    EXTERNAL_SUMMARIES.put("quit", raisesSystemExit);
+    EXTERNAL_SUMMARIES.put("sys.exit", raisesSystemExit);
+    FunctionSummary terminatesProcess = FunctionSummary.of(false, false, false);
+    EXTERNAL_SUMMARIES.put("os._exit", terminatesProcess);
+    EXTERNAL_SUMMARIES.put("os.abort", terminatesProcess);
+  }
+
+  private final CallGraph callGraph;
+  private final Map<String, FunctionSummary> summaries;
+  private final TaintSummaries taintSummaries;
+
+  private FunctionSummaries(CallGraph callGraph, Map<String, FunctionSummary> summaries, TaintSummaries taintSummaries) {
+    this.callGraph = callGraph;
+    this.summaries = summaries;
+    this.taintSummaries = taintSummaries;
+  }
+
+  public static FunctionSummaries empty() {
+    return new FunctionSummaries(new CallGraph(Collections.emptyMap()), Collections.emptyMap(), TaintSummaries.empty());
+  }
+
+  public CallGraph callGraph() {
+    return callGraph;
+  }
+
+  /**
+   * Taint summaries of the functions of the project, used to find the user-controlled data reaching a call.
+   */
+  public TaintSummaries taint() {
+    return taintSummaries;
+  }
+
+  /**
+   * Summary of the function with the given fully qualified name, {@link FunctionSummary#UNKNOWN} if nothing is known about it.
+   */
+  public FunctionSummary summary(@Nullable String fullyQualifiedName) {
+    if (fullyQualifiedName == null) {
+      return FunctionSummary.UNKNOWN;
+    }
+    FunctionSummary summary = summaries.get(fullyQualifiedName);
+    return summary != null ? summary : EXTERNAL_SUMMARIES.getOrDefault(fullyQualifiedName, FunctionSummary.UNKNOWN);
+  }
+
+  /**
+   * Summary of the function called by the given call expression, {@link FunctionSummary#UNKNOWN} if nothing is known about it.
+   */
+  public FunctionSummary summary(CallExpression callExpression) {
+    Symbol symbol = callExpression.calleeSymbol();
+    return summary(symbol == null ? null : symbol.fullyQualifiedName());
+  }
+
+  /**
+   * Collects the facts of the functions of the files of a project. Each file must have been visited by a {@link SymbolTableBuilder}.
+   */
+  public static class Builder {
+
+    private final Map<String, FunctionFacts> factsByFunction = new HashMap<>();
+    private final Set<String> duplicatedNames = new HashSet<>();
+    private final boolean callSummaries;
+    @Nullable
+    private final TaintSummaries.Builder taintSummariesBuilder;
+
+    public Builder() {
+      this(true, true, TaintSummaries.DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * @param callSummaries whether the summaries of {@link #summary(String)} are computed, otherwise all functions are unknown
+     * @param taintSummaries whether the taint summaries are computed, otherwise they are {@link TaintSummaries#empty()}
+     * @param taintMaxSteps budget of steps of the computation of the taint summaries of the project, see {@link TaintSummaries}
+     */
+    public Builder(boolean callSummaries, boolean taintSummaries, long taintMaxSteps) {
+      this.callSummaries = callSummaries;
+      this.taintSummariesBuilder = taintSummaries ? new TaintSummaries.Builder(TaintConfiguration.defaultConfiguration(), taintMaxSteps) : null;
+    }
+
+    public Builder addFile(FileInput fileInput, PythonFile pythonFile, CfgBuildContext cfgBuildContext) {
+      FileControlFlowGraph fileCfg = cfgBuildContext.buildFile(fileInput, pythonFile);
+      if (taintSummariesBuilder != null) {
+        taintSummariesBuilder.addFile(fileInput, fileCfg);
+      }
+      if (!callSummaries) {
+        return this;
+      }
+      for (int id = FileControlFlowGraph.MODULE_ID + 1; id < fileCfg.size(); id++) {
+        FunctionDef functionDef = fileCfg.functionDef(id);
+        Symbol symbol = functionDef.name().symbol();
+        String fullyQualifiedName = symbol == null ? null : symbol.fullyQualifiedName();
+        if (fullyQualifiedName != null && factsByFunction.put(fullyQualifiedName, FunctionFacts.of(functionDef, fileCfg.graph(id))) != null) {
+          duplicatedNames.add(fullyQualifiedName);
+        }
+      }
+      return this;
+    }
+
+    public FunctionSummaries build() {
+      duplicatedNames.forEach(name -> factsByFunction.put(name, FunctionFacts.constant(FunctionSummary.UNKNOWN)));
+      Map<String, Set<String>> calledNamesByFunction = new HashMap<>();
+      factsByFunction.forEach((name, facts) -> calledNamesByFunction.put(name, facts.calledNames()));
+      CallGraph callGraph = new CallGraph(calledNamesByFunction);
+      return new FunctionSummaries(callGraph, callGraph.summaries(new SummaryProblem<FunctionSummary>() {
+        @Override
+        public FunctionSummary initialSummary(String function) {
+          return FunctionSummary.of(false, false, false);
+        }
+
+        @Override
+        public FunctionSummary summary(String function, Function<String, FunctionSummary> calleeSummaries) {
+          return factsByFunction.get(function).summary(name -> {
+            FunctionSummary summary = calleeSummaries.apply(name);
+            return summary != null ? summary : EXTERNAL_SUMMARIES.getOrDefault(name, FunctionSummary.UNKNOWN);
+          });
+        }
+      }), taintSummariesBuilder == null ? TaintSummaries.empty() : taintSummariesBuilder.build());
+    }
+  }
+}
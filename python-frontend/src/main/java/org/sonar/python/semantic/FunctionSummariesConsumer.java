@@ -0,0 +1,29 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+/**
+ * Marks the checks which read the summaries of {@link FunctionSummaries#summary(String)}: whether a function always raises, returns None
+ * or never returns. Computing these summaries requires the control flow graphs of all the files before any file is analyzed, which
+ * doubles the cost of building the graphs: they are only computed when such a check is active.
+ * The taint summaries are requested separately, see {@link org.sonar.python.taint.TaintSummariesConsumer}.
+ */
+public interface FunctionSummariesConsumer {
+}
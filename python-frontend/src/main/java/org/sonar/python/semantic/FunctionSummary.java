@@ -0,0 +1,89 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+/**
+ * What is known about the outcome of a call to a function, whatever its arguments.
+ * <p>
+ * There are only a few distinct summaries: instances are shared, and can be compared with {@code ==}.
+ */
+public final class FunctionSummary {
+
+  private static final FunctionSummary[] INSTANCES = new FunctionSummary[8];
+
+  static {
+    for (int i = 0; i < INSTANCES.length; i++) {
+      INSTANCES[i] = new FunctionSummary((i & 1) != 0, (i & 2) != 0, (i & 4) != 0);
+    }
+  }
+
+  /**
+   * Summary of a function about which nothing is known: it may return any value or raise an exception.
+   */
+  public static final FunctionSummary UNKNOWN = of(true, true, true);
+
+  private final boolean mayReturn;
+  private final boolean mayRaise;
+  private final boolean mayReturnNotNone;
+
+  private FunctionSummary(boolean mayReturn, boolean mayRaise, boolean mayReturnNotNone) {
+    this.mayReturn = mayReturn;
+    this.mayRaise = mayRaise;
+    this.mayReturnNotNone = mayReturnNotNone;
+  }
+
+  static FunctionSummary of(boolean mayReturn, boolean mayRaise, boolean mayReturnNotNone) {
+    return INSTANCES[(mayReturn ? 1 : 0) | (mayRaise ? 2 : 0) | (mayReturnNotNone ? 4 : 0)];
+  }
+
+  /**
+   * True when a call to the function never completes normally: the function always raises an exception, loops forever or exits.
+   */
+  public boolean neverReturns() {
+    return !mayReturn;
+  }
+
+  /**
+   * True when a call to the function never completes normally, and may be ended by an exception raised by the function or its callees.
+   */
+  public boolean alwaysRaises() {
+    return !mayReturn && mayRaise;
+  }
+
+  /**
+   * True when a call to the function may complete normally, and always evaluates to None when it does.
+   */
+  public boolean returnsNone() {
+    return mayReturn && !mayReturnNotNone;
+  }
+
+  boolean mayRaise() {
+    return mayRaise;
+  }
+
+  boolean mayReturnNotNone() {
+    return mayReturnNotNone;
+  }
+
+  @Override
+  public String toString() {
+    return "FunctionSummary{mayReturn=" + mayReturn + ", mayRaise=" + mayRaise + ", mayReturnNotNone=" + mayReturnNotNone + "}";
+  }
+}
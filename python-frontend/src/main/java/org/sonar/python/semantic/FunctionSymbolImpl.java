@@ -91,6 +91,25 @@ public class FunctionSymbolImpl extends SymbolImpl implements FunctionSymbol {
     this.isStub = true;
   }
 
+  FunctionSymbolImpl(String name, @Nullable String fullyQualifiedName, List<Parameter> parameters, boolean hasVariadicParameter,
+                     boolean isInstanceMethod, boolean hasDecorators, boolean isStub) {
+    super(name, fullyQualifiedName);
+    setKind(Kind.FUNCTION);
+    this.parameters.addAll(parameters);
+    this.hasVariadicParameter = hasVariadicParameter;
+    this.isInstanceMethod = isInstanceMethod;
+    this.hasDecorators = hasDecorators;
+    this.isStub = isStub;
+    this.functionDefinitionLocation = null;
+  }
+
+  static Parameter parameter(@Nullable String name, boolean hasDefaultValue, boolean isKeywordOnly, boolean isPositionalOnly) {
+    ParameterState parameterState = new ParameterState();
+    parameterState.keywordOnly = isKeywordOnly;
+    parameterState.positionalOnly = isPositionalOnly;
+    return new ParameterImpl(name, hasDefaultValue, parameterState, null);
+  }
+
   @CheckForNull
   private static LocationInFile locationInFile(Tree tree, @Nullable String fileId) {
     if (fileId == null) {
@@ -0,0 +1,187 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.tree.AliasedName;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.DottedName;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ImportFrom;
+import org.sonar.plugins.python.api.tree.ImportName;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.python.StronglyConnectedComponents;
+
+/**
+ * Modules of a project and the modules of the project they import.
+ * The semantic of a module only depends on the global symbols of the modules it imports: after an edit, only the modules which
+ * transitively import an edited module need to be analyzed again.
+ */
+public class ModuleDependencyGraph {
+
+  private final Map<String, Set<String>> importedModulesByModule;
+  private final Map<String, Set<String>> importingModulesByModule = new HashMap<>();
+
+  /**
+   * @param importedNamesByModule for each module of the project, the names of the modules it may import,
+   *                              as returned by {@link #importedModuleNames(FileInput, String)}.
+   *                              Names which are not modules of the project are ignored.
+   */
+  public ModuleDependencyGraph(Map<String, Set<String>> importedNamesByModule) {
+    Map<String, Set<String>> importedModules = new TreeMap<>();
+    importedNamesByModule.keySet().forEach(module -> importingModulesByModule.put(module, new TreeSet<>()));
+    for (Map.Entry<String, Set<String>> entry : importedNamesByModule.entrySet()) {
+      Set<String> dependencies = new TreeSet<>();
+      for (String importedName : entry.getValue()) {
+        Set<String> importingModules = importingModulesByModule.get(importedName);
+        if (importingModules != null && !importedName.equals(entry.getKey())) {
+          dependencies.add(importedName);
+          importingModules.add(entry.getKey());
+        }
+      }
+      importedModules.put(entry.getKey(), Collections.unmodifiableSet(dependencies));
+    }
+    this.importedModulesByModule = Collections.unmodifiableMap(importedModules);
+  }
+
+  public Set<String> modules() {
+    return importedModulesByModule.keySet();
+  }
+
+  public Set<String> importedModules(String module) {
+    return importedModulesByModule.getOrDefault(module, Collections.emptySet());
+  }
+
+  public Set<String> importingModules(String module) {
+    return Collections.unmodifiableSet(importingModulesByModule.getOrDefault(module, Collections.emptySet()));
+  }
+
+  /**
+   * Modules whose semantic may change when the given modules change: the given modules and all the modules which transitively import them.
+   */
+  public Set<String> impactedModules(Collection<String> changedModules) {
+    Set<String> impacted = new HashSet<>(changedModules);
+    Deque<String> workList = new ArrayDeque<>(changedModules);
+    while (!workList.isEmpty()) {
+      for (String importingModule : importingModules(workList.pop())) {
+        if (impacted.add(importingModule)) {
+          workList.push(importingModule);
+        }
+      }
+    }
+    return impacted;
+  }
+
+  /**
+   * Strongly connected components of the graph, in dependency order: a component comes after the components of the modules it imports.
+   */
+  public List<Set<String>> stronglyConnectedComponents() {
+    return StronglyConnectedComponents.of(importedModulesByModule.keySet(), this::importedModules).stream()
+      .map(component -> Collections.unmodifiableSet(new TreeSet<>(component)))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Names of the modules which may be imported by a file: imported modules, and for "from" imports, the imported names
+   * qualified by their module, as they may be sub modules.
+   */
+  public static Set<String> importedModuleNames(FileInput fileInput, String packageName) {
+    List<String> modulePath = new ArrayList<>();
+    if (!packageName.isEmpty()) {
+      modulePath.addAll(Arrays.asList(packageName.split("\\.")));
+    }
+    // a relative import with a single dot is relative to the package of the module
+    modulePath.add("");
+    ImportVisitor visitor = new ImportVisitor(modulePath);
+    fileInput.accept(visitor);
+    return visitor.importedNames;
+  }
+
+  private static class ImportVisitor extends BaseTreeVisitor {
+
+    private final List<String> modulePath;
+    private final Set<String> importedNames = new HashSet<>();
+
+    private ImportVisitor(List<String> modulePath) {
+      this.modulePath = modulePath;
+    }
+
+    @Override
+    public void visitImportName(ImportName importName) {
+      for (AliasedName aliasedName : importName.modules()) {
+        // "import a.b.c" imports the modules "a", "a.b" and "a.b.c"
+        StringBuilder moduleName = new StringBuilder();
+        for (Name name : aliasedName.dottedName().names()) {
+          if (moduleName.length() > 0) {
+            moduleName.append('.');
+          }
+          moduleName.append(name.name());
+          importedNames.add(moduleName.toString());
+        }
+      }
+      super.visitImportName(importName);
+    }
+
+    @Override
+    public void visitImportFrom(ImportFrom importFrom) {
+      String moduleName = moduleName(importFrom);
+      if (moduleName != null) {
+        if (!moduleName.isEmpty()) {
+          importedNames.add(moduleName);
+        }
+        String prefix = moduleName.isEmpty() ? "" : (moduleName + ".");
+        importFrom.importedNames().forEach(aliasedName -> importedNames.add(prefix + aliasedName.dottedName().names().get(0).name()));
+      }
+      super.visitImportFrom(importFrom);
+    }
+
+    @CheckForNull
+    private String moduleName(ImportFrom importFrom) {
+      DottedName module = importFrom.module();
+      String name = module == null ? "" : module.names().stream().map(Name::name).collect(Collectors.joining("."));
+      int level = importFrom.dottedPrefixForModule().size();
+      if (level == 0) {
+        return name;
+      }
+      if (level > modulePath.size()) {
+        return null;
+      }
+      List<String> packagePath = new ArrayList<>(modulePath.subList(0, modulePath.size() - level));
+      if (!name.isEmpty()) {
+        packagePath.add(name);
+      }
+      return String.join(".", packagePath);
+    }
+  }
+}
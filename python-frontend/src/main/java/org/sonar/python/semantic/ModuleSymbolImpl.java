@@ -0,0 +1,48 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.Set;
+import org.sonar.plugins.python.api.symbols.Symbol;
+
+/**
+ * Symbol of an imported module. The symbols exported by the module are only copied into the importing file when they are accessed.
+ */
+class ModuleSymbolImpl extends SymbolImpl {
+
+  private final Set<Symbol> exportedSymbols;
+  private final ProjectLevelSymbolTable projectLevelSymbolTable;
+
+  ModuleSymbolImpl(String name, String fullyQualifiedName, Set<Symbol> exportedSymbols, ProjectLevelSymbolTable projectLevelSymbolTable) {
+    super(name, fullyQualifiedName);
+    this.exportedSymbols = exportedSymbols;
+    this.projectLevelSymbolTable = projectLevelSymbolTable;
+  }
+
+  @Override
+  SymbolImpl createChildSymbol(String childSymbolName) {
+    for (Symbol exportedSymbol : exportedSymbols) {
+      if (exportedSymbol.name().equals(childSymbolName)) {
+        return projectLevelSymbolTable.importedSymbol(childSymbolName, exportedSymbol);
+      }
+    }
+    return super.createChildSymbol(childSymbolName);
+  }
+}
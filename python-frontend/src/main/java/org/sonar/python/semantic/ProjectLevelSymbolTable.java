@@ -0,0 +1,161 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.FunctionSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.python.types.TypeShed;
+
+/**
+ * Global symbols of all the modules of a project, indexed by module name and by fully qualified name.
+ * It is built once, after the global symbols of every module have been computed, and shared by the analysis of all files.
+ * Modules which are not part of the project are looked up in the TypeShed stubs, which are loaded on first import.
+ * Files importing a class share its definition: only the symbol bound to the imported name is created per file.
+ */
+public class ProjectLevelSymbolTable {
+
+  private static final ProjectLevelSymbolTable EMPTY = new ProjectLevelSymbolTable(Collections.emptyMap(), Collections.emptyMap(), true,
+    Collections.emptyMap());
+
+  private final Map<String, Set<Symbol>> globalSymbolsByModuleName;
+  private final Map<String, Symbol> globalSymbolsByFQN;
+  private final boolean resolveTypeShedStubs;
+  private final Map<Symbol, ClassSymbolImpl> sharedClasses;
+
+  private ProjectLevelSymbolTable(Map<String, Set<Symbol>> globalSymbolsByModuleName, Map<String, Symbol> globalSymbolsByFQN, boolean resolveTypeShedStubs,
+    Map<Symbol, ClassSymbolImpl> sharedClasses) {
+    this.globalSymbolsByModuleName = globalSymbolsByModuleName;
+    this.globalSymbolsByFQN = globalSymbolsByFQN;
+    this.resolveTypeShedStubs = resolveTypeShedStubs;
+    this.sharedClasses = sharedClasses;
+  }
+
+  public static ProjectLevelSymbolTable empty() {
+    return EMPTY;
+  }
+
+  public static ProjectLevelSymbolTable from(Map<String, Set<Symbol>> globalSymbolsByModuleName) {
+    if (globalSymbolsByModuleName.isEmpty()) {
+      return EMPTY;
+    }
+    Map<String, Symbol> symbolsByFQN = new HashMap<>();
+    for (Set<Symbol> moduleSymbols : globalSymbolsByModuleName.values()) {
+      for (Symbol symbol : moduleSymbols) {
+        String fullyQualifiedName = symbol.fullyQualifiedName();
+        if (fullyQualifiedName != null && symbolsByFQN.put(fullyQualifiedName, symbol) != null) {
+          throw new IllegalStateException("Duplicate symbol for fully qualified name " + fullyQualifiedName);
+        }
+      }
+    }
+    return new ProjectLevelSymbolTable(
+      Collections.unmodifiableMap(new HashMap<>(globalSymbolsByModuleName)),
+      Collections.unmodifiableMap(symbolsByFQN),
+      true,
+      new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Same project symbols, without fallback on TypeShed stubs.
+   */
+  ProjectLevelSymbolTable withoutTypeShedStubs() {
+    return resolveTypeShedStubs ? new ProjectLevelSymbolTable(globalSymbolsByModuleName, globalSymbolsByFQN, false, sharedClasses) : this;
+  }
+
+  @CheckForNull
+  public Set<Symbol> getSymbolsFromModule(@Nullable String moduleName) {
+    Set<Symbol> symbols = globalSymbolsByModuleName.get(moduleName);
+    if (symbols == null && moduleName != null && resolveTypeShedStubs) {
+      symbols = TypeShed.stubModuleSymbols(moduleName);
+    }
+    return symbols;
+  }
+
+  @CheckForNull
+  public Symbol getSymbol(@Nullable String fullyQualifiedName) {
+    Symbol symbol = globalSymbolsByFQN.get(fullyQualifiedName);
+    if (symbol != null || fullyQualifiedName == null || !resolveTypeShedStubs) {
+      return symbol;
+    }
+    // the module is the longest prefix of the name for which a stub exists
+    int dotIndex = fullyQualifiedName.lastIndexOf('.');
+    while (dotIndex > 0) {
+      Set<Symbol> stubSymbols = TypeShed.stubModuleSymbols(fullyQualifiedName.substring(0, dotIndex));
+      if (stubSymbols != null) {
+        return stubSymbols.stream().filter(s -> fullyQualifiedName.equals(s.fullyQualifiedName())).findFirst().orElse(null);
+      }
+      dotIndex = fullyQualifiedName.lastIndexOf('.', dotIndex - 1);
+    }
+    return null;
+  }
+
+  /**
+   * Creates the symbol bound to a name importing the given global symbol in one file.
+   */
+  SymbolImpl importedSymbol(String symbolName, Symbol globalSymbol) {
+    if (globalSymbol.kind() == Symbol.Kind.FUNCTION) {
+      return new FunctionSymbolImpl(symbolName, (FunctionSymbol) globalSymbol);
+    } else if (globalSymbol.kind() == Symbol.Kind.CLASS) {
+      return sharedClass((ClassSymbol) globalSymbol).copySharingMembers(symbolName);
+    }
+    return new SymbolImpl(symbolName, globalSymbol.fullyQualifiedName());
+  }
+
+  /**
+   * Definition of a class shared by all the files importing it: super classes which are global symbols are resolved to their own
+   * shared definition, and members are frozen copies. Classes of TypeShed stubs are already shared definitions.
+   */
+  private ClassSymbolImpl sharedClass(ClassSymbol classSymbol) {
+    if (globalSymbolsByFQN.get(classSymbol.fullyQualifiedName()) != classSymbol) {
+      return (ClassSymbolImpl) classSymbol;
+    }
+    ClassSymbolImpl sharedClass = sharedClasses.get(classSymbol);
+    if (sharedClass != null) {
+      return sharedClass;
+    }
+    sharedClass = new ClassSymbolImpl(classSymbol.name(), classSymbol.fullyQualifiedName());
+    for (Symbol superClass : classSymbol.superClasses()) {
+      Symbol globalSymbol = getSymbol(superClass.fullyQualifiedName());
+      if (globalSymbol != null && globalSymbol.kind() == Symbol.Kind.CLASS) {
+        sharedClass.addSuperClass(sharedClass((ClassSymbol) globalSymbol));
+      } else {
+        sharedClass.addSuperClass(superClass);
+      }
+    }
+    List<Symbol> members = new ArrayList<>();
+    for (Symbol member : classSymbol.declaredMembers()) {
+      SymbolImpl sharedMember = ((SymbolImpl) member).copyWithoutUsages();
+      sharedMember.freeze();
+      members.add(sharedMember);
+    }
+    sharedClass.addMembers(members);
+    ClassSymbolImpl previous = sharedClasses.putIfAbsent(classSymbol, sharedClass);
+    return previous != null ? previous : sharedClass;
+  }
+}
@@ -24,12 +24,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.PythonFile;
-import org.sonar.plugins.python.api.symbols.ClassSymbol;
-import org.sonar.plugins.python.api.symbols.FunctionSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.ClassDef;
@@ -37,7 +34,6 @@ import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.Parameter;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.python.types.InferredTypes;
 
 class Scope {
 
@@ -50,6 +46,9 @@ class Scope {
   private final Set<String> globalNames = new HashSet<>();
   private final Set<String> nonlocalNames = new HashSet<>();
   final Map<String, SymbolImpl> instanceAttributesByName = new HashMap<>();
+  private BuiltinScope builtinScope = null;
+  // copies of the frozen symbols used in the module, which record the usages of this file
+  private final Map<Symbol, SymbolImpl> fileUsageSymbols = new HashMap<>();
 
   Scope(@Nullable Scope parent, Tree rootTree, PythonFile pythonFile) {
     this.parent = parent;
@@ -61,31 +60,28 @@ class Scope {
     return Collections.unmodifiableSet(symbols);
   }
 
-  void createBuiltinSymbol(String name, Map<String, Symbol> typeShedSymbols) {
-    SymbolImpl symbol;
-    Symbol typeShedSymbol = typeShedSymbols.get(name);
-    if (typeShedSymbol != null) {
-      if (typeShedSymbol.kind() == Symbol.Kind.CLASS) {
-        symbol = ((ClassSymbolImpl) typeShedSymbol).copyWithoutUsages();
-      } else if (typeShedSymbol.kind() == Symbol.Kind.FUNCTION) {
-        symbol = ((FunctionSymbolImpl) typeShedSymbol).copyWithoutUsages();
-      } else {
-        symbol = new SymbolImpl(typeShedSymbol.name(), typeShedSymbol.fullyQualifiedName());
-      }
-    } else {
-      symbol = new SymbolImpl(name, name);
-    }
-    if ("True".equals(name) || "False".equals(name)) {
-      symbol.setInferredType(InferredTypes.BOOL);
+  void setBuiltinScope(BuiltinScope builtinScope) {
+    this.builtinScope = builtinScope;
+  }
+
+  /**
+   * Symbol bound to the given name in this scope. The symbol of a builtin name is created on first lookup in the module scope.
+   */
+  @CheckForNull
+  private Symbol lookup(String symbolName) {
+    Symbol symbol = symbolsByName.get(symbolName);
+    if (symbol == null && builtinScope != null && builtinScope.contains(symbolName)) {
+      symbol = builtinScope.createSymbol(symbolName);
+      symbols.add(symbol);
+      builtinSymbols.add(symbol);
+      symbolsByName.put(symbolName, symbol);
     }
-    symbols.add(symbol);
-    builtinSymbols.add(symbol);
-    symbolsByName.put(name, symbol);
+    return symbol;
   }
 
-  void createSymbolsFromWildcardImport(Set<Symbol> importedSymbols, Map<String, Symbol> globalSymbolsByFQN) {
+  void createSymbolsFromWildcardImport(Set<Symbol> importedSymbols, ProjectLevelSymbolTable projectLevelSymbolTable) {
     importedSymbols.forEach(symbol -> {
-      Symbol importedSymbol = copySymbol(symbol.name(), symbol, globalSymbolsByFQN);
+      Symbol importedSymbol = projectLevelSymbolTable.importedSymbol(symbol.name(), symbol);
       symbols.add(importedSymbol);
       symbolsByName.put(symbol.name(), importedSymbol);
     });
@@ -115,55 +111,32 @@ class Scope {
     }
   }
 
-  private static Symbol copySymbol(String symbolName, Symbol symbol, Map<String, Symbol> globalSymbolsByFQN) {
-    if (symbol.kind() == Symbol.Kind.FUNCTION) {
-      return new FunctionSymbolImpl(symbolName, (FunctionSymbol) symbol);
-    } else if (symbol.kind() == Symbol.Kind.CLASS) {
-      ClassSymbolImpl classSymbol = new ClassSymbolImpl(symbolName, symbol.fullyQualifiedName());
-      for (Symbol originalSymbol : ((ClassSymbol) symbol).superClasses()) {
-        Symbol globalSymbol = globalSymbolsByFQN.get(originalSymbol.fullyQualifiedName());
-        if (globalSymbol != null && globalSymbol.kind() == Symbol.Kind.CLASS) {
-          classSymbol.addSuperClass(copySymbol(globalSymbol.name(), globalSymbol, globalSymbolsByFQN));
-        } else {
-          classSymbol.addSuperClass(originalSymbol);
-        }
-      }
-      classSymbol.addMembers(((ClassSymbol) symbol)
-        .declaredMembers().stream()
-        .map(m -> ((SymbolImpl) m).copyWithoutUsages())
-        .collect(Collectors.toList()));
-      return classSymbol;
-    }
-    return new SymbolImpl(symbolName, symbol.fullyQualifiedName());
-  }
-
-  void addModuleSymbol(Name nameTree, @CheckForNull String fullyQualifiedName, Map<String, Set<Symbol>> globalSymbolsByModuleName, Map<String, Symbol> globalSymbolsByFQN) {
+  void addModuleSymbol(Name nameTree, @CheckForNull String fullyQualifiedName, ProjectLevelSymbolTable projectLevelSymbolTable) {
     String symbolName = nameTree.name();
-    Set<Symbol> moduleExportedSymbols = globalSymbolsByModuleName.get(fullyQualifiedName);
+    Set<Symbol> moduleExportedSymbols = projectLevelSymbolTable.getSymbolsFromModule(fullyQualifiedName);
     if (moduleExportedSymbols != null && !isExistingSymbol(symbolName)) {
-      SymbolImpl moduleSymbol = new SymbolImpl(symbolName, fullyQualifiedName);
-      moduleExportedSymbols.forEach(symbol -> moduleSymbol.addChildSymbol(copySymbol(symbol.name(), symbol, globalSymbolsByFQN)));
+      SymbolImpl moduleSymbol = new ModuleSymbolImpl(symbolName, fullyQualifiedName, moduleExportedSymbols, projectLevelSymbolTable);
       this.symbols.add(moduleSymbol);
       symbolsByName.put(symbolName, moduleSymbol);
     }
     addBindingUsage(nameTree, Usage.Kind.IMPORT, fullyQualifiedName);
   }
 
-  void addImportedSymbol(Name nameTree, @CheckForNull String fullyQualifiedName, Map<String, Symbol> globalSymbolsByFQN) {
+  void addImportedSymbol(Name nameTree, @CheckForNull String fullyQualifiedName, ProjectLevelSymbolTable projectLevelSymbolTable) {
     String symbolName = nameTree.name();
-    Symbol globalSymbol = globalSymbolsByFQN.get(fullyQualifiedName);
+    Symbol globalSymbol = projectLevelSymbolTable.getSymbol(fullyQualifiedName);
     if (globalSymbol == null || isExistingSymbol(symbolName)) {
       addBindingUsage(nameTree, Usage.Kind.IMPORT, fullyQualifiedName);
     } else {
-      Symbol symbol = copySymbol(symbolName, globalSymbol, globalSymbolsByFQN);
+      SymbolImpl symbol = projectLevelSymbolTable.importedSymbol(symbolName, globalSymbol);
       this.symbols.add(symbol);
       symbolsByName.put(symbolName, symbol);
-      ((SymbolImpl) symbol).addUsage(nameTree, Usage.Kind.IMPORT);
+      symbol.addUsage(nameTree, Usage.Kind.IMPORT);
     }
   }
 
   private boolean isExistingSymbol(String symbolName) {
-    return symbolsByName.containsKey(symbolName) || globalNames.contains(symbolName) || nonlocalNames.contains(symbolName);
+    return lookup(symbolName) != null || globalNames.contains(symbolName) || nonlocalNames.contains(symbolName);
   }
 
   void addBindingUsage(Name nameTree, Usage.Kind kind, @Nullable String fullyQualifiedName) {
@@ -190,7 +163,7 @@ class Scope {
 
   @CheckForNull
   SymbolImpl resolve(String symbolName) {
-    Symbol symbol = symbolsByName.get(symbolName);
+    Symbol symbol = lookup(symbolName);
     if (parent == null || symbol != null) {
       return (SymbolImpl) symbol;
     }
@@ -219,4 +192,25 @@ class Scope {
       classSymbol.addUsage(classDef.name(), Usage.Kind.CLASS_DECLARATION);
     }
   }
+
+  /**
+   * Symbol recording the usages of the given symbol in the module of this scope. A frozen symbol is shared by several files and does not
+   * record usages: the module uses a copy of it, created on first usage, which shares its members and its type.
+   */
+  SymbolImpl fileUsageSymbol(SymbolImpl symbol) {
+    if (!symbol.isFrozen()) {
+      return symbol;
+    }
+    return fileUsageSymbols.computeIfAbsent(symbol, s -> {
+      if (symbol instanceof ClassSymbolImpl) {
+        return ((ClassSymbolImpl) symbol).copySharingMembers(symbol.name());
+      }
+      SymbolImpl copy = symbol.copyWithoutUsages();
+      copy.setKind(symbol.kind());
+      if (!(symbol instanceof FunctionSymbolImpl)) {
+        copy.setInferredType(symbol.inferredType());
+      }
+      return copy;
+    });
+  }
 }
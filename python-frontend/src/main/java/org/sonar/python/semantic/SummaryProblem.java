@@ -0,0 +1,52 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Summary of the functions of a {@link CallGraph}, computed bottom-up: the summary of a function is computed from the summaries of
+ * the functions it calls.
+ * <p>
+ * Summaries of the functions of a strongly connected component are computed iteratively from their initial summary, until none of
+ * them changes: summaries computed from larger summaries of the callees must be larger, and the number of summaries larger than an
+ * initial summary must be finite.
+ */
+public interface SummaryProblem<S> {
+
+  S initialSummary(String function);
+
+  /**
+   * @param calleeSummaries current summary of a function called by the given function, or null if it is not part of the call graph
+   */
+  S summary(String function, Function<String, S> calleeSummaries);
+
+  /**
+   * Called for each component once the components of its batch are summarized in parallel, in the order of the components in the
+   * batch, and before the summaries of the component are read by its callers. It may replace the summaries of the functions of the
+   * component in the given map: as it is called from a single thread in a fixed order, the state it updates does not depend on
+   * the threads.
+   */
+  default void componentSummarized(Set<String> component, Map<String, S> summaries) {
+    // nothing to do by default
+  }
+}
@@ -32,6 +32,7 @@ import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.types.InferredType;
 import org.sonar.python.tree.NameImpl;
+import org.sonar.python.types.DeferredTypeInference;
 import org.sonar.python.types.InferredTypes;
 
 public class SymbolImpl implements Symbol {
@@ -40,9 +41,12 @@ public class SymbolImpl implements Symbol {
   @Nullable
   String fullyQualifiedName;
   private final List<Usage> usages = new ArrayList<>();
-  private Map<String, Symbol> childrenSymbolByName = new HashMap<>();
+  private final Map<String, Symbol> childrenSymbolByName = new HashMap<>();
   private Kind kind;
   private InferredType inferredType = InferredTypes.anyType();
+  private boolean frozen = false;
+  @Nullable
+  private DeferredTypeInference deferredTypeInference = null;
 
   public SymbolImpl(String name, @Nullable String fullyQualifiedName) {
     this.name = name;
@@ -77,7 +81,9 @@ public class SymbolImpl implements Symbol {
 
   void addUsage(Tree tree, Usage.Kind kind) {
     UsageImpl usage = new UsageImpl(tree, kind);
-    usages.add(usage);
+    if (!frozen) {
+      usages.add(usage);
+    }
     if (tree.is(Tree.Kind.NAME)) {
       ((NameImpl) tree).setSymbol(this);
       ((NameImpl) tree).setUsage(usage);
@@ -85,23 +91,21 @@ public class SymbolImpl implements Symbol {
   }
 
   void addOrCreateChildUsage(Name name, Usage.Kind kind) {
-    String childSymbolName = name.name();
-    if (!childrenSymbolByName.containsKey(childSymbolName)) {
-      String childFullyQualifiedName = fullyQualifiedName != null
-        ? (fullyQualifiedName + "." + childSymbolName)
-        : null;
-      SymbolImpl symbol = new SymbolImpl(childSymbolName, childFullyQualifiedName);
-      childrenSymbolByName.put(childSymbolName, symbol);
-    }
-    Symbol symbol = childrenSymbolByName.get(childSymbolName);
+    Symbol symbol = childrenSymbolByName.computeIfAbsent(name.name(), this::createChildSymbol);
     ((SymbolImpl) symbol).addUsage(name, kind);
   }
 
-  void addChildSymbol(Symbol symbol) {
-    childrenSymbolByName.put(symbol.name(), symbol);
+  SymbolImpl createChildSymbol(String childSymbolName) {
+    String childFullyQualifiedName = fullyQualifiedName != null
+      ? (fullyQualifiedName + "." + childSymbolName)
+      : null;
+    return new SymbolImpl(childSymbolName, childFullyQualifiedName);
   }
 
   public InferredType inferredType() {
+    if (deferredTypeInference != null) {
+      deferredTypeInference.run();
+    }
     return inferredType;
   }
 
@@ -109,6 +113,30 @@ public class SymbolImpl implements Symbol {
     this.inferredType = inferredType;
   }
 
+  /**
+   * Type inference to run before the inferred type of this symbol is read.
+   */
+  public void setDeferredTypeInference(DeferredTypeInference deferredTypeInference) {
+    this.deferredTypeInference = deferredTypeInference;
+  }
+
+  @CheckForNull
+  public DeferredTypeInference deferredTypeInference() {
+    return deferredTypeInference;
+  }
+
+  /**
+   * A frozen symbol is shared by several files and no longer records usages: the usages of each file are recorded by a copy of the symbol
+   * owned by the module scope of the file, see {@link Scope#fileUsageSymbol(SymbolImpl)}.
+   */
+  void freeze() {
+    frozen = true;
+  }
+
+  boolean isFrozen() {
+    return frozen;
+  }
+
   SymbolImpl copyWithoutUsages() {
     return new SymbolImpl(name(), fullyQualifiedName);
   }
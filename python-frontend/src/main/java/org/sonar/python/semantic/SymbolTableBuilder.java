@@ -21,7 +21,6 @@ package org.sonar.python.semantic;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -32,7 +31,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -82,7 +80,6 @@ import org.sonar.python.tree.ImportFromImpl;
 import org.sonar.python.tree.LambdaExpressionImpl;
 import org.sonar.python.tree.TreeUtils;
 import org.sonar.python.types.TypeInference;
-import org.sonar.python.types.TypeShed;
 
 import static org.sonar.python.semantic.SymbolUtils.boundNamesFromExpression;
 import static org.sonar.python.semantic.SymbolUtils.resolveTypeHierarchy;
@@ -91,8 +88,7 @@ import static org.sonar.python.semantic.SymbolUtils.resolveTypeHierarchy;
 public class SymbolTableBuilder extends BaseTreeVisitor {
   private String fullyQualifiedModuleName;
   private List<String> filePath;
-  private Map<String, Set<Symbol>> globalSymbolsByModuleName;
-  private Map<String, Symbol> globalSymbolsByFQN;
+  private ProjectLevelSymbolTable projectLevelSymbolTable;
   private Map<Tree, Scope> scopesByRootTree;
   private Set<Tree> assignmentLeftHandSides = new HashSet<>();
   private final PythonFile pythonFile;
@@ -100,16 +96,19 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
   public SymbolTableBuilder(PythonFile pythonFile) {
     fullyQualifiedModuleName = null;
     filePath = null;
-    globalSymbolsByModuleName = Collections.emptyMap();
-    globalSymbolsByFQN = Collections.emptyMap();
     this.pythonFile = pythonFile;
+    projectLevelSymbolTable = projectLevelSymbolTable(ProjectLevelSymbolTable.empty());
   }
 
   public SymbolTableBuilder(String packageName, PythonFile pythonFile) {
-    this(packageName, pythonFile, Collections.emptyMap());
+    this(packageName, pythonFile, ProjectLevelSymbolTable.empty());
   }
 
   public SymbolTableBuilder(String packageName, PythonFile pythonFile, Map<String, Set<Symbol>> globalSymbolsByModuleName) {
+    this(packageName, pythonFile, ProjectLevelSymbolTable.from(globalSymbolsByModuleName));
+  }
+
+  public SymbolTableBuilder(String packageName, PythonFile pythonFile, ProjectLevelSymbolTable projectLevelSymbolTable) {
     this.pythonFile = pythonFile;
     String fileName = pythonFile.fileName();
     int extensionIndex = fileName.lastIndexOf('.');
@@ -119,12 +118,12 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
     filePath = new ArrayList<>(Arrays.asList(packageName.split("\\.")));
     filePath.add(moduleName);
     fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, fileName);
-    this.globalSymbolsByModuleName = globalSymbolsByModuleName;
-    this.globalSymbolsByFQN = globalSymbolsByModuleName.values()
-      .stream()
-      .flatMap(Collection::stream)
-      .filter(symbol -> symbol.fullyQualifiedName() != null)
-      .collect(Collectors.toMap(Symbol::fullyQualifiedName, Function.identity()));
+    this.projectLevelSymbolTable = projectLevelSymbolTable(projectLevelSymbolTable);
+  }
+
+  private ProjectLevelSymbolTable projectLevelSymbolTable(ProjectLevelSymbolTable projectLevelSymbolTable) {
+    // TypeShed stubs are themselves analyzed with this builder: they do not resolve imports of other stubs
+    return SymbolUtils.isTypeShedFile(pythonFile) ? projectLevelSymbolTable.withoutTypeShedStubs() : projectLevelSymbolTable;
   }
 
   @Override
@@ -213,10 +212,7 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
       enterScope(tree);
       moduleScope = currentScope();
       if (!SymbolUtils.isTypeShedFile(pythonFile)) {
-        Map<String, Symbol> typeShedSymbols = TypeShed.typeShedSymbols();
-        for (String name : BuiltinSymbols.all()) {
-          currentScope().createBuiltinSymbol(name, typeShedSymbols);
-        }
+        currentScope().setBuiltinScope(BuiltinScope.instance());
       }
       super.visitFileInput(tree);
     }
@@ -302,9 +298,9 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
         ? moduleTree.names().stream().map(Name::name).collect(Collectors.joining("."))
         : null;
       if (importFrom.isWildcardImport()) {
-        Set<Symbol> importedModuleSymbols = globalSymbolsByModuleName.get(moduleName);
+        Set<Symbol> importedModuleSymbols = projectLevelSymbolTable.getSymbolsFromModule(moduleName);
         if (importedModuleSymbols != null) {
-          currentScope().createSymbolsFromWildcardImport(importedModuleSymbols, globalSymbolsByFQN);
+          currentScope().createSymbolsFromWildcardImport(importedModuleSymbols, projectLevelSymbolTable);
           ((ImportFromImpl) importFrom).setHasUnresolvedWildcardImport(false);
         } else {
           ((ImportFromImpl) importFrom).setHasUnresolvedWildcardImport(true);
@@ -326,13 +322,13 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
         }
         Name alias = module.alias();
         if (fromModuleName != null) {
-          currentScope().addImportedSymbol(alias == null ? nameTree : alias, fullyQualifiedName, globalSymbolsByFQN);
+          currentScope().addImportedSymbol(alias == null ? nameTree : alias, fullyQualifiedName, projectLevelSymbolTable);
         } else if (alias != null) {
           String fullName = module.dottedName().names().stream().map(Name::name).collect(Collectors.joining("."));
-          currentScope().addModuleSymbol(alias, fullName, globalSymbolsByModuleName, globalSymbolsByFQN);
+          currentScope().addModuleSymbol(alias, fullName, projectLevelSymbolTable);
         } else {
           // It's a simple case - no "from" imports or aliasing
-          currentScope().addModuleSymbol(nameTree, fullyQualifiedName, globalSymbolsByModuleName, globalSymbolsByFQN);
+          currentScope().addModuleSymbol(nameTree, fullyQualifiedName, projectLevelSymbolTable);
         }
       });
     }
@@ -607,6 +603,14 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
    * </pre>
    */
   private class ThirdPhaseVisitor extends BaseTreeVisitor {
+    private Scope moduleScope;
+
+    @Override
+    public void visitFileInput(FileInput fileInput) {
+      moduleScope = scopesByRootTree.get(fileInput);
+      super.visitFileInput(fileInput);
+    }
+
     @Override
     public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
       super.visitQualifiedExpression(qualifiedExpression);
@@ -616,7 +620,7 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
         .flatMap(classSymbol -> classSymbol.resolveMember(qualifiedExpression.name().name()))
         .ifPresent(member -> {
           Usage.Kind usageKind = assignmentLeftHandSides.contains(qualifiedExpression) ? Usage.Kind.ASSIGNMENT_LHS : Usage.Kind.OTHER;
-          ((SymbolImpl) member).addUsage(qualifiedExpression.name(), usageKind);
+          moduleScope.fileUsageSymbol((SymbolImpl) member).addUsage(qualifiedExpression.name(), usageKind);
         });
     }
   }
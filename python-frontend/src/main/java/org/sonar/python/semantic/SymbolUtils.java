@@ -38,6 +38,7 @@ import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.FunctionSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.ArgList;
@@ -64,7 +65,6 @@ public class SymbolUtils {
   private static final String SEND_MESSAGE = "send_message";
   private static final String SET_COOKIE = "set_cookie";
   private static final String SET_SIGNED_COOKIE = "set_signed_cookie";
-  private static final String EQ = "__eq__";
 
   private SymbolUtils() {
   }
@@ -99,6 +99,19 @@ public class SymbolUtils {
     return globalSymbols;
   }
 
+  /**
+   * Global symbols of a module which is shared by all the analyzed files, like a TypeShed stub: members of its classes are frozen.
+   */
+  public static Set<Symbol> sharedGlobalSymbols(FileInput fileInput, String packageName, PythonFile pythonFile) {
+    Set<Symbol> globalSymbols = globalSymbols(fileInput, packageName, pythonFile);
+    for (Symbol symbol : globalSymbols) {
+      if (symbol.kind() == Symbol.Kind.CLASS) {
+        ((ClassSymbol) symbol).declaredMembers().forEach(member -> ((SymbolImpl) member).freeze());
+      }
+    }
+    return globalSymbols;
+  }
+
   static void resolveTypeHierarchy(ClassDef classDef, @Nullable Symbol symbol) {
     if (symbol == null || !Symbol.Kind.CLASS.equals(symbol.kind())) {
       return;
@@ -181,13 +194,6 @@ public class SymbolUtils {
       classSymbol("Mail", "flask_mail.Mail", "send", SEND_MESSAGE),
       classSymbol("Connection", "flask_mail.Connection", "send", SEND_MESSAGE)
       )));
-    globalSymbols.put("smtplib", new HashSet<>(Arrays.asList(
-      classSymbol("SMTP", "smtplib.SMTP", "sendmail", SEND_MESSAGE, "starttls"),
-      classSymbol("SMTP_SSL", "smtplib.SMTP_SSL", "sendmail", SEND_MESSAGE)
-    )));
-    globalSymbols.put("zipfile", Collections.singleton(classSymbol("ZipFile", "zipfile.ZipFile", "extractall")));
-    globalSymbols.put("http.cookies", new HashSet<>(Collections.singletonList(classSymbol("SimpleCookie", "http.cookies.SimpleCookie"))));
-
     globalSymbols.put("django.http", new HashSet<>(Arrays.asList(
       classSymbol("HttpResponse", "django.http.HttpResponse", SET_COOKIE, SET_SIGNED_COOKIE, "__setitem__"),
       classSymbol("HttpResponseRedirect", "django.http.HttpResponseRedirect", SET_COOKIE, SET_SIGNED_COOKIE),
@@ -223,17 +229,6 @@ public class SymbolUtils {
       classSymbol("Headers", "werkzeug.datastructures.Headers", "set", "setdefault", "__setitem__")
     )));
 
-    // TODO To be removed once we import 'collections' from typeshed
-    globalSymbols.put("collections", new HashSet<>(Arrays.asList(
-      classSymbol("deque", "collections.deque", EQ),
-      classSymbol("UserList", "collections.UserList", EQ),
-      classSymbol("UserDict", "collections.UserDict", EQ),
-      classSymbol("ChainMap", "collections.ChainMap", EQ),
-      classSymbol("Counter", "collections.Counter", EQ),
-      classSymbol("OrderedDict", "collections.OrderedDict", EQ),
-      classSymbol("defaultdict", "collections.defaultdict", EQ)
-    )));
-
     return globalSymbols;
   }
 
@@ -0,0 +1,268 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.FunctionSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.types.InferredType;
+import org.sonar.python.types.InferredTypes;
+
+/**
+ * Writes and reads a set of symbols, together with the members, super classes and declared return types they refer to.
+ * Usages and definition locations are not written: this format is meant for symbols which do not belong to an analyzed file,
+ * like the TypeShed symbols.
+ *
+ * <pre>
+ *   magic, version
+ *   symbol count, then one record per symbol (implementation, kind, name, fully qualified name, implementation specific data)
+ *   count of written symbols, then their ids
+ * </pre>
+ * Class records refer to their super classes and members by id, function records refer to the class of their declared return type by id (-1 for any type).
+ */
+public class SymbolsSerializer {
+
+  static final int MAGIC = 0x50595359;
+  static final int VERSION = 1;
+
+  private static final byte SYMBOL = 0;
+  private static final byte CLASS = 1;
+  private static final byte FUNCTION = 2;
+  private static final Symbol.Kind[] KINDS = Symbol.Kind.values();
+
+  private final Map<Symbol, Integer> ids = new IdentityHashMap<>();
+  private final List<Symbol> symbols = new ArrayList<>();
+
+  private SymbolsSerializer() {
+  }
+
+  public static void write(Collection<Symbol> symbols, OutputStream outputStream) throws IOException {
+    SymbolsSerializer serializer = new SymbolsSerializer();
+    List<Integer> rootIds = new ArrayList<>();
+    for (Symbol symbol : symbols) {
+      rootIds.add(serializer.collect(symbol));
+    }
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(serializer.symbols.size());
+    for (Symbol symbol : serializer.symbols) {
+      serializer.writeSymbol(symbol, out);
+    }
+    out.writeInt(rootIds.size());
+    for (int rootId : rootIds) {
+      out.writeInt(rootId);
+    }
+    out.flush();
+  }
+
+  /**
+   * Reads the written symbols, indexed by fully qualified name.
+   */
+  public static Map<String, Symbol> read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC) {
+      throw new IllegalStateException("Not a serialized symbol table");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IllegalStateException("Unsupported serialized symbol table version: " + version);
+    }
+    int count = in.readInt();
+    SymbolImpl[] symbols = new SymbolImpl[count];
+    int[][] references = new int[count][];
+    for (int i = 0; i < count; i++) {
+      readSymbol(in, i, symbols, references);
+    }
+    for (int i = 0; i < count; i++) {
+      link(symbols[i], references[i], symbols);
+    }
+    Map<String, Symbol> result = new HashMap<>();
+    int rootCount = in.readInt();
+    for (int i = 0; i < rootCount; i++) {
+      Symbol symbol = symbols[in.readInt()];
+      result.put(symbol.fullyQualifiedName(), symbol);
+    }
+    return result;
+  }
+
+  private int collect(Symbol symbol) {
+    Integer id = ids.get(symbol);
+    if (id != null) {
+      return id;
+    }
+    id = symbols.size();
+    ids.put(symbol, id);
+    symbols.add(symbol);
+    if (symbol instanceof ClassSymbolImpl) {
+      ClassSymbol classSymbol = (ClassSymbol) symbol;
+      classSymbol.superClasses().forEach(this::collect);
+      classSymbol.declaredMembers().forEach(this::collect);
+    } else if (symbol instanceof FunctionSymbolImpl) {
+      ClassSymbol returnTypeClass = returnTypeClass((FunctionSymbolImpl) symbol);
+      if (returnTypeClass != null) {
+        collect(returnTypeClass);
+      }
+    } else if (symbol.getClass() != SymbolImpl.class) {
+      throw new IllegalStateException("Cannot serialize symbol " + symbol.name() + " of type " + symbol.getClass().getSimpleName());
+    }
+    return id;
+  }
+
+  @CheckForNull
+  private static ClassSymbol returnTypeClass(FunctionSymbolImpl functionSymbol) {
+    InferredType returnType = functionSymbol.declaredReturnType();
+    ClassSymbol typeClass = InferredTypes.typeClass(returnType);
+    if (typeClass == null && !returnType.equals(InferredTypes.anyType())) {
+      throw new IllegalStateException("Cannot serialize declared return type of " + functionSymbol.fullyQualifiedName());
+    }
+    return typeClass;
+  }
+
+  private void writeSymbol(Symbol symbol, DataOutputStream out) throws IOException {
+    if (symbol instanceof ClassSymbolImpl) {
+      ClassSymbolImpl classSymbol = (ClassSymbolImpl) symbol;
+      writeHeader(CLASS, symbol, out);
+      out.writeBoolean(classSymbol.hasSuperClassWithoutSymbol());
+      writeIds(classSymbol.superClasses(), out);
+      writeIds(classSymbol.declaredMembers(), out);
+    } else if (symbol instanceof FunctionSymbolImpl) {
+      FunctionSymbolImpl functionSymbol = (FunctionSymbolImpl) symbol;
+      writeHeader(FUNCTION, symbol, out);
+      out.writeBoolean(functionSymbol.hasVariadicParameter());
+      out.writeBoolean(functionSymbol.isInstanceMethod());
+      out.writeBoolean(functionSymbol.hasDecorators());
+      out.writeBoolean(functionSymbol.isStub());
+      out.writeInt(functionSymbol.parameters().size());
+      for (FunctionSymbol.Parameter parameter : functionSymbol.parameters()) {
+        writeNullableString(parameter.name(), out);
+        out.writeBoolean(parameter.hasDefaultValue());
+        out.writeBoolean(parameter.isKeywordOnly());
+        out.writeBoolean(parameter.isPositionalOnly());
+      }
+      ClassSymbol returnTypeClass = returnTypeClass(functionSymbol);
+      out.writeInt(returnTypeClass == null ? -1 : ids.get(returnTypeClass));
+    } else {
+      writeHeader(SYMBOL, symbol, out);
+    }
+  }
+
+  private static void writeHeader(byte implementation, Symbol symbol, DataOutputStream out) throws IOException {
+    out.writeByte(implementation);
+    out.writeByte(symbol.kind().ordinal());
+    out.writeUTF(symbol.name());
+    writeNullableString(symbol.fullyQualifiedName(), out);
+  }
+
+  private void writeIds(Collection<Symbol> referencedSymbols, DataOutputStream out) throws IOException {
+    out.writeInt(referencedSymbols.size());
+    for (Symbol symbol : referencedSymbols) {
+      out.writeInt(ids.get(symbol));
+    }
+  }
+
+  private static void writeNullableString(@Nullable String value, DataOutputStream out) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static void readSymbol(DataInputStream in, int id, SymbolImpl[] symbols, int[][] references) throws IOException {
+    byte implementation = in.readByte();
+    Symbol.Kind kind = KINDS[in.readByte()];
+    String name = in.readUTF();
+    String fullyQualifiedName = readNullableString(in);
+    SymbolImpl symbol;
+    if (implementation == CLASS) {
+      ClassSymbolImpl classSymbol = new ClassSymbolImpl(name, fullyQualifiedName);
+      if (in.readBoolean()) {
+        classSymbol.setHasSuperClassWithoutSymbol();
+      }
+      int[] superClasses = readIds(in);
+      int[] members = readIds(in);
+      int[] classReferences = new int[superClasses.length + members.length + 1];
+      classReferences[0] = superClasses.length;
+      System.arraycopy(superClasses, 0, classReferences, 1, superClasses.length);
+      System.arraycopy(members, 0, classReferences, 1 + superClasses.length, members.length);
+      references[id] = classReferences;
+      symbol = classSymbol;
+    } else if (implementation == FUNCTION) {
+      boolean hasVariadicParameter = in.readBoolean();
+      boolean isInstanceMethod = in.readBoolean();
+      boolean hasDecorators = in.readBoolean();
+      boolean isStub = in.readBoolean();
+      int parameterCount = in.readInt();
+      List<FunctionSymbol.Parameter> parameters = new ArrayList<>(parameterCount);
+      for (int i = 0; i < parameterCount; i++) {
+        parameters.add(FunctionSymbolImpl.parameter(readNullableString(in), in.readBoolean(), in.readBoolean(), in.readBoolean()));
+      }
+      symbol = new FunctionSymbolImpl(name, fullyQualifiedName, parameters, hasVariadicParameter, isInstanceMethod, hasDecorators, isStub);
+      references[id] = new int[] {in.readInt()};
+    } else {
+      symbol = new SymbolImpl(name, fullyQualifiedName);
+    }
+    symbol.setKind(kind);
+    symbols[id] = symbol;
+  }
+
+  private static void link(SymbolImpl symbol, @Nullable int[] references, SymbolImpl[] symbols) {
+    if (symbol instanceof ClassSymbolImpl) {
+      ClassSymbolImpl classSymbol = (ClassSymbolImpl) symbol;
+      int superClassCount = references[0];
+      for (int i = 1; i <= superClassCount; i++) {
+        classSymbol.addSuperClass(symbols[references[i]]);
+      }
+      List<Symbol> members = new ArrayList<>();
+      for (int i = superClassCount + 1; i < references.length; i++) {
+        members.add(symbols[references[i]]);
+      }
+      classSymbol.addMembers(members);
+    } else if (symbol instanceof FunctionSymbolImpl && references[0] >= 0) {
+      ((FunctionSymbolImpl) symbol).setDeclaredReturnType(InferredTypes.runtimeType(symbols[references[0]]));
+    }
+  }
+
+  private static int[] readIds(DataInputStream in) throws IOException {
+    int[] ids = new int[in.readInt()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = in.readInt();
+    }
+    return ids;
+  }
+
+  @CheckForNull
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
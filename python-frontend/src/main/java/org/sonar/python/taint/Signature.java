@@ -0,0 +1,102 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Parameter;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.python.tree.TreeUtils;
+
+/**
+ * Parameters of a function, used to bind the arguments of a call to the parameters of the called function.
+ */
+class Signature {
+
+  static final Signature EMPTY = new Signature(Collections.emptyList(), 0, -1, -1, false);
+
+  private final List<String> names;
+  private final int positionalCount;
+  private final int varargsIndex;
+  private final int kwargsIndex;
+  private final boolean method;
+
+  private Signature(List<String> names, int positionalCount, int varargsIndex, int kwargsIndex, boolean method) {
+    this.names = names;
+    this.positionalCount = positionalCount;
+    this.varargsIndex = varargsIndex;
+    this.kwargsIndex = kwargsIndex;
+    this.method = method;
+  }
+
+  static Signature of(FunctionDef functionDef) {
+    List<String> names = new ArrayList<>();
+    int positionalCount = -1;
+    int varargsIndex = -1;
+    int kwargsIndex = -1;
+    for (Parameter parameter : TreeUtils.nonTupleParameters(functionDef)) {
+      Token starToken = parameter.starToken();
+      String star = starToken == null ? "" : starToken.value();
+      Name name = parameter.name();
+      if ("*".equals(star) && positionalCount < 0) {
+        positionalCount = names.size();
+      }
+      if (name != null) {
+        if ("*".equals(star)) {
+          varargsIndex = names.size();
+        } else if ("**".equals(star)) {
+          kwargsIndex = names.size();
+        }
+        names.add(name.name());
+      }
+    }
+    if (positionalCount < 0) {
+      positionalCount = kwargsIndex < 0 ? names.size() : kwargsIndex;
+    }
+    return new Signature(Collections.unmodifiableList(names), positionalCount, varargsIndex, kwargsIndex, functionDef.isMethodDefinition());
+  }
+
+  int size() {
+    return names.size();
+  }
+
+  boolean isMethod() {
+    return method;
+  }
+
+  /**
+   * Index of the parameter bound to a positional argument, or -1 if there is none.
+   */
+  int positionalParameter(int position) {
+    return position < positionalCount ? position : varargsIndex;
+  }
+
+  /**
+   * Index of the parameter bound to a keyword argument, or -1 if there is none.
+   */
+  int keywordParameter(@Nullable String keyword) {
+    int index = keyword == null ? -1 : names.indexOf(keyword);
+    return index >= 0 && index != varargsIndex && index != kwargsIndex ? index : kwargsIndex;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Fully qualified names of the values and functions which introduce user-controlled data in a program, and of the functions whose
+ * result is never user-controlled.
+ */
+public class TaintConfiguration {
+
+  private static final TaintConfiguration DEFAULT = new TaintConfiguration(
+    new HashSet<>(Arrays.asList(
+      "input",
+      "raw_input",
+      "fileinput.input",
+      "sys.argv",
+      "sys.stdin",
+      "os.environ",
+      "os.environb",
+      "os.getenv",
+      "os.getenvb",
+      "flask.request")),
+    new HashSet<>(Arrays.asList(
+      "bool",
+      "float",
+      "int",
+      "len",
+      "html.escape",
+      "markupsafe.escape",
+      "pipes.quote",
+      "re.escape",
+      "shlex.quote")));
+
+  private final Set<String> sources;
+  private final Set<String> sanitizers;
+
+  /**
+   * @param sources names of the values and functions whose value or result is user-controlled. Attributes of such values and results of
+   *                their methods are user-controlled as well.
+   * @param sanitizers names of the functions whose result is never user-controlled
+   */
+  public TaintConfiguration(Set<String> sources, Set<String> sanitizers) {
+    this.sources = Collections.unmodifiableSet(new HashSet<>(sources));
+    this.sanitizers = Collections.unmodifiableSet(new HashSet<>(sanitizers));
+  }
+
+  public static TaintConfiguration defaultConfiguration() {
+    return DEFAULT;
+  }
+
+  public boolean isSource(String fullyQualifiedName) {
+    return sources.contains(fullyQualifiedName);
+  }
+
+  public boolean isSanitizer(String fullyQualifiedName) {
+    return sanitizers.contains(fullyQualifiedName);
+  }
+}
@@ -0,0 +1,644 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.AnnotatedAssignment;
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ForStatement;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.HasSymbol;
+import org.sonar.plugins.python.api.tree.LambdaExpression;
+import org.sonar.plugins.python.api.tree.ListLiteral;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Parameter;
+import org.sonar.plugins.python.api.tree.ParenthesizedExpression;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.SubscriptionExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tuple;
+import org.sonar.plugins.python.api.tree.UnpackingExpression;
+import org.sonar.plugins.python.api.tree.WithItem;
+import org.sonar.plugins.python.api.tree.YieldExpression;
+import org.sonar.python.cfg.CfgStructure;
+import org.sonar.python.tree.TreeUtils;
+
+/**
+ * A function, or the statements of a file, reduced to the flow of values between its local variables and the calls it makes, so that
+ * the syntax tree of its file is not kept until the summaries of all the functions of the project are computed.
+ * <p>
+ * The taint of a value is a bit set: bit 0 is set when the value may be user-controlled, and bit i + 1 when it may come from
+ * parameter i. Parameters from index {@link #SHARED_PARAMETER_INDEX} on share the last bit: the taint of one of them is attributed to
+ * all of them.
+ */
+class TaintFunction {
+
+  static final long SOURCE = 1L;
+  static final int SHARED_PARAMETER_INDEX = 62;
+
+  private final Signature signature;
+  private final int[] parameterVariables;
+  private final int variableCount;
+  private final int start;
+  // block identifiers in reverse postorder, and position of each block identifier in this order
+  private final int[] order;
+  private final int[] positions;
+  private final int[][] successors;
+  private final Instruction[][] instructions;
+  private final List<CallSite> callSites;
+  private final boolean generator;
+
+  private TaintFunction(Builder builder, CfgStructure structure) {
+    this.signature = builder.signature;
+    this.parameterVariables = builder.parameterVariables;
+    this.variableCount = builder.variables.size();
+    this.start = structure.start();
+    this.order = structure.reversePostorder(false, true);
+    this.positions = new int[order.length];
+    for (int position = 0; position < order.length; position++) {
+      positions[order[position]] = position;
+    }
+    this.successors = new int[structure.size()][];
+    this.instructions = new Instruction[structure.size()][];
+    for (int id = 0; id < structure.size(); id++) {
+      successors[id] = new int[structure.successorCount(id)];
+      for (int i = 0; i < successors[id].length; i++) {
+        successors[id][i] = structure.successor(id, i);
+      }
+      List<Instruction> blockInstructions = new ArrayList<>();
+      for (Tree element : structure.block(id).elements()) {
+        builder.addInstructions(element, blockInstructions);
+      }
+      instructions[id] = blockInstructions.toArray(new Instruction[0]);
+    }
+    this.callSites = builder.callSites;
+    this.generator = builder.generator;
+  }
+
+  /**
+   * @param callSiteIds when not null, receives the id of the call site of each call expression of the function
+   */
+  static TaintFunction of(FunctionDef functionDef, ControlFlowGraph cfg, TaintConfiguration configuration,
+    @Nullable Map<CallExpression, Integer> callSiteIds) {
+    Builder builder = new Builder(configuration, callSiteIds);
+    builder.signature = Signature.of(functionDef);
+    List<Parameter> parameters = TreeUtils.nonTupleParameters(functionDef);
+    List<Integer> parameterVariables = new ArrayList<>();
+    for (Parameter parameter : parameters) {
+      Name name = parameter.name();
+      if (name != null) {
+        Symbol symbol = name.symbol();
+        parameterVariables.add(symbol == null ? -1 : builder.variable(symbol));
+      }
+    }
+    builder.parameterVariables = parameterVariables.stream().mapToInt(Integer::intValue).toArray();
+    functionDef.localVariables().forEach(builder::variable);
+    return new TaintFunction(builder, CfgStructure.of(cfg));
+  }
+
+  /**
+   * @param callSiteIds when not null, receives the id of the call site of each call expression of the file
+   */
+  static TaintFunction of(FileInput fileInput, ControlFlowGraph cfg, TaintConfiguration configuration,
+    @Nullable Map<CallExpression, Integer> callSiteIds) {
+    Builder builder = new Builder(configuration, callSiteIds);
+    fileInput.globalVariables().forEach(builder::variable);
+    return new TaintFunction(builder, CfgStructure.of(cfg));
+  }
+
+  static long parameterTaint(int index) {
+    return 1L << (Math.min(index, SHARED_PARAMETER_INDEX) + 1);
+  }
+
+  Signature signature() {
+    return signature;
+  }
+
+  List<CallSite> callSites() {
+    return callSites;
+  }
+
+  /**
+   * True when the function contains a "yield": its body is not executed by the call.
+   */
+  boolean isGenerator() {
+    return generator;
+  }
+
+  /**
+   * Taint of the values computed by the function, given the summaries of the functions it calls.
+   *
+   * @param summaries summary of a called function, or null if it is not known
+   */
+  Analysis analyze(Function<String, TaintSummary> summaries) {
+    return new Analysis(summaries);
+  }
+
+  /**
+   * Taint of the value bound to each parameter of the called function by a call.
+   */
+  static long[] bind(CallSite callSite, long receiverTaint, long[] argumentTaints, Signature callee) {
+    long[] bound = new long[callee.size()];
+    int position = 0;
+    if (callee.isMethod() && callSite.boundReceiver && bound.length > 0) {
+      bound[0] |= receiverTaint;
+      position = 1;
+    }
+    // the parameters bound to the positional arguments following "*args" are unknown
+    boolean unknownPositions = false;
+    for (int i = 0; i < argumentTaints.length; i++) {
+      int parameter;
+      if (callSite.unpacking[i]) {
+        unknownPositions |= callSite.keywords[i] == null;
+        parameter = -1;
+      } else if (callSite.keywords[i] != null) {
+        parameter = callee.keywordParameter(callSite.keywords[i]);
+      } else if (unknownPositions) {
+        parameter = -1;
+      } else {
+        parameter = callee.positionalParameter(position);
+        position++;
+      }
+      if (parameter >= 0) {
+        bound[parameter] |= argumentTaints[i];
+      } else if (callSite.unpacking[i] || unknownPositions) {
+        for (int p = 0; p < bound.length; p++) {
+          bound[p] |= argumentTaints[i];
+        }
+      }
+    }
+    return bound;
+  }
+
+  class Analysis {
+
+    private final Function<String, TaintSummary> summaries;
+    private final long[] receiverTaints = new long[callSites.size()];
+    private final long[][] argumentTaints = new long[callSites.size()][];
+    private long returnedTaint = 0L;
+    // number of instructions executed until the fixpoint is reached
+    private long steps = 0L;
+
+    private Analysis(Function<String, TaintSummary> summaries) {
+      this.summaries = summaries;
+      for (int id = 0; id < argumentTaints.length; id++) {
+        argumentTaints[id] = new long[callSites.get(id).arguments.length];
+      }
+      solve();
+    }
+
+    private void solve() {
+      long[][] inputs = new long[successors.length][];
+      long[] entry = new long[variableCount];
+      for (int i = 0; i < parameterVariables.length; i++) {
+        if (parameterVariables[i] >= 0) {
+          entry[parameterVariables[i]] |= parameterTaint(i);
+        }
+      }
+      inputs[start] = entry;
+      BitSet workList = new BitSet(order.length);
+      workList.set(positions[start]);
+      int position = workList.nextSetBit(0);
+      while (position >= 0) {
+        workList.clear(position);
+        int id = order[position];
+        long[] state = inputs[id].clone();
+        for (Instruction instruction : instructions[id]) {
+          execute(instruction, state);
+        }
+        steps += instructions[id].length;
+        for (int successor : successors[id]) {
+          if (merge(inputs, successor, state)) {
+            workList.set(positions[successor]);
+          }
+        }
+        position = workList.nextSetBit(0);
+      }
+    }
+
+    private boolean merge(long[][] inputs, int block, long[] state) {
+      long[] input = inputs[block];
+      if (input == null) {
+        inputs[block] = state.clone();
+        return true;
+      }
+      boolean changed = false;
+      for (int i = 0; i < state.length; i++) {
+        if ((input[i] | state[i]) != input[i]) {
+          input[i] |= state[i];
+          changed = true;
+        }
+      }
+      return changed;
+    }
+
+    private void execute(Instruction instruction, long[] state) {
+      long taint = evaluate(instruction.value, state);
+      if (instruction.isReturn) {
+        returnedTaint |= taint;
+      }
+      for (int target : instruction.strongTargets) {
+        state[target] = taint;
+      }
+      for (int target : instruction.weakTargets) {
+        state[target] |= taint;
+      }
+    }
+
+    private long evaluate(Operand operand, long[] state) {
+      long taint = operand.source ? SOURCE : 0L;
+      for (int variable : operand.variables) {
+        taint |= state[variable];
+      }
+      for (int callSite : operand.calls) {
+        taint |= evaluateCall(callSite, state);
+      }
+      return taint;
+    }
+
+    private long evaluateCall(int id, long[] state) {
+      CallSite callSite = callSites.get(id);
+      long receiverTaint = evaluate(callSite.receiver, state);
+      receiverTaints[id] |= receiverTaint;
+      long[] taints = new long[callSite.arguments.length];
+      long allTaints = receiverTaint;
+      for (int i = 0; i < taints.length; i++) {
+        taints[i] = evaluate(callSite.arguments[i], state);
+        argumentTaints[id][i] |= taints[i];
+        allTaints |= taints[i];
+      }
+      if (callSite.kind == CallSite.Kind.SOURCE) {
+        return SOURCE;
+      }
+      if (callSite.kind == CallSite.Kind.SANITIZER) {
+        return 0L;
+      }
+      TaintSummary summary = callSite.callee == null ? null : summaries.apply(callSite.callee);
+      if (summary == null) {
+        // the result of an unknown function, like a method of a user-controlled value, may depend on all its arguments
+        return allTaints;
+      }
+      long taint = summary.returnsUserControlledData() ? SOURCE : 0L;
+      long[] bound = bind(callSite, receiverTaint, taints, summary.signature());
+      for (int parameter = 0; parameter < bound.length; parameter++) {
+        if (summary.propagates(parameter)) {
+          taint |= bound[parameter];
+        }
+      }
+      return taint;
+    }
+
+    long steps() {
+      return steps;
+    }
+
+    TaintSummary summary() {
+      return new TaintSummary(signature, (returnedTaint & SOURCE) != 0, returnedTaint >>> 1);
+    }
+
+    long receiverTaint(int callSite) {
+      return receiverTaints[callSite];
+    }
+
+    long[] argumentTaints(int callSite) {
+      return argumentTaints[callSite];
+    }
+  }
+
+  static final class CallSite {
+
+    enum Kind {
+      SOURCE,
+      SANITIZER,
+      OTHER
+    }
+
+    @Nullable
+    final String callee;
+    final Kind kind;
+    final Operand receiver;
+    // whether the receiver is bound to the first parameter of a method
+    final boolean boundReceiver;
+    final Operand[] arguments;
+    final String[] keywords;
+    final boolean[] unpacking;
+
+    private CallSite(@Nullable String callee, Kind kind, Operand receiver, boolean boundReceiver, List<Operand> arguments, List<String> keywords,
+      List<Boolean> unpacking) {
+      this.callee = callee;
+      this.kind = kind;
+      this.receiver = receiver;
+      this.boundReceiver = boundReceiver;
+      this.arguments = arguments.toArray(new Operand[0]);
+      this.keywords = keywords.toArray(new String[0]);
+      this.unpacking = new boolean[unpacking.size()];
+      for (int i = 0; i < unpacking.size(); i++) {
+        this.unpacking[i] = unpacking.get(i);
+      }
+    }
+  }
+
+  private static final class Operand {
+
+    private static final Operand EMPTY = new Operand(false, new int[0], new int[0]);
+
+    private final boolean source;
+    private final int[] variables;
+    private final int[] calls;
+
+    private Operand(boolean source, int[] variables, int[] calls) {
+      this.source = source;
+      this.variables = variables;
+      this.calls = calls;
+    }
+  }
+
+  private static final class Instruction {
+
+    private final Operand value;
+    private final boolean isReturn;
+    private final int[] strongTargets;
+    private final int[] weakTargets;
+
+    private Instruction(Operand value, boolean isReturn, List<Integer> strongTargets, List<Integer> weakTargets) {
+      this.value = value;
+      this.isReturn = isReturn;
+      this.strongTargets = strongTargets.stream().mapToInt(Integer::intValue).toArray();
+      this.weakTargets = weakTargets.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+
+  private static class Builder {
+
+    private final TaintConfiguration configuration;
+    private final Map<Symbol, Integer> variables = new HashMap<>();
+    private final List<CallSite> callSites = new ArrayList<>();
+    private final Map<CallExpression, Integer> callSiteIds;
+    private Signature signature = Signature.EMPTY;
+    private int[] parameterVariables = new int[0];
+    private boolean generator = false;
+
+    private Builder(TaintConfiguration configuration, @Nullable Map<CallExpression, Integer> callSiteIds) {
+      this.configuration = configuration;
+      this.callSiteIds = callSiteIds != null ? callSiteIds : new HashMap<>();
+    }
+
+    private int variable(Symbol symbol) {
+      return variables.computeIfAbsent(symbol, s -> variables.size());
+    }
+
+    private void addInstructions(Tree element, List<Instruction> instructions) {
+      List<Integer> strongTargets = new ArrayList<>();
+      List<Integer> weakTargets = new ArrayList<>();
+      Tree value = element;
+      boolean isReturn = false;
+      switch (element.getKind()) {
+        case ASSIGNMENT_STMT:
+          AssignmentStatement assignment = (AssignmentStatement) element;
+          assignment.lhsExpressions().stream().flatMap(lhs -> lhs.expressions().stream()).forEach(lhs -> addTargets(lhs, strongTargets, weakTargets));
+          value = assignment.assignedValue();
+          break;
+        case ANNOTATED_ASSIGNMENT:
+          AnnotatedAssignment annotatedAssignment = (AnnotatedAssignment) element;
+          if (annotatedAssignment.assignedValue() == null) {
+            return;
+          }
+          addTargets(annotatedAssignment.variable(), strongTargets, weakTargets);
+          value = annotatedAssignment.assignedValue();
+          break;
+        case COMPOUND_ASSIGNMENT:
+          CompoundAssignmentStatement compoundAssignment = (CompoundAssignmentStatement) element;
+          addTargets(compoundAssignment.lhsExpression(), weakTargets, weakTargets);
+          value = compoundAssignment.rhsExpression();
+          break;
+        case WITH_ITEM:
+          WithItem withItem = (WithItem) element;
+          if (withItem.expression() != null) {
+            addTargets(withItem.expression(), strongTargets, weakTargets);
+          }
+          value = withItem.test();
+          break;
+        case RETURN_STMT:
+          isReturn = true;
+          break;
+        case PARAMETER:
+        case FUNCDEF:
+          return;
+        default:
+          ForStatement forStatement = forStatementOfTarget(element);
+          if (forStatement != null) {
+            addTargets((Expression) element, strongTargets, weakTargets);
+            instructions.add(new Instruction(operand(forStatement.testExpressions()), false, strongTargets, weakTargets));
+            return;
+          }
+      }
+      instructions.add(new Instruction(operand(value), isReturn, strongTargets, weakTargets));
+    }
+
+    @CheckForNull
+    private static ForStatement forStatementOfTarget(Tree element) {
+      Tree parent = element.parent();
+      if (parent != null && parent.is(Tree.Kind.FOR_STMT) && ((ForStatement) parent).expressions().contains(element)) {
+        return (ForStatement) parent;
+      }
+      return null;
+    }
+
+    /**
+     * Assigning a variable replaces its taint, while assigning an element or an attribute of a variable adds to its taint.
+     */
+    private void addTargets(Expression target, List<Integer> strongTargets, List<Integer> weakTargets) {
+      if (target.is(Tree.Kind.NAME)) {
+        Symbol symbol = ((Name) target).symbol();
+        Integer variable = symbol == null ? null : variables.get(symbol);
+        if (variable != null) {
+          strongTargets.add(variable);
+        }
+      } else if (target.is(Tree.Kind.TUPLE)) {
+        ((Tuple) target).elements().forEach(element -> addTargets(element, strongTargets, weakTargets));
+      } else if (target.is(Tree.Kind.LIST_LITERAL)) {
+        ((ListLiteral) target).elements().expressions().forEach(element -> addTargets(element, strongTargets, weakTargets));
+      } else if (target.is(Tree.Kind.PARENTHESIZED)) {
+        addTargets(((ParenthesizedExpression) target).expression(), strongTargets, weakTargets);
+      } else if (target.is(Tree.Kind.UNPACKING_EXPR)) {
+        addTargets(((UnpackingExpression) target).expression(), strongTargets, weakTargets);
+      } else if (target.is(Tree.Kind.SUBSCRIPTION)) {
+        addTargets(((SubscriptionExpression) target).object(), weakTargets, weakTargets);
+      } else if (target.is(Tree.Kind.QUALIFIED_EXPR)) {
+        addTargets(((QualifiedExpression) target).qualifier(), weakTargets, weakTargets);
+      }
+    }
+
+    private Operand operand(List<? extends Tree> trees) {
+      OperandVisitor visitor = new OperandVisitor();
+      trees.forEach(tree -> tree.accept(visitor));
+      return visitor.operand();
+    }
+
+    private Operand operand(@Nullable Tree tree) {
+      if (tree == null) {
+        return Operand.EMPTY;
+      }
+      OperandVisitor visitor = new OperandVisitor();
+      tree.accept(visitor);
+      return visitor.operand();
+    }
+
+    private int callSite(CallExpression callExpression) {
+      Integer existingId = callSiteIds.get(callExpression);
+      if (existingId != null) {
+        return existingId;
+      }
+      int id = callSites.size();
+      callSiteIds.put(callExpression, id);
+      // reserves the id: the call sites of the arguments come after this one
+      callSites.add(null);
+      Symbol symbol = callExpression.calleeSymbol();
+      String callee = symbol == null ? null : symbol.fullyQualifiedName();
+      CallSite.Kind kind = CallSite.Kind.OTHER;
+      if (callee != null && configuration.isSource(callee)) {
+        kind = CallSite.Kind.SOURCE;
+      } else if (callee != null && configuration.isSanitizer(callee)) {
+        kind = CallSite.Kind.SANITIZER;
+      }
+      Expression calleeExpression = callExpression.callee();
+      Operand receiver;
+      boolean boundReceiver = false;
+      if (calleeExpression.is(Tree.Kind.QUALIFIED_EXPR)) {
+        Expression qualifier = ((QualifiedExpression) calleeExpression).qualifier();
+        receiver = operand(qualifier);
+        Symbol qualifierSymbol = qualifier instanceof HasSymbol ? ((HasSymbol) qualifier).symbol() : null;
+        boundReceiver = qualifierSymbol == null || qualifierSymbol.kind() != Symbol.Kind.CLASS;
+      } else if (calleeExpression.is(Tree.Kind.NAME)) {
+        receiver = Operand.EMPTY;
+      } else {
+        receiver = operand(calleeExpression);
+      }
+      List<Operand> arguments = new ArrayList<>();
+      List<String> keywords = new ArrayList<>();
+      List<Boolean> unpacking = new ArrayList<>();
+      for (Argument argument : callExpression.arguments()) {
+        if (argument.is(Tree.Kind.REGULAR_ARGUMENT)) {
+          RegularArgument regularArgument = (RegularArgument) argument;
+          Name keyword = regularArgument.keywordArgument();
+          arguments.add(operand(regularArgument.expression()));
+          keywords.add(keyword == null ? null : keyword.name());
+          unpacking.add(false);
+        } else {
+          UnpackingExpression unpackingExpression = (UnpackingExpression) argument;
+          arguments.add(operand(unpackingExpression.expression()));
+          // "**" unpacks keyword arguments
+          keywords.add("**".equals(unpackingExpression.starToken().value()) ? "**" : null);
+          unpacking.add(true);
+        }
+      }
+      callSites.set(id, new CallSite(callee, kind, receiver, boundReceiver, arguments, keywords, unpacking));
+      return id;
+    }
+
+    private class OperandVisitor extends BaseTreeVisitor {
+
+      private boolean source = false;
+      private final Set<Integer> variableIds = new LinkedHashSet<>();
+      private final Set<Integer> callIds = new LinkedHashSet<>();
+
+      private Operand operand() {
+        if (!source && variableIds.isEmpty() && callIds.isEmpty()) {
+          return Operand.EMPTY;
+        }
+        return new Operand(source, variableIds.stream().mapToInt(Integer::intValue).toArray(), callIds.stream().mapToInt(Integer::intValue).toArray());
+      }
+
+      @Override
+      public void visitName(Name name) {
+        Symbol symbol = name.symbol();
+        if (symbol == null) {
+          return;
+        }
+        String fullyQualifiedName = symbol.fullyQualifiedName();
+        if (fullyQualifiedName != null && configuration.isSource(fullyQualifiedName)) {
+          source = true;
+        } else {
+          Integer variable = variables.get(symbol);
+          if (variable != null) {
+            variableIds.add(variable);
+          }
+        }
+      }
+
+      @Override
+      public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
+        Symbol symbol = qualifiedExpression.symbol();
+        String fullyQualifiedName = symbol == null ? null : symbol.fullyQualifiedName();
+        if (fullyQualifiedName != null && configuration.isSource(fullyQualifiedName)) {
+          source = true;
+        } else {
+          // an attribute of a user-controlled value is user-controlled
+          qualifiedExpression.qualifier().accept(this);
+        }
+      }
+
+      @Override
+      public void visitCallExpression(CallExpression callExpression) {
+        callIds.add(callSite(callExpression));
+      }
+
+      @Override
+      public void visitRegularArgument(RegularArgument regularArgument) {
+        // the name of a keyword argument is not a value
+        regularArgument.expression().accept(this);
+      }
+
+      @Override
+      public void visitYieldExpression(YieldExpression yieldExpression) {
+        generator = true;
+        super.visitYieldExpression(yieldExpression);
+      }
+
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        // the body of a nested function is not executed
+      }
+
+      @Override
+      public void visitLambda(LambdaExpression lambdaExpression) {
+        // the body of a lambda is not executed
+      }
+    }
+  }
+}
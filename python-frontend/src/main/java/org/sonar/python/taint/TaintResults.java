@@ -0,0 +1,84 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+
+/**
+ * Arguments of the calls of a function, or of the statements of a file, which may be user-controlled, given the taint summaries of the
+ * project. The calls made in a lambda or in a nested function are not part of the results.
+ */
+public class TaintResults {
+
+  private final Map<CallExpression, Integer> callSiteIds;
+  private final TaintFunction.Analysis analysis;
+  private final long entryTaint;
+
+  private TaintResults(Map<CallExpression, Integer> callSiteIds, TaintFunction.Analysis analysis, long entryTaint) {
+    this.callSiteIds = callSiteIds;
+    this.analysis = analysis;
+    this.entryTaint = entryTaint;
+  }
+
+  public static TaintResults analyze(FunctionDef functionDef, ControlFlowGraph cfg, TaintSummaries summaries) {
+    Map<CallExpression, Integer> callSiteIds = new HashMap<>();
+    TaintFunction function = TaintFunction.of(functionDef, cfg, summaries.configuration(), callSiteIds);
+    Symbol symbol = functionDef.name().symbol();
+    String fullyQualifiedName = symbol == null ? null : symbol.fullyQualifiedName();
+    long entryTaint = fullyQualifiedName == null ? 0L : summaries.entryTaint(fullyQualifiedName);
+    return new TaintResults(callSiteIds, function.analyze(summaries::summary), entryTaint);
+  }
+
+  public static TaintResults analyze(FileInput fileInput, ControlFlowGraph cfg, TaintSummaries summaries) {
+    Map<CallExpression, Integer> callSiteIds = new HashMap<>();
+    TaintFunction function = TaintFunction.of(fileInput, cfg, summaries.configuration(), callSiteIds);
+    return new TaintResults(callSiteIds, function.analyze(summaries::summary), 0L);
+  }
+
+  /**
+   * True when the argument at the given index in the argument list of the given call may be user-controlled.
+   */
+  public boolean isUserControlled(CallExpression callExpression, int argumentIndex) {
+    Integer id = callSiteIds.get(callExpression);
+    if (id == null) {
+      return false;
+    }
+    long[] argumentTaints = analysis.argumentTaints(id);
+    return argumentIndex < argumentTaints.length && isUserControlled(argumentTaints[argumentIndex]);
+  }
+
+  /**
+   * True when the object whose method is called by the given call may be user-controlled.
+   */
+  public boolean isReceiverUserControlled(CallExpression callExpression) {
+    Integer id = callSiteIds.get(callExpression);
+    return id != null && isUserControlled(analysis.receiverTaint(id));
+  }
+
+  private boolean isUserControlled(long taint) {
+    return (taint & (TaintFunction.SOURCE | entryTaint)) != 0;
+  }
+}
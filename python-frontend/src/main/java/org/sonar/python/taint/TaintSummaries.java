@@ -0,0 +1,343 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.python.cfg.FileControlFlowGraph;
+import org.sonar.python.semantic.CallGraph;
+import org.sonar.python.semantic.SummaryProblem;
+
+/**
+ * Taint summaries of the functions of a project, computed bottom-up on its call graph, and parameters of these functions which may
+ * receive user-controlled data from their callers, computed top-down. Functions are identified by their fully qualified name.
+ * <p>
+ * Summaries are computed within a budget of steps, the number of instructions executed by the analysis of the functions. The steps
+ * are charged per component of the call graph, in a fixed order, so that the result does not depend on the order in which components
+ * are analyzed in parallel: once the budget is exhausted, the next components get an unknown summary, whose result depends on all
+ * their parameters. The functions are analyzed again with the summaries of their callees to find the parameters which may receive
+ * user-controlled data: this pass is charged against the same budget, and the calls of the functions analyzed once it is exhausted are
+ * ignored.
+ */
+public class TaintSummaries {
+
+  public static final long DEFAULT_MAX_STEPS = 100_000_000L;
+
+  private final TaintConfiguration configuration;
+  private final Map<String, TaintSummary> summaries;
+  // bit i + 1 is set when parameter i may receive user-controlled data
+  private final Map<String, Long> entryTaints;
+  private final int functionsOverBudget;
+
+  private TaintSummaries(TaintConfiguration configuration, Map<String, TaintSummary> summaries, Map<String, Long> entryTaints, int functionsOverBudget) {
+    this.configuration = configuration;
+    this.summaries = summaries;
+    this.entryTaints = entryTaints;
+    this.functionsOverBudget = functionsOverBudget;
+  }
+
+  public static TaintSummaries empty() {
+    return new TaintSummaries(TaintConfiguration.defaultConfiguration(), Collections.emptyMap(), Collections.emptyMap(), 0);
+  }
+
+  public TaintConfiguration configuration() {
+    return configuration;
+  }
+
+  /**
+   * Summary of the function with the given fully qualified name, or null if the function is not part of the project.
+   */
+  @CheckForNull
+  public TaintSummary summary(String fullyQualifiedName) {
+    return summaries.get(fullyQualifiedName);
+  }
+
+  /**
+   * True when the given parameter of the function with the given fully qualified name may receive user-controlled data from a call
+   * in the project.
+   */
+  public boolean isParameterUserControlled(String fullyQualifiedName, int parameterIndex) {
+    return (entryTaint(fullyQualifiedName) & TaintFunction.parameterTaint(parameterIndex)) != 0;
+  }
+
+  long entryTaint(String fullyQualifiedName) {
+    return entryTaints.getOrDefault(fullyQualifiedName, 0L);
+  }
+
+  /**
+   * Number of functions whose summary, or whose calls, were not analyzed because the budget of steps was exhausted.
+   */
+  public int functionsOverBudget() {
+    return functionsOverBudget;
+  }
+
+  /**
+   * Collects the functions of the files of a project. Each file must have been visited by a
+   * {@link org.sonar.python.semantic.SymbolTableBuilder}.
+   */
+  public static class Builder {
+
+    private final TaintConfiguration configuration;
+    private final long maxSteps;
+    private final Map<String, TaintFunction> functions = new HashMap<>();
+    // functions whose body is not analyzed, with their signature
+    private final Map<String, Signature> unknownFunctions = new HashMap<>();
+    private final List<TaintFunction> modules = new ArrayList<>();
+
+    /**
+     * @param maxSteps number of instructions which may be executed by the analysis of the functions of the project
+     */
+    public Builder(TaintConfiguration configuration, long maxSteps) {
+      this.configuration = configuration;
+      this.maxSteps = maxSteps;
+    }
+
+    public Builder addFile(FileInput fileInput, FileControlFlowGraph fileCfg) {
+      if (fileCfg.graph(FileControlFlowGraph.MODULE_ID) != null) {
+        modules.add(TaintFunction.of(fileInput, fileCfg.graph(FileControlFlowGraph.MODULE_ID), configuration, null));
+      }
+      Set<String> duplicatedNames = new HashSet<>();
+      for (int id = FileControlFlowGraph.MODULE_ID + 1; id < fileCfg.size(); id++) {
+        FunctionDef functionDef = fileCfg.functionDef(id);
+        Symbol symbol = functionDef.name().symbol();
+        String fullyQualifiedName = symbol == null ? null : symbol.fullyQualifiedName();
+        if (fullyQualifiedName == null) {
+          continue;
+        }
+        if (functions.containsKey(fullyQualifiedName) || unknownFunctions.containsKey(fullyQualifiedName)) {
+          duplicatedNames.add(fullyQualifiedName);
+        }
+        functions.remove(fullyQualifiedName);
+        unknownFunctions.put(fullyQualifiedName, Signature.of(functionDef));
+        if (fileCfg.graph(id) != null && functionDef.decorators().isEmpty() && !duplicatedNames.contains(fullyQualifiedName)) {
+          // decorators may replace the function by anything
+          TaintFunction function = TaintFunction.of(functionDef, fileCfg.graph(id), configuration, null);
+          if (!function.isGenerator()) {
+            unknownFunctions.remove(fullyQualifiedName);
+            functions.put(fullyQualifiedName, function);
+          }
+        }
+      }
+      return this;
+    }
+
+    public TaintSummaries build() {
+      Set<String> overBudget = new HashSet<>();
+      Map<String, Set<String>> calledNamesByFunction = new HashMap<>();
+      unknownFunctions.keySet().forEach(name -> calledNamesByFunction.put(name, Collections.emptySet()));
+      functions.forEach((name, function) -> calledNamesByFunction.put(name, calledNames(function)));
+      CallGraph callGraph = new CallGraph(calledNamesByFunction);
+      StepBudget budget = new StepBudget(maxSteps);
+      Map<String, TaintSummary> summaries = callGraph.summaries(new SummaryProblem<TaintSummary>() {
+        private final Map<String, Long> stepsByFunction = new ConcurrentHashMap<>();
+
+        @Override
+        public TaintSummary initialSummary(String function) {
+          return new TaintSummary(signature(function), false, 0L);
+        }
+
+        @Override
+        public TaintSummary summary(String function, Function<String, TaintSummary> calleeSummaries) {
+          TaintFunction taintFunction = functions.get(function);
+          if (taintFunction == null || budget.isExhausted()) {
+            return TaintSummary.unknown(signature(function));
+          }
+          TaintFunction.Analysis analysis = taintFunction.analyze(calleeSummaries);
+          stepsByFunction.merge(function, analysis.steps(), Long::sum);
+          return analysis.summary();
+        }
+
+        @Override
+        public void componentSummarized(Set<String> component, Map<String, TaintSummary> componentSummaries) {
+          boolean exhausted = budget.isExhausted();
+          for (String function : component) {
+            budget.charge(stepsByFunction.getOrDefault(function, 0L));
+            if (exhausted && functions.containsKey(function)) {
+              overBudget.add(function);
+              componentSummaries.put(function, TaintSummary.unknown(signature(function)));
+            }
+          }
+        }
+      });
+      Map<String, Long> entryTaints = entryTaints(summaries, budget, overBudget);
+      return new TaintSummaries(configuration, summaries, entryTaints, overBudget.size());
+    }
+
+    private Signature signature(String function) {
+      TaintFunction taintFunction = functions.get(function);
+      return taintFunction != null ? taintFunction.signature() : unknownFunctions.get(function);
+    }
+
+    private static Set<String> calledNames(TaintFunction function) {
+      Set<String> calledNames = new LinkedHashSet<>();
+      for (TaintFunction.CallSite callSite : function.callSites()) {
+        if (callSite.callee != null) {
+          calledNames.add(callSite.callee);
+        }
+      }
+      return calledNames;
+    }
+
+    /**
+     * Propagates user-controlled data from the arguments of calls to the parameters of the called functions, until no parameter of a
+     * function of the project receives more user-controlled data.
+     */
+    private Map<String, Long> entryTaints(Map<String, TaintSummary> summaries, StepBudget budget, Set<String> overBudget) {
+      // for the modules, then for each function, the parameters bound by its calls to the parameters of the called functions.
+      // Functions over budget are not analyzed again.
+      List<String> names = new ArrayList<>(functions.keySet());
+      names.removeAll(overBudget);
+      Collections.sort(names);
+      List<TaintFunction> toAnalyze = new ArrayList<>(modules);
+      names.forEach(name -> toAnalyze.add(functions.get(name)));
+      List<List<Binding>> bindings = bindings(toAnalyze, summaries, budget);
+
+      List<Binding> rootBindings = new ArrayList<>();
+      for (int i = 0; i < modules.size(); i++) {
+        if (bindings.get(i) != null) {
+          rootBindings.addAll(bindings.get(i));
+        }
+      }
+      Map<String, List<Binding>> bindingsByFunction = new HashMap<>();
+      for (int i = 0; i < names.size(); i++) {
+        List<Binding> functionBindings = bindings.get(modules.size() + i);
+        if (functionBindings == null) {
+          overBudget.add(names.get(i));
+        } else {
+          bindingsByFunction.put(names.get(i), functionBindings);
+        }
+      }
+
+      Map<String, Long> entryTaints = new HashMap<>();
+      Set<String> workList = new LinkedHashSet<>();
+      propagate(rootBindings, 0L, entryTaints, workList);
+      workList.addAll(bindingsByFunction.keySet());
+      while (!workList.isEmpty()) {
+        String function = workList.iterator().next();
+        workList.remove(function);
+        propagate(bindingsByFunction.getOrDefault(function, Collections.emptyList()), entryTaints.getOrDefault(function, 0L), entryTaints, workList);
+      }
+      return entryTaints;
+    }
+
+    /**
+     * Bindings of the calls of the given functions, analyzed in parallel by batches and charged in the given order: the bindings of a
+     * function analyzed once the budget is exhausted are null, and its calls are ignored.
+     */
+    private List<List<Binding>> bindings(List<TaintFunction> toAnalyze, Map<String, TaintSummary> summaries, StepBudget budget) {
+      List<List<Binding>> result = new ArrayList<>(Collections.nCopies(toAnalyze.size(), null));
+      for (int from = 0; from < toAnalyze.size() && !budget.isExhausted(); from += CallGraph.PARALLEL_BATCH_SIZE) {
+        int to = Math.min(toAnalyze.size(), from + CallGraph.PARALLEL_BATCH_SIZE);
+        long[] steps = new long[to - from];
+        int batchStart = from;
+        IntStream.range(from, to).parallel().forEach(i -> {
+          TaintFunction.Analysis analysis = toAnalyze.get(i).analyze(summaries::get);
+          steps[i - batchStart] = analysis.steps();
+          result.set(i, bindings(toAnalyze.get(i), analysis));
+        });
+        for (int i = from; i < to; i++) {
+          if (budget.isExhausted()) {
+            result.set(i, null);
+          }
+          budget.charge(steps[i - from]);
+        }
+      }
+      return result;
+    }
+
+    private static void propagate(List<Binding> bindings, long entryTaint, Map<String, Long> entryTaints, Set<String> workList) {
+      for (Binding binding : bindings) {
+        if ((binding.argumentTaint & (TaintFunction.SOURCE | entryTaint)) != 0) {
+          long calleeTaint = entryTaints.getOrDefault(binding.callee, 0L);
+          long newCalleeTaint = calleeTaint | TaintFunction.parameterTaint(binding.parameter);
+          if (newCalleeTaint != calleeTaint) {
+            entryTaints.put(binding.callee, newCalleeTaint);
+            workList.add(binding.callee);
+          }
+        }
+      }
+    }
+
+    private List<Binding> bindings(TaintFunction function, TaintFunction.Analysis analysis) {
+      List<Binding> bindings = new ArrayList<>();
+      List<TaintFunction.CallSite> callSites = function.callSites();
+      for (int id = 0; id < callSites.size(); id++) {
+        TaintFunction.CallSite callSite = callSites.get(id);
+        Signature signature = callSite.callee == null ? null : signature(callSite.callee);
+        if (signature != null) {
+          long[] bound = TaintFunction.bind(callSite, analysis.receiverTaint(id), analysis.argumentTaints(id), signature);
+          for (int parameter = 0; parameter < bound.length; parameter++) {
+            if (bound[parameter] != 0) {
+              bindings.add(new Binding(callSite.callee, parameter, bound[parameter]));
+            }
+          }
+        }
+      }
+      return bindings;
+    }
+  }
+
+  /**
+   * Steps charged against a budget, always from the same thread.
+   */
+  private static class StepBudget {
+
+    private final long maxSteps;
+    private long steps = 0L;
+
+    private StepBudget(long maxSteps) {
+      this.maxSteps = maxSteps;
+    }
+
+    private boolean isExhausted() {
+      return steps > maxSteps;
+    }
+
+    private void charge(long chargedSteps) {
+      steps += chargedSteps;
+    }
+  }
+
+  private static class Binding {
+
+    private final String callee;
+    private final int parameter;
+    private final long argumentTaint;
+
+    private Binding(String callee, int parameter, long argumentTaint) {
+      this.callee = callee;
+      this.parameter = parameter;
+      this.argumentTaint = argumentTaint;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.Objects;
+
+/**
+ * Whether the result of a call to a function may be user-controlled, whatever its arguments, and which of its parameters flow into
+ * its result.
+ */
+public final class TaintSummary {
+
+  private final Signature signature;
+  private final boolean returnsSource;
+  // bit i is set when parameter i flows into the result, the last bit is shared by the parameters from index 62 on
+  private final long propagatedParameters;
+
+  TaintSummary(Signature signature, boolean returnsSource, long propagatedParameters) {
+    this.signature = signature;
+    this.returnsSource = returnsSource;
+    this.propagatedParameters = propagatedParameters;
+  }
+
+  /**
+   * Summary of a function whose body was not analyzed: all its parameters may flow into its result.
+   */
+  static TaintSummary unknown(Signature signature) {
+    return new TaintSummary(signature, false, mask(signature.size()));
+  }
+
+  Signature signature() {
+    return signature;
+  }
+
+  /**
+   * True when the result of the function may be user-controlled data which does not come from its arguments.
+   */
+  public boolean returnsUserControlledData() {
+    return returnsSource;
+  }
+
+  /**
+   * True when the given parameter may flow into the result of the function.
+   */
+  public boolean propagates(int parameterIndex) {
+    return (propagatedParameters & (1L << Math.min(parameterIndex, TaintFunction.SHARED_PARAMETER_INDEX))) != 0;
+  }
+
+  /**
+   * True when the result of the function is never user-controlled.
+   */
+  public boolean isSanitizer() {
+    return !returnsSource && (propagatedParameters & mask(signature.size())) == 0;
+  }
+
+  long propagatedParameters() {
+    return propagatedParameters;
+  }
+
+  private static long mask(int parameterCount) {
+    return (1L << Math.min(parameterCount, TaintFunction.SHARED_PARAMETER_INDEX + 1)) - 1;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TaintSummary that = (TaintSummary) o;
+    return returnsSource == that.returnsSource && propagatedParameters == that.propagatedParameters && signature == that.signature;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(signature, returnsSource, propagatedParameters);
+  }
+}
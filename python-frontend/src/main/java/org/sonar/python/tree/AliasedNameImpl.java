@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.AliasedName;
 import org.sonar.plugins.python.api.tree.DottedName;
@@ -77,7 +73,7 @@ public class AliasedNameImpl extends PyTree implements AliasedName {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(dottedName, asKeyword, alias).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(dottedName, asKeyword, alias);
   }
 }
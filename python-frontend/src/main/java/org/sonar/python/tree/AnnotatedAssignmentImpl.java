@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.AnnotatedAssignment;
@@ -83,9 +78,14 @@ public class AnnotatedAssignmentImpl extends SimpleStatement implements Annotate
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(variable, annotation, equalToken, assignedValue), separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 4)
+      .add(variable)
+      .add(annotation)
+      .add(equalToken)
+      .add(assignedValue)
+      .addAll(separators.elements())
+      .build();
   }
 
   @Override
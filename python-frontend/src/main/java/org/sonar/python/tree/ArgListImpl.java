@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.Argument;
 import org.sonar.plugins.python.api.tree.ArgList;
@@ -48,17 +47,17 @@ public class ArgListImpl extends PyTree implements ArgList {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(arguments.size() + commas.size());
     int i = 0;
     for (Tree argument : arguments) {
-      children.add(argument);
+      builder.add(argument);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    return children;
+    return builder.build();
   }
 
   @Override
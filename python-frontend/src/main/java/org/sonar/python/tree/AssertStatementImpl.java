@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.AssertStatement;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -78,7 +73,12 @@ public class AssertStatementImpl extends SimpleStatement implements AssertStatem
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(assertKeyword, condition, message), separators.elements()).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 3)
+      .add(assertKeyword)
+      .add(condition)
+      .add(message)
+      .addAll(separators.elements())
+      .build();
   }
 }
@@ -19,8 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.List;
 import org.sonar.plugins.python.api.tree.AssignmentExpression;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.Name;
@@ -66,7 +64,7 @@ public class AssignmentExpressionImpl extends PyTree implements AssignmentExpres
   }
 
   @Override
-  List<Tree> computeChildren() {
-    return Arrays.asList(name, walrusOperator, expression);
+  Tree[] computeChildren() {
+    return nonNullChildren(name, walrusOperator, expression);
   }
 }
@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.AssignmentStatement;
@@ -74,18 +73,19 @@ public class AssignmentStatementImpl extends SimpleStatement implements Assignme
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(lhsExpressions.size() + assignTokens.size() + separators.elements().size() + 1);
     int i = 0;
     for (Tree lhs : lhsExpressions) {
-      children.add(lhs);
+      builder.add(lhs);
       if (i < assignTokens.size()) {
-        children.add(assignTokens.get(i));
+        builder.add(assignTokens.get(i));
       }
       i++;
     }
-    children.add(assignedValue);
-    children.addAll(separators.elements());
-    return children;
+    builder.add(assignedValue);
+    builder.addAll(separators.elements());
+    return builder.build();
   }
+
 }
@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.AwaitExpression;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.Token;
@@ -55,8 +51,8 @@ public class AwaitExpressionImpl extends PyTree implements AwaitExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(awaitToken, expression).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(awaitToken, expression);
   }
 
   @Override
@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.BreakStatement;
 import org.sonar.plugins.python.api.tree.Token;
@@ -61,7 +56,10 @@ public class BreakStatementImpl extends SimpleStatement implements BreakStatemen
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(breakKeyword), separators.elements()).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 1)
+      .add(breakKeyword)
+      .addAll(separators.elements())
+      .build();
   }
 }
@@ -21,9 +21,6 @@ package org.sonar.python.tree;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
@@ -88,8 +85,8 @@ public class CallExpressionImpl extends PyTree implements CallExpression, HasTyp
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(callee, leftPar, argumentList, rightPar).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(callee, leftPar, argumentList, rightPar);
   }
 
   @Override
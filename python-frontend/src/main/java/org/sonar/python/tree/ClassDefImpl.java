@@ -19,13 +19,9 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ArgList;
@@ -150,8 +146,19 @@ public class ClassDefImpl extends PyTree implements ClassDef {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(decorators, Arrays.asList(classKeyword, name, leftPar, args, rightPar, colon, newLine, indent, body, dedent))
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(decorators.size() + 10)
+      .addAll(decorators)
+      .add(classKeyword)
+      .add(name)
+      .add(leftPar)
+      .add(args)
+      .add(rightPar)
+      .add(colon)
+      .add(newLine)
+      .add(indent)
+      .add(body)
+      .add(dedent)
+      .build();
   }
 }
@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -72,9 +67,13 @@ public class CompoundAssignmentStatementImpl extends SimpleStatement implements
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(lhsExpression, augAssignToken, rhsExpression), separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 3)
+      .add(lhsExpression)
+      .add(augAssignToken)
+      .add(rhsExpression)
+      .addAll(separators.elements())
+      .build();
   }
 
   @Override
@@ -20,11 +20,7 @@
 package org.sonar.python.tree;
 
 import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ComprehensionExpression;
 import org.sonar.plugins.python.api.tree.ComprehensionFor;
@@ -75,8 +71,8 @@ public class ComprehensionExpressionImpl extends PyTree implements Comprehension
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(openingToken, resultExpression, comprehensionFor, closingToken).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(openingToken, resultExpression, comprehensionFor, closingToken);
   }
 
   @Override
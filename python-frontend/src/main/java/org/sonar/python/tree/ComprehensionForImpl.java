@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ComprehensionClause;
@@ -88,8 +84,8 @@ public class ComprehensionForImpl extends PyTree implements ComprehensionFor {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(asyncToken, forToken, loopExpression, inToken, iterable, nested).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(asyncToken, forToken, loopExpression, inToken, iterable, nested);
   }
 
   @Override
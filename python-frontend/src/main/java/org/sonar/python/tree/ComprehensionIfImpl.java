@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ComprehensionClause;
@@ -66,8 +62,8 @@ public class ComprehensionIfImpl extends PyTree implements ComprehensionIf {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(ifToken, condition, nestedClause).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(ifToken, condition, nestedClause);
   }
 
   @Override
@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.ContinueStatement;
 import org.sonar.plugins.python.api.tree.Token;
@@ -61,7 +56,10 @@ public class ContinueStatementImpl extends SimpleStatement implements ContinueSt
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(continueKeyword), separators.elements()).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 1)
+      .add(continueKeyword)
+      .addAll(separators.elements())
+      .build();
   }
 }
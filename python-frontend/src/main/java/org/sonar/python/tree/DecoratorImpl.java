@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ArgList;
@@ -88,8 +84,8 @@ public class DecoratorImpl extends SimpleStatement implements Decorator {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(atToken, dottedName, lPar, argListTree, rPar, newLineToken).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(atToken, dottedName, lPar, argListTree, rPar, newLineToken);
   }
 
   @Override
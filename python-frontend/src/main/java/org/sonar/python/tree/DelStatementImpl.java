@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.DelStatement;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -69,8 +65,11 @@ public class DelStatementImpl extends SimpleStatement implements DelStatement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(delKeyword), expressionTrees, separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressionTrees.size() + separators.elements().size() + 1)
+      .add(delKeyword)
+      .addAll(expressionTrees)
+      .addAll(separators.elements())
+      .build();
   }
 }
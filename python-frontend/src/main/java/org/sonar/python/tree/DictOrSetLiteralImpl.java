@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -54,18 +53,18 @@ public abstract class DictOrSetLiteralImpl<E extends Tree> extends PyTree {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> child = new ArrayList<>();
-    child.add(lCurlyBrace);
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(elements.size() + commas.size() + 2);
+    builder.add(lCurlyBrace);
     int i = 0;
     for (E element : elements) {
-      child.add(element);
+      builder.add(element);
       if (i < commas.size()) {
-        child.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    child.add(rCurlyBrace);
-    return child;
+    builder.add(rCurlyBrace);
+    return builder.build();
   }
 }
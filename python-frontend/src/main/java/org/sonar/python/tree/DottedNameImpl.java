@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.DottedName;
 import org.sonar.plugins.python.api.tree.Name;
@@ -49,7 +48,7 @@ public class DottedNameImpl extends PyTree implements DottedName {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.unmodifiableList(names);
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(names.size()).addAll(names).build();
   }
 }
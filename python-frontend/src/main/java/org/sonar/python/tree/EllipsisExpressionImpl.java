@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.EllipsisExpression;
 import org.sonar.plugins.python.api.tree.Token;
@@ -45,8 +44,8 @@ public class EllipsisExpressionImpl extends PyTree implements EllipsisExpression
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.unmodifiableList(ellipsis);
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(ellipsis.size()).addAll(ellipsis).build();
   }
 
   @Override
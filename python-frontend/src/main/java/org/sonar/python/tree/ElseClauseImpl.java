@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ElseClause;
 import org.sonar.plugins.python.api.tree.StatementList;
@@ -68,7 +64,7 @@ public class ElseClauseImpl extends PyTree implements ElseClause {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(elseKeyword, colon, newLine, indent, body, dedent).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(elseKeyword, colon, newLine, indent, body, dedent);
   }
 }
@@ -19,11 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ExecStatement;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -98,8 +93,15 @@ public class ExecStatementImpl extends SimpleStatement implements ExecStatement
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(execKeyword, expression, in, globalsExpression, comma, localsExpression), separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(separators.elements().size() + 6)
+      .add(execKeyword)
+      .add(expression)
+      .add(in)
+      .add(globalsExpression)
+      .add(comma)
+      .add(localsExpression)
+      .addAll(separators.elements())
+      .build();
   }
 }
@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.ExpressionList;
@@ -57,16 +56,16 @@ public class ExpressionListImpl extends PyTree implements ExpressionList {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(expressions.size() + commas.size());
     int i = 0;
     for (Expression expression : expressions) {
-      children.add(expression);
+      builder.add(expression);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    return children;
+    return builder.build();
   }
 }
@@ -20,11 +20,7 @@
 package org.sonar.python.tree;
 
 import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.FileInput;
@@ -41,6 +37,7 @@ public class FileInputImpl extends PyTree implements FileInput {
   private final Token endOfFile;
   private final StringLiteral docstring;
   private final Set<Symbol> globalVariables = new HashSet<>();
+  private TreeKindIndex kindIndex = null;
 
   public FileInputImpl(@Nullable StatementList statements, Token endOfFile, @Nullable StringLiteral docstring) {
     this.statements = statements;
@@ -74,13 +71,23 @@ public class FileInputImpl extends PyTree implements FileInput {
     globalVariables.add(globalVariable);
   }
 
+  /**
+   * Index of the nodes of this file by kind, built on first access.
+   */
+  public TreeKindIndex kindIndex() {
+    if (kindIndex == null) {
+      kindIndex = new TreeKindIndex(this);
+    }
+    return kindIndex;
+  }
+
   @Override
   public void accept(TreeVisitor visitor) {
     visitor.visitFileInput(this);
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(statements, endOfFile).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(statements, endOfFile);
   }
 }
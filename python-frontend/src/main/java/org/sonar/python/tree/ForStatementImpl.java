@@ -19,12 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ElseClause;
@@ -125,9 +120,19 @@ public class ForStatementImpl extends PyTree implements ForStatement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(asyncKeyword, forKeyword), expressions, Collections.singletonList(inKeyword), testExpressions,
-      Arrays.asList(colon, firstNewLine, firstIndent, body, firstDedent, elseClause))
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressions.size() + testExpressions.size() + 9)
+      .add(asyncKeyword)
+      .add(forKeyword)
+      .addAll(expressions)
+      .add(inKeyword)
+      .addAll(testExpressions)
+      .add(colon)
+      .add(firstNewLine)
+      .add(firstIndent)
+      .add(body)
+      .add(firstDedent)
+      .add(elseClause)
+      .build();
   }
 }
@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.FormattedExpression;
@@ -51,8 +47,8 @@ public class FormattedExpressionImpl extends PyTree implements FormattedExpressi
   }
 
   @Override
-  List<Tree> computeChildren() {
-    return Stream.of(expression, equalToken).filter(Objects::nonNull).collect(Collectors.toList());
+  Tree[] computeChildren() {
+    return nonNullChildren(expression, equalToken);
   }
 
   @Override
@@ -19,13 +19,9 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Decorator;
@@ -165,8 +161,21 @@ public class FunctionDefImpl extends PyTree implements FunctionDef {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(decorators, Arrays.asList(asyncKeyword, defKeyword, name, leftPar, parameters, rightPar, returnType, colon, newLine, indent, body, dedent))
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(decorators.size() + 12)
+      .addAll(decorators)
+      .add(asyncKeyword)
+      .add(defKeyword)
+      .add(name)
+      .add(leftPar)
+      .add(parameters)
+      .add(rightPar)
+      .add(returnType)
+      .add(colon)
+      .add(newLine)
+      .add(indent)
+      .add(body)
+      .add(dedent)
+      .build();
   }
 }
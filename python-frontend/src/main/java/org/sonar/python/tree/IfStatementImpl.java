@@ -19,13 +19,9 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Objects;
 import org.sonar.plugins.python.api.tree.Token;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.ElseClause;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -127,8 +123,17 @@ public class IfStatementImpl extends PyTree implements IfStatement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(keyword, condition, colon, newLine, indent, statements, dedent), elifBranches, Collections.singletonList(elseClause))
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(elifBranches.size() + 8)
+      .add(keyword)
+      .add(condition)
+      .add(colon)
+      .add(newLine)
+      .add(indent)
+      .add(statements)
+      .add(dedent)
+      .addAll(elifBranches)
+      .add(elseClause)
+      .build();
   }
 }
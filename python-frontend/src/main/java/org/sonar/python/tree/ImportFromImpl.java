@@ -19,12 +19,8 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.AliasedName;
@@ -121,8 +117,15 @@ public class ImportFromImpl extends SimpleStatement implements ImportFrom {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(fromKeyword), dottedPrefixForModule, Arrays.asList(moduleName, importKeyword), aliasedImportNames,
-      Collections.singletonList(wildcard), separators.elements()).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(dottedPrefixForModule.size() + aliasedImportNames.size() + separators.elements().size() + 4)
+      .add(fromKeyword)
+      .addAll(dottedPrefixForModule)
+      .add(moduleName)
+      .add(importKeyword)
+      .addAll(aliasedImportNames)
+      .add(wildcard)
+      .addAll(separators.elements())
+      .build();
   }
 }
@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -51,7 +47,7 @@ public class InExpressionImpl extends BinaryExpressionImpl implements InExpressi
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(leftOperand(), notToken, operator(), rightOperand()).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(leftOperand(), notToken, operator(), rightOperand());
   }
 }
@@ -19,9 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.KeyValuePair;
@@ -64,8 +61,8 @@ public class KeyValuePairImpl extends PyTree implements KeyValuePair {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(key, colon, value).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(key, colon, value);
   }
 
   @Override
@@ -20,11 +20,7 @@
 package org.sonar.python.tree;
 
 import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -95,7 +91,7 @@ public class LambdaExpressionImpl extends PyTree implements LambdaExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(lambdaKeyword, parameterList, colonToken, body).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(lambdaKeyword, parameterList, colonToken, body);
   }
 }
@@ -19,9 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.ExpressionList;
 import org.sonar.plugins.python.api.tree.ListLiteral;
 import org.sonar.plugins.python.api.tree.Token;
@@ -68,8 +65,8 @@ public class ListLiteralImpl extends PyTree implements ListLiteral {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(leftBracket, elements, rightBracket).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(leftBracket, elements, rightBracket);
   }
 
   @Override
@@ -19,8 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
-import java.util.List;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.RegularArgument;
@@ -31,6 +29,7 @@ import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.types.InferredType;
 import org.sonar.python.semantic.SymbolImpl;
+import org.sonar.python.types.DeferredTypeInference;
 import org.sonar.python.types.InferredTypes;
 
 public class NameImpl extends PyTree implements Name {
@@ -39,6 +38,7 @@ public class NameImpl extends PyTree implements Name {
   private final boolean isVariable;
   private Symbol symbol;
   private Usage usage;
+  private DeferredTypeInference deferredTypeInference;
 
   public NameImpl(Token token, boolean isVariable) {
     this.token = token;
@@ -71,13 +71,16 @@ public class NameImpl extends PyTree implements Name {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.singletonList(token);
+  public Tree[] computeChildren() {
+    return new Tree[] {token};
   }
 
   @CheckForNull
   @Override
   public Symbol symbol() {
+    if (deferredTypeInference != null) {
+      deferredTypeInference.run();
+    }
     return symbol;
   }
 
@@ -95,11 +98,19 @@ public class NameImpl extends PyTree implements Name {
     this.usage = usage;
   }
 
+  /**
+   * Type inference to run before the symbol of this name, which may depend on the type of a qualifier, is read.
+   */
+  public void setDeferredTypeInference(DeferredTypeInference deferredTypeInference) {
+    this.deferredTypeInference = deferredTypeInference;
+  }
+
   @Override
   public InferredType type() {
-    if (symbol == null) {
+    Symbol nameSymbol = symbol();
+    if (nameSymbol == null) {
       return InferredTypes.anyType();
     }
-    return ((SymbolImpl) symbol).inferredType();
+    return ((SymbolImpl) nameSymbol).inferredType();
   }
 }
@@ -19,8 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
-import java.util.List;
 import org.sonar.plugins.python.api.tree.NoneExpression;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -46,8 +44,8 @@ public class NoneExpressionImpl extends PyTree implements NoneExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.singletonList(none);
+  public Tree[] computeChildren() {
+    return new Tree[] {none};
   }
 
   @Override
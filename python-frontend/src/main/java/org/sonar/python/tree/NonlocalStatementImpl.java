@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.NonlocalStatement;
@@ -69,8 +65,11 @@ public class NonlocalStatementImpl extends SimpleStatement implements NonlocalSt
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(nonlocalKeyword), variables, separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(variables.size() + separators.elements().size() + 1)
+      .add(nonlocalKeyword)
+      .addAll(variables)
+      .addAll(separators.elements())
+      .build();
   }
 }
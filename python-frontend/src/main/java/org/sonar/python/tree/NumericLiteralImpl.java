@@ -19,8 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Locale;
 import org.sonar.plugins.python.api.tree.NumericLiteral;
 import org.sonar.plugins.python.api.tree.Token;
@@ -69,8 +67,8 @@ public class NumericLiteralImpl extends PyTree implements NumericLiteral {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.singletonList(token);
+  public Tree[] computeChildren() {
+    return new Tree[] {token};
   }
 
   @Override
@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -59,17 +58,17 @@ public class ParameterListImpl extends PyTree implements ParameterList {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(parameters.size() + commas.size());
     int i = 0;
     for (Tree param : parameters) {
-      children.add(param);
+      builder.add(param);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    return children;
+    return builder.build();
   }
 
   @Override
@@ -21,8 +21,6 @@ package org.sonar.python.tree;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.ParenthesizedExpression;
 import org.sonar.plugins.python.api.tree.Token;
@@ -64,8 +62,8 @@ public class ParenthesizedExpressionImpl extends PyTree implements Parenthesized
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(leftParenthesis, expression, rightParenthesis).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(leftParenthesis, expression, rightParenthesis);
   }
 
   @Override
@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.PrintStatement;
 import org.sonar.plugins.python.api.tree.Token;
@@ -62,8 +58,11 @@ public class PrintStatementImpl extends SimpleStatement implements PrintStatemen
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(printKeyword), expressions, separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressions.size() + separators.elements().size() + 1)
+      .add(printKeyword)
+      .addAll(expressions)
+      .addAll(separators.elements())
+      .build();
   }
 }
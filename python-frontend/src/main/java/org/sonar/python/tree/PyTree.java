@@ -19,15 +19,24 @@
  */
 package org.sonar.python.tree;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.api.PythonTokenType;
 
 public abstract class PyTree implements Tree {
+  static final Tree[] NO_CHILDREN = new Tree[0];
+
   protected Token firstToken;
   protected Token lastToken;
-  private List<Tree> childs;
+  private Tree[] childs;
   private Tree parent = null;
+  private int structuralHash = 0;
 
   protected PyTree() {
   }
@@ -46,11 +55,10 @@ public abstract class PyTree implements Tree {
   @Override
   public Token firstToken() {
     if (firstToken == null) {
-      List<Tree> children = children();
-      if (children.isEmpty()) {
+      if (childrenCount() == 0) {
         this.firstToken = null;
       } else {
-        Tree first = children.get(0);
+        Tree first = child(0);
         this.firstToken = first.is(Kind.TOKEN) ? (Token) first : first.firstToken();
       }
     }
@@ -60,11 +68,11 @@ public abstract class PyTree implements Tree {
   @Override
   public Token lastToken() {
     if (lastToken == null) {
-      List<Tree> children = children();
-      if (children.isEmpty()) {
+      int childrenCount = childrenCount();
+      if (childrenCount == 0) {
         this.firstToken = null;
       } else {
-        Tree last = children.get(children.size() - 1);
+        Tree last = child(childrenCount - 1);
         this.lastToken = last.is(Kind.TOKEN) ? (Token) last : last.lastToken();
       }
     }
@@ -81,12 +89,141 @@ public abstract class PyTree implements Tree {
     this.parent = parent;
   }
 
-  abstract List<Tree> computeChildren();
+  /**
+   * Hash of the kinds and token values of this subtree, computed once and cached.
+   * Values of INDENT and DEDENT tokens are ignored: equivalent trees always have the same structural hash.
+   */
+  public int structuralHash() {
+    if (structuralHash == 0) {
+      int hash = getKind().ordinal();
+      int childrenCount = childrenCount();
+      if (childrenCount == 0) {
+        Token token = firstToken();
+        if (token != null && !PythonTokenType.INDENT.equals(token.type()) && !PythonTokenType.DEDENT.equals(token.type())) {
+          hash = 31 * hash + token.value().hashCode();
+        }
+      } else {
+        hash = 31 * hash + childrenCount;
+        for (int i = 0; i < childrenCount; i++) {
+          hash = 31 * hash + ((PyTree) child(i)).structuralHash();
+        }
+      }
+      // 0 is reserved for "not computed yet"
+      structuralHash = hash == 0 ? 1 : hash;
+    }
+    return structuralHash;
+  }
 
-  public List<Tree> children() {
+  /**
+   * Returns the children of this node, in document order and without null elements.
+   * The returned array is owned by the node and must not be modified.
+   */
+  abstract Tree[] computeChildren();
+
+  private Tree[] childrenArray() {
     if (childs == null) {
       childs = computeChildren();
     }
     return childs;
   }
+
+  /**
+   * Returns a read-only view of the children, which is not retained by the node: prefer {@link #childrenCount()} and {@link #child(int)}
+   * when iterating over many nodes.
+   */
+  @Override
+  public List<Tree> children() {
+    Tree[] children = childrenArray();
+    return children.length == 0 ? Collections.emptyList() : new ChildrenList(children);
+  }
+
+  public int childrenCount() {
+    return childrenArray().length;
+  }
+
+  public Tree child(int index) {
+    return childrenArray()[index];
+  }
+
+  /**
+   * Returns the non-null given trees, reusing the given array when it does not contain null.
+   */
+  static Tree[] nonNullChildren(Tree... trees) {
+    int nonNull = 0;
+    for (Tree tree : trees) {
+      if (tree != null) {
+        nonNull++;
+      }
+    }
+    if (nonNull == trees.length) {
+      return trees.length == 0 ? NO_CHILDREN : trees;
+    }
+    if (nonNull == 0) {
+      return NO_CHILDREN;
+    }
+    Tree[] result = new Tree[nonNull];
+    int i = 0;
+    for (Tree tree : trees) {
+      if (tree != null) {
+        result[i] = tree;
+        i++;
+      }
+    }
+    return result;
+  }
+
+  private static final class ChildrenList extends AbstractList<Tree> implements RandomAccess {
+    private final Tree[] children;
+
+    private ChildrenList(Tree[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public Tree get(int index) {
+      return children[index];
+    }
+
+    @Override
+    public int size() {
+      return children.length;
+    }
+  }
+
+  /**
+   * Collects children into an array of exact size, skipping null elements.
+   */
+  static class ChildrenBuilder {
+    private Tree[] elements;
+    private int size = 0;
+
+    ChildrenBuilder(int expectedSize) {
+      elements = new Tree[expectedSize];
+    }
+
+    ChildrenBuilder add(@Nullable Tree tree) {
+      if (tree != null) {
+        if (size == elements.length) {
+          elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+        }
+        elements[size] = tree;
+        size++;
+      }
+      return this;
+    }
+
+    ChildrenBuilder addAll(List<? extends Tree> trees) {
+      for (Tree tree : trees) {
+        add(tree);
+      }
+      return this;
+    }
+
+    Tree[] build() {
+      if (size == 0) {
+        return NO_CHILDREN;
+      }
+      return size == elements.length ? elements : Arrays.copyOf(elements, size);
+    }
+  }
 }
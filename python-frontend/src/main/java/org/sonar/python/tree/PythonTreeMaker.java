@@ -119,11 +119,11 @@ public class PythonTreeMaker {
   }
 
   public void setParents(Tree root) {
-    for (Tree child : root.children()) {
-      if (child != null) {
-        ((PyTree) child).setParent(root);
-        setParents(child);
-      }
+    PyTree tree = (PyTree) root;
+    for (int i = 0; i < tree.childrenCount(); i++) {
+      PyTree child = (PyTree) tree.child(i);
+      child.setParent(root);
+      setParents(child);
     }
   }
 
@@ -19,9 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
@@ -66,7 +63,7 @@ public class QualifiedExpressionImpl extends PyTree implements QualifiedExpressi
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(qualifier, dotToken, name).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(qualifier, dotToken, name);
   }
 }
@@ -19,12 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -88,8 +83,13 @@ public class RaiseStatementImpl extends SimpleStatement implements RaiseStatemen
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(raiseKeyword), expressions, Arrays.asList(fromKeyword, fromExpression), separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressions.size() + separators.elements().size() + 3)
+      .add(raiseKeyword)
+      .addAll(expressions)
+      .add(fromKeyword)
+      .add(fromExpression)
+      .addAll(separators.elements())
+      .build();
   }
 }
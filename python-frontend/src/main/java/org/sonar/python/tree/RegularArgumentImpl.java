@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.sonar.plugins.python.api.tree.RegularArgument;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -76,7 +72,7 @@ public class RegularArgumentImpl extends PyTree implements RegularArgument {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(keywordArgument, equalToken, expression).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(keywordArgument, equalToken, expression);
   }
 }
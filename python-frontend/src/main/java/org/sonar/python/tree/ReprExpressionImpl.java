@@ -19,9 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.ExpressionList;
 import org.sonar.plugins.python.api.tree.ReprExpression;
 import org.sonar.plugins.python.api.tree.Token;
@@ -45,8 +42,8 @@ public class ReprExpressionImpl extends PyTree implements ReprExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(openingBacktick, expressionListTree, closingBacktick).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(openingBacktick, expressionListTree, closingBacktick);
   }
 
   @Override
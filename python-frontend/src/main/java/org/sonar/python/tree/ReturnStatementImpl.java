@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.ReturnStatement;
 import org.sonar.plugins.python.api.tree.Token;
@@ -62,9 +58,12 @@ public class ReturnStatementImpl extends SimpleStatement implements ReturnStatem
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Collections.singletonList(returnKeyword), expressionTrees, separators.elements())
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressionTrees.size() + separators.elements().size() + 1)
+      .add(returnKeyword)
+      .addAll(expressionTrees)
+      .addAll(separators.elements())
+      .build();
   }
 
   @Override
@@ -0,0 +1,447 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.TokenType;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.api.PythonKeyword;
+import org.sonar.python.api.PythonPunctuator;
+import org.sonar.python.api.PythonTokenType;
+import org.sonar.python.parser.PythonParser;
+
+import static org.sonar.python.tree.TreeSerializer.NODE_RECORD_SIZE;
+import static org.sonar.python.tree.TreeSerializer.SYMBOL_RECORD_SIZE;
+import static org.sonar.python.tree.TreeSerializer.TOKEN_RECORD_SIZE;
+import static org.sonar.python.tree.TreeSerializer.TRIVIA_RECORD_SIZE;
+
+/**
+ * Read-only view over a tree written by {@link TreeSerializer}.
+ * Records have a fixed size, so nodes, tokens and symbols are decoded on demand from the underlying buffer,
+ * which is typically a memory-mapped file: opening a serialized tree only reads its header.
+ * <p>
+ * The typed tree is rebuilt on demand by {@link #fileInput(PythonParser)}, which parses the serialized tokens without lexing the source
+ * code again. Each node record is then bound to the rebuilt tree at the same position in pre-order.
+ */
+public class SerializedTree {
+
+  private static final Tree.Kind[] TREE_KINDS = Tree.Kind.values();
+  private static final Symbol.Kind[] SYMBOL_KINDS = Symbol.Kind.values();
+  private static final Usage.Kind[] USAGE_KINDS = Usage.Kind.values();
+  private static final Map<String, TokenType> TOKEN_TYPES = tokenTypes();
+  private static final URI TOKEN_URI = URI.create("serialized://tree");
+
+  private final ByteBuffer buffer;
+  private final int stringsOffset;
+  private final int tokensOffset;
+  private final int triviaOffset;
+  private final int symbolsOffset;
+  private final int nodesOffset;
+  private final String[] strings;
+  private FileInput fileInput = null;
+  private Tree[] trees = null;
+  private Map<Tree, Integer> treeIndexes = null;
+
+  SerializedTree(ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.limit() < TreeSerializer.HEADER_SIZE || buffer.getInt(0) != TreeSerializer.MAGIC) {
+      throw new IllegalStateException("Not a serialized Python tree");
+    }
+    int version = buffer.getInt(4);
+    if (version != TreeSerializer.VERSION) {
+      throw new IllegalStateException("Unsupported serialized tree version: " + version);
+    }
+    stringsOffset = buffer.getInt(8);
+    tokensOffset = buffer.getInt(12);
+    triviaOffset = buffer.getInt(16);
+    symbolsOffset = buffer.getInt(20);
+    nodesOffset = buffer.getInt(24);
+    strings = new String[buffer.getInt(stringsOffset)];
+  }
+
+  public static SerializedTree read(byte[] bytes) {
+    return new SerializedTree(ByteBuffer.wrap(bytes));
+  }
+
+  public static SerializedTree read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new SerializedTree(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public int nodeCount() {
+    return buffer.getInt(nodesOffset);
+  }
+
+  public int tokenCount() {
+    return buffer.getInt(tokensOffset);
+  }
+
+  public int symbolCount() {
+    return buffer.getInt(symbolsOffset);
+  }
+
+  public Node root() {
+    return new Node(0);
+  }
+
+  public Node node(int index) {
+    checkIndex(index, nodeCount());
+    return new Node(index);
+  }
+
+  public TokenData token(int index) {
+    checkIndex(index, tokenCount());
+    return new TokenData(index);
+  }
+
+  public SymbolData symbol(int index) {
+    checkIndex(index, symbolCount());
+    return new SymbolData(index);
+  }
+
+  /**
+   * Typed tree rebuilt on first call from the serialized tokens. As for a parsed tree, symbols are bound by
+   * {@link org.sonar.python.semantic.SymbolTableBuilder}: the symbol ids of the records are available through {@link #node(Tree)}.
+   */
+  public FileInput fileInput(PythonParser parser) {
+    if (fileInput == null) {
+      FileInput rebuilt = new PythonTreeMaker().fileInput(parser.parse(sourceTokens()));
+      Tree[] rebuiltTrees = new Tree[nodeCount()];
+      Map<Tree, Integer> rebuiltIndexes = new IdentityHashMap<>();
+      Deque<Tree> stack = new ArrayDeque<>();
+      stack.push(rebuilt);
+      int index = 0;
+      while (!stack.isEmpty()) {
+        Tree tree = stack.pop();
+        if (index >= rebuiltTrees.length || tree.getKind() != new Node(index).kind()) {
+          throw new IllegalStateException("Serialized tree does not match its tokens at node " + index);
+        }
+        rebuiltTrees[index] = tree;
+        rebuiltIndexes.put(tree, index);
+        index++;
+        PyTree pyTree = (PyTree) tree;
+        for (int i = pyTree.childrenCount() - 1; i >= 0; i--) {
+          stack.push(pyTree.child(i));
+        }
+      }
+      if (index != rebuiltTrees.length) {
+        throw new IllegalStateException("Serialized tree does not match its tokens at node " + index);
+      }
+      trees = rebuiltTrees;
+      treeIndexes = rebuiltIndexes;
+      fileInput = rebuilt;
+    }
+    return fileInput;
+  }
+
+  /**
+   * Record of a tree rebuilt by {@link #fileInput(PythonParser)}, null for trees of other files.
+   */
+  @CheckForNull
+  public Node node(Tree tree) {
+    if (treeIndexes == null) {
+      return null;
+    }
+    Integer index = treeIndexes.get(tree);
+    return index == null ? null : new Node(index);
+  }
+
+  /**
+   * Number of tokens produced by the lexer, which come first in the token table.
+   */
+  public int sourceTokenCount() {
+    return buffer.getInt(tokensOffset + 4);
+  }
+
+  private List<com.sonar.sslr.api.Token> sourceTokens() {
+    int count = sourceTokenCount();
+    List<com.sonar.sslr.api.Token> tokens = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      tokens.add(new TokenData(i).sslrToken());
+    }
+    return tokens;
+  }
+
+  private static Map<String, TokenType> tokenTypes() {
+    Map<String, TokenType> tokenTypes = new HashMap<>();
+    Stream.<TokenType[]>of(PythonTokenType.values(), PythonKeyword.values(), PythonPunctuator.values(), GenericTokenType.values())
+      .flatMap(Stream::of)
+      .forEach(type -> tokenTypes.put(TreeSerializer.typeName(type), type));
+    return tokenTypes;
+  }
+
+  private static com.sonar.sslr.api.Token sslrToken(TokenType type, String value, int line, int column) {
+    return com.sonar.sslr.api.Token.builder()
+      .setURI(TOKEN_URI)
+      .setType(type)
+      .setValueAndOriginalValue(value)
+      .setLine(line)
+      .setColumn(column)
+      .build();
+  }
+
+  private static void checkIndex(int index, int count) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", count: " + count);
+    }
+  }
+
+  @CheckForNull
+  private String string(int id) {
+    if (id < 0) {
+      return null;
+    }
+    String value = strings[id];
+    if (value == null) {
+      int bytesOffset = stringsOffset + 4 + strings.length * 4;
+      int offset = bytesOffset + buffer.getInt(stringsOffset + 4 + id * 4);
+      byte[] bytes = new byte[buffer.getInt(offset)];
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(offset + 4);
+      slice.get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+      strings[id] = value;
+    }
+    return value;
+  }
+
+  public class Node {
+    private final int index;
+    private final int offset;
+
+    private Node(int index) {
+      this.index = index;
+      this.offset = nodesOffset + 4 + index * NODE_RECORD_SIZE;
+    }
+
+    public int index() {
+      return index;
+    }
+
+    public Tree.Kind kind() {
+      return TREE_KINDS[buffer.getShort(offset)];
+    }
+
+    @CheckForNull
+    public Node parent() {
+      int parent = buffer.getInt(offset + 2);
+      return parent < 0 ? null : new Node(parent);
+    }
+
+    /**
+     * Number of nodes of the subtree rooted at this node, including this node.
+     */
+    public int subtreeSize() {
+      return buffer.getInt(offset + 6);
+    }
+
+    public List<Node> children() {
+      int end = index + subtreeSize();
+      List<Node> children = new ArrayList<>();
+      int child = index + 1;
+      while (child < end) {
+        Node childNode = new Node(child);
+        children.add(childNode);
+        child += childNode.subtreeSize();
+      }
+      return children;
+    }
+
+    /**
+     * Token of a node of kind {@link Tree.Kind#TOKEN}, null for other nodes.
+     */
+    @CheckForNull
+    public TokenData token() {
+      int token = buffer.getInt(offset + 10);
+      return token < 0 ? null : new TokenData(token);
+    }
+
+    /**
+     * Symbol bound to a node implementing {@link org.sonar.plugins.python.api.tree.HasSymbol}, if any.
+     */
+    @CheckForNull
+    public SymbolData symbol() {
+      int symbol = buffer.getInt(offset + 14);
+      return symbol < 0 ? null : new SymbolData(symbol);
+    }
+
+    @CheckForNull
+    public Usage.Kind usageKind() {
+      int usageKind = buffer.get(offset + 18);
+      return usageKind < 0 ? null : USAGE_KINDS[usageKind];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Node && ((Node) o).index == index && ((Node) o).serializedTree() == SerializedTree.this;
+    }
+
+    @Override
+    public int hashCode() {
+      return index;
+    }
+
+    /**
+     * Tree rebuilt for this record by {@link #fileInput(PythonParser)}.
+     */
+    public Tree tree() {
+      if (trees == null) {
+        throw new IllegalStateException("The typed tree has not been rebuilt");
+      }
+      return trees[index];
+    }
+
+    private SerializedTree serializedTree() {
+      return SerializedTree.this;
+    }
+  }
+
+  public class TokenData {
+    private final int index;
+    private final int offset;
+
+    private TokenData(int index) {
+      this.index = index;
+      this.offset = tokensOffset + 8 + index * TOKEN_RECORD_SIZE;
+    }
+
+    public int index() {
+      return index;
+    }
+
+    public String value() {
+      return string(buffer.getInt(offset));
+    }
+
+    /**
+     * Name of the {@link com.sonar.sslr.api.TokenType} of the token, qualified by its enum, e.g. "PythonKeyword.AND".
+     */
+    public String typeName() {
+      return string(buffer.getInt(offset + 4));
+    }
+
+    public int line() {
+      return buffer.getInt(offset + 8);
+    }
+
+    public int column() {
+      return buffer.getInt(offset + 12);
+    }
+
+    public List<TriviaData> trivia() {
+      int first = buffer.getInt(offset + 16);
+      int count = buffer.getInt(offset + 20);
+      if (count == 0) {
+        return Collections.emptyList();
+      }
+      List<TriviaData> trivia = new ArrayList<>(count);
+      for (int i = first; i < first + count; i++) {
+        trivia.add(new TriviaData(triviaOffset + 4 + i * TRIVIA_RECORD_SIZE));
+      }
+      return trivia;
+    }
+
+    private com.sonar.sslr.api.Token sslrToken() {
+      TokenType type = TOKEN_TYPES.get(typeName());
+      if (type == null) {
+        throw new IllegalStateException("Unknown token type: " + typeName());
+      }
+      com.sonar.sslr.api.Token token = SerializedTree.sslrToken(type, value(), line(), column());
+      List<TriviaData> trivia = trivia();
+      if (trivia.isEmpty()) {
+        return token;
+      }
+      com.sonar.sslr.api.Token.Builder builder = com.sonar.sslr.api.Token.builder(token);
+      trivia.forEach(t -> builder.addTrivia(com.sonar.sslr.api.Trivia.createComment(SerializedTree.sslrToken(GenericTokenType.COMMENT, t.value(), t.line(), t.column()))));
+      return builder.build();
+    }
+  }
+
+  public class TriviaData {
+    private final int offset;
+
+    private TriviaData(int offset) {
+      this.offset = offset;
+    }
+
+    public String value() {
+      return string(buffer.getInt(offset));
+    }
+
+    public int line() {
+      return buffer.getInt(offset + 4);
+    }
+
+    public int column() {
+      return buffer.getInt(offset + 8);
+    }
+  }
+
+  public class SymbolData {
+    private final int index;
+    private final int offset;
+
+    private SymbolData(int index) {
+      this.index = index;
+      this.offset = symbolsOffset + 4 + index * SYMBOL_RECORD_SIZE;
+    }
+
+    /**
+     * Identifier of the symbol, shared by all the nodes bound to it.
+     */
+    public int index() {
+      return index;
+    }
+
+    public String name() {
+      return string(buffer.getInt(offset));
+    }
+
+    @CheckForNull
+    public String fullyQualifiedName() {
+      return string(buffer.getInt(offset + 4));
+    }
+
+    public Symbol.Kind kind() {
+      return SYMBOL_KINDS[buffer.get(offset + 8)];
+    }
+  }
+}
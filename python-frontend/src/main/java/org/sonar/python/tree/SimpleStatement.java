@@ -20,7 +20,6 @@
 package org.sonar.python.tree;
 
 
-import java.util.List;
 import org.sonar.python.api.PythonPunctuator;
 import org.sonar.python.api.PythonTokenType;
 import org.sonar.plugins.python.api.tree.Token;
@@ -32,15 +31,15 @@ public abstract class SimpleStatement extends PyTree {
   @Override
   public Token lastToken() {
     if (lastToken == null) {
-      List<Tree> children = children();
-      Tree last = children.get(children.size() - 1);
+      int childrenCount = childrenCount();
+      Tree last = child(childrenCount - 1);
       int index = 2;
       if (last.is(Kind.TOKEN) && ((Token) last).type() == PythonTokenType.NEWLINE) {
-        last = children.get(children.size() - index);
+        last = child(childrenCount - index);
         index++;
       }
       if (last.is(Kind.TOKEN) && ((Token) last).type() == PythonPunctuator.SEMICOLON) {
-        last = children.get(children.size() - index);
+        last = child(childrenCount - index);
       }
       this.lastToken = last.is(Kind.TOKEN) ? (Token) last : last.lastToken();
     }
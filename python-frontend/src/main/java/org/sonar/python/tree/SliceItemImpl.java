@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -85,8 +81,8 @@ public class SliceItemImpl extends PyTree implements SliceItem {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(lowerBound, boundSeparator, upperBound, strideSeparator, stride).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(lowerBound, boundSeparator, upperBound, strideSeparator, stride);
   }
 
   @Override
@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.SliceList;
 import org.sonar.plugins.python.api.tree.Token;
@@ -52,17 +51,17 @@ public class SliceListImpl extends PyTree implements SliceList {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(slices.size() + separators.size());
     int i = 0;
     for (Tree argument : slices) {
-      children.add(argument);
+      builder.add(argument);
       if (i < separators.size()) {
-        children.add(separators.get(i));
+        builder.add(separators.get(i));
       }
       i++;
     }
-    return children;
+    return builder.build();
   }
 
   @Override
@@ -20,9 +20,6 @@
 package org.sonar.python.tree;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Statement;
 import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -52,8 +49,10 @@ public class StatementListImpl extends PyTree implements StatementList {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(statements).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(statements.size())
+      .addAll(statements)
+      .build();
   }
 
 }
@@ -22,7 +22,6 @@ package org.sonar.python.tree;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.FormattedExpression;
 import org.sonar.plugins.python.api.tree.StringElement;
@@ -62,11 +61,11 @@ public class StringElementImpl extends PyTree implements StringElement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
+  public Tree[] computeChildren() {
     // Warning: in the case of f-strings, there's a kind of overlap between `token` and `formattedExpressions`: they
     // are different representations of the same analyzed code.
     // TreeUtils.tokens() doesn't contain the tokens of the formattedExpressions.
-    return Stream.concat(Stream.of(token), formattedExpressions.stream()).collect(Collectors.toList());
+    return new ChildrenBuilder(formattedExpressions.size() + 1).add(token).addAll(formattedExpressions).build();
   }
 
   @Override
@@ -20,7 +20,6 @@
 package org.sonar.python.tree;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -52,8 +51,8 @@ public class StringLiteralImpl extends PyTree implements StringLiteral {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.unmodifiableList(stringElements);
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(stringElements.size()).addAll(stringElements).build();
   }
 
   @Override
@@ -19,10 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.ExpressionList;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.SubscriptionExpression;
@@ -70,8 +66,8 @@ public class SubscriptionExpressionImpl extends PyTree implements SubscriptionEx
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(object, lBracket, subscripts, rBracket).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(object, lBracket, subscripts, rBracket);
   }
 
   @Override
@@ -20,7 +20,6 @@
 package org.sonar.python.tree;
 
 import com.sonar.sslr.api.TokenType;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.sonar.plugins.python.api.tree.Token;
@@ -68,8 +67,8 @@ public class TokenImpl extends PyTree implements Token {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Collections.emptyList();
+  public Tree[] computeChildren() {
+    return NO_CHILDREN;
   }
 
   @Override
@@ -0,0 +1,112 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+
+/**
+ * Index of all the nodes of a tree by {@link Kind}, in document order.
+ * Nodes are numbered in pre-order, so that the descendants of a node of a given kind form a contiguous
+ * range of the per-kind arrays, which is found by binary search.
+ */
+public class TreeKindIndex {
+
+  private static final Kind[] KINDS = Kind.values();
+
+  private final Tree[][] nodesByKind = new Tree[KINDS.length][];
+  private final int[][] positionsByKind = new int[KINDS.length][];
+  private final Map<Tree, Integer> positions = new IdentityHashMap<>();
+  private final int[] subtreeEnds;
+
+  public TreeKindIndex(Tree root) {
+    List<Tree> preorder = new ArrayList<>();
+    List<Integer> ends = new ArrayList<>();
+    collect(root, preorder, ends);
+
+    int[] counts = new int[KINDS.length];
+    for (Tree tree : preorder) {
+      counts[tree.getKind().ordinal()]++;
+    }
+    for (int i = 0; i < KINDS.length; i++) {
+      nodesByKind[i] = new Tree[counts[i]];
+      positionsByKind[i] = new int[counts[i]];
+    }
+    int[] filled = new int[KINDS.length];
+    subtreeEnds = new int[preorder.size()];
+    for (int position = 0; position < preorder.size(); position++) {
+      Tree tree = preorder.get(position);
+      int kind = tree.getKind().ordinal();
+      nodesByKind[kind][filled[kind]] = tree;
+      positionsByKind[kind][filled[kind]] = position;
+      filled[kind]++;
+      subtreeEnds[position] = ends.get(position);
+    }
+  }
+
+  private void collect(Tree tree, List<Tree> preorder, List<Integer> ends) {
+    int position = preorder.size();
+    positions.put(tree, position);
+    preorder.add(tree);
+    ends.add(null);
+    PyTree pyTree = (PyTree) tree;
+    for (int i = 0; i < pyTree.childrenCount(); i++) {
+      collect(pyTree.child(i), preorder, ends);
+    }
+    ends.set(position, preorder.size());
+  }
+
+  /**
+   * Returns all the indexed nodes of the given kind, in document order.
+   */
+  public List<Tree> nodes(Kind kind) {
+    return Collections.unmodifiableList(Arrays.asList(nodesByKind[kind.ordinal()]));
+  }
+
+  /**
+   * Returns the strict descendants of the given tree having the given kind, in document order.
+   * The given tree must belong to the indexed tree.
+   */
+  public List<Tree> descendants(Tree tree, Kind kind) {
+    Integer position = positions.get(tree);
+    if (position == null) {
+      throw new IllegalArgumentException("Tree is not part of the indexed tree");
+    }
+    int[] kindPositions = positionsByKind[kind.ordinal()];
+    int from = lowerBound(kindPositions, position + 1);
+    int to = lowerBound(kindPositions, subtreeEnds[position]);
+    return nodes(kind).subList(from, to);
+  }
+
+  public boolean contains(Tree tree) {
+    return positions.containsKey(tree);
+  }
+
+  private static int lowerBound(int[] sortedPositions, int position) {
+    int index = Arrays.binarySearch(sortedPositions, position);
+    return index >= 0 ? index : (-index - 1);
+  }
+}
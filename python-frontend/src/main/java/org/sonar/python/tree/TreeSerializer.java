@@ -0,0 +1,280 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import com.sonar.sslr.api.TokenType;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.HasSymbol;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Trivia;
+
+/**
+ * Writes a {@link FileInput}, with its tokens, trivia and symbol bindings, in the binary format read by {@link SerializedTree}.
+ * The tokens produced by the lexer come first in the token table, in source order, as some of them have no node in the typed tree
+ * (e.g. the commas between the expressions of an expression statement). They are followed by the tokens which only exist in the
+ * typed tree, such as the tokens of formatted expressions.
+ *
+ * <pre>
+ *   header:  magic, version, offsets of the 5 sections
+ *   strings: count, offsets, then UTF-8 bytes
+ *   tokens:  count, count of lexer tokens, then fixed-size records (value, qualified type name, line, column, first trivia, trivia count)
+ *   trivia:  count, then fixed-size records (value, line, column)
+ *   symbols: count, then fixed-size records (name, fully qualified name, kind)
+ *   nodes:   count, then fixed-size records in pre-order (kind, parent, subtree size, token, symbol, usage kind)
+ * </pre>
+ * All integers are big-endian, absent references are encoded as -1. Kinds are stored as enum ordinals:
+ * {@link #VERSION} has to be increased whenever {@link Tree.Kind}, {@link Symbol.Kind} or {@link Usage.Kind} change.
+ */
+public class TreeSerializer {
+
+  static final int MAGIC = 0x50595452;
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 4 * 7;
+  static final int TOKEN_RECORD_SIZE = 4 * 6;
+  static final int TRIVIA_RECORD_SIZE = 4 * 3;
+  static final int SYMBOL_RECORD_SIZE = 4 * 2 + 1;
+  static final int NODE_RECORD_SIZE = 2 + 4 * 4 + 1;
+
+  private final Map<String, Integer> stringIds = new HashMap<>();
+  private final Map<Symbol, Integer> symbolIds = new IdentityHashMap<>();
+  private final ByteArrayOutputStream strings = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream stringOffsets = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream tokens = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream trivia = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream symbols = new ByteArrayOutputStream();
+  private final List<int[]> nodeRecords = new ArrayList<>();
+  private final Map<String, Deque<Integer>> sourceTokenIds = new HashMap<>();
+  private int tokenCount = 0;
+  private int triviaCount = 0;
+
+  private TreeSerializer() {
+  }
+
+  /**
+   * @param sourceTokens tokens from which the tree was parsed, as returned by {@link org.sonar.python.parser.PythonParser#lex(String)}
+   */
+  public static byte[] serialize(FileInput fileInput, List<com.sonar.sslr.api.Token> sourceTokens) {
+    try {
+      return new TreeSerializer().write(fileInput, sourceTokens);
+    } catch (IOException e) {
+      // only in-memory streams are used
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static void serialize(FileInput fileInput, List<com.sonar.sslr.api.Token> sourceTokens, Path path) throws IOException {
+    Files.write(path, serialize(fileInput, sourceTokens));
+  }
+
+  private byte[] write(FileInput fileInput, List<com.sonar.sslr.api.Token> sourceTokens) throws IOException {
+    for (com.sonar.sslr.api.Token token : sourceTokens) {
+      int id = writeToken(token.getValue(), token.getType(), token.getLine(), token.getColumn(), token.getTrivia().stream()
+        .map(com.sonar.sslr.api.Trivia::getToken)
+        .map(t -> new TriviaRecord(t.getValue(), t.getLine(), t.getColumn()))
+        .collect(Collectors.toList()));
+      sourceTokenIds.computeIfAbsent(tokenKey(token.getValue(), token.getType(), token.getLine(), token.getColumn()), k -> new ArrayDeque<>()).add(id);
+    }
+    int sourceTokenCount = tokenCount;
+    collectNode(fileInput, -1);
+
+    ByteArrayOutputStream tokenCounts = new ByteArrayOutputStream();
+    new DataOutputStream(tokenCounts).writeInt(sourceTokenCount);
+    byte[][] sections = {
+      section(stringIds.size(), stringOffsets.toByteArray(), strings.toByteArray()),
+      section(tokenCount, tokenCounts.toByteArray(), tokens.toByteArray()),
+      section(triviaCount, trivia.toByteArray()),
+      section(symbolIds.size(), symbols.toByteArray()),
+      section(nodeRecords.size(), nodeRecords())
+    };
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(result);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    int offset = HEADER_SIZE;
+    for (byte[] section : sections) {
+      out.writeInt(offset);
+      offset += section.length;
+    }
+    for (byte[] section : sections) {
+      out.write(section);
+    }
+    return result.toByteArray();
+  }
+
+  private static byte[] section(int count, byte[]... parts) throws IOException {
+    ByteArrayOutputStream section = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(section);
+    out.writeInt(count);
+    for (byte[] part : parts) {
+      out.write(part);
+    }
+    return section.toByteArray();
+  }
+
+  /**
+   * Collects the record of the given tree followed by the records of its descendants, and returns the size of the subtree.
+   */
+  private int collectNode(Tree tree, int parent) throws IOException {
+    int index = nodeRecords.size();
+    int[] record = new int[6];
+    nodeRecords.add(record);
+    PyTree pyTree = (PyTree) tree;
+    int subtreeSize = 1;
+    for (int i = 0; i < pyTree.childrenCount(); i++) {
+      subtreeSize += collectNode(pyTree.child(i), index);
+    }
+    record[0] = tree.getKind().ordinal();
+    record[1] = parent;
+    record[2] = subtreeSize;
+    record[3] = tree.is(Tree.Kind.TOKEN) ? tokenId((Token) tree) : -1;
+    record[4] = -1;
+    record[5] = -1;
+    if (tree instanceof HasSymbol) {
+      record[4] = symbolId(((HasSymbol) tree).symbol());
+      Usage usage = ((HasSymbol) tree).usage();
+      record[5] = usage == null ? -1 : usage.kind().ordinal();
+    }
+    return subtreeSize;
+  }
+
+  private byte[] nodeRecords() throws IOException {
+    ByteArrayOutputStream nodes = new ByteArrayOutputStream(nodeRecords.size() * NODE_RECORD_SIZE);
+    DataOutputStream out = new DataOutputStream(nodes);
+    for (int[] record : nodeRecords) {
+      out.writeShort(record[0]);
+      out.writeInt(record[1]);
+      out.writeInt(record[2]);
+      out.writeInt(record[3]);
+      out.writeInt(record[4]);
+      out.writeByte(record[5]);
+    }
+    return nodes.toByteArray();
+  }
+
+  /**
+   * Tree tokens are matched in source order with the lexer tokens: several DEDENT tokens can share the same position.
+   */
+  private int tokenId(Token token) throws IOException {
+    Deque<Integer> ids = sourceTokenIds.get(tokenKey(token.value(), token.type(), token.line(), token.column()));
+    if (ids != null && !ids.isEmpty()) {
+      return ids.poll();
+    }
+    return writeToken(token.value(), token.type(), token.line(), token.column(), token.trivia().stream()
+      .map(Trivia::token)
+      .map(t -> new TriviaRecord(t.value(), t.line(), t.column()))
+      .collect(Collectors.toList()));
+  }
+
+  private static String tokenKey(String value, TokenType type, int line, int column) {
+    return line + ":" + column + ":" + typeName(type) + ":" + value;
+  }
+
+  private int writeToken(String value, TokenType type, int line, int column, List<TriviaRecord> tokenTrivia) throws IOException {
+    int firstTrivia = triviaCount;
+    DataOutputStream triviaOut = new DataOutputStream(trivia);
+    for (TriviaRecord t : tokenTrivia) {
+      triviaOut.writeInt(stringId(t.value));
+      triviaOut.writeInt(t.line);
+      triviaOut.writeInt(t.column);
+      triviaCount++;
+    }
+    DataOutputStream out = new DataOutputStream(tokens);
+    out.writeInt(stringId(value));
+    out.writeInt(stringId(typeName(type)));
+    out.writeInt(line);
+    out.writeInt(column);
+    out.writeInt(firstTrivia);
+    out.writeInt(tokenTrivia.size());
+    int id = tokenCount;
+    tokenCount++;
+    return id;
+  }
+
+  /**
+   * Name of a token type qualified by its enum, as the same name is used by several enums, e.g. the keyword and the punctuator AND.
+   */
+  static String typeName(TokenType type) {
+    return ((Enum<?>) type).getDeclaringClass().getSimpleName() + "." + type.getName();
+  }
+
+  private int symbolId(@Nullable Symbol symbol) throws IOException {
+    if (symbol == null) {
+      return -1;
+    }
+    Integer id = symbolIds.get(symbol);
+    if (id == null) {
+      id = symbolIds.size();
+      symbolIds.put(symbol, id);
+      DataOutputStream out = new DataOutputStream(symbols);
+      out.writeInt(stringId(symbol.name()));
+      out.writeInt(stringId(symbol.fullyQualifiedName()));
+      out.writeByte(symbol.kind().ordinal());
+    }
+    return id;
+  }
+
+  private static class TriviaRecord {
+    private final String value;
+    private final int line;
+    private final int column;
+
+    private TriviaRecord(String value, int line, int column) {
+      this.value = value;
+      this.line = line;
+      this.column = column;
+    }
+  }
+
+  private int stringId(@Nullable String value) throws IOException {
+    if (value == null) {
+      return -1;
+    }
+    Integer id = stringIds.get(value);
+    if (id == null) {
+      id = stringIds.size();
+      stringIds.put(value, id);
+      new DataOutputStream(stringOffsets).writeInt(strings.size());
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      DataOutputStream out = new DataOutputStream(strings);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    return id;
+  }
+}
@@ -34,7 +34,6 @@ import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.FunctionSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.AnyParameter;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.FunctionDef;
@@ -81,7 +80,9 @@ public class TreeUtils {
       return Collections.singletonList(tree.firstToken());
     }
     List<Token> tokens = new ArrayList<>();
-    for (Tree child : tree.children()) {
+    PyTree pyTree = (PyTree) tree;
+    for (int i = 0; i < pyTree.childrenCount(); i++) {
+      Tree child = pyTree.child(i);
       if (child.is(Kind.TOKEN)) {
         tokens.add(((Token) child));
       } else {
@@ -101,6 +102,43 @@ public class TreeUtils {
     return tree.children().stream().anyMatch(child -> predicate.test(child) || hasDescendant(child, predicate));
   }
 
+  public static boolean hasDescendantOfKind(Tree tree, Kind... kinds) {
+    for (Kind kind : kinds) {
+      if (!descendantsOfKind(tree, kind).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the descendants of the given tree having the given kind, in document order.
+   * When the tree is part of a file, the lookup is answered by the {@link TreeKindIndex} of that file.
+   */
+  public static List<Tree> descendantsOfKind(Tree tree, Kind kind) {
+    Tree root = tree;
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    if (root instanceof FileInputImpl) {
+      return ((FileInputImpl) root).kindIndex().descendants(tree, kind);
+    }
+    List<Tree> descendants = new ArrayList<>();
+    collectDescendantsOfKind(tree, kind, descendants);
+    return descendants;
+  }
+
+  private static void collectDescendantsOfKind(Tree tree, Kind kind, List<Tree> descendants) {
+    PyTree pyTree = (PyTree) tree;
+    for (int i = 0; i < pyTree.childrenCount(); i++) {
+      Tree child = pyTree.child(i);
+      if (child.is(kind)) {
+        descendants.add(child);
+      }
+      collectDescendantsOfKind(child, kind, descendants);
+    }
+  }
+
   public static Stream<Expression> flattenTuples(Expression expression) {
     if (expression.is(Kind.TUPLE)) {
       Tuple tuple = (Tuple) expression;
@@ -196,24 +234,9 @@ public class TreeUtils {
    * </code>
    */
   public static List<FunctionDef> topLevelFunctionDefs(ClassDef classDef) {
-    CollectFunctionDefsVisitor visitor = new CollectFunctionDefsVisitor();
-    classDef.body().accept(visitor);
-
-    return visitor.functionDefs;
-  }
-  
-  private static class CollectFunctionDefsVisitor extends BaseTreeVisitor {
-    private List<FunctionDef> functionDefs = new ArrayList<>();
-
-    @Override
-    public void visitClassDef(ClassDef pyClassDefTree) {
-      // Do not descend into nested classes
-    }
-
-    @Override
-    public void visitFunctionDef(FunctionDef pyFunctionDefTree) {
-      this.functionDefs.add(pyFunctionDefTree);
-      // Do not descend into nested functions
-    }
+    return descendantsOfKind(classDef.body(), Kind.FUNCDEF).stream()
+      .filter(functionDef -> firstAncestorOfKind(functionDef, Kind.FUNCDEF, Kind.CLASSDEF) == classDef)
+      .map(FunctionDef.class::cast)
+      .collect(Collectors.toList());
   }
 }
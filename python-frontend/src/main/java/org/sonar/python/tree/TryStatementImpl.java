@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.ElseClause;
@@ -97,8 +93,17 @@ public class TryStatementImpl extends PyTree implements TryStatement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(tryKeyword, colon, newLine, indent, tryBody, dedent), exceptClauses, Arrays.asList(elseClause, finallyClause))
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(exceptClauses.size() + 8)
+      .add(tryKeyword)
+      .add(colon)
+      .add(newLine)
+      .add(indent)
+      .add(tryBody)
+      .add(dedent)
+      .addAll(exceptClauses)
+      .add(elseClause)
+      .add(finallyClause)
+      .build();
   }
 }
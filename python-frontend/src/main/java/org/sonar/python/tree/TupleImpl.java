@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -73,23 +72,19 @@ public class TupleImpl extends PyTree implements Tuple {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
-    if (leftParenthesis != null) {
-      children.add(leftParenthesis);
-    }
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(elements.size() + commas.size() + 2);
+    builder.add(leftParenthesis);
     int i = 0;
     for (Tree element : elements) {
-      children.add(element);
+      builder.add(element);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    if (rightParenthesis != null) {
-      children.add(rightParenthesis);
-    }
-    return children;
+    builder.add(rightParenthesis);
+    return builder.build();
   }
 
   @Override
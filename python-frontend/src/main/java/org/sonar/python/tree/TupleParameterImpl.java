@@ -19,7 +19,6 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.sonar.plugins.python.api.tree.AnyParameter;
 import org.sonar.plugins.python.api.tree.Token;
@@ -67,19 +66,19 @@ public class TupleParameterImpl extends PyTree implements TupleParameter {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>();
-    children.add(lParenthesis);
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(parameters.size() + commas.size() + 2);
+    builder.add(lParenthesis);
     int i = 0;
     for (Tree argument : parameters) {
-      children.add(argument);
+      builder.add(argument);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    children.add(rParenthesis);
-    return children;
+    builder.add(rParenthesis);
+    return builder.build();
   }
 
   @Override
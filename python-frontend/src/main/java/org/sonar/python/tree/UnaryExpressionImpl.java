@@ -20,11 +20,7 @@
 package org.sonar.python.tree;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -72,8 +68,8 @@ public class UnaryExpressionImpl extends PyTree implements UnaryExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(operator, expression).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return nonNullChildren(operator, expression);
   }
 
   @Override
@@ -19,12 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -104,18 +99,24 @@ public class WithStatementImpl extends PyTree implements WithStatement {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    List<Tree> children = new ArrayList<>(Arrays.asList(asyncKeyword, withKeyword));
+  public Tree[] computeChildren() {
+    ChildrenBuilder builder = new ChildrenBuilder(withItems.size() + commas.size() + 7);
+    builder.add(asyncKeyword);
+    builder.add(withKeyword);
     int i = 0;
     for (Tree item : withItems) {
-      children.add(item);
+      builder.add(item);
       if (i < commas.size()) {
-        children.add(commas.get(i));
+        builder.add(commas.get(i));
       }
       i++;
     }
-    children.addAll(Arrays.asList(colon, newLine, indent, statements, dedent));
-    return children.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    builder.add(colon);
+    builder.add(newLine);
+    builder.add(indent);
+    builder.add(statements);
+    builder.add(dedent);
+    return builder.build();
   }
 
   public static class WithItemImpl extends PyTree implements WithItem {
@@ -158,8 +159,8 @@ public class WithStatementImpl extends PyTree implements WithStatement {
     }
 
     @Override
-    public List<Tree> computeChildren() {
-      return Stream.of(test, as, expr).filter(Objects::nonNull).collect(Collectors.toList());
+    public Tree[] computeChildren() {
+      return nonNullChildren(test, as, expr);
     }
   }
 }
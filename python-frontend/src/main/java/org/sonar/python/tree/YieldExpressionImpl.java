@@ -19,11 +19,7 @@
  */
 package org.sonar.python.tree;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -70,8 +66,11 @@ public class YieldExpressionImpl extends PyTree implements YieldExpression {
   }
 
   @Override
-  public List<Tree> computeChildren() {
-    return Stream.of(Arrays.asList(yieldKeyword, fromKeyword), expressionTrees)
-      .flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
+  public Tree[] computeChildren() {
+    return new ChildrenBuilder(expressionTrees.size() + 2)
+      .add(yieldKeyword)
+      .add(fromKeyword)
+      .addAll(expressionTrees)
+      .build();
   }
 }
@@ -0,0 +1,59 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.types;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+
+/**
+ * Type inference of a function and of the functions nested in it, which is run on the first type query within this function.
+ */
+public class DeferredTypeInference {
+
+  @Nullable
+  private FunctionDef functionDef;
+
+  @Nullable
+  private TypeInferenceStatistics statistics = null;
+
+  DeferredTypeInference(FunctionDef functionDef) {
+    this.functionDef = functionDef;
+  }
+
+  /**
+   * Runs type inference, unless it was already run or is currently running.
+   */
+  public void run() {
+    FunctionDef function = functionDef;
+    if (function != null) {
+      functionDef = null;
+      statistics = TypeInference.inferTypes(function);
+    }
+  }
+
+  /**
+   * Work done by type inference, or null if it has not completed yet.
+   */
+  @CheckForNull
+  TypeInferenceStatistics statistics() {
+    return statistics;
+  }
+}
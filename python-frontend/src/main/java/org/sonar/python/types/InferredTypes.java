@@ -19,6 +19,7 @@
  */
 package org.sonar.python.types;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
@@ -28,6 +29,7 @@ import org.sonar.plugins.python.api.tree.Tree.Kind;
 import org.sonar.plugins.python.api.tree.TypeAnnotation;
 import org.sonar.plugins.python.api.types.BuiltinTypes;
 import org.sonar.plugins.python.api.types.InferredType;
+import org.sonar.python.semantic.ClassSymbolImpl;
 
 public class InferredTypes {
 
@@ -54,16 +56,27 @@ public class InferredTypes {
   }
 
   private static InferredType runtimeBuiltinType(String fullyQualifiedName) {
-    return new RuntimeType(TypeShed.typeShedClass(fullyQualifiedName));
+    return runtimeType(TypeShed.typeShedClass(fullyQualifiedName));
   }
 
   public static InferredType runtimeType(@Nullable Symbol typeClass) {
+    if (typeClass instanceof ClassSymbolImpl) {
+      return ((ClassSymbolImpl) typeClass).runtimeType(RuntimeType::new);
+    }
     if (typeClass instanceof ClassSymbol) {
       return new RuntimeType((ClassSymbol) typeClass);
     }
     return anyType();
   }
 
+  /**
+   * Class of the given type when it is a runtime type, null otherwise.
+   */
+  @CheckForNull
+  public static ClassSymbol typeClass(InferredType type) {
+    return type instanceof RuntimeType ? ((RuntimeType) type).getTypeClass() : null;
+  }
+
   public static InferredType or(InferredType t1, InferredType t2) {
     return UnionType.or(t1, t2);
   }
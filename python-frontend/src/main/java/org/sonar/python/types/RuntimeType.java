@@ -19,8 +19,12 @@
  */
 package org.sonar.python.types;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.types.InferredType;
@@ -28,11 +32,27 @@ import org.sonar.plugins.python.api.types.InferredType;
 class RuntimeType implements InferredType {
 
   private final ClassSymbol typeClass;
+  // the type hierarchy of a class is computed once, so the presence of a member never changes
+  private final Map<String, Boolean> memberPresence = new ConcurrentHashMap<>();
+  // unions whose first member, in the order of UnionType, is this type
+  private final Map<Set<InferredType>, UnionType> unions = new ConcurrentHashMap<>();
 
   RuntimeType(ClassSymbol typeClass) {
     this.typeClass = typeClass;
   }
 
+  /**
+   * Returns the union of the given types, created with the given factory the first time it is requested.
+   * The unions are kept by the types, so they live as long as the class definitions of the analysis.
+   */
+  UnionType union(Set<InferredType> types, Function<Set<InferredType>, UnionType> unionFactory) {
+    return unions.computeIfAbsent(types, unionFactory);
+  }
+
+  ClassSymbol getTypeClass() {
+    return typeClass;
+  }
+
   @Override
   public boolean isIdentityComparableWith(InferredType other) {
     if (other == AnyType.ANY) {
@@ -46,10 +66,7 @@ class RuntimeType implements InferredType {
 
   @Override
   public boolean canHaveMember(String memberName) {
-    if (typeClass.hasUnresolvedTypeHierarchy()) {
-      return true;
-    }
-    return typeClass.resolveMember(memberName).isPresent();
+    return memberPresence.computeIfAbsent(memberName, name -> typeClass.hasUnresolvedTypeHierarchy() || typeClass.resolveMember(name).isPresent());
   }
 
   @Override
@@ -20,16 +20,22 @@
 package org.sonar.python.types;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.AssignmentStatement;
@@ -42,47 +48,100 @@ import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.types.InferredType;
+import org.sonar.python.StronglyConnectedComponents;
 import org.sonar.python.semantic.SymbolImpl;
 import org.sonar.python.tree.NameImpl;
 
 public class TypeInference extends BaseTreeVisitor {
 
+  private static final Logger LOG = Loggers.get(TypeInference.class);
+
+  // Each propagation of a function may be applied this number of times before inference of this function is given up
+  static final int PROPAGATION_STEPS_PER_PROPAGATION = 20;
+  static final int MIN_PROPAGATION_STEPS = 1_000;
+
   // The super() builtin is not specified precisely in typeshed.
   // It should return a proxy object (temporary object of the superclass) that allows to access methods of the base class
   // https://docs.python.org/3/library/functions.html#super
   private static final InferredType TYPE_OF_SUPER = InferredTypes.runtimeType(TypeShed.typeShedClass("super"));
 
   private final FunctionLike functionDef;
-  private final Map<Symbol, Set<Assignment>> assignmentsByLhs = new HashMap<>();
-  private final Map<QualifiedExpression, MemberAccess> memberAccessesByQualifiedExpr = new HashMap<>();
+  private final Map<Symbol, Set<Assignment>> assignmentsByLhs = new LinkedHashMap<>();
+  private final Map<QualifiedExpression, MemberAccess> memberAccessesByQualifiedExpr = new LinkedHashMap<>();
+  private int propagationSteps = 0;
+  private int propagationBudget;
 
+  /**
+   * Types are inferred on the first type query within a function: when the inferred type of one of its local variables or the symbol
+   * of one of its member accesses is read. Functions nested in another function are inferred together with it.
+   * Member accesses outside of functions are resolved right away.
+   */
   public static void inferTypes(FileInput fileInput) {
     fileInput.accept(new BaseTreeVisitor() {
       @Override
       public void visitFunctionDef(FunctionDef funcDef) {
+        deferTypeInference(funcDef);
+      }
+
+      @Override
+      public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
+        super.visitQualifiedExpression(qualifiedExpression);
+        resolveMemberAccess(qualifiedExpression);
+      }
+    });
+  }
+
+  private static void deferTypeInference(FunctionDef functionDef) {
+    DeferredTypeInference deferredTypeInference = new DeferredTypeInference(functionDef);
+    functionDef.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef funcDef) {
+        funcDef.localVariables().forEach(symbol -> ((SymbolImpl) symbol).setDeferredTypeInference(deferredTypeInference));
         super.visitFunctionDef(funcDef);
-        inferTypesAndMemberAccessSymbols(funcDef);
+      }
+
+      @Override
+      public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
+        ((NameImpl) qualifiedExpression.name()).setDeferredTypeInference(deferredTypeInference);
+        super.visitQualifiedExpression(qualifiedExpression);
       }
     });
+  }
 
-    fileInput.accept(new BaseTreeVisitor() {
+  static TypeInferenceStatistics inferTypes(FunctionDef functionDef) {
+    TypeInferenceStatistics statistics = new TypeInferenceStatistics();
+    functionDef.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef funcDef) {
+        super.visitFunctionDef(funcDef);
+        inferTypesAndMemberAccessSymbols(funcDef, statistics);
+      }
+    });
+
+    functionDef.accept(new BaseTreeVisitor() {
       @Override
       public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
         super.visitQualifiedExpression(qualifiedExpression);
-        Name name = qualifiedExpression.name();
-        InferredType type = qualifiedExpression.qualifier().type();
-        if (!type.equals(TYPE_OF_SUPER)) {
-          Optional<Symbol> resolvedMember = type.resolveMember(name.name());
-          resolvedMember.ifPresent(((NameImpl) name)::setSymbol);
-        }
+        resolveMemberAccess(qualifiedExpression);
       }
     });
+    return statistics;
   }
 
-  private static void inferTypesAndMemberAccessSymbols(FunctionLike functionDef) {
+  private static void resolveMemberAccess(QualifiedExpression qualifiedExpression) {
+    Name name = qualifiedExpression.name();
+    InferredType type = qualifiedExpression.qualifier().type();
+    if (!type.equals(TYPE_OF_SUPER)) {
+      Optional<Symbol> resolvedMember = type.resolveMember(name.name());
+      resolvedMember.ifPresent(((NameImpl) name)::setSymbol);
+    }
+  }
+
+  private static void inferTypesAndMemberAccessSymbols(FunctionLike functionDef, TypeInferenceStatistics statistics) {
     TypeInference visitor = new TypeInference(functionDef);
     functionDef.accept(visitor);
     visitor.processPropagations();
+    statistics.addFunction(visitor.propagationSteps, visitor.propagationSteps > visitor.propagationBudget);
   }
 
   private TypeInference(FunctionLike functionDef) {
@@ -110,7 +169,7 @@ public class TypeInference extends BaseTreeVisitor {
 
     Expression rhs = assignmentStatement.assignedValue();
     Assignment assignment = new Assignment(symbol, lhs, rhs);
-    assignmentsByLhs.computeIfAbsent(symbol, s -> new HashSet<>()).add(assignment);
+    assignmentsByLhs.computeIfAbsent(symbol, s -> new LinkedHashSet<>()).add(assignment);
   }
 
   @Override
@@ -134,7 +193,7 @@ public class TypeInference extends BaseTreeVisitor {
       }
     }
 
-    Set<Propagation> propagations = new HashSet<>();
+    List<Propagation> propagations = new ArrayList<>();
     Set<Symbol> initializedVars = new HashSet<>();
 
     for (MemberAccess memberAccess : memberAccessesByQualifiedExpr.values()) {
@@ -148,32 +207,75 @@ public class TypeInference extends BaseTreeVisitor {
       }
     });
 
-    applyPropagations(propagations, initializedVars, true);
-    applyPropagations(propagations, initializedVars, false);
+    orderByDependencies(propagations);
+    propagationBudget = Math.max(MIN_PROPAGATION_STEPS, PROPAGATION_STEPS_PER_PROPAGATION * propagations.size());
+    Set<Propagation> skippedPropagations = applyPropagations(propagations, initializedVars, true);
+    // propagations which were skipped because their dependencies were not ready are now applied anyway
+    applyPropagations(skippedPropagations, initializedVars, false);
+    if (propagationSteps > propagationBudget) {
+      LOG.debug("Type inference gave up after {} propagation steps", propagationSteps);
+      propagations.forEach(Propagation::giveUp);
+    }
   }
 
-  private void applyPropagations(Set<Propagation> propagations, Set<Symbol> initializedVars, boolean checkDependenciesReadiness) {
-    Set<Propagation> workSet = new HashSet<>(propagations);
-    while (!workSet.isEmpty()) {
-      Iterator<Propagation> iterator = workSet.iterator();
-      Propagation propagation = iterator.next();
-      iterator.remove();
+  /**
+   * Ranks propagations so that a propagation is applied after the propagations it depends on.
+   * Propagations of a same strongly connected component are ranked in the order in which they appear in the function.
+   */
+  private static void orderByDependencies(List<Propagation> propagations) {
+    Map<Propagation, Integer> positions = new HashMap<>();
+    propagations.forEach(propagation -> positions.put(propagation, positions.size()));
+    List<List<Propagation>> components = StronglyConnectedComponents.of(propagations, Propagation::dependents);
+    int rank = 0;
+    // components are returned after the components of their dependents
+    for (int i = components.size() - 1; i >= 0; i--) {
+      List<Propagation> component = new ArrayList<>(components.get(i));
+      component.sort(Comparator.comparingInt(positions::get));
+      for (Propagation propagation : component) {
+        propagation.rank = rank;
+        rank++;
+      }
+    }
+  }
+
+  /**
+   * Applies the given propagations, and the dependents of the propagations which changed a type, in the order of their rank.
+   * @return propagations which were skipped because their dependencies were not ready
+   */
+  private Set<Propagation> applyPropagations(Collection<Propagation> propagations, Set<Symbol> initializedVars, boolean checkDependenciesReadiness) {
+    Set<Propagation> skippedPropagations = new LinkedHashSet<>();
+    PriorityQueue<Propagation> workList = new PriorityQueue<>(Comparator.comparingInt(p -> p.rank));
+    Set<Propagation> inWorkList = new HashSet<>(propagations);
+    workList.addAll(propagations);
+    while (!workList.isEmpty() && propagationSteps <= propagationBudget) {
+      Propagation propagation = workList.poll();
+      inWorkList.remove(propagation);
       if (!checkDependenciesReadiness || propagation.areDependenciesReady(initializedVars)) {
-        boolean learnt = propagation.propagate(initializedVars);
-        if (learnt) {
-          workSet.addAll(propagation.dependents());
+        skippedPropagations.remove(propagation);
+        propagationSteps++;
+        if (propagation.propagate(initializedVars)) {
+          propagation.dependents().stream().filter(inWorkList::add).forEach(workList::add);
         }
+      } else {
+        skippedPropagations.add(propagation);
       }
     }
+    return skippedPropagations;
   }
 
   private abstract class Propagation {
     private final Set<Symbol> variableDependencies = new HashSet<>();
     private final Set<QualifiedExpression> memberAccessDependencies = new HashSet<>();
-    private final Set<Propagation> dependents = new HashSet<>();
+    private final Set<Propagation> dependents = new LinkedHashSet<>();
+    private int rank;
 
     abstract boolean propagate(Set<Symbol> initializedVars);
 
+    /**
+     * Resets what this propagation may have inferred, when inference of the function does not converge.
+     */
+    abstract void giveUp();
+
     void computeDependencies(Expression expression, Set<Symbol> trackedVars) {
       Deque<Expression> workList = new ArrayDeque<>();
       workList.push(expression);
@@ -233,6 +335,11 @@ public class TypeInference extends BaseTreeVisitor {
         return !newType.equals(currentType);
       }
     }
+
+    @Override
+    void giveUp() {
+      lhs.setInferredType(InferredTypes.anyType());
+    }
   }
 
   private class MemberAccess extends Propagation {
@@ -262,5 +369,10 @@ public class TypeInference extends BaseTreeVisitor {
       }
       return false;
     }
+
+    @Override
+    void giveUp() {
+      ((NameImpl) qualifiedExpression.name()).setSymbol(symbolWithoutTypeInference);
+    }
   }
 }
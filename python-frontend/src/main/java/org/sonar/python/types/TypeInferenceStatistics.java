@@ -0,0 +1,47 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.types;
+
+/**
+ * Work done by one run of type inference, over a function and the functions nested in it.
+ */
+class TypeInferenceStatistics {
+
+  private int propagationSteps = 0;
+  private int functionsOverBudget = 0;
+
+  void addFunction(int functionPropagationSteps, boolean overBudget) {
+    propagationSteps += functionPropagationSteps;
+    if (overBudget) {
+      functionsOverBudget++;
+    }
+  }
+
+  int propagationSteps() {
+    return propagationSteps;
+  }
+
+  /**
+   * Number of functions for which type inference was given up because it did not converge within its budget.
+   */
+  int functionsOverBudget() {
+    return functionsOverBudget;
+  }
+}
@@ -20,12 +20,25 @@
 package org.sonar.python.types;
 
 import com.sonar.sslr.api.AstNode;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
@@ -37,47 +50,175 @@ import org.sonar.python.parser.PythonParser;
 import org.sonar.python.semantic.ClassSymbolImpl;
 import org.sonar.python.semantic.FunctionSymbolImpl;
 import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.semantic.SymbolUtils;
+import org.sonar.python.semantic.SymbolsSerializer;
 import org.sonar.python.tree.PythonTreeMaker;
 
 import static org.sonar.plugins.python.api.types.BuiltinTypes.NONE_TYPE;
 
 public class TypeShed {
 
-  private static Map<String, Symbol> typeShedSymbols;
+  private static final Logger LOG = Loggers.get(TypeShed.class);
+
+  static final String BUILTINS_STUB = "builtins.pyi";
+  static final String BUILTINS_SYMBOLS = "builtins.symbols";
+
+  static final String STDLIB_STUBS = "stdlib/";
+  static final int MAX_CACHED_STUB_MODULES = 64;
+
+  private static volatile Map<String, Symbol> typeShedSymbols;
+
+  private static final Map<String, String> stubResourcesByModuleName = new ConcurrentHashMap<>();
+  private static final Map<String, Set<Symbol>> stubModulesCache = new LinkedHashMap<String, Set<Symbol>>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Set<Symbol>> eldest) {
+      return size() > MAX_CACHED_STUB_MODULES;
+    }
+  };
 
   private TypeShed() {
   }
 
   public static Map<String, Symbol> typeShedSymbols() {
-    if (TypeShed.typeShedSymbols == null) {
-      Map<String, Symbol> typeShedSymbols = new HashMap<>();
-      typeShedSymbols.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
-      InputStream resource = TypeShed.class.getResourceAsStream("builtins.pyi");
-      PythonFile file = new TypeShedPythonFile(resource);
-      AstNode astNode = PythonParser.create().parse(file.content());
-      FileInput fileInput = new PythonTreeMaker().fileInput(astNode);
-      Map<String, Set<Symbol>> globalSymbols = Collections.emptyMap();
-      new SymbolTableBuilder("", file, globalSymbols).visitFileInput(fileInput);
-      for (Symbol globalVariable : fileInput.globalVariables()) {
-        typeShedSymbols.put(globalVariable.fullyQualifiedName(), globalVariable);
-      }
-      BaseTreeVisitor visitor = new BaseTreeVisitor() {
-        @Override
-        public void visitFunctionDef(FunctionDef functionDef) {
-          TypeAnnotation returnTypeAnnotation = functionDef.returnTypeAnnotation();
-          Optional.ofNullable(functionDef.name().symbol()).ifPresent(symbol -> {
-            if (symbol.kind() == Symbol.Kind.FUNCTION && returnTypeAnnotation != null) {
-              FunctionSymbolImpl functionSymbol = (FunctionSymbolImpl) symbol;
-              functionSymbol.setDeclaredReturnType(InferredTypes.declaredType(returnTypeAnnotation));
-            }
-          });
-          super.visitFunctionDef(functionDef);
+    Map<String, Symbol> symbols = typeShedSymbols;
+    if (symbols == null) {
+      // declared types are created while loading symbols: InferredTypes, whose constants are TypeShed types, has to be initialized
+      // before taking the lock, otherwise a thread initializing InferredTypes could wait for the lock held by a thread waiting for
+      // this initialization
+      InferredTypes.anyType();
+      synchronized (TypeShed.class) {
+        if (typeShedSymbols == null) {
+          typeShedSymbols = load(BUILTINS_SYMBOLS);
         }
-      };
-      fileInput.accept(visitor);
-      TypeShed.typeShedSymbols = Collections.unmodifiableMap(typeShedSymbols);
+        symbols = typeShedSymbols;
+      }
+    }
+    return symbols;
+  }
+
+  /**
+   * Loads the symbols precompiled at build time from the given resource, or parses the builtins stub when this resource is missing.
+   */
+  static Map<String, Symbol> load(String symbolsResource) {
+    Map<String, Symbol> symbols = null;
+    try (InputStream resource = TypeShed.class.getResourceAsStream(symbolsResource)) {
+      if (resource != null) {
+        symbols = SymbolsSerializer.read(new BufferedInputStream(resource));
+      }
+    } catch (IOException | IllegalStateException e) {
+      LOG.debug("Unable to read precompiled builtin symbols, builtins stub will be parsed.", e);
+    }
+    if (symbols == null) {
+      symbols = parseBuiltins();
+    }
+    for (Symbol symbol : symbols.values()) {
+      if (symbol.kind() == Symbol.Kind.CLASS) {
+        // computes lazily initialized data of shared symbols, so that it is safely published with them
+        ((ClassSymbol) symbol).resolveMember("__init__");
+      }
+    }
+    return Collections.unmodifiableMap(symbols);
+  }
+
+  static Map<String, Symbol> parseBuiltins() {
+    Map<String, Symbol> symbols = new HashMap<>();
+    symbols.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
+    InputStream resource = TypeShed.class.getResourceAsStream(BUILTINS_STUB);
+    PythonFile file = new TypeShedPythonFile(resource);
+    AstNode astNode = PythonParser.create().parse(file.content());
+    FileInput fileInput = new PythonTreeMaker().fileInput(astNode);
+    Map<String, Set<Symbol>> globalSymbols = Collections.emptyMap();
+    new SymbolTableBuilder("", file, globalSymbols).visitFileInput(fileInput);
+    for (Symbol globalVariable : fileInput.globalVariables()) {
+      if (globalVariable.fullyQualifiedName() != null) {
+        symbols.put(globalVariable.fullyQualifiedName(), globalVariable);
+      }
+    }
+    BaseTreeVisitor visitor = new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        TypeAnnotation returnTypeAnnotation = functionDef.returnTypeAnnotation();
+        Optional.ofNullable(functionDef.name().symbol()).ifPresent(symbol -> {
+          if (symbol.kind() == Symbol.Kind.FUNCTION && returnTypeAnnotation != null) {
+            FunctionSymbolImpl functionSymbol = (FunctionSymbolImpl) symbol;
+            functionSymbol.setDeclaredReturnType(InferredTypes.declaredType(returnTypeAnnotation));
+          }
+        });
+        super.visitFunctionDef(functionDef);
+      }
+    };
+    fileInput.accept(visitor);
+    return symbols;
+  }
+
+  /**
+   * Global symbols of the standard library module having the given name, or null when no stub is bundled for this module.
+   * Stubs are parsed on first request, and the symbols of the most recently used modules are kept in a bounded cache shared by
+   * all analyses. These symbols must not be modified: importing files work on copies.
+   */
+  @CheckForNull
+  public static Set<Symbol> stubModuleSymbols(String moduleName) {
+    String resource = stubResourcesByModuleName.computeIfAbsent(moduleName, TypeShed::stubResource);
+    if (resource.isEmpty()) {
+      return null;
+    }
+    synchronized (stubModulesCache) {
+      Set<Symbol> symbols = stubModulesCache.get(moduleName);
+      if (symbols != null) {
+        return symbols;
+      }
+    }
+    Set<Symbol> symbols = Collections.unmodifiableSet(parseStub(moduleName, resource));
+    synchronized (stubModulesCache) {
+      Set<Symbol> cachedSymbols = stubModulesCache.putIfAbsent(moduleName, symbols);
+      return cachedSymbols != null ? cachedSymbols : symbols;
+    }
+  }
+
+  static int cachedStubModulesCount() {
+    synchronized (stubModulesCache) {
+      return stubModulesCache.size();
+    }
+  }
+
+  /**
+   * Path of the stub of a module, relative to this class, or an empty string when there is no such stub.
+   */
+  private static String stubResource(String moduleName) {
+    String path = STDLIB_STUBS + moduleName.replace('.', '/');
+    for (String resource : Arrays.asList(path + ".pyi", path + "/__init__.pyi")) {
+      if (TypeShed.class.getResource(resource) != null) {
+        return resource;
+      }
+    }
+    return "";
+  }
+
+  private static Set<Symbol> parseStub(String moduleName, String resource) {
+    String fileName = resource.substring(resource.lastIndexOf('/') + 1);
+    int lastDotIndex = moduleName.lastIndexOf('.');
+    String packageName;
+    if (fileName.equals("__init__.pyi")) {
+      packageName = moduleName;
+    } else {
+      packageName = lastDotIndex < 0 ? "" : moduleName.substring(0, lastDotIndex);
+    }
+    PythonFile file = new TypeShedPythonFile(TypeShed.class.getResourceAsStream(resource), fileName);
+    AstNode astNode = PythonParser.create().parse(file.content());
+    FileInput fileInput = new PythonTreeMaker().fileInput(astNode);
+    return SymbolUtils.sharedGlobalSymbols(fileInput, packageName, file);
+  }
+
+  /**
+   * Parses the builtins stub and writes its symbols in the given directory, where they are loaded from at runtime.
+   * It is executed during the build of this module.
+   */
+  public static void main(String[] args) throws IOException {
+    Path outputFile = Paths.get(args[0], TypeShed.class.getPackage().getName().replace('.', '/'), BUILTINS_SYMBOLS);
+    Files.createDirectories(outputFile.getParent());
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+      SymbolsSerializer.write(parseBuiltins().values(), out);
     }
-    return typeShedSymbols;
   }
 
   public static ClassSymbol typeShedClass(String fullyQualifiedName) {
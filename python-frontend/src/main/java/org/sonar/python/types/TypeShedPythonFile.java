@@ -36,9 +36,15 @@ public class TypeShedPythonFile implements PythonFile {
   private static final Logger LOG = Loggers.get(TypeShedPythonFile.class);
 
   private final InputStream resourceAsStream;
+  private final String fileName;
 
   TypeShedPythonFile(InputStream resourceAsStream) {
+    this(resourceAsStream, "");
+  }
+
+  TypeShedPythonFile(InputStream resourceAsStream, String fileName) {
     this.resourceAsStream = resourceAsStream;
+    this.fileName = fileName;
   }
 
   @Override
@@ -53,7 +59,7 @@ public class TypeShedPythonFile implements PythonFile {
 
   @Override
   public String fileName() {
-    return "";
+    return fileName;
   }
 
   @Override
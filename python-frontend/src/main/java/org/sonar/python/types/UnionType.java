@@ -19,10 +19,14 @@
  */
 package org.sonar.python.types;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.types.InferredType;
@@ -31,10 +35,16 @@ import static org.sonar.python.types.InferredTypes.anyType;
 
 class UnionType implements InferredType {
 
+  private static final Comparator<RuntimeType> MEMBER_ORDER = Comparator.comparing(t -> t.getTypeClass().fullyQualifiedName(),
+    Comparator.nullsFirst(Comparator.naturalOrder()));
+
   private final Set<InferredType> types;
+  private final int hashCode;
+  private final Map<String, Boolean> memberPresence = new ConcurrentHashMap<>();
 
   private UnionType(Set<InferredType> types) {
-    this.types = types;
+    this.types = Collections.unmodifiableSet(types);
+    this.hashCode = types.hashCode();
   }
 
   public static InferredType or(InferredType type1, InferredType type2) {
@@ -44,10 +54,33 @@ class UnionType implements InferredType {
     if (type1.equals(type2)) {
       return type1;
     }
+    // a union which already contains the other type is reused
+    if (type1 instanceof UnionType && ((UnionType) type1).containsAll(type2)) {
+      return type1;
+    }
+    if (type2 instanceof UnionType && ((UnionType) type2).containsAll(type1)) {
+      return type2;
+    }
     Set<InferredType> types = new HashSet<>();
     addTypes(type1, types);
     addTypes(type2, types);
-    return new UnionType(types);
+    return intern(types);
+  }
+
+  /**
+   * Unions only contain runtime types: a union is interned by its first member, so that the same union of the same runtime types
+   * is a single instance which keeps its memoized members.
+   */
+  private static UnionType intern(Set<InferredType> types) {
+    RuntimeType owner = types.stream()
+      .map(RuntimeType.class::cast)
+      .min(MEMBER_ORDER)
+      .orElseThrow(IllegalStateException::new);
+    return owner.union(types, UnionType::new);
+  }
+
+  private boolean containsAll(InferredType type) {
+    return type instanceof UnionType ? types.containsAll(((UnionType) type).types) : types.contains(type);
   }
 
   private static void addTypes(InferredType type, Set<InferredType> types) {
@@ -65,7 +98,7 @@ class UnionType implements InferredType {
 
   @Override
   public boolean canHaveMember(String memberName) {
-    return types.stream().anyMatch(t -> t.canHaveMember(memberName));
+    return memberPresence.computeIfAbsent(memberName, name -> types.stream().anyMatch(t -> t.canHaveMember(name)));
   }
 
   @Override
@@ -96,12 +129,12 @@ class UnionType implements InferredType {
       return false;
     }
     UnionType unionType = (UnionType) o;
-    return Objects.equals(types, unionType.types);
+    return hashCode == unionType.hashCode && Objects.equals(types, unionType.types);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(types);
+    return hashCode;
   }
 
   @Override
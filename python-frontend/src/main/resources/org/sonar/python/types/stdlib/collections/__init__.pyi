@@ -0,0 +1,190 @@
+# Subset of the typeshed stub of the "collections" module.
+# Generic base classes are omitted, so that the type hierarchy of these classes is resolved.
+
+from typing import Any, Callable, Dict, Iterable, Iterator, List, Mapping, Optional, Tuple, Type, TypeVar, Union, overload
+
+_S = TypeVar('_S')
+_T = TypeVar('_T')
+_KT = TypeVar('_KT')
+_VT = TypeVar('_VT')
+
+def namedtuple(typename: str, field_names: Union[str, Iterable[str]], *, rename: bool = ..., module: Optional[str] = ...,
+               defaults: Optional[Iterable[Any]] = ...) -> Type[Tuple[Any, ...]]: ...
+
+class UserDict:
+    data: Dict[_KT, _VT]
+    def __init__(self, dict: Optional[Mapping[_KT, _VT]] = ..., **kwargs: _VT) -> None: ...
+    def __len__(self) -> int: ...
+    def __getitem__(self, key: _KT) -> _VT: ...
+    def __setitem__(self, key: _KT, item: _VT) -> None: ...
+    def __delitem__(self, key: _KT) -> None: ...
+    def __iter__(self) -> Iterator[_KT]: ...
+    def __contains__(self, key: object) -> bool: ...
+    def __eq__(self, other: object) -> bool: ...
+    def copy(self: _S) -> _S: ...
+    @classmethod
+    def fromkeys(cls: Type[_S], iterable: Iterable[_KT], value: Optional[_VT] = ...) -> _S: ...
+
+class UserList:
+    data: List[_T]
+    def __init__(self, initlist: Optional[Iterable[_T]] = ...) -> None: ...
+    def __lt__(self, other: object) -> bool: ...
+    def __le__(self, other: object) -> bool: ...
+    def __gt__(self, other: object) -> bool: ...
+    def __ge__(self, other: object) -> bool: ...
+    def __eq__(self, other: object) -> bool: ...
+    def __contains__(self, item: object) -> bool: ...
+    def __len__(self) -> int: ...
+    def __getitem__(self, i: Any) -> Any: ...
+    def __setitem__(self, i: Any, o: Any) -> None: ...
+    def __delitem__(self, i: Any) -> None: ...
+    def __add__(self: _S, other: Iterable[_T]) -> _S: ...
+    def __iadd__(self: _S, other: Iterable[_T]) -> _S: ...
+    def __mul__(self: _S, n: int) -> _S: ...
+    def __imul__(self: _S, n: int) -> _S: ...
+    def append(self, item: _T) -> None: ...
+    def insert(self, i: int, item: _T) -> None: ...
+    def pop(self, i: int = ...) -> _T: ...
+    def remove(self, item: _T) -> None: ...
+    def clear(self) -> None: ...
+    def copy(self: _S) -> _S: ...
+    def count(self, item: _T) -> int: ...
+    def index(self, item: _T, *args: Any) -> int: ...
+    def reverse(self) -> None: ...
+    def sort(self, *args: Any, **kwds: Any) -> None: ...
+    def extend(self, other: Iterable[_T]) -> None: ...
+
+class deque:
+    @property
+    def maxlen(self) -> Optional[int]: ...
+    def __init__(self, iterable: Iterable[_T] = ..., maxlen: Optional[int] = ...) -> None: ...
+    def append(self, x: _T) -> None: ...
+    def appendleft(self, x: _T) -> None: ...
+    def clear(self) -> None: ...
+    def copy(self) -> deque: ...
+    def count(self, x: _T) -> int: ...
+    def extend(self, iterable: Iterable[_T]) -> None: ...
+    def extendleft(self, iterable: Iterable[_T]) -> None: ...
+    def insert(self, i: int, x: _T) -> None: ...
+    def index(self, x: _T, start: int = ..., stop: int = ...) -> int: ...
+    def pop(self) -> _T: ...
+    def popleft(self) -> _T: ...
+    def remove(self, value: _T) -> None: ...
+    def reverse(self) -> None: ...
+    def rotate(self, n: int = ...) -> None: ...
+    def __len__(self) -> int: ...
+    def __iter__(self) -> Iterator[_T]: ...
+    def __str__(self) -> str: ...
+    def __hash__(self) -> int: ...
+    def __getitem__(self, i: int) -> _T: ...
+    def __setitem__(self, i: int, x: _T) -> None: ...
+    def __delitem__(self, i: int) -> None: ...
+    def __contains__(self, o: object) -> bool: ...
+    def __reversed__(self) -> Iterator[_T]: ...
+    def __iadd__(self, iterable: Iterable[_T]) -> deque: ...
+    def __add__(self, other: deque) -> deque: ...
+    def __mul__(self, other: int) -> deque: ...
+    def __imul__(self, other: int) -> None: ...
+    def __eq__(self, other: object) -> bool: ...
+
+class Counter:
+    def __init__(self, iterable: Optional[Iterable[_T]] = ..., **kwargs: int) -> None: ...
+    def copy(self: _S) -> _S: ...
+    def elements(self) -> Iterator[_T]: ...
+    def most_common(self, n: Optional[int] = ...) -> List[Tuple[_T, int]]: ...
+    def subtract(self, iterable: Any = ..., **kwargs: int) -> None: ...
+    def update(self, iterable: Any = ..., **kwargs: int) -> None: ...
+    def __getitem__(self, key: _T) -> int: ...
+    def __setitem__(self, key: _T, value: int) -> None: ...
+    def __delitem__(self, key: _T) -> None: ...
+    def __contains__(self, key: object) -> bool: ...
+    def __iter__(self) -> Iterator[_T]: ...
+    def __len__(self) -> int: ...
+    def __add__(self, other: Counter) -> Counter: ...
+    def __sub__(self, other: Counter) -> Counter: ...
+    def __and__(self, other: Counter) -> Counter: ...
+    def __or__(self, other: Counter) -> Counter: ...
+    def __pos__(self) -> Counter: ...
+    def __neg__(self) -> Counter: ...
+    def __iadd__(self, other: Counter) -> Counter: ...
+    def __isub__(self, other: Counter) -> Counter: ...
+    def __iand__(self, other: Counter) -> Counter: ...
+    def __ior__(self, other: Counter) -> Counter: ...
+    def __eq__(self, other: object) -> bool: ...
+    def clear(self) -> None: ...
+    def get(self, key: _T, default: Any = ...) -> Any: ...
+    def items(self) -> Any: ...
+    def keys(self) -> Any: ...
+    def values(self) -> Any: ...
+    def pop(self, key: _T, *args: Any) -> Any: ...
+    def popitem(self) -> Tuple[_T, int]: ...
+    def setdefault(self, key: _T, default: int = ...) -> int: ...
+
+class OrderedDict:
+    def __init__(self, *args: Any, **kwargs: Any) -> None: ...
+    def popitem(self, last: bool = ...) -> Tuple[_KT, _VT]: ...
+    def move_to_end(self, key: _KT, last: bool = ...) -> None: ...
+    def copy(self: _S) -> _S: ...
+    def __reversed__(self) -> Iterator[_KT]: ...
+    def __getitem__(self, key: _KT) -> _VT: ...
+    def __setitem__(self, key: _KT, value: _VT) -> None: ...
+    def __delitem__(self, key: _KT) -> None: ...
+    def __contains__(self, key: object) -> bool: ...
+    def __iter__(self) -> Iterator[_KT]: ...
+    def __len__(self) -> int: ...
+    def __eq__(self, other: object) -> bool: ...
+    def clear(self) -> None: ...
+    def get(self, key: _KT, default: Any = ...) -> Any: ...
+    def items(self) -> Any: ...
+    def keys(self) -> Any: ...
+    def values(self) -> Any: ...
+    def pop(self, key: _KT, *args: Any) -> Any: ...
+    def setdefault(self, key: _KT, default: Any = ...) -> Any: ...
+    def update(self, *args: Any, **kwargs: Any) -> None: ...
+
+class defaultdict:
+    default_factory: Optional[Callable[[], _VT]]
+    def __init__(self, default_factory: Optional[Callable[[], _VT]] = ..., *args: Any, **kwargs: Any) -> None: ...
+    def __missing__(self, key: _KT) -> _VT: ...
+    def copy(self: _S) -> _S: ...
+    def __getitem__(self, key: _KT) -> _VT: ...
+    def __setitem__(self, key: _KT, value: _VT) -> None: ...
+    def __delitem__(self, key: _KT) -> None: ...
+    def __contains__(self, key: object) -> bool: ...
+    def __iter__(self) -> Iterator[_KT]: ...
+    def __len__(self) -> int: ...
+    def __eq__(self, other: object) -> bool: ...
+    def clear(self) -> None: ...
+    def get(self, key: _KT, default: Any = ...) -> Any: ...
+    def items(self) -> Any: ...
+    def keys(self) -> Any: ...
+    def values(self) -> Any: ...
+    def pop(self, key: _KT, *args: Any) -> Any: ...
+    def popitem(self) -> Tuple[_KT, _VT]: ...
+    def setdefault(self, key: _KT, default: Any = ...) -> Any: ...
+    def update(self, *args: Any, **kwargs: Any) -> None: ...
+
+class ChainMap:
+    maps: List[Mapping[_KT, _VT]]
+    def __init__(self, *maps: Mapping[_KT, _VT]) -> None: ...
+    def new_child(self, m: Optional[Mapping[_KT, _VT]] = ...) -> ChainMap: ...
+    @property
+    def parents(self) -> ChainMap: ...
+    def __setitem__(self, k: _KT, v: _VT) -> None: ...
+    def __delitem__(self, v: _KT) -> None: ...
+    def __getitem__(self, k: _KT) -> _VT: ...
+    def __iter__(self) -> Iterator[_KT]: ...
+    def __len__(self) -> int: ...
+    def __contains__(self, key: object) -> bool: ...
+    def __missing__(self, key: _KT) -> _VT: ...
+    def __eq__(self, other: object) -> bool: ...
+    def copy(self: _S) -> _S: ...
+    def clear(self) -> None: ...
+    def get(self, key: _KT, default: Any = ...) -> Any: ...
+    def items(self) -> Any: ...
+    def keys(self) -> Any: ...
+    def values(self) -> Any: ...
+    def pop(self, key: _KT, *args: Any) -> Any: ...
+    def popitem(self) -> Tuple[_KT, _VT]: ...
+    def setdefault(self, key: _KT, default: Any = ...) -> Any: ...
+    def update(self, *args: Any, **kwargs: Any) -> None: ...
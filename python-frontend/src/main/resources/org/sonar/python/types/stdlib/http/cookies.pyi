@@ -0,0 +1,28 @@
+# Subset of the typeshed stub of the "http.cookies" module.
+
+from typing import Any, Dict, Generic, List, Mapping, Optional, TypeVar, Union
+
+class CookieError(Exception): ...
+
+class Morsel(Dict[str, Any]):
+    value: str
+    coded_value: str
+    key: str
+    def set(self, key: str, val: str, coded_val: str) -> None: ...
+    def setdefault(self, key: str, val: Optional[str] = ...) -> str: ...
+    def update(self, values: Mapping[str, str]) -> None: ...
+    def isReservedKey(self, K: str) -> bool: ...
+    def output(self, attrs: Optional[List[str]] = ..., header: str = ...) -> str: ...
+    def js_output(self, attrs: Optional[List[str]] = ...) -> str: ...
+    def OutputString(self, attrs: Optional[List[str]] = ...) -> str: ...
+
+class BaseCookie(Dict[str, Morsel]):
+    def __init__(self, input: Optional[Any] = ...) -> None: ...
+    def value_decode(self, val: str) -> Any: ...
+    def value_encode(self, val: Any) -> Any: ...
+    def output(self, attrs: Optional[List[str]] = ..., header: str = ..., sep: str = ...) -> str: ...
+    def js_output(self, attrs: Optional[List[str]] = ...) -> str: ...
+    def load(self, rawdata: Union[str, Dict[str, str]]) -> None: ...
+    def __setitem__(self, key: str, value: Union[str, Morsel]) -> None: ...
+
+class SimpleCookie(BaseCookie): ...
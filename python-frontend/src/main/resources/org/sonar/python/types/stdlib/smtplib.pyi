@@ -0,0 +1,86 @@
+# Subset of the typeshed stub of the "smtplib" module.
+
+from typing import Any, Dict, List, Optional, Sequence, Tuple, Union
+from email.message import Message as _Message
+from socket import socket
+from ssl import SSLContext
+
+_Reply = Tuple[int, bytes]
+_SendErrs = Dict[str, _Reply]
+
+SMTP_PORT: int
+SMTP_SSL_PORT: int
+CRLF: str
+bCRLF: bytes
+
+class SMTPException(OSError): ...
+class SMTPNotSupportedError(SMTPException): ...
+class SMTPServerDisconnected(SMTPException): ...
+class SMTPAuthenticationError(SMTPException): ...
+
+def quoteaddr(addrstring: str) -> str: ...
+def quotedata(data: str) -> str: ...
+
+class SMTP:
+    debuglevel: int
+    sock: Optional[socket]
+    helo_resp: Optional[bytes]
+    ehlo_msg: str
+    ehlo_resp: Optional[bytes]
+    does_esmtp: bool
+    default_port: int
+    timeout: float
+    esmtp_features: Dict[str, str]
+    command_encoding: str
+    source_address: Optional[Tuple[Union[bytearray, bytes, str], int]]
+    local_hostname: str
+    def __init__(self, host: str = ..., port: int = ..., local_hostname: Optional[str] = ..., timeout: float = ...,
+                 source_address: Optional[Tuple[Union[bytearray, bytes, str], int]] = ...) -> None: ...
+    def __enter__(self) -> SMTP: ...
+    def __exit__(self, exc_type: Any, exc_value: Any, tb: Any) -> None: ...
+    def set_debuglevel(self, debuglevel: int) -> None: ...
+    def connect(self, host: str = ..., port: int = ..., source_address: Any = ...) -> _Reply: ...
+    def send(self, s: Union[bytes, str]) -> None: ...
+    def putcmd(self, cmd: str, args: str = ...) -> None: ...
+    def getreply(self) -> _Reply: ...
+    def docmd(self, cmd: str, args: str = ...) -> _Reply: ...
+    def helo(self, name: str = ...) -> _Reply: ...
+    def ehlo(self, name: str = ...) -> _Reply: ...
+    def has_extn(self, opt: str) -> bool: ...
+    def help(self, args: str = ...) -> bytes: ...
+    def rset(self) -> _Reply: ...
+    def noop(self) -> _Reply: ...
+    def mail(self, sender: str, options: Sequence[str] = ...) -> _Reply: ...
+    def rcpt(self, recip: str, options: Sequence[str] = ...) -> _Reply: ...
+    def data(self, msg: Union[bytes, str]) -> _Reply: ...
+    def verify(self, address: str) -> _Reply: ...
+    def expn(self, address: str) -> _Reply: ...
+    def ehlo_or_helo_if_needed(self) -> None: ...
+    def auth(self, mechanism: str, authobject: Any, *, initial_response_ok: bool = ...) -> _Reply: ...
+    def login(self, user: str, password: str, *, initial_response_ok: bool = ...) -> _Reply: ...
+    def starttls(self, keyfile: Optional[str] = ..., certfile: Optional[str] = ..., context: Optional[SSLContext] = ...) -> _Reply: ...
+    def sendmail(self, from_addr: str, to_addrs: Union[str, Sequence[str]], msg: Union[bytes, str], mail_options: Sequence[str] = ...,
+                 rcpt_options: List[str] = ...) -> _SendErrs: ...
+    def send_message(self, msg: _Message, from_addr: Optional[str] = ..., to_addrs: Optional[Union[str, Sequence[str]]] = ...,
+                     mail_options: List[str] = ..., rcpt_options: Sequence[str] = ...) -> _SendErrs: ...
+    def close(self) -> None: ...
+    def quit(self) -> _Reply: ...
+
+class SMTP_SSL(SMTP):
+    default_port: int
+    keyfile: Optional[str]
+    certfile: Optional[str]
+    context: SSLContext
+    def __init__(self, host: str = ..., port: int = ..., local_hostname: Optional[str] = ..., keyfile: Optional[str] = ...,
+                 certfile: Optional[str] = ..., timeout: float = ..., source_address: Optional[Tuple[Union[bytearray, bytes, str], int]] = ...,
+                 context: Optional[SSLContext] = ...) -> None: ...
+    def sendmail(self, from_addr: str, to_addrs: Union[str, Sequence[str]], msg: Union[bytes, str], mail_options: Sequence[str] = ...,
+                 rcpt_options: List[str] = ...) -> _SendErrs: ...
+    def send_message(self, msg: _Message, from_addr: Optional[str] = ..., to_addrs: Optional[Union[str, Sequence[str]]] = ...,
+                     mail_options: List[str] = ..., rcpt_options: Sequence[str] = ...) -> _SendErrs: ...
+
+LMTP_PORT: int
+
+class LMTP(SMTP):
+    def __init__(self, host: str = ..., port: int = ..., local_hostname: Optional[str] = ...,
+                 source_address: Optional[Tuple[Union[bytearray, bytes, str], int]] = ...) -> None: ...
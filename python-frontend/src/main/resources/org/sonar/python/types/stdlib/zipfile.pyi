@@ -0,0 +1,72 @@
+# Subset of the typeshed stub of the "zipfile" module.
+
+from typing import Any, Callable, IO, Iterable, Iterator, List, Optional, Tuple, Type, Union
+
+ZIP_STORED: int
+ZIP_DEFLATED: int
+ZIP_BZIP2: int
+ZIP_LZMA: int
+
+class BadZipFile(Exception): ...
+BadZipfile = BadZipFile
+error = BadZipfile
+class LargeZipFile(Exception): ...
+
+class ZipInfo:
+    filename: str
+    date_time: Tuple[int, int, int, int, int, int]
+    compress_type: int
+    comment: bytes
+    extra: bytes
+    create_system: int
+    create_version: int
+    extract_version: int
+    reserved: int
+    flag_bits: int
+    volume: int
+    internal_attr: int
+    external_attr: int
+    header_offset: int
+    CRC: int
+    compress_size: int
+    file_size: int
+    def __init__(self, filename: str = ..., date_time: Tuple[int, int, int, int, int, int] = ...) -> None: ...
+    def is_dir(self) -> bool: ...
+    def FileHeader(self, zip64: Optional[bool] = ...) -> bytes: ...
+
+class ZipFile:
+    filename: Optional[str]
+    debug: int
+    comment: bytes
+    filelist: List[ZipInfo]
+    fp: Optional[IO[bytes]]
+    NameToInfo: Any
+    start_dir: int
+    compression: int
+    compresslevel: Optional[int]
+    mode: str
+    pwd: Optional[str]
+    def __init__(self, file: Any, mode: str = ..., compression: int = ..., allowZip64: bool = ...,
+                 compresslevel: Optional[int] = ...) -> None: ...
+    def __enter__(self) -> ZipFile: ...
+    def __exit__(self, exc_type: Any, exc_val: Any, exc_tb: Any) -> None: ...
+    def close(self) -> None: ...
+    def getinfo(self, name: str) -> ZipInfo: ...
+    def infolist(self) -> List[ZipInfo]: ...
+    def namelist(self) -> List[str]: ...
+    def open(self, name: Union[str, ZipInfo], mode: str = ..., pwd: Optional[bytes] = ..., *, force_zip64: bool = ...) -> IO[bytes]: ...
+    def extract(self, member: Union[str, ZipInfo], path: Any = ..., pwd: Optional[bytes] = ...) -> str: ...
+    def extractall(self, path: Any = ..., members: Optional[Iterable[str]] = ..., pwd: Optional[bytes] = ...) -> None: ...
+    def printdir(self) -> None: ...
+    def setpassword(self, pwd: bytes) -> None: ...
+    def read(self, name: Union[str, ZipInfo], pwd: Optional[bytes] = ...) -> bytes: ...
+    def testzip(self) -> Optional[str]: ...
+    def write(self, filename: Any, arcname: Any = ..., compress_type: Optional[int] = ..., compresslevel: Optional[int] = ...) -> None: ...
+    def writestr(self, zinfo_or_arcname: Union[str, ZipInfo], data: Union[bytes, str], compress_type: Optional[int] = ...,
+                 compresslevel: Optional[int] = ...) -> None: ...
+
+class PyZipFile(ZipFile):
+    def __init__(self, file: Any, mode: str = ..., compression: int = ..., allowZip64: bool = ..., optimize: int = ...) -> None: ...
+    def writepy(self, pathname: str, basename: str = ..., filterfunc: Optional[Callable[[str], bool]] = ...) -> None: ...
+
+def is_zipfile(filename: Any) -> bool: ...
@@ -28,12 +28,19 @@ import java.util.Set;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.PythonTestUtils;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.cfg.FileControlFlowGraph;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.FunctionSummaries;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolImpl;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.taint.TaintResults;
 import org.sonar.python.tree.PythonTreeMaker;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -84,4 +91,66 @@ public class PythonVisitorContextTest {
     new PythonVisitorContext(fileInput, pythonFile, null, "my_package", globalSymbols);
     assertThat(fileInput.globalVariables()).extracting(Symbol::name).containsExactlyInAnyOrder("a", "b");
   }
+
+  @Test
+  public void cfgs_from_file_cfg() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def foo():",
+      "  def bar(): pass",
+      "class A:",
+      "  def method(self): return 1"
+    );
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, pythonFile("my_module.py"), null, "");
+    FileControlFlowGraph fileCfg = context.fileCfg();
+    assertThat(context.fileCfg()).isSameAs(fileCfg);
+    assertThat(fileCfg.size()).isEqualTo(4);
+    assertThat(context.cfg(fileInput)).isSameAs(fileCfg.graph(FileControlFlowGraph.MODULE_ID));
+    for (Tree tree : PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF))) {
+      FunctionDef functionDef = (FunctionDef) tree;
+      assertThat(context.cfg(functionDef)).isNotNull().isSameAs(fileCfg.graph(fileCfg.id(functionDef)));
+    }
+
+    // function which is not part of the file
+    FunctionDef otherFunction = (FunctionDef) PythonTestUtils.getAllDescendant(PythonTestUtils.parse("def f(): pass"), t -> t.is(Tree.Kind.FUNCDEF)).get(0);
+    assertThat(context.cfg(otherFunction)).isNotNull();
+    assertThat(new PythonVisitorContext(pythonFile("my_module.py"), null).fileCfg()).isNull();
+  }
+
+  @Test
+  public void function_summaries() {
+    FileInput fileInput = PythonTestUtils.parse(new SymbolTableBuilder("", pythonFile("mod.py")), "def fail(): raise ValueError()");
+    FunctionSummaries summaries = new FunctionSummaries.Builder().addFile(fileInput, pythonFile("mod.py"), new CfgBuildContext()).build();
+    PythonVisitorContext context = new PythonVisitorContext(PythonTestUtils.parse("import mod"), pythonFile("main.py"), null, "",
+      ProjectLevelSymbolTable.empty(), new CfgBuildContext(), summaries);
+    assertThat(context.functionSummaries()).isSameAs(summaries);
+    assertThat(new PythonVisitorContext(fileInput, pythonFile("mod.py"), null, "").functionSummaries().callGraph().functions()).isEmpty();
+  }
+
+  @Test
+  public void taint() {
+    FileInput fileInput = PythonTestUtils.parse(new SymbolTableBuilder("", pythonFile("mod.py")),
+      "import os",
+      "def run(command): os.system(command)",
+      "run(input())");
+    FunctionSummaries summaries = new FunctionSummaries.Builder().addFile(fileInput, pythonFile("mod.py"), new CfgBuildContext()).build();
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, pythonFile("mod.py"), null, "", ProjectLevelSymbolTable.empty(), new CfgBuildContext(), summaries);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, tree -> tree.is(Tree.Kind.FUNCDEF));
+    CallExpression system = PythonTestUtils.getFirstDescendant(functionDef, tree -> tree.is(Tree.Kind.CALL_EXPR));
+    TaintResults taintResults = context.taint(functionDef);
+    assertThat(taintResults.isUserControlled(system, 0)).isTrue();
+    assertThat(context.taint(functionDef)).isSameAs(taintResults);
+    CallExpression run = PythonTestUtils.getLastDescendant(fileInput, tree -> tree.is(Tree.Kind.CALL_EXPR) && tree.parent().is(Tree.Kind.EXPRESSION_STMT));
+    assertThat(context.taint(fileInput).isUserControlled(run, 0)).isTrue();
+    assertThat(context.taint(fileInput)).isSameAs(context.taint(fileInput));
+  }
+
+  @Test
+  public void taint_without_cfg() {
+    FileInput fileInput = PythonTestUtils.parse("x = 1", "if x: x = 2", "def f():", "  x = 1", "  if x: return", "  y = 2");
+    CfgBuildContext cfgBuildContext = new CfgBuildContext(1, 1);
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, pythonFile("mod.py"), null, "", ProjectLevelSymbolTable.empty(), cfgBuildContext);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, tree -> tree.is(Tree.Kind.FUNCDEF));
+    assertThat(context.taint(functionDef)).isNull();
+    assertThat(context.taint(fileInput)).isNull();
+  }
 }
@@ -0,0 +1,152 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.plugins.python.api.tree.Trivia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocationIndexTest {
+
+  @Test
+  public void tokens_on_line() {
+    LocationIndex index = index(
+      "def foo(x):",
+      "  return x + 1",
+      "",
+      "s = '''a",
+      "b'''");
+    assertThat(index.tokensOnLine(1)).extracting(Token::value).containsExactly("def", "foo", "(", "x", ")", ":");
+    assertThat(index.tokensOnLine(2)).extracting(Token::value).containsExactly("return", "x", "+", "1");
+    assertThat(index.tokensOnLine(3)).isEmpty();
+    assertThat(index.tokensOnLine(5)).isEmpty();
+    assertThat(index.tokensOnLine(42)).isEmpty();
+    assertThat(index.firstTokenOnLine(2).value()).isEqualTo("return");
+    assertThat(index.lastTokenOnLine(2).value()).isEqualTo("1");
+    assertThat(index.firstTokenOnLine(3)).isNull();
+    assertThat(index.lastTokenOnLine(3)).isNull();
+  }
+
+  @Test
+  public void token_at() {
+    LocationIndex index = index(
+      "foo( x )",
+      "s = '''a",
+      "b'''");
+    assertThat(index.tokenAt(1, 0).value()).isEqualTo("foo");
+    assertThat(index.tokenAt(1, 2).value()).isEqualTo("foo");
+    assertThat(index.tokenAt(1, 3).value()).isEqualTo("(");
+    assertThat(index.tokenAt(1, 4)).isNull();
+    assertThat(index.tokenAt(3, 1).value()).isEqualTo("'''a\nb'''");
+    assertThat(index.tokenAt(3, 4)).isNull();
+    assertThat(index.tokenAt(0, 0)).isNull();
+  }
+
+  @Test
+  public void tree_at() {
+    LocationIndex index = index(
+      "foo( x )",
+      "bar");
+    assertThat(index.treeAt(1, 0).is(Kind.TOKEN)).isTrue();
+    assertThat(index.treeAt(1, 4).is(Kind.CALL_EXPR)).isTrue();
+    Tree argument = index.treeAt(1, 5);
+    assertThat(argument.is(Kind.TOKEN)).isTrue();
+    assertThat(argument.parent().is(Kind.NAME)).isTrue();
+    assertThat(index.treeAt(1, 20).is(Kind.STATEMENT_LIST)).isTrue();
+    assertThat(index.treeAt(2, 10)).isNull();
+    assertThat(index.treeAt(0, 0)).isNull();
+  }
+
+  @Test
+  public void comments() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "# first",
+      "def foo(): # NOSONAR",
+      "  pass",
+      "",
+      "def bar():",
+      "  pass",
+      "# last");
+    LocationIndex index = new LocationIndex(fileInput, pythonFile(""));
+    assertThat(index.comments()).extracting(Trivia::value).containsExactly("# first", "# NOSONAR", "# last");
+    FunctionDef foo = (FunctionDef) fileInput.statements().statements().get(0);
+    FunctionDef bar = (FunctionDef) fileInput.statements().statements().get(1);
+    assertThat(index.hasComments(foo)).isTrue();
+    assertThat(index.hasComments(foo.name().firstToken(), foo.colon())).isFalse();
+    assertThat(index.hasComments(bar)).isFalse();
+    assertThat(index.hasComments(fileInput)).isTrue();
+
+    // the comment of the header of foo is attached to its NEWLINE token
+    assertThat(index.previousToken(foo.colon()).value()).isEqualTo(")");
+    assertThat(index.nextToken(foo.colon()).trivia()).extracting(Trivia::value).containsExactly("# NOSONAR");
+    assertThat(index.nextToken(foo.defKeyword())).isSameAs(foo.name().firstToken());
+    assertThat(index.previousToken(foo.name().firstToken())).isSameAs(foo.defKeyword());
+    assertThat(index.previousToken(fileInput.firstToken())).isNull();
+    assertThat(index.nextToken(fileInput.lastToken())).isNull();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void token_of_another_file() {
+    LocationIndex index = index("foo()");
+    index.nextToken(PythonTestUtils.parse("foo()").firstToken());
+  }
+
+  @Test
+  public void line_lengths() {
+    LocationIndex index = new LocationIndex(PythonTestUtils.parse("foo()"), pythonFile("foo()  \r\n\rbar\nx = 1"));
+    assertThat(index.lineCount()).isEqualTo(4);
+    assertThat(index.lineLength(1)).isEqualTo(7);
+    assertThat(index.lineLength(2)).isZero();
+    assertThat(index.lineLength(3)).isEqualTo(3);
+    assertThat(index.lineLength(4)).isEqualTo(5);
+    assertThat(new LocationIndex(PythonTestUtils.parse(""), pythonFile("")).lineCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void visitor_context() {
+    FileInput fileInput = PythonTestUtils.parse("foo()");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("mod.py"), null, "");
+    assertThat(context.locationIndex()).isNotNull();
+    assertThat(context.locationIndex()).isSameAs(context.locationIndex());
+    assertThat(context.locationIndex().firstTokenOnLine(1).value()).isEqualTo("foo");
+
+    PythonVisitorContext invalidContext = new PythonVisitorContext(PythonTestUtils.pythonFile("mod.py"), null);
+    assertThat(invalidContext.locationIndex()).isNull();
+  }
+
+  private static LocationIndex index(String... lines) {
+    return new LocationIndex(PythonTestUtils.parse(lines), pythonFile(String.join("\n", lines)));
+  }
+
+  private static PythonFile pythonFile(String content) {
+    PythonFile pythonFile = Mockito.mock(PythonFile.class);
+    Mockito.when(pythonFile.content()).thenReturn(content);
+    return pythonFile;
+  }
+}
@@ -20,19 +20,30 @@
 package org.sonar.python;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
+import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.IssueLocation;
+import org.sonar.plugins.python.api.LocationInFile;
 import org.sonar.plugins.python.api.PythonCheck;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.Trivia;
+import org.sonar.python.cfg.fixpoint.DataflowResults;
+import org.sonar.python.taint.TaintResults;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -153,7 +164,175 @@ public class PythonSubscriptionCheckTest {
     assertThat(issues.get(0).primaryLocation().startLine()).isEqualTo(8);
   }
 
+  @Test
+  public void test_cfg_shared_by_checks() {
+    List<ControlFlowGraph> cfgs = new ArrayList<>();
+    TestPythonCheck check = new TestPythonCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> cfgs.add(ctx.cfg((FunctionDef) ctx.syntaxNode())));
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> cfgs.add(ctx.cfg((FileInput) ctx.syntaxNode())));
+      }
+    };
+    TestPythonCheck otherCheck = new TestPythonCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> cfgs.add(ctx.cfg((FunctionDef) ctx.syntaxNode())));
+      }
+    };
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(FILE);
+    SubscriptionVisitor.analyze(Arrays.asList(check, otherCheck), context);
+
+    // file, then each of the 2 functions for both checks
+    assertThat(cfgs).hasSize(5).doesNotContainNull();
+    assertThat(cfgs.get(1)).isSameAs(cfgs.get(2)).isNotSameAs(cfgs.get(0));
+    assertThat(cfgs.get(3)).isSameAs(cfgs.get(4)).isNotSameAs(cfgs.get(1));
+    assertThat(context.cfg(context.rootTree())).isSameAs(cfgs.get(0));
+  }
+
+  @Test
+  public void test_default_cfg() {
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(FILE);
+    SubscriptionContext ctx = new DefaultSubscriptionContext(context.pythonFile());
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(context.rootTree(), t -> t.is(Tree.Kind.FUNCDEF));
+    assertThat(ctx.cfg(functionDef)).isNotNull().isNotSameAs(ctx.cfg(functionDef));
+    assertThat(ctx.cfg(context.rootTree())).isNotNull().isNotSameAs(context.cfg(context.rootTree()));
+  }
+
+  @Test
+  public void test_dataflow_shared_by_checks() {
+    List<DataflowResults> results = new ArrayList<>();
+    TestPythonCheck check = new TestPythonCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> results.add(SubscriptionVisitor.dataflow(ctx, (FunctionDef) ctx.syntaxNode())));
+      }
+    };
+    TestPythonCheck otherCheck = new TestPythonCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> results.add(SubscriptionVisitor.dataflow(ctx, (FunctionDef) ctx.syntaxNode())));
+      }
+    };
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(FILE);
+    SubscriptionVisitor.analyze(Arrays.asList(check, otherCheck), context);
+
+    assertThat(results).hasSize(4).doesNotContainNull();
+    assertThat(results.get(0)).isSameAs(results.get(1)).isNotSameAs(results.get(2));
+    assertThat(results.get(2)).isSameAs(results.get(3));
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(context.rootTree(), t -> t.is(Tree.Kind.FUNCDEF));
+    assertThat(results.get(0).cfg()).isSameAs(context.cfg(functionDef));
+  }
+
+  @Test
+  public void test_location_index() {
+    List<LocationIndex> indexes = new ArrayList<>();
+    TestPythonCheck check = new TestPythonCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> indexes.add(SubscriptionVisitor.locationIndex(ctx)));
+      }
+    };
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(FILE);
+    SubscriptionVisitor.analyze(Collections.singletonList(check), context);
+    assertThat(indexes).hasSize(2).containsOnly(context.locationIndex());
+
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(context.rootTree(), t -> t.is(Tree.Kind.FUNCDEF));
+    LocationIndex locationIndex = SubscriptionVisitor.locationIndex(new DefaultSubscriptionContext(context.pythonFile(), functionDef));
+    assertThat(locationIndex).isNotSameAs(context.locationIndex());
+    assertThat(locationIndex.nextToken(functionDef.defKeyword())).isSameAs(functionDef.name().firstToken());
+  }
+
+  @Test
+  public void test_analyses_of_other_subscription_context() {
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(FILE);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(context.rootTree(), t -> t.is(Tree.Kind.FUNCDEF));
+    SubscriptionContext ctx = new DefaultSubscriptionContext(context.pythonFile(), functionDef);
+    DataflowResults dataflow = SubscriptionVisitor.dataflow(ctx, functionDef);
+    assertThat(dataflow).isNotNull().isNotSameAs(context.dataflow(functionDef));
+    assertThat(dataflow.cfg()).isNotSameAs(context.cfg(functionDef));
+
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  x = input()",
+      "  g(x)",
+      "g(input())");
+    List<CallExpression> calls = PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.CALL_EXPR));
+    FunctionDef f = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    TaintResults functionTaint = SubscriptionVisitor.taint(ctx, f);
+    assertThat(functionTaint).isNotNull();
+    assertThat(functionTaint.isUserControlled(calls.get(1), 0)).isTrue();
+    TaintResults fileTaint = SubscriptionVisitor.taint(ctx, fileInput);
+    assertThat(fileTaint).isNotNull();
+    assertThat(fileTaint.isUserControlled(calls.get(2), 0)).isTrue();
+  }
+
   private abstract static class TestPythonCheck extends PythonSubscriptionCheck {
 
   }
+
+  /**
+   * Subscription context relying on the default implementations of the interface.
+   */
+  private static class DefaultSubscriptionContext implements SubscriptionContext {
+    private final PythonFile pythonFile;
+    private final Tree syntaxNode;
+
+    private DefaultSubscriptionContext(PythonFile pythonFile) {
+      this(pythonFile, null);
+    }
+
+    private DefaultSubscriptionContext(PythonFile pythonFile, @Nullable Tree syntaxNode) {
+      this.pythonFile = pythonFile;
+      this.syntaxNode = syntaxNode;
+    }
+
+    @Override
+    public Tree syntaxNode() {
+      if (syntaxNode == null) {
+        throw new UnsupportedOperationException();
+      }
+      return syntaxNode;
+    }
+
+    @Override
+    public PreciseIssue addIssue(Tree element, @Nullable String message) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreciseIssue addIssue(LocationInFile location, @Nullable String message) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreciseIssue addIssue(Token token, @Nullable String message) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreciseIssue addIssue(Token from, Token to, @Nullable String message) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreciseIssue addFileIssue(String finalMessage) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreciseIssue addLineIssue(String message, int lineNumber) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PythonFile pythonFile() {
+      return pythonFile;
+    }
+
+    @Override
+    public File workingDirectory() {
+      return null;
+    }
+  }
 }
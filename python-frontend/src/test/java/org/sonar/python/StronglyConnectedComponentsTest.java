@@ -0,0 +1,64 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StronglyConnectedComponentsTest {
+
+  @Test
+  public void components() {
+    Map<String, List<String>> graph = new HashMap<>();
+    graph.put("a", Arrays.asList("b"));
+    graph.put("b", Arrays.asList("c", "d"));
+    graph.put("c", Arrays.asList("b"));
+    graph.put("d", Collections.emptyList());
+    graph.put("e", Arrays.asList("e"));
+    List<List<String>> components = StronglyConnectedComponents.of(Arrays.asList("a", "b", "c", "d", "e"), graph::get);
+    assertThat(components).hasSize(4);
+    assertThat(components.get(0)).containsExactly("d");
+    assertThat(components.get(1)).containsExactlyInAnyOrder("b", "c");
+    assertThat(components.get(2)).containsExactly("a");
+    assertThat(components.get(3)).containsExactly("e");
+  }
+
+  @Test
+  public void deep_chain() {
+    int size = 100_000;
+    List<Integer> nodes = IntStream.range(0, size).boxed().collect(Collectors.toList());
+    List<List<Integer>> components = StronglyConnectedComponents.of(nodes, n -> n + 1 < size ? Collections.singletonList(n + 1) : Collections.emptyList());
+    assertThat(components).hasSize(size);
+    assertThat(components.get(0)).containsExactly(size - 1);
+    assertThat(components.get(size - 1)).containsExactly(0);
+
+    List<List<Integer>> cycle = StronglyConnectedComponents.of(nodes, n -> Collections.singletonList((n + 1) % size));
+    assertThat(cycle).hasSize(1);
+    assertThat(cycle.get(0)).hasSize(size);
+  }
+}
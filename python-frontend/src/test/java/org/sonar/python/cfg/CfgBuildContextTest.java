@@ -0,0 +1,123 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.api.utils.log.LogTester;
+import org.sonar.api.utils.log.LoggerLevel;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CfgBuildContextTest {
+
+  @Rule
+  public LogTester logTester = new LogTester();
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void statements_limit() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "x = 1; y = 2",
+      "def small():",
+      "  a = 1",
+      "  return a",
+      "def big():",
+      "  if a:",
+      "    b = 1",
+      "  return b");
+    CfgBuildContext buildContext = new CfgBuildContext(3, 100);
+    assertThat(buildContext.maxStatements()).isEqualTo(3);
+    assertThat(buildContext.maxBlocks()).isEqualTo(100);
+    assertThat(ControlFlowGraph.build(functionDef(fileInput, "small"), file, buildContext)).isNotNull();
+    assertThat(ControlFlowGraph.build(functionDef(fileInput, "big"), file, buildContext)).isNotNull();
+    assertThat(ControlFlowGraph.build(fileInput, file, buildContext)).isNull();
+    assertThat(buildContext.skippedForSize()).containsExactly("file1.py:1");
+
+    buildContext = new CfgBuildContext(2, 100);
+    assertThat(ControlFlowGraph.build(functionDef(fileInput, "big"), file, buildContext)).isNull();
+    assertThat(ControlFlowGraph.build(functionDef(fileInput, "big"), file, buildContext)).isNull();
+    assertThat(buildContext.skippedForSize()).containsExactly("file1.py:5 (big)");
+    assertThat(logTester.logs(LoggerLevel.WARN)).isEmpty();
+  }
+
+  @Test
+  public void blocks_limit() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  while a:",
+      "    if b:",
+      "      break",
+      "  return c");
+    FunctionDef functionDef = functionDef(fileInput, "f");
+    assertThat(ControlFlowGraph.build(functionDef, file, new CfgBuildContext(100, 100))).isNotNull();
+    CfgBuildContext buildContext = new CfgBuildContext(100, 3);
+    assertThat(ControlFlowGraph.build(functionDef, file, buildContext)).isNull();
+    assertThat(buildContext.skippedForSize()).containsExactly("file1.py:1 (f)");
+    assertThatThrownBy(() -> new ControlFlowGraphBuilder(functionDef.body(), 100, 3))
+      .isInstanceOf(ControlFlowGraphBuilder.SizeLimitExceededException.class)
+      .hasMessage("more than 3 blocks");
+  }
+
+  @Test
+  public void failures_are_recorded_per_context() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  class A:",
+      "    return 1");
+    FunctionDef functionDef = functionDef(fileInput, "f");
+    CfgBuildContext buildContext = new CfgBuildContext();
+    assertThat(ControlFlowGraph.build(functionDef, file, buildContext)).isNull();
+    assertThat(ControlFlowGraph.build(functionDef, file, buildContext)).isNull();
+    assertThat(logTester.logs(LoggerLevel.WARN)).containsExactly("Failed to build control flow graph in file [file1.py]: Invalid return outside of a function");
+    assertThat(buildContext.skippedForSize()).isEmpty();
+
+    // another analysis reports the failure again
+    assertThat(ControlFlowGraph.build(functionDef, file, new CfgBuildContext())).isNull();
+    assertThat(logTester.logs(LoggerLevel.WARN)).hasSize(2);
+  }
+
+  @Test
+  public void failures_are_recorded_without_analysis() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  class A:",
+      "    return 1");
+    FunctionDef functionDef = functionDef(fileInput, "f");
+    assertThat(ControlFlowGraph.build(functionDef, file)).isNull();
+    assertThat(ControlFlowGraph.build(functionDef, file)).isNull();
+    assertThat(logTester.logs(LoggerLevel.WARN)).hasSize(1);
+    assertThat(CfgBuildContext.withoutAnalysis()).isSameAs(CfgBuildContext.withoutAnalysis());
+    assertThat(CfgBuildContext.withoutAnalysis().skippedForSize()).isEmpty();
+  }
+
+  private static FunctionDef functionDef(FileInput fileInput, String name) {
+    return PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF) && ((FunctionDef) t).name().name().equals(name));
+  }
+}
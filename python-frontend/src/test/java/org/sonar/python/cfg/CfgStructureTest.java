@@ -0,0 +1,225 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.CfgBranchingBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.cfg.fixpoint.LiveVariablesAnalysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CfgStructureTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void graph_built_from_blocks() {
+    ControlFlowGraph cfg = cfg("x = 1");
+    ControlFlowGraph copy = new ControlFlowGraph(cfg.blocks(), cfg.start(), cfg.end());
+    assertThat(copy.blocks()).isSameAs(cfg.blocks());
+    assertThat(CfgStructure.of(copy)).isSameAs(CfgStructure.of(cfg));
+  }
+
+  @Test
+  public void structure_of_graph_not_built_by_builder() {
+    SimpleBlock end = new SimpleBlock();
+    SimpleBlock left = new SimpleBlock(end);
+    SimpleBlock right = new SimpleBlock(end);
+    SimpleBlock start = new SimpleBlock(left, right);
+    SimpleBlock unreachable = new SimpleBlock(end);
+    ControlFlowGraph cfg = new ControlFlowGraph(new LinkedHashSet<>(Arrays.asList(start, left, right, unreachable, end)), start, end);
+
+    CfgStructure structure = CfgStructure.of(cfg);
+    assertThat(structure.size()).isEqualTo(5);
+    assertThat(structure.blocks()).containsExactly(start, left, right, unreachable, end);
+    assertThat(structure.block(structure.start())).isSameAs(start);
+    assertThat(structure.block(structure.end())).isSameAs(end);
+    assertThat(structure.id(new SimpleBlock())).isEqualTo(-1);
+    assertThat(structure.predecessorCount(structure.end())).isEqualTo(3);
+    assertThat(blocks(structure, structure.reversePostorder(false, false))).containsExactly(start, right, left, end);
+
+    assertThat(CfgUtils.unreachableBlocks(cfg)).containsExactly(unreachable);
+    assertThat(CfgUtils.dominators(cfg).immediateDominator(end)).isSameAs(start);
+    assertThat(CfgUtils.postDominators(cfg).immediateDominator(start)).isSameAs(end);
+    assertThat(LiveVariablesAnalysis.analyze(cfg).getLiveVariables(start).getIn()).isEmpty();
+
+    // blocks reached from the given blocks are numbered after them
+    ControlFlowGraph partial = new ControlFlowGraph(Collections.singleton(left), start, end);
+    assertThat(CfgStructure.of(partial).blocks()).containsExactly(left, start, end, right);
+  }
+
+  @Test
+  public void blocks_are_numbered_densely() {
+    ControlFlowGraph cfg = cfg(
+      "if a:",
+      "  x = 1",
+      "  y = 2",
+      "else:",
+      "  x = 3",
+      "return x"
+    );
+    CfgStructure structure = CfgStructure.of(cfg);
+    assertThat(structure.size()).isEqualTo(cfg.blocks().size());
+    int id = 0;
+    for (CfgBlock block : cfg.blocks()) {
+      assertThat(structure.id(block)).isEqualTo(id);
+      assertThat(((PythonCfgBlock) block).id()).isEqualTo(id);
+      assertThat(structure.block(id)).isSameAs(block);
+      id++;
+    }
+    assertThat(structure.block(structure.start())).isSameAs(cfg.start());
+    assertThat(structure.block(structure.end())).isSameAs(cfg.end());
+    assertThat(structure.id(new PythonCfgEndBlock())).isEqualTo(-1);
+    assertThat(cfg.blocks()).doesNotContain(new PythonCfgEndBlock());
+    assertThat(cfg.blocks().contains("not a block")).isFalse();
+  }
+
+  @Test
+  public void adjacency() {
+    ControlFlowGraph cfg = cfg(
+      "while a:",
+      "  if b:",
+      "    break",
+      "  c()",
+      "d()"
+    );
+    CfgStructure structure = CfgStructure.of(cfg);
+    for (CfgBlock block : cfg.blocks()) {
+      int id = structure.id(block);
+      List<CfgBlock> successors = new ArrayList<>();
+      for (int i = 0; i < structure.successorCount(id); i++) {
+        successors.add(structure.block(structure.successor(id, i)));
+      }
+      assertThat(successors).containsExactlyElementsOf(block.successors());
+      List<CfgBlock> predecessors = new ArrayList<>();
+      for (int i = 0; i < structure.predecessorCount(id); i++) {
+        predecessors.add(structure.block(structure.predecessor(id, i)));
+      }
+      assertThat(predecessors).containsExactlyElementsOf(block.predecessors());
+      block.successors().forEach(successor -> assertThat(successor.predecessors()).contains(block));
+    }
+    CfgBranchingBlock loop = (CfgBranchingBlock) cfg.start();
+    assertThat(loop.successors()).containsExactly(loop.trueSuccessor(), loop.falseSuccessor());
+    assertThat(loop.successors().contains(cfg.end())).isFalse();
+  }
+
+  @Test
+  public void elements() {
+    ControlFlowGraph cfg = cfg(
+      "x = 1",
+      "y = 2",
+      "foo(x, y)"
+    );
+    List<String> elements = cfg.start().elements().stream().map(element -> element.getKind().toString()).collect(Collectors.toList());
+    assertThat(elements).containsExactly("ASSIGNMENT_STMT", "ASSIGNMENT_STMT", "EXPRESSION_STMT");
+    assertThat(cfg.end().elements()).isEmpty();
+  }
+
+  @Test
+  public void reversePostorder() {
+    ControlFlowGraph cfg = cfg(
+      "if a:",
+      "  x = 1",
+      "elif b:",
+      "  x = 2",
+      "else:",
+      "  x = 3",
+      "return x"
+    );
+    CfgStructure structure = CfgStructure.of(cfg);
+    List<CfgBlock> order = blocks(structure, structure.reversePostorder(false, false));
+    assertThat(order).hasSameSizeAs(cfg.blocks()).containsOnlyElementsOf(cfg.blocks());
+    assertThat(order.get(0)).isSameAs(cfg.start());
+    // without loops, a block comes before all its successors
+    for (CfgBlock block : order) {
+      block.successors().forEach(successor -> assertThat(order.indexOf(successor)).isGreaterThan(order.indexOf(block)));
+    }
+    List<CfgBlock> reversedOrder = blocks(structure, structure.reversePostorder(true, false));
+    assertThat(reversedOrder.get(0)).isSameAs(cfg.end());
+    assertThat(reversedOrder.get(reversedOrder.size() - 1)).isSameAs(cfg.start());
+  }
+
+  @Test
+  public void reversePostorder_unreachable_blocks() {
+    ControlFlowGraph cfg = cfg(
+      "x = 10",
+      "return",
+      "y = 42"
+    );
+    CfgStructure structure = CfgStructure.of(cfg);
+    CfgBlock unreachableBlock = cfg.start().syntacticSuccessor();
+    assertThat(blocks(structure, structure.reversePostorder(false, false))).containsExactly(cfg.start(), cfg.end());
+    assertThat(blocks(structure, structure.reversePostorder(false, true))).containsExactly(cfg.start(), cfg.end(), unreachableBlock);
+    assertThat(blocks(structure, structure.reversePostorder(true, false))).containsExactlyInAnyOrder(cfg.end(), cfg.start(), unreachableBlock);
+  }
+
+  private static List<CfgBlock> blocks(CfgStructure structure, int[] ids) {
+    return Arrays.stream(ids).mapToObj(structure::block).collect(Collectors.toList());
+  }
+
+  private static class SimpleBlock implements CfgBlock {
+    private final Set<CfgBlock> successors;
+
+    private SimpleBlock(CfgBlock... successors) {
+      this.successors = new LinkedHashSet<>(Arrays.asList(successors));
+    }
+
+    @Override
+    public Set<CfgBlock> successors() {
+      return successors;
+    }
+
+    @Override
+    public Set<CfgBlock> predecessors() {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public List<Tree> elements() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public CfgBlock syntacticSuccessor() {
+      return null;
+    }
+  }
+
+  private ControlFlowGraph cfg(String... lines) {
+    FileInput fileInput = PythonTestUtils.parse("def wrapper():", Arrays.stream(lines).map(s -> "  " + s).collect(Collectors.joining("\n")));
+    FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
+    return ControlFlowGraph.build(fun, file);
+  }
+}
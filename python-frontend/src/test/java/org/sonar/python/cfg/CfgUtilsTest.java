@@ -74,8 +74,6 @@ public class CfgUtilsTest {
     assertThat(CfgUtils.unreachableBlocks(cfg)).isEqualTo(unreachableBlocks);
   }
 
-
-
   private ControlFlowGraph cfg(String... lines) {
     FileInput fileInput = PythonTestUtils.parse("def wrapper():", Arrays.stream(lines).map(s -> "  " + s).collect(Collectors.joining("\n")));
     FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
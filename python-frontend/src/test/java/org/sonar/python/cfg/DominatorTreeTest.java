@@ -0,0 +1,135 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DominatorTreeTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void dominators_of_branches() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  x = 1",
+      "  if x:",
+      "    y = 2",
+      "  else:",
+      "    y = 3",
+      "  z = 4");
+    CfgBlock condition = cfg.start();
+    CfgBlock trueBranch = blockAtLine(cfg, 4);
+    CfgBlock falseBranch = blockAtLine(cfg, 6);
+    CfgBlock join = blockAtLine(cfg, 7);
+    DominatorTree dominators = CfgUtils.dominators(cfg);
+    assertThat(CfgUtils.dominators(cfg)).isSameAs(dominators);
+    assertThat(dominators.root()).isSameAs(cfg.start());
+    assertThat(dominators.immediateDominator(cfg.start())).isNull();
+    assertThat(dominators.immediateDominator(trueBranch)).isSameAs(condition);
+    assertThat(dominators.immediateDominator(falseBranch)).isSameAs(condition);
+    assertThat(dominators.immediateDominator(join)).isSameAs(condition);
+    assertThat(dominators.immediateDominator(cfg.end())).isSameAs(join);
+    assertThat(dominators.children(condition)).containsExactlyInAnyOrder(trueBranch, falseBranch, join);
+    assertThat(dominators.dominates(condition, cfg.end())).isTrue();
+    assertThat(dominators.dominates(join, join)).isTrue();
+    assertThat(dominators.dominates(trueBranch, join)).isFalse();
+    assertThat(dominators.dominates(join, condition)).isFalse();
+
+    DominatorTree postDominators = CfgUtils.postDominators(cfg);
+    assertThat(CfgUtils.postDominators(cfg)).isSameAs(postDominators);
+    assertThat(postDominators.root()).isSameAs(cfg.end());
+    assertThat(postDominators.immediateDominator(condition)).isSameAs(join);
+    assertThat(postDominators.immediateDominator(trueBranch)).isSameAs(join);
+    assertThat(postDominators.dominates(join, condition)).isTrue();
+    assertThat(postDominators.dominates(trueBranch, condition)).isFalse();
+  }
+
+  @Test
+  public void dominators_of_loop() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  while x:",
+      "    if y:",
+      "      break",
+      "    z = 1",
+      "  return z");
+    CfgBlock loop = blockAtLine(cfg, 2);
+    CfgBlock condition = blockAtLine(cfg, 3);
+    CfgBlock breakBlock = blockAtLine(cfg, 4);
+    CfgBlock body = blockAtLine(cfg, 5);
+    CfgBlock afterLoop = blockAtLine(cfg, 6);
+    DominatorTree dominators = CfgUtils.dominators(cfg);
+    assertThat(dominators.immediateDominator(condition)).isSameAs(loop);
+    assertThat(dominators.immediateDominator(body)).isSameAs(condition);
+    assertThat(dominators.immediateDominator(afterLoop)).isSameAs(loop);
+    assertThat(dominators.dominates(body, loop)).isFalse();
+    assertThat(dominators.blocks()).hasSameSizeAs(cfg.blocks());
+
+    DominatorTree postDominators = CfgUtils.postDominators(cfg);
+    assertThat(postDominators.immediateDominator(breakBlock)).isSameAs(afterLoop);
+    assertThat(postDominators.immediateDominator(body)).isSameAs(loop);
+    assertThat(postDominators.dominates(afterLoop, body)).isTrue();
+  }
+
+  @Test
+  public void unreachable_blocks() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  x = 1",
+      "  return x",
+      "  y = 2",
+      "def g():",
+      "  while True:",
+      "    pass");
+    CfgBlock unreachableBlock = blockAtLine(cfg, 4);
+    DominatorTree dominators = CfgUtils.dominators(cfg);
+    assertThat(dominators.contains(unreachableBlock)).isFalse();
+    assertThat(dominators.immediateDominator(unreachableBlock)).isNull();
+    assertThat(dominators.children(unreachableBlock)).isEmpty();
+    assertThat(dominators.dominates(cfg.start(), unreachableBlock)).isFalse();
+    assertThat(dominators.dominates(unreachableBlock, cfg.end())).isFalse();
+    // the unreachable block still reaches the end block
+    assertThat(CfgUtils.postDominators(cfg).immediateDominator(unreachableBlock)).isSameAs(cfg.end());
+  }
+
+  private ControlFlowGraph cfg(String... lines) {
+    FileInput fileInput = PythonTestUtils.parse(lines);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    return ControlFlowGraph.build(functionDef, file);
+  }
+
+  static CfgBlock blockAtLine(ControlFlowGraph cfg, int line) {
+    return cfg.blocks().stream()
+      .filter(block -> !block.elements().isEmpty() && block.elements().get(0).firstToken().line() == line)
+      .findFirst()
+      .orElseThrow(IllegalStateException::new);
+  }
+}
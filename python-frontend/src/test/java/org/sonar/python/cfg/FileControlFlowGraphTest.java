@@ -0,0 +1,104 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import java.util.List;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileControlFlowGraphTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void hierarchy() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  def g():",
+      "    def h(): pass",
+      "  return g",
+      "class A:",
+      "  def method(self):",
+      "    return 1",
+      "if cond:",
+      "  def k(): pass");
+    FileControlFlowGraph fileCfg = new CfgBuildContext().buildFile(fileInput, file);
+    assertThat(fileCfg.size()).isEqualTo(6);
+    FunctionDef f = functionDef(fileInput, "f");
+    FunctionDef g = functionDef(fileInput, "g");
+    FunctionDef h = functionDef(fileInput, "h");
+    FunctionDef method = functionDef(fileInput, "method");
+    FunctionDef k = functionDef(fileInput, "k");
+
+    int module = FileControlFlowGraph.MODULE_ID;
+    assertThat(fileCfg.functionDef(module)).isNull();
+    assertThat(fileCfg.parent(module)).isEqualTo(-1);
+    // functions defined by the module, in source order, including methods of classes
+    assertThat(fileCfg.children(module)).containsExactly(fileCfg.id(f), fileCfg.id(method), fileCfg.id(k));
+    assertThat(fileCfg.children(fileCfg.id(f))).containsExactly(fileCfg.id(g));
+    assertThat(fileCfg.children(fileCfg.id(g))).containsExactly(fileCfg.id(h));
+    assertThat(fileCfg.parent(fileCfg.id(h))).isEqualTo(fileCfg.id(g));
+    assertThat(fileCfg.parent(fileCfg.id(method))).isEqualTo(module);
+    assertThat(fileCfg.functionDef(fileCfg.id(h))).isSameAs(h);
+    assertThat(fileCfg.id(g)).isGreaterThan(fileCfg.id(f));
+
+    for (int id = 0; id < fileCfg.size(); id++) {
+      assertThat(fileCfg.graph(id)).isNotNull();
+    }
+    // the body of a class is part of the graph defining it
+    ControlFlowGraph moduleCfg = fileCfg.graph(module);
+    assertThat(moduleCfg.toString()).isEqualTo(ControlFlowGraph.build(fileInput, file).toString());
+    assertThat(fileCfg.graph(fileCfg.id(f)).toString()).isEqualTo(ControlFlowGraph.build(f, file).toString());
+
+    FunctionDef otherFunction = functionDef(PythonTestUtils.parse("def f(): pass"), "f");
+    assertThat(fileCfg.id(otherFunction)).isEqualTo(-1);
+  }
+
+  @Test
+  public void graph_which_cannot_be_built() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f():",
+      "  def g(): pass",
+      "  while x:",
+      "    pass",
+      "def h(): pass");
+    FileControlFlowGraph fileCfg = new CfgBuildContext(100, 4).buildFile(fileInput, file);
+    FunctionDef f = functionDef(fileInput, "f");
+    assertThat(fileCfg.size()).isEqualTo(3);
+    assertThat(fileCfg.graph(fileCfg.id(f))).isNull();
+    assertThat(fileCfg.graph(fileCfg.id(functionDef(fileInput, "h")))).isNotNull();
+    // functions defined in a graph which cannot be built are not part of the hierarchy
+    assertThat(fileCfg.id(functionDef(fileInput, "g"))).isEqualTo(-1);
+    assertThat(fileCfg.children(fileCfg.id(f))).isEmpty();
+  }
+
+  private static FunctionDef functionDef(FileInput fileInput, String name) {
+    List<Tree> functionDefs = PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF) && ((FunctionDef) t).name().name().equals(name));
+    return (FunctionDef) functionDefs.get(0);
+  }
+}
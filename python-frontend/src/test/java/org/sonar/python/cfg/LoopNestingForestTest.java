@@ -0,0 +1,124 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.cfg.LoopNestingForest.Loop;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.cfg.DominatorTreeTest.blockAtLine;
+
+public class LoopNestingForestTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void no_loop() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  if x:",
+      "    return 1",
+      "  return 2");
+    LoopNestingForest loops = CfgUtils.loops(cfg);
+    assertThat(CfgUtils.loops(cfg)).isSameAs(loops);
+    assertThat(loops.loops()).isEmpty();
+    assertThat(loops.outermostLoops()).isEmpty();
+    assertThat(loops.loop(cfg.start())).isNull();
+    assertThat(loops.innermostLoop(cfg.start())).isNull();
+  }
+
+  @Test
+  public void nested_loops() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  while a:",
+      "    for x in b:",
+      "      if x:",
+      "        continue",
+      "      print(x)",
+      "    while c:",
+      "      c = d",
+      "  return a");
+    CfgBlock outerHeader = blockAtLine(cfg, 2);
+    CfgBlock continueBlock = blockAtLine(cfg, 5);
+    CfgBlock secondInnerHeader = blockAtLine(cfg, 7);
+    CfgBlock afterLoops = blockAtLine(cfg, 9);
+    LoopNestingForest loops = CfgUtils.loops(cfg);
+    assertThat(loops.loops()).hasSize(3);
+    assertThat(loops.outermostLoops()).hasSize(1);
+
+    Loop outerLoop = loops.loop(outerHeader);
+    assertThat(outerLoop).isSameAs(loops.outermostLoops().get(0)).isSameAs(loops.loops().get(0));
+    assertThat(outerLoop.header()).isSameAs(outerHeader);
+    assertThat(outerLoop.parent()).isNull();
+    assertThat(outerLoop.depth()).isZero();
+    assertThat(outerLoop.children()).hasSize(2);
+    assertThat(outerLoop.contains(continueBlock)).isTrue();
+    assertThat(outerLoop.contains(afterLoops)).isFalse();
+
+    Loop forLoop = loops.innermostLoop(continueBlock);
+    assertThat(forLoop).isNotNull();
+    assertThat(forLoop.parent()).isSameAs(outerLoop);
+    assertThat(forLoop.depth()).isEqualTo(1);
+    assertThat(forLoop.contains(secondInnerHeader)).isFalse();
+    assertThat(outerLoop.blocks()).containsAll(forLoop.blocks());
+
+    Loop whileLoop = loops.loop(secondInnerHeader);
+    assertThat(whileLoop.parent()).isSameAs(outerLoop);
+    assertThat(whileLoop.blocks()).hasSize(2);
+    assertThat(outerLoop.children()).containsExactlyInAnyOrder(forLoop, whileLoop);
+    assertThat(loops.innermostLoop(outerHeader)).isSameAs(outerLoop);
+    assertThat(loops.innermostLoop(afterLoops)).isNull();
+  }
+
+  @Test
+  public void loop_executed_at_most_once() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  while a:",
+      "    return b",
+      "  foo()");
+    assertThat(CfgUtils.loops(cfg).loops()).isEmpty();
+  }
+
+  @Test
+  public void unreachable_loop() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  return",
+      "  while a:",
+      "    b()");
+    assertThat(CfgUtils.loops(cfg).loops()).isEmpty();
+  }
+
+  private ControlFlowGraph cfg(String... lines) {
+    FileInput fileInput = PythonTestUtils.parse(lines);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    return ControlFlowGraph.build(functionDef, file);
+  }
+}
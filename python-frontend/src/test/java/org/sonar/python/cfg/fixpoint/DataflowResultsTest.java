@@ -0,0 +1,66 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataflowResultsTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void analyses_share_symbol_read_writes() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f(p):",
+      "  x = p",
+      "  return x",
+      "  y = 1");
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    ControlFlowGraph cfg = ControlFlowGraph.build(functionDef, file);
+    DataflowResults dataflow = new DataflowResults(functionDef, cfg);
+    assertThat(dataflow.cfg()).isSameAs(cfg);
+
+    LiveVariablesAnalysis liveVariables = dataflow.liveVariables();
+    DefinedVariablesAnalysis definedVariables = dataflow.definedVariables();
+    assertThat(dataflow.liveVariables()).isSameAs(liveVariables);
+    assertThat(dataflow.definedVariables()).isSameAs(definedVariables);
+    assertThat(liveVariables.getReadSymbols()).extracting(Symbol::name).containsExactlyInAnyOrder("p", "x");
+    assertThat(liveVariables.getReadSymbols()).isSameAs(liveVariables.getReadSymbols());
+
+    CfgBlock start = cfg.start();
+    Tree assignment = start.elements().get(0);
+    assertThat(dataflow.symbolReadWrites(assignment)).isSameAs(dataflow.symbolReadWrites(assignment));
+    assertThat(liveVariables.getLiveVariables(start).getSymbolReadWrites(assignment)).isSameAs(dataflow.symbolReadWrites(assignment));
+    assertThat(definedVariables.getDefinedVariables(start).getSymbolReadWrites(assignment)).isSameAs(dataflow.symbolReadWrites(assignment));
+
+    assertThat(dataflow.unreachableBlocks()).hasSize(1).isSameAs(dataflow.unreachableBlocks());
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.cfg.CfgUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataflowSolverTest {
+
+  private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  public void forward_problem() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  x = 1",
+      "  while cond:",
+      "    if x:",
+      "      x = x + 1",
+      "  return x",
+      "  x = 2");
+    DataflowSolver<Set<CfgBlock>> solver = DataflowSolver.solve(cfg, new ExecutedBlocks(DataflowProblem.Direction.FORWARD));
+    Set<CfgBlock> unreachableBlocks = CfgUtils.unreachableBlocks(cfg);
+    assertThat(unreachableBlocks).hasSize(1);
+    assertThat(solver.input(cfg.start())).isEmpty();
+    // the unreachable block flows into the end block as well
+    assertThat(solver.output(cfg.end())).isEqualTo(new HashSet<>(cfg.blocks()));
+    CfgBlock unreachableBlock = unreachableBlocks.iterator().next();
+    assertThat(solver.output(unreachableBlock)).containsExactly(unreachableBlock);
+    // blocks of the loop are visited again only while the state flowing through the back edge changes
+    assertThat(solver.iterations()).isLessThanOrEqualTo(3 * cfg.blocks().size());
+  }
+
+  @Test
+  public void one_transfer_per_block_without_loop() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  if a:",
+      "    x = 1",
+      "  else:",
+      "    x = 2",
+      "  return x");
+    DataflowSolver<Set<CfgBlock>> solver = DataflowSolver.solve(cfg, new ExecutedBlocks(DataflowProblem.Direction.FORWARD));
+    assertThat(solver.iterations()).isEqualTo(cfg.blocks().size());
+    solver = DataflowSolver.solve(cfg, new ExecutedBlocks(DataflowProblem.Direction.BACKWARD));
+    assertThat(solver.iterations()).isEqualTo(cfg.blocks().size());
+  }
+
+  @Test
+  public void backward_problem() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  x = 1",
+      "  while cond:",
+      "    x = x + 1",
+      "  return x");
+    DataflowSolver<Set<CfgBlock>> solver = DataflowSolver.solve(cfg, new ExecutedBlocks(DataflowProblem.Direction.BACKWARD));
+    assertThat(solver.input(cfg.end())).isEmpty();
+    assertThat(solver.output(cfg.start())).isEqualTo(new HashSet<>(cfg.blocks()));
+  }
+
+  private ControlFlowGraph cfg(String... lines) {
+    FileInput fileInput = PythonTestUtils.parse(lines);
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    return ControlFlowGraph.build(functionDef, file);
+  }
+
+  /**
+   * Blocks which may have been executed before the end of a block (forward), or which may be executed after its start (backward).
+   */
+  private static class ExecutedBlocks implements DataflowProblem<Set<CfgBlock>> {
+
+    private final Direction direction;
+
+    private ExecutedBlocks(Direction direction) {
+      this.direction = direction;
+    }
+
+    @Override
+    public Direction direction() {
+      return direction;
+    }
+
+    @Override
+    public Set<CfgBlock> initialState(CfgBlock block) {
+      return new HashSet<>();
+    }
+
+    @Override
+    public Set<CfgBlock> join(Set<CfgBlock> input, Set<CfgBlock> neighbourOutput) {
+      input.addAll(neighbourOutput);
+      return input;
+    }
+
+    @Override
+    public Set<CfgBlock> transfer(CfgBlock block, Set<CfgBlock> input) {
+      Set<CfgBlock> output = new HashSet<>(input);
+      output.add(block);
+      return output;
+    }
+  }
+}
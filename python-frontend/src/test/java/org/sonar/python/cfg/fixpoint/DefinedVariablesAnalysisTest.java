@@ -30,6 +30,8 @@ import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.python.PythonTestUtils;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * This Defined Variable Analysis Test uses a meta-language to specify the expected values for each basic block.
  * <p>
@@ -102,6 +104,19 @@ public class DefinedVariablesAnalysisTest {
       "after_loop(succ = [END], defIn = [_a], defOut = [_a], gen = [_a], kill = [])",
       "foo(a)");
   }
+
+  @Test
+  public void states_are_computed_once() {
+    FileInput fileInput = PythonTestUtils.parse("def wrapper():", "  a = 1", "  foo(a)");
+    FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
+    ControlFlowGraph cfg = ControlFlowGraph.build(fun, file);
+    DefinedVariablesAnalysis analysis = DefinedVariablesAnalysis.analyze(cfg, fun.localVariables());
+    DefinedVariablesAnalysis.DefinedVariables definedVariables = analysis.getDefinedVariables(cfg.start());
+    assertThat(definedVariables.getIn()).isSameAs(definedVariables.getIn());
+    assertThat(definedVariables.getOut()).isSameAs(definedVariables.getOut());
+    assertThat(definedVariables.getOut()).containsValue(DefinedVariablesAnalysis.VariableDefinition.DEFINED);
+  }
+
   private void verifyDefVariableAnalysis(String... lines) {
     FileInput fileInput = PythonTestUtils.parse("def wrapper():", Arrays.stream(lines).map(s -> "  " + s).collect(Collectors.joining("\n")));
     FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
@@ -0,0 +1,61 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.BitSet;
+import java.util.Set;
+import org.junit.Test;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.python.semantic.SymbolImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SymbolIndexTest {
+
+  @Test
+  public void bits() {
+    Symbol a = new SymbolImpl("a", null);
+    Symbol b = new SymbolImpl("b", null);
+    Symbol otherA = new SymbolImpl("a", null);
+    SymbolIndex symbolIndex = new SymbolIndex();
+    symbolIndex.add(a);
+    symbolIndex.add(b);
+    symbolIndex.add(a);
+    symbolIndex.add(otherA);
+    assertThat(symbolIndex.size()).isEqualTo(3);
+    assertThat(symbolIndex.index(b)).isEqualTo(1);
+    assertThat(symbolIndex.symbol(2)).isSameAs(otherA);
+
+    assertThat(symbolIndex.add(b)).isEqualTo(1);
+
+    BitSet bits = new BitSet();
+    bits.set(symbolIndex.index(a));
+    bits.set(symbolIndex.index(otherA));
+    Set<Symbol> symbols = symbolIndex.symbols(bits);
+    assertThat(symbols).hasSize(2).containsExactlyInAnyOrder(a, otherA);
+    assertThat(symbols.contains(b)).isFalse();
+    assertThat(symbols.contains(new SymbolImpl("c", null))).isFalse();
+    assertThat(symbolIndex.symbols(new BitSet())).isEmpty();
+
+    // the set is a view of the bits
+    bits.set(symbolIndex.index(b));
+    assertThat(symbols).containsExactlyInAnyOrder(a, b, otherA);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import org.junit.Test;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.types.TypeShed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parse;
+
+public class BuiltinScopeTest {
+
+  @Test
+  public void builtin_symbols_are_created_per_file() {
+    FileInput file1 = parse("len([1])", "len([])");
+    FileInput file2 = parse("len(())");
+    Symbol len1 = calleeSymbol(file1);
+    Symbol len2 = calleeSymbol(file2);
+    assertThat(len1).isNotSameAs(len2);
+    assertThat(len1.fullyQualifiedName()).isEqualTo("len");
+    assertThat(len1.kind()).isEqualTo(Symbol.Kind.FUNCTION);
+    assertThat(len1.usages()).hasSize(2);
+    assertThat(len2.usages()).hasSize(1);
+    assertThat(file1.globalVariables()).isEmpty();
+  }
+
+  @Test
+  public void builtin_class_members_are_shared() {
+    FileInput fileInput = parse("str.join", "str.join");
+    QualifiedExpression qualifiedExpression = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    ClassSymbol str = (ClassSymbol) ((Name) qualifiedExpression.qualifier()).symbol();
+    ClassSymbol typeShedStr = TypeShed.typeShedClass("str");
+    assertThat(str).isNotSameAs(typeShedStr);
+    assertThat(str.usages()).hasSize(2);
+    assertThat(str.declaredMembers()).isEqualTo(typeShedStr.declaredMembers());
+    assertThat(str.superClasses()).isEqualTo(typeShedStr.superClasses());
+
+    Symbol typeShedJoin = typeShedStr.resolveMember("join").get();
+    assertThat(typeShedJoin.usages()).isEmpty();
+    Symbol join = qualifiedExpression.name().symbol();
+    assertThat(join).isNotSameAs(typeShedJoin);
+    assertThat(join.kind()).isEqualTo(typeShedJoin.kind());
+    assertThat(join.fullyQualifiedName()).isEqualTo(typeShedJoin.fullyQualifiedName());
+    assertThat(join.usages()).hasSize(2);
+    assertThat(qualifiedExpression.name().usage()).isSameAs(join.usages().get(0));
+
+    QualifiedExpression otherFileQualifiedExpression = PythonTestUtils.getFirstDescendant(parse("str.join"), t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    Symbol otherFileJoin = otherFileQualifiedExpression.name().symbol();
+    assertThat(otherFileJoin).isNotSameAs(join);
+    assertThat(otherFileJoin.usages()).extracting(Usage::tree).containsExactly(otherFileQualifiedExpression.name());
+  }
+
+  @Test
+  public void shadowed_builtin() {
+    FileInput fileInput = parse("len = 42", "len");
+    assertThat(fileInput.globalVariables()).isEmpty();
+    Name len = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.NAME));
+    assertThat(len.symbol().kind()).isEqualTo(Symbol.Kind.OTHER);
+    assertThat(len.symbol().fullyQualifiedName()).isNull();
+    assertThat(len.symbol().usages()).hasSize(2);
+    assertThat(calleeSymbol(parse("len([])")).kind()).isEqualTo(Symbol.Kind.FUNCTION);
+  }
+
+  private static Symbol calleeSymbol(FileInput fileInput) {
+    CallExpression callExpression = PythonTestUtils.getFirstDescendant(fileInput, t -> t.is(Tree.Kind.CALL_EXPR));
+    return callExpression.calleeSymbol();
+  }
+}
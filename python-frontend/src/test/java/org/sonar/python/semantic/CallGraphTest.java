@@ -0,0 +1,149 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallGraphTest {
+
+  @Test
+  public void graph() {
+    CallGraph graph = new CallGraph(graphCalls());
+    assertThat(graph.functions()).containsExactly("m.a", "m.b", "m.c", "m.d", "m.e");
+    assertThat(graph.callees("m.a")).containsExactly("m.b");
+    assertThat(graph.callees("m.c")).containsExactly("m.a", "m.c", "m.d");
+    assertThat(graph.callees("m.e")).isEmpty();
+    assertThat(graph.callees("unknown")).isEmpty();
+    assertThat(graph.callers("m.a")).containsExactly("m.c");
+    assertThat(graph.callers("m.c")).containsExactly("m.b", "m.c");
+    assertThat(graph.callers("m.e")).isEmpty();
+    assertThat(graph.callers("unknown")).isEmpty();
+  }
+
+  @Test
+  public void strongly_connected_components() {
+    List<Set<String>> components = new CallGraph(graphCalls()).stronglyConnectedComponents();
+    assertThat(components).hasSize(3);
+    assertThat(components.indexOf(Collections.singleton("m.d"))).isLessThan(components.indexOf(new HashSet<>(Arrays.asList("m.a", "m.b", "m.c"))));
+    assertThat(components).contains(Collections.singleton("m.e"));
+  }
+
+  @Test
+  public void levels() {
+    List<List<Set<String>>> levels = new CallGraph(graphCalls()).levels();
+    assertThat(levels).hasSize(2);
+    assertThat(levels.get(0)).containsExactly(Collections.singleton("m.d"), Collections.singleton("m.e"));
+    assertThat(levels.get(1)).containsExactly(new HashSet<>(Arrays.asList("m.a", "m.b", "m.c")));
+  }
+
+  @Test
+  public void summaries() {
+    Map<String, Set<String>> summaries = new CallGraph(graphCalls()).summaries(new ReachableExternalFunctions(graphCalls()));
+    assertThat(summaries).hasSize(5);
+    assertThat(summaries.get("m.a")).containsExactly("ext.f", "ext.g");
+    assertThat(summaries.get("m.b")).containsExactly("ext.f", "ext.g");
+    assertThat(summaries.get("m.c")).containsExactly("ext.f", "ext.g");
+    assertThat(summaries.get("m.d")).containsExactly("ext.f");
+    assertThat(summaries.get("m.e")).isEmpty();
+  }
+
+  @Test
+  public void summaries_replaced_per_component() {
+    List<Set<String>> summarizedComponents = new ArrayList<>();
+    ReachableExternalFunctions problem = new ReachableExternalFunctions(graphCalls()) {
+      @Override
+      public void componentSummarized(Set<String> component, Map<String, Set<String>> summaries) {
+        summarizedComponents.add(component);
+        if (component.contains("m.d")) {
+          summaries.put("m.d", Collections.singleton("replaced"));
+        }
+      }
+    };
+    Map<String, Set<String>> summaries = new CallGraph(graphCalls()).summaries(problem);
+    assertThat(summarizedComponents).containsExactly(Collections.singleton("m.d"), Collections.singleton("m.e"), new HashSet<>(Arrays.asList("m.a", "m.b", "m.c")));
+    // callers read the replaced summary
+    assertThat(summaries.get("m.a")).containsExactly("ext.g", "replaced");
+  }
+
+  @Test
+  public void deep_call_chain() {
+    Map<String, Set<String>> calls = new HashMap<>();
+    int depth = 10_000;
+    for (int i = 0; i < depth; i++) {
+      calls.put("f" + i, Collections.singleton(i == depth - 1 ? "ext.g" : ("f" + (i + 1))));
+    }
+    CallGraph graph = new CallGraph(calls);
+    assertThat(graph.levels()).hasSize(depth);
+    assertThat(graph.summaries(new ReachableExternalFunctions(calls)).get("f0")).containsExactly("ext.g");
+  }
+
+  private static Map<String, Set<String>> graphCalls() {
+    Map<String, Set<String>> calls = new HashMap<>();
+    calls.put("m.a", new HashSet<>(Collections.singletonList("m.b")));
+    calls.put("m.b", new HashSet<>(Arrays.asList("m.c", "ext.g")));
+    calls.put("m.c", new HashSet<>(Arrays.asList("m.a", "m.c", "m.d")));
+    calls.put("m.d", new HashSet<>(Collections.singletonList("ext.f")));
+    calls.put("m.e", Collections.emptySet());
+    return calls;
+  }
+
+  /**
+   * Functions which are not part of the graph, called directly or indirectly.
+   */
+  private static class ReachableExternalFunctions implements SummaryProblem<Set<String>> {
+
+    private final Map<String, Set<String>> calls;
+
+    private ReachableExternalFunctions(Map<String, Set<String>> calls) {
+      this.calls = calls;
+    }
+
+    @Override
+    public Set<String> initialSummary(String function) {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Set<String> summary(String function, Function<String, Set<String>> calleeSummaries) {
+      Set<String> summary = new TreeSet<>();
+      for (String callee : calls.get(function)) {
+        Set<String> calleeSummary = calleeSummaries.apply(callee);
+        if (calleeSummary == null) {
+          summary.add(callee);
+        } else {
+          summary.addAll(calleeSummary);
+        }
+      }
+      return summary;
+    }
+  }
+}
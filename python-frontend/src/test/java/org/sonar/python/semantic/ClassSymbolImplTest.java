@@ -165,4 +165,30 @@ public class ClassSymbolImplTest {
     assertThat(c.isOrExtends("d")).isFalse();
     assertThat(c.isOrExtends((String) null)).isFalse();
   }
+
+  @Test
+  public void copies_share_type_hierarchy() {
+    ClassSymbolImpl a = new ClassSymbolImpl("a", "mod1.a");
+    ClassSymbolImpl b = new ClassSymbolImpl("b", "mod2.b");
+    Symbol foo = new SymbolImpl("foo", "mod2.b.foo");
+    b.addMembers(Collections.singleton(foo));
+    a.addSuperClass(b);
+    a.addSuperClass(new SymbolImpl("c", null));
+
+    ClassSymbolImpl copy = a.copySharingMembers("alias");
+    assertThat(copy.name()).isEqualTo("alias");
+    assertThat(copy.fullyQualifiedName()).isEqualTo("mod1.a");
+    assertThat(copy.superClasses()).isEqualTo(a.superClasses());
+    assertThat(copy.declaredMembers()).isSameAs(a.declaredMembers());
+    assertThat(copy.definition()).isSameAs(a);
+    assertThat(copy.copySharingMembers("other").definition()).isSameAs(a);
+    assertThat(copy.resolveMember("foo")).contains(foo);
+    assertThat(copy.isOrExtends("mod2.b")).isTrue();
+    assertThat(copy.isOrExtends(new ClassSymbolImpl("x", null))).isTrue();
+    assertThat(b.isOrExtends(new ClassSymbolImpl("x", null))).isFalse();
+    assertThat(copy.hasUnresolvedTypeHierarchy()).isTrue();
+    assertThat(copy.copySharingMembers("other").isOrExtends(b)).isTrue();
+    assertThatThrownBy(() -> copy.addSuperClass(b)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> copy.addMembers(Collections.singleton(foo))).isInstanceOf(IllegalStateException.class);
+  }
 }
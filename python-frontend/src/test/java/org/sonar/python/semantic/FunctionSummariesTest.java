@@ -0,0 +1,222 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import org.junit.Test;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.taint.TaintSummaries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.getFirstDescendant;
+import static org.sonar.python.PythonTestUtils.parse;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+public class FunctionSummariesTest {
+
+  @Test
+  public void raise_and_return() {
+    FunctionSummaries summaries = summaries(
+      "def raises(): raise ValueError()",
+      "def may_raise(x):",
+      "  if x: raise ValueError()",
+      "  return 42",
+      "def returns_none(x):",
+      "  if x: return",
+      "  elif x > 1: return None",
+      "  print(x)",
+      "def may_return_value(x):",
+      "  if x: return None",
+      "  return x");
+    assertSummary(summaries.summary("mod.raises"), true, true, false);
+    assertSummary(summaries.summary("mod.may_raise"), false, false, false);
+    assertSummary(summaries.summary("mod.returns_none"), false, false, true);
+    assertSummary(summaries.summary("mod.may_return_value"), false, false, false);
+  }
+
+  @Test
+  public void loops() {
+    FunctionSummaries summaries = summaries(
+      "def loops_forever():",
+      "  while True:",
+      "    pass",
+      "def may_loop(x):",
+      "  while x:",
+      "    pass",
+      "def loops_until_raise(x):",
+      "  while True:",
+      "    if x: raise ValueError()");
+    assertSummary(summaries.summary("mod.loops_forever"), true, false, false);
+    assertSummary(summaries.summary("mod.may_loop"), false, false, true);
+    assertSummary(summaries.summary("mod.loops_until_raise"), true, true, false);
+  }
+
+  @Test
+  public void callees() {
+    FunctionSummaries summaries = summaries(
+      "def fail(): raise ValueError()",
+      "def calls_fail(x):",
+      "  print(x)",
+      "  fail()",
+      "  return x",
+      "def returns_fail(): return fail()",
+      "def may_call_fail(x):",
+      "  x and fail()",
+      "def catches_fail():",
+      "  try:",
+      "    fail()",
+      "  except ValueError:",
+      "    pass",
+      "def none(): pass",
+      "def returns_none_call(): return none()",
+      "def returns_unknown_call(): return unknown()");
+    assertSummary(summaries.summary("mod.calls_fail"), true, true, false);
+    assertSummary(summaries.summary("mod.returns_fail"), true, true, false);
+    assertSummary(summaries.summary("mod.may_call_fail"), false, false, true);
+    assertSummary(summaries.summary("mod.catches_fail"), false, false, true);
+    assertSummary(summaries.summary("mod.returns_none_call"), false, false, true);
+    assertSummary(summaries.summary("mod.returns_unknown_call"), false, false, false);
+    assertThat(summaries.callGraph().callees("mod.calls_fail")).containsExactly("mod.fail");
+    assertThat(summaries.callGraph().callers("mod.fail")).containsExactly("mod.calls_fail", "mod.catches_fail", "mod.may_call_fail", "mod.returns_fail");
+  }
+
+  @Test
+  public void recursion() {
+    FunctionSummaries summaries = summaries(
+      "def infinite(): infinite()",
+      "def even(x):",
+      "  if x == 0: return None",
+      "  return odd(x - 1)",
+      "def odd(x):",
+      "  if x == 0: raise ValueError()",
+      "  return even(x - 1)");
+    assertSummary(summaries.summary("mod.infinite"), true, false, false);
+    assertSummary(summaries.summary("mod.even"), false, false, true);
+    assertSummary(summaries.summary("mod.odd"), false, false, true);
+    assertThat(summaries.callGraph().stronglyConnectedComponents()).hasSize(2);
+  }
+
+  @Test
+  public void external_functions() {
+    FunctionSummaries summaries = summaries(
+      "import sys",
+      "import os",
+      "def exits(): sys.exit(1)",
+      "def aborts(): os.abort()",
+      "def calls_unknown(): unknown()");
+    assertSummary(summaries.summary("mod.exits"), true, true, false);
+    assertSummary(summaries.summary("mod.aborts"), true, false, false);
+    assertSummary(summaries.summary("mod.calls_unknown"), false, false, true);
+    assertThat(summaries.summary("mod.unknown")).isSameAs(FunctionSummary.UNKNOWN);
+    assertThat(summaries.summary((String) null)).isSameAs(FunctionSummary.UNKNOWN);
+    assertSummary(summaries.summary("sys.exit"), true, true, false);
+  }
+
+  @Test
+  public void functions_with_unknown_body() {
+    FunctionSummaries summaries = summaries(
+      "import functools",
+      "@functools.lru_cache",
+      "def decorated(): raise ValueError()",
+      "def generator():",
+      "  raise ValueError()",
+      "  yield 42",
+      "async def coroutine(): raise ValueError()",
+      "if cond:",
+      "  def duplicated(): raise ValueError()",
+      "else:",
+      "  def duplicated(): pass");
+    assertThat(summaries.summary("mod.decorated")).isSameAs(FunctionSummary.UNKNOWN);
+    assertSummary(summaries.summary("mod.generator"), false, false, false);
+    assertSummary(summaries.summary("mod.coroutine"), false, false, false);
+    assertThat(summaries.summary("mod.duplicated")).isSameAs(FunctionSummary.UNKNOWN);
+  }
+
+  @Test
+  public void nested_functions_and_methods() {
+    FunctionSummaries summaries = summaries(
+      "def fail(): raise ValueError()",
+      "def outer():",
+      "  def inner(): fail()",
+      "  f = lambda: fail()",
+      "  return 42",
+      "class A:",
+      "  def method(self): fail()");
+    assertSummary(summaries.summary("mod.outer"), false, false, false);
+    assertThat(summaries.callGraph().callees("mod.outer")).isEmpty();
+    assertSummary(summaries.summary("mod.A.method"), true, true, false);
+  }
+
+  @Test
+  public void functions_of_other_modules() {
+    FileInput mod1 = parse(new SymbolTableBuilder("", pythonFile("mod1.py")), "def fail(): raise ValueError()");
+    FileInput mod2 = parse(new SymbolTableBuilder("", pythonFile("mod2.py")),
+      "from mod1 import fail",
+      "import mod1",
+      "def f(): fail()",
+      "def g(): mod1.fail()");
+    CfgBuildContext cfgBuildContext = new CfgBuildContext();
+    FunctionSummaries summaries = new FunctionSummaries.Builder()
+      .addFile(mod2, pythonFile("mod2.py"), cfgBuildContext)
+      .addFile(mod1, pythonFile("mod1.py"), cfgBuildContext)
+      .build();
+    assertSummary(summaries.summary("mod2.f"), true, true, false);
+    assertSummary(summaries.summary("mod2.g"), true, true, false);
+    CallExpression call = getFirstDescendant(mod2, tree -> tree.is(Tree.Kind.CALL_EXPR));
+    assertThat(summaries.summary(call)).isSameAs(summaries.summary("mod1.fail"));
+  }
+
+  @Test
+  public void empty() {
+    FunctionSummaries summaries = FunctionSummaries.empty();
+    assertThat(summaries.callGraph().functions()).isEmpty();
+    assertThat(summaries.summary("mod.f")).isSameAs(FunctionSummary.UNKNOWN);
+  }
+
+  @Test
+  public void requested_summaries_only() {
+    FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")), "def f(x): return x");
+    FunctionSummaries callSummaries = new FunctionSummaries.Builder(true, false, TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(fileInput, pythonFile("mod.py"), new CfgBuildContext())
+      .build();
+    assertThat(callSummaries.callGraph().functions()).containsExactly("mod.f");
+    assertThat(callSummaries.taint().summary("mod.f")).isNull();
+
+    FunctionSummaries taintSummaries = new FunctionSummaries.Builder(false, true, TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(fileInput, pythonFile("mod.py"), new CfgBuildContext())
+      .build();
+    assertThat(taintSummaries.callGraph().functions()).isEmpty();
+    assertThat(taintSummaries.summary("mod.f")).isSameAs(FunctionSummary.UNKNOWN);
+    assertThat(taintSummaries.taint().summary("mod.f")).isNotNull();
+  }
+
+  private static FunctionSummaries summaries(String... lines) {
+    FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")), lines);
+    return new FunctionSummaries.Builder().addFile(fileInput, pythonFile("mod.py"), new CfgBuildContext()).build();
+  }
+
+  private static void assertSummary(FunctionSummary summary, boolean neverReturns, boolean alwaysRaises, boolean returnsNone) {
+    assertThat(summary.neverReturns()).as("never returns: " + summary).isEqualTo(neverReturns);
+    assertThat(summary.alwaysRaises()).as("always raises: " + summary).isEqualTo(alwaysRaises);
+    assertThat(summary.returnsNone()).as("returns None: " + summary).isEqualTo(returnsNone);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parse;
+
+public class ModuleDependencyGraphTest {
+
+  @Test
+  public void imported_module_names() {
+    assertThat(ModuleDependencyGraph.importedModuleNames(parse(
+      "import a.b.c",
+      "import d as e",
+      "from f import g, h as i",
+      "def foo():",
+      "  from j.k import *"
+    ), "my_package")).containsExactlyInAnyOrder("a", "a.b", "a.b.c", "d", "f", "f.g", "f.h", "j.k");
+  }
+
+  @Test
+  public void relative_imports() {
+    assertThat(ModuleDependencyGraph.importedModuleNames(parse(
+      "from . import a",
+      "from .b import c",
+      "from .. import d",
+      "from ..e import f"
+    ), "p1.p2")).containsExactlyInAnyOrder("p1.p2", "p1.p2.a", "p1.p2.b", "p1.p2.b.c", "p1", "p1.d", "p1.e", "p1.e.f");
+    assertThat(ModuleDependencyGraph.importedModuleNames(parse(
+      "from . import a",
+      "from .. import b"
+    ), "")).containsExactly("a");
+  }
+
+  @Test
+  public void graph() {
+    ModuleDependencyGraph graph = new ModuleDependencyGraph(graphImports());
+    assertThat(graph.modules()).containsExactlyInAnyOrder("a", "b", "c", "d", "e");
+    assertThat(graph.importedModules("a")).containsExactly("b");
+    assertThat(graph.importedModules("e")).isEmpty();
+    assertThat(graph.importedModules("unknown")).isEmpty();
+    assertThat(graph.importingModules("b")).containsExactly("a", "c");
+    assertThat(graph.importingModules("unknown")).isEmpty();
+
+    assertThat(graph.impactedModules(Collections.singleton("d"))).containsExactlyInAnyOrder("a", "b", "c", "d");
+    assertThat(graph.impactedModules(Collections.singleton("a"))).containsExactlyInAnyOrder("a", "b", "c");
+    assertThat(graph.impactedModules(Collections.singleton("e"))).containsExactly("e");
+    assertThat(graph.impactedModules(Collections.emptySet())).isEmpty();
+  }
+
+  @Test
+  public void strongly_connected_components() {
+    List<Set<String>> components = new ModuleDependencyGraph(graphImports()).stronglyConnectedComponents();
+    assertThat(components).hasSize(3);
+    assertThat(components.indexOf(Collections.singleton("d"))).isLessThan(components.indexOf(new HashSet<>(Arrays.asList("a", "b", "c"))));
+    assertThat(components).contains(Collections.singleton("e"));
+  }
+
+  @Test
+  public void deep_dependency_chain() {
+    Map<String, Set<String>> imports = new HashMap<>();
+    int moduleCount = 100_000;
+    for (int i = 0; i < moduleCount; i++) {
+      imports.put("mod" + i, Collections.singleton("mod" + (i + 1)));
+    }
+    ModuleDependencyGraph graph = new ModuleDependencyGraph(imports);
+    List<Set<String>> components = graph.stronglyConnectedComponents();
+    assertThat(components).hasSize(moduleCount);
+    assertThat(components.get(0)).containsExactly("mod" + (moduleCount - 1));
+    assertThat(graph.impactedModules(Collections.singleton("mod" + (moduleCount - 1)))).hasSize(moduleCount);
+  }
+
+  /**
+   * a -> b -> c -> a, c -> d, e (external modules and self imports are ignored)
+   */
+  private static Map<String, Set<String>> graphImports() {
+    Map<String, Set<String>> imports = new HashMap<>();
+    imports.put("a", new HashSet<>(Arrays.asList("b", "os")));
+    imports.put("b", Collections.singleton("c"));
+    imports.put("c", new HashSet<>(Arrays.asList("a", "b", "d")));
+    imports.put("d", Collections.singleton("d"));
+    imports.put("e", Collections.emptySet());
+    return imports;
+  }
+}
@@ -20,13 +20,18 @@
 package org.sonar.python.semantic;
 
 import com.google.common.base.Functions;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
 import org.junit.Test;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
@@ -242,6 +247,81 @@ public class ProjectLevelSymbolTableTest {
     assertThat(classA.superClasses().get(0).kind()).isEqualTo(Symbol.Kind.CLASS);
   }
 
+  @Test
+  public void imported_classes_share_their_definition() {
+    ClassSymbolImpl classASymbol = new ClassSymbolImpl("A", "mod1.A");
+    classASymbol.addSuperClass(new SymbolImpl("B", "mod2.B"));
+    classASymbol.addMembers(Collections.singleton(new SymbolImpl("foo", "mod1.A.foo")));
+    ClassSymbolImpl classBSymbol = new ClassSymbolImpl("B", "mod2.B");
+    classBSymbol.addMembers(Collections.singleton(new SymbolImpl("bar", "mod2.B.bar")));
+    Map<String, Set<Symbol>> globalSymbols = new HashMap<>();
+    globalSymbols.put("mod1", Collections.singleton(classASymbol));
+    globalSymbols.put("mod2", Collections.singleton(classBSymbol));
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(globalSymbols);
+
+    FileInput tree1 = parse(
+      new SymbolTableBuilder("my_package", pythonFile("my_module1.py"), projectLevelSymbolTable),
+      "from mod1 import A",
+      "A.foo",
+      "A.bar"
+    );
+    FileInput tree2 = parse(
+      new SymbolTableBuilder("my_package", pythonFile("my_module2.py"), projectLevelSymbolTable),
+      "from mod1 import A as C",
+      "from mod2 import B",
+      "C.foo"
+    );
+    ClassSymbol a1 = (ClassSymbol) getSymbolByName(tree1).get("A");
+    ClassSymbol a2 = (ClassSymbol) getSymbolByName(tree2).get("C");
+    ClassSymbol b2 = (ClassSymbol) getSymbolByName(tree2).get("B");
+    assertThat(a1).isNotSameAs(a2);
+    assertThat(a2.name()).isEqualTo("C");
+    assertThat(a1.usages()).hasSize(3);
+    assertThat(a2.usages()).hasSize(2);
+    assertThat(a1.declaredMembers()).isEqualTo(a2.declaredMembers());
+    assertThat(a1.superClasses()).containsExactlyElementsOf(a2.superClasses());
+    assertThat(a1.superClasses().get(0).kind()).isEqualTo(Symbol.Kind.CLASS);
+    assertThat(b2.declaredMembers()).isEqualTo(((ClassSymbol) a1.superClasses().get(0)).declaredMembers());
+
+    Symbol foo = a1.resolveMember("foo").get();
+    assertThat(foo).isNotSameAs(classASymbol.declaredMembers().iterator().next());
+    assertThat(foo.usages()).isEmpty();
+    // the usages of a shared member are recorded by a symbol of each file
+    QualifiedExpression qualifiedExpression = PythonTestUtils.getFirstChild(tree1, t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    Symbol foo1 = qualifiedExpression.name().symbol();
+    assertThat(foo1).isNotSameAs(foo);
+    assertThat(foo1.fullyQualifiedName()).isEqualTo(foo.fullyQualifiedName());
+    assertThat(foo1.usages()).extracting(Usage::tree).containsExactly(qualifiedExpression.name());
+    QualifiedExpression qualifiedExpression2 = PythonTestUtils.getFirstChild(tree2, t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    Symbol foo2 = qualifiedExpression2.name().symbol();
+    assertThat(foo2).isNotSameAs(foo1);
+    assertThat(foo2.usages()).extracting(Usage::tree).containsExactly(qualifiedExpression2.name());
+    assertThat(a1.resolveMember("bar").get().fullyQualifiedName()).isEqualTo("mod2.B.bar");
+  }
+
+  @Test
+  public void module_symbols_are_copied_on_access() {
+    ClassSymbolImpl classASymbol = new ClassSymbolImpl("A", "mod1.A");
+    SymbolImpl bSymbol = new SymbolImpl("b", "mod1.b");
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(Collections.singletonMap("mod1", new HashSet<>(Arrays.asList(classASymbol, bSymbol))));
+    FileInput tree = parse(
+      new SymbolTableBuilder("my_package", pythonFile("my_module.py"), projectLevelSymbolTable),
+      "import mod1",
+      "mod1.A",
+      "mod1.A",
+      "mod1.c"
+    );
+    List<QualifiedExpression> qualifiedExpressions = PythonTestUtils.getAllDescendant(tree, t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    Symbol a = qualifiedExpressions.get(0).name().symbol();
+    assertThat(a).isNotSameAs(classASymbol);
+    assertThat(a.kind()).isEqualTo(Symbol.Kind.CLASS);
+    assertThat(a.usages()).hasSize(2);
+    assertThat(qualifiedExpressions.get(1).name().symbol()).isSameAs(a);
+    Symbol c = qualifiedExpressions.get(2).name().symbol();
+    assertThat(c.fullyQualifiedName()).isEqualTo("mod1.c");
+    assertThat(c.kind()).isEqualTo(Symbol.Kind.OTHER);
+  }
+
   @Test
   public void not_class_symbol_in_super_class() {
     ClassSymbolImpl classASymbol = new ClassSymbolImpl("A", "mod1.A");
@@ -326,4 +406,131 @@ public class ProjectLevelSymbolTableTest {
     assertThat(classB.superClasses()).hasSize(1);
     assertThat(classB.superClasses().get(0).kind()).isEqualTo(Symbol.Kind.CLASS);
   }
+
+  @Test
+  public void symbol_index() {
+    SymbolImpl a = new SymbolImpl("a", "mod1.a");
+    ClassSymbolImpl b = new ClassSymbolImpl("B", "mod2.B");
+    SymbolImpl noFqn = new SymbolImpl("c", null);
+    Map<String, Set<Symbol>> globalSymbols = new HashMap<>();
+    globalSymbols.put("mod1", new HashSet<>(Arrays.asList(a, noFqn)));
+    globalSymbols.put("mod2", Collections.singleton(b));
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(globalSymbols);
+    globalSymbols.clear();
+
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod1")).containsExactlyInAnyOrder(a, noFqn);
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("unknown")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod1.a")).isSameAs(a);
+    assertThat(projectLevelSymbolTable.getSymbol("mod2.B")).isSameAs(b);
+    assertThat(projectLevelSymbolTable.getSymbol("mod1.c")).isNull();
+
+    assertThat(ProjectLevelSymbolTable.from(Collections.emptyMap())).isSameAs(ProjectLevelSymbolTable.empty());
+    assertThat(ProjectLevelSymbolTable.empty().getSymbol("mod1.a")).isNull();
+  }
+
+  @Test
+  public void symbol_index_is_immutable() {
+    Map<String, Set<Symbol>> globalSymbols = new HashMap<>();
+    globalSymbols.put("mod", new HashSet<>());
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(globalSymbols);
+    globalSymbols.put("mod2", Collections.singleton(new SymbolImpl("a", "mod2.a")));
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod2")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod2.a")).isNull();
+  }
+
+  @Test
+  public void typeshed_stub_module() {
+    FileInput tree = parse(
+      new SymbolTableBuilder("my_package", pythonFile("my_module.py"), ProjectLevelSymbolTable.empty()),
+      "from smtplib import SMTP_SSL",
+      "import zipfile",
+      "from collections import *"
+    );
+    Map<String, Symbol> symbols = getSymbolByName(tree);
+    ClassSymbol smtpSsl = (ClassSymbol) symbols.get("SMTP_SSL");
+    assertThat(smtpSsl.fullyQualifiedName()).isEqualTo("smtplib.SMTP_SSL");
+    assertThat(smtpSsl.superClasses()).extracting(Symbol::fullyQualifiedName).containsExactly("smtplib.SMTP");
+    assertThat(smtpSsl.resolveMember("starttls").get().fullyQualifiedName()).isEqualTo("smtplib.SMTP.starttls");
+    assertThat(symbols.get("zipfile").fullyQualifiedName()).isEqualTo("zipfile");
+    assertThat(symbols.get("deque").kind()).isEqualTo(Symbol.Kind.CLASS);
+
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    assertThat(projectLevelSymbolTable.getSymbol("http.cookies.SimpleCookie").kind()).isEqualTo(Symbol.Kind.CLASS);
+    assertThat(projectLevelSymbolTable.getSymbol("http.cookies.unknown")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("unknown.SimpleCookie")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("unknown")).isNull();
+  }
+
+  @Test
+  public void project_module_shadows_typeshed_stub() {
+    ClassSymbolImpl smtp = new ClassSymbolImpl("SMTP", "smtplib.SMTP");
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(Collections.singletonMap("smtplib", Collections.singleton(smtp)));
+    assertThat(projectLevelSymbolTable.getSymbol("smtplib.SMTP")).isSameAs(smtp);
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("smtplib")).containsExactly(smtp);
+  }
+
+  @Test
+  public void symbol_index_shared_by_files() {
+    Map<String, Set<Symbol>> globalSymbols = new HashMap<>();
+    List<CountingSet> moduleSymbols = new ArrayList<>();
+    int moduleCount = 1_000;
+    for (int i = 0; i < moduleCount; i++) {
+      String moduleName = "mod" + i;
+      CountingSet symbols = new CountingSet(Arrays.asList(new SymbolImpl("a", moduleName + ".a"), new ClassSymbolImpl("A", moduleName + ".A")));
+      moduleSymbols.add(symbols);
+      globalSymbols.put(moduleName, symbols);
+    }
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.from(globalSymbols);
+    // the index is built by iterating once over the symbols of each module
+    assertThat(moduleSymbols).extracting(set -> set.iterations).containsOnly(1);
+
+    Set<Symbol> definitionsOfMod0A = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Integer> importedModules = new HashSet<>();
+    for (int i = 0; i < moduleCount; i += 100) {
+      FileInput tree = parse(
+        new SymbolTableBuilder("my_package", pythonFile("my_module" + i + ".py"), projectLevelSymbolTable),
+        "from mod" + i + " import A",
+        "from mod" + (moduleCount - i - 1) + " import a",
+        "from mod0 import A as A0"
+      );
+      importedModules.addAll(Arrays.asList(0, i, moduleCount - i - 1));
+      Map<String, Symbol> symbols = getSymbolByName(tree);
+      assertThat(symbols.get("A").fullyQualifiedName()).isEqualTo("mod" + i + ".A");
+      assertThat(symbols.get("A").kind()).isEqualTo(Symbol.Kind.CLASS);
+      assertThat(symbols.get("a").fullyQualifiedName()).isEqualTo("mod" + (moduleCount - i - 1) + ".a");
+      definitionsOfMod0A.add(((ClassSymbolImpl) symbols.get("A0")).definition());
+    }
+    // all the files importing a class share the same definition
+    assertThat(definitionsOfMod0A).hasSize(1);
+    assertThat(projectLevelSymbolTable.getSymbol("mod0.A").usages()).isEmpty();
+    // analyzing a file only reads the symbols of the modules it imports: the cost of a file does not depend on the size of the project
+    for (int i = 0; i < moduleCount; i++) {
+      if (!importedModules.contains(i)) {
+        assertThat(moduleSymbols.get(i).iterations).as("iterations over mod" + i).isEqualTo(1);
+      }
+    }
+  }
+
+  /**
+   * Set of symbols counting the iterations over its elements.
+   */
+  private static class CountingSet extends HashSet<Symbol> {
+    private int iterations = 0;
+
+    private CountingSet(Collection<Symbol> symbols) {
+      super(symbols);
+    }
+
+    @Override
+    public Iterator<Symbol> iterator() {
+      iterations++;
+      return super.iterator();
+    }
+
+    @Override
+    public Spliterator<Symbol> spliterator() {
+      iterations++;
+      return super.spliterator();
+    }
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.FunctionSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.python.types.InferredTypes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SymbolsSerializerTest {
+
+  @Test
+  public void write_and_read() throws IOException {
+    ClassSymbolImpl a = new ClassSymbolImpl("A", "mod.A");
+    ClassSymbolImpl b = new ClassSymbolImpl("B", "mod.B");
+    b.addSuperClass(a);
+    b.addSuperClass(new SymbolImpl("Unknown", null));
+    b.setHasSuperClassWithoutSymbol();
+    List<FunctionSymbol.Parameter> parameters = Arrays.asList(
+      FunctionSymbolImpl.parameter("self", false, false, true),
+      FunctionSymbolImpl.parameter(null, false, false, false),
+      FunctionSymbolImpl.parameter("p", true, true, false));
+    FunctionSymbolImpl method = new FunctionSymbolImpl("meth", "mod.B.meth", parameters, true, true, false, false);
+    method.setDeclaredReturnType(InferredTypes.runtimeType(a));
+    SymbolImpl field = new SymbolImpl("field", null);
+    b.addMembers(Arrays.asList(method, field));
+    FunctionSymbolImpl function = new FunctionSymbolImpl("f", "mod.f", Collections.emptyList(), false, false, true, true);
+    SymbolImpl other = new SymbolImpl("x", "mod.x");
+
+    Map<String, Symbol> symbols = writeAndRead(Arrays.asList(b, a, function, other));
+    assertThat(symbols).containsOnlyKeys("mod.A", "mod.B", "mod.f", "mod.x");
+
+    ClassSymbol readA = (ClassSymbol) symbols.get("mod.A");
+    ClassSymbol readB = (ClassSymbol) symbols.get("mod.B");
+    assertThat(readB.name()).isEqualTo("B");
+    assertThat(readB.superClasses()).hasSize(2);
+    assertThat(readB.superClasses().get(0)).isSameAs(readA);
+    assertThat(readB.superClasses().get(1).fullyQualifiedName()).isNull();
+    assertThat(readB.hasUnresolvedTypeHierarchy()).isTrue();
+    assertThat(readA.hasUnresolvedTypeHierarchy()).isFalse();
+    assertThat(readB.declaredMembers()).extracting(Symbol::name).containsExactlyInAnyOrder("meth", "field");
+
+    FunctionSymbolImpl readMethod = (FunctionSymbolImpl) readB.resolveMember("meth").get();
+    assertThat(readMethod.owner()).isSameAs(readB);
+    assertThat(readMethod.hasVariadicParameter()).isTrue();
+    assertThat(readMethod.isInstanceMethod()).isTrue();
+    assertThat(readMethod.hasDecorators()).isFalse();
+    assertThat(readMethod.isStub()).isFalse();
+    assertThat(readMethod.definitionLocation()).isNull();
+    assertThat(readMethod.declaredReturnType()).isEqualTo(InferredTypes.runtimeType(readA));
+    assertThat(InferredTypes.typeClass(readMethod.declaredReturnType())).isSameAs(readA);
+    assertThat(readMethod.parameters()).extracting(FunctionSymbol.Parameter::name).containsExactly("self", null, "p");
+    assertThat(readMethod.parameters()).extracting(FunctionSymbol.Parameter::hasDefaultValue).containsExactly(false, false, true);
+    assertThat(readMethod.parameters()).extracting(FunctionSymbol.Parameter::isKeywordOnly).containsExactly(false, false, true);
+    assertThat(readMethod.parameters()).extracting(FunctionSymbol.Parameter::isPositionalOnly).containsExactly(true, false, false);
+
+    FunctionSymbolImpl readFunction = (FunctionSymbolImpl) symbols.get("mod.f");
+    assertThat(readFunction.hasDecorators()).isTrue();
+    assertThat(readFunction.isStub()).isTrue();
+    assertThat(readFunction.declaredReturnType()).isEqualTo(InferredTypes.anyType());
+    assertThat(readFunction.owner()).isNull();
+
+    assertThat(symbols.get("mod.x").kind()).isEqualTo(Symbol.Kind.OTHER);
+    assertThat(symbols.get("mod.x").usages()).isEmpty();
+  }
+
+  @Test
+  public void kind_is_preserved() throws IOException {
+    FunctionSymbolImpl redefinedFunction = new FunctionSymbolImpl("f", "mod.f", Collections.emptyList(), false, false, false, false);
+    redefinedFunction.setKind(Symbol.Kind.OTHER);
+    Symbol symbol = writeAndRead(Collections.singletonList(redefinedFunction)).get("mod.f");
+    assertThat(symbol).isInstanceOf(FunctionSymbolImpl.class);
+    assertThat(symbol.kind()).isEqualTo(Symbol.Kind.OTHER);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsupported_symbol() throws IOException {
+    SymbolsSerializer.write(Collections.singletonList(new SelfSymbolImpl("self", null)), new ByteArrayOutputStream());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void invalid_magic_number() throws IOException {
+    SymbolsSerializer.read(new ByteArrayInputStream(new byte[] {0, 0, 0, 0, 0, 0, 0, 1}));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsupported_version() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(SymbolsSerializer.MAGIC);
+    out.writeInt(SymbolsSerializer.VERSION + 1);
+    SymbolsSerializer.read(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  private static Map<String, Symbol> writeAndRead(List<Symbol> symbols) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SymbolsSerializer.write(symbols, out);
+    return SymbolsSerializer.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+}
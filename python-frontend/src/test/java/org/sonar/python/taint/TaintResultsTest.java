@@ -0,0 +1,134 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import java.util.List;
+import org.junit.Test;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.cfg.FileControlFlowGraph;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.tree.TreeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.getAllDescendant;
+import static org.sonar.python.PythonTestUtils.getFirstDescendant;
+import static org.sonar.python.PythonTestUtils.parse;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+public class TaintResultsTest {
+
+  private FileInput fileInput;
+  private FileControlFlowGraph fileCfg;
+  private TaintSummaries summaries;
+
+  @Test
+  public void arguments_of_calls() {
+    analyze(
+      "import os",
+      "def f(x):",
+      "  command = input()",
+      "  os.system(command, x)",
+      "  os.system(int(command))",
+      "  os.system(command.strip())",
+      "  os.system(x, *command)",
+      "  s = input().split()",
+      "  s[0].run()",
+      "  l = lambda: os.system(command)");
+    TaintResults results = TaintResults.analyze(functionDef("f"), fileCfg.graph(1), summaries);
+    List<CallExpression> calls = getAllDescendant(functionDef("f"), tree -> tree.is(Tree.Kind.CALL_EXPR));
+    CallExpression system = call(calls, "os.system(command, x)");
+    assertThat(results.isUserControlled(system, 0)).isTrue();
+    assertThat(results.isUserControlled(system, 1)).isFalse();
+    assertThat(results.isUserControlled(system, 2)).isFalse();
+    assertThat(results.isUserControlled(call(calls, "os.system(int(command))"), 0)).isFalse();
+    assertThat(results.isUserControlled(call(calls, "os.system(command.strip())"), 0)).isTrue();
+    assertThat(results.isUserControlled(call(calls, "os.system(x, *command)"), 0)).isFalse();
+    assertThat(results.isUserControlled(call(calls, "os.system(x, *command)"), 1)).isTrue();
+    assertThat(results.isReceiverUserControlled(call(calls, "s[0].run()"))).isTrue();
+    assertThat(results.isReceiverUserControlled(system)).isFalse();
+    // calls of lambdas are not part of the results
+    assertThat(results.isUserControlled(calls.get(calls.size() - 1), 0)).isFalse();
+  }
+
+  @Test
+  public void user_controlled_parameters() {
+    analyze(
+      "import os",
+      "def run(command, options):",
+      "  os.system(command, options)",
+      "def never_called(command):",
+      "  os.system(command)",
+      "run(input(), '-l')");
+    TaintResults results = TaintResults.analyze(functionDef("run"), fileCfg.graph(1), summaries);
+    CallExpression system = getFirstDescendant(functionDef("run"), tree -> tree.is(Tree.Kind.CALL_EXPR));
+    assertThat(results.isUserControlled(system, 0)).isTrue();
+    assertThat(results.isUserControlled(system, 1)).isFalse();
+
+    results = TaintResults.analyze(functionDef("never_called"), fileCfg.graph(2), summaries);
+    system = getFirstDescendant(functionDef("never_called"), tree -> tree.is(Tree.Kind.CALL_EXPR));
+    assertThat(results.isUserControlled(system, 0)).isFalse();
+  }
+
+  @Test
+  public void statements_of_file() {
+    analyze(
+      "import os",
+      "import sys",
+      "def identity(x): return x",
+      "os.system(identity(sys.argv[1]))",
+      "os.system(identity('ls'))");
+    TaintResults results = TaintResults.analyze(fileInput, fileCfg.graph(FileControlFlowGraph.MODULE_ID), summaries);
+    List<CallExpression> calls = getAllDescendant(fileInput, tree -> tree.is(Tree.Kind.CALL_EXPR));
+    assertThat(results.isUserControlled(call(calls, "os.system(identity(sys.argv[1]))"), 0)).isTrue();
+    assertThat(results.isUserControlled(call(calls, "os.system(identity('ls'))"), 0)).isFalse();
+    CallExpression otherFileCall = getFirstDescendant(parse("os.system(input())"), tree -> tree.is(Tree.Kind.CALL_EXPR));
+    assertThat(results.isUserControlled(otherFileCall, 0)).isFalse();
+    assertThat(results.isReceiverUserControlled(otherFileCall)).isFalse();
+  }
+
+  private void analyze(String... lines) {
+    fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")), lines);
+    fileCfg = new CfgBuildContext().buildFile(fileInput, pythonFile("mod.py"));
+    summaries = new TaintSummaries.Builder(TaintConfiguration.defaultConfiguration(), TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(fileInput, fileCfg)
+      .build();
+  }
+
+  private FunctionDef functionDef(String name) {
+    return getFirstDescendant(fileInput, tree -> tree.is(Tree.Kind.FUNCDEF) && ((FunctionDef) tree).name().name().equals(name));
+  }
+
+  private static CallExpression call(List<CallExpression> calls, String code) {
+    return calls.stream()
+      .filter(call -> matches(call, code))
+      .findFirst()
+      .orElseThrow(IllegalStateException::new);
+  }
+
+  private static boolean matches(CallExpression call, String code) {
+    StringBuilder source = new StringBuilder();
+    TreeUtils.tokens(call).forEach(token -> source.append(token.value()));
+    return source.toString().equals(code.replace(" ", ""));
+  }
+}
@@ -0,0 +1,319 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.taint;
+
+import org.junit.Test;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.semantic.SymbolTableBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parse;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+public class TaintSummariesTest {
+
+  @Test
+  public void sources_and_propagated_parameters() {
+    TaintSummaries summaries = summaries(
+      "import os",
+      "import sys",
+      "def read(): return input()",
+      "def environment(): return os.environ['HOME']",
+      "def argument(i): return sys.argv[i]",
+      "def identity(x): return x",
+      "def second(x, y):",
+      "  z = y",
+      "  return z.strip()",
+      "def overwritten(x):",
+      "  x = 42",
+      "  return x",
+      "def sanitized(x): return int(x)",
+      "def constant(x): return 'a'");
+    assertSummary(summaries.summary("mod.read"), true);
+    assertSummary(summaries.summary("mod.environment"), true);
+    assertSummary(summaries.summary("mod.argument"), true, 0);
+    assertSummary(summaries.summary("mod.identity"), false, 0);
+    assertSummary(summaries.summary("mod.second"), false, 1);
+    assertSummary(summaries.summary("mod.overwritten"), false);
+    assertSummary(summaries.summary("mod.sanitized"), false);
+    assertSummary(summaries.summary("mod.constant"), false);
+    assertThat(summaries.summary("mod.constant").isSanitizer()).isTrue();
+    assertThat(summaries.summary("mod.identity").isSanitizer()).isFalse();
+    assertThat(summaries.summary("mod.unknown")).isNull();
+  }
+
+  @Test
+  public void flows_through_variables() {
+    TaintSummaries summaries = summaries(
+      "def branches(x, y):",
+      "  if x:",
+      "    y = 42",
+      "  return y",
+      "def loop(x, y):",
+      "  z = None",
+      "  for e in x:",
+      "    z = e",
+      "  return z",
+      "def element(x):",
+      "  l = []",
+      "  l[0] = x",
+      "  return l",
+      "def attribute(x):",
+      "  o = A()",
+      "  o.a = x",
+      "  return o",
+      "def compound(x, y):",
+      "  s = ''",
+      "  s += y",
+      "  return s",
+      "def unpacking(x, y):",
+      "  a, b = x, y",
+      "  return a",
+      "def context_manager(x):",
+      "  with open(x) as f:",
+      "    return f",
+      "def annotated(x):",
+      "  y: str = x",
+      "  return y",
+      "def nested(x):",
+      "  def inner(): return x",
+      "  return lambda: x");
+    assertSummary(summaries.summary("mod.branches"), false, 1);
+    assertSummary(summaries.summary("mod.loop"), false, 0);
+    assertSummary(summaries.summary("mod.element"), false, 0);
+    assertSummary(summaries.summary("mod.attribute"), false, 0);
+    assertSummary(summaries.summary("mod.compound"), false, 1);
+    // elements of tuples are not tracked separately
+    assertSummary(summaries.summary("mod.unpacking"), false, 0, 1);
+    assertSummary(summaries.summary("mod.context_manager"), false, 0);
+    assertSummary(summaries.summary("mod.annotated"), false, 0);
+    assertSummary(summaries.summary("mod.nested"), false);
+  }
+
+  @Test
+  public void calls() {
+    TaintSummaries summaries = summaries(
+      "def read(): return input()",
+      "def first(x, y): return x",
+      "def second(x, y): return y",
+      "def keyword(x, y): return second(y=x, x=y)",
+      "def positional(x, y): return first(y, x)",
+      "def varargs(*args): return args",
+      "def calls_varargs(x, y): return varargs(1, y)",
+      "def unpacked(x, y): return first(*y)",
+      "def calls_read(x): return read()",
+      "def calls_unknown(x, y): return unknown(y)",
+      "class A:",
+      "  def method(self, x): return x",
+      "  def calls_method(self, x, y): return self.method(y)",
+      "def calls_method(a, x): return a.method(x)");
+    assertSummary(summaries.summary("mod.keyword"), false, 0);
+    assertSummary(summaries.summary("mod.positional"), false, 1);
+    assertSummary(summaries.summary("mod.calls_varargs"), false, 1);
+    assertSummary(summaries.summary("mod.unpacked"), false, 1);
+    assertSummary(summaries.summary("mod.calls_read"), true);
+    assertSummary(summaries.summary("mod.calls_unknown"), false, 1);
+    assertSummary(summaries.summary("mod.A.method"), false, 1);
+    assertSummary(summaries.summary("mod.A.calls_method"), false, 2);
+    assertSummary(summaries.summary("mod.calls_method"), false, 0, 1);
+  }
+
+  @Test
+  public void recursion() {
+    TaintSummaries summaries = summaries(
+      "def even(x, y):",
+      "  if x == 0: return y",
+      "  return odd(x - 1, y)",
+      "def odd(x, y):",
+      "  if x == 0: return input()",
+      "  return even(x - 1, y)");
+    assertSummary(summaries.summary("mod.even"), true, 1);
+    assertSummary(summaries.summary("mod.odd"), true, 1);
+  }
+
+  @Test
+  public void functions_with_unknown_body() {
+    TaintSummaries summaries = summaries(
+      "import functools",
+      "@functools.lru_cache",
+      "def decorated(x): return 42",
+      "def generator(x):",
+      "  yield 42",
+      "if cond:",
+      "  def duplicated(x): return 42",
+      "else:",
+      "  def duplicated(x): return 42",
+      "def calls_decorated(x, y): return decorated(y)");
+    assertSummary(summaries.summary("mod.decorated"), false, 0);
+    assertSummary(summaries.summary("mod.generator"), false, 0);
+    assertSummary(summaries.summary("mod.duplicated"), false, 0);
+    assertSummary(summaries.summary("mod.calls_decorated"), false, 1);
+  }
+
+  @Test
+  public void user_controlled_parameters() {
+    TaintSummaries summaries = summaries(
+      "def sink(x, y): pass",
+      "def forwards(x): sink(42, x)",
+      "def reads():",
+      "  forwards(input())",
+      "  never_called(42)",
+      "def never_called(x): sink(x, 42)",
+      "def from_module(x): pass",
+      "from_module(input())",
+      "class A:",
+      "  def method(self, x): pass",
+      "def calls_method(a):",
+      "  a.method(input())");
+    assertThat(summaries.isParameterUserControlled("mod.forwards", 0)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.sink", 0)).isFalse();
+    assertThat(summaries.isParameterUserControlled("mod.sink", 1)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.never_called", 0)).isFalse();
+    assertThat(summaries.isParameterUserControlled("mod.from_module", 0)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.A.method", 1)).isFalse();
+    assertThat(summaries.isParameterUserControlled("mod.unknown", 0)).isFalse();
+  }
+
+  @Test
+  public void functions_of_other_modules() {
+    FileInput mod1 = parse(new SymbolTableBuilder("", pythonFile("mod1.py")), "def identity(x): return x", "def sink(x): pass");
+    FileInput mod2 = parse(new SymbolTableBuilder("", pythonFile("mod2.py")),
+      "import mod1",
+      "def f(x): return mod1.identity(input())",
+      "mod1.sink(input())");
+    CfgBuildContext cfgBuildContext = new CfgBuildContext();
+    TaintSummaries summaries = new TaintSummaries.Builder(TaintConfiguration.defaultConfiguration(), TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(mod2, cfgBuildContext.buildFile(mod2, pythonFile("mod2.py")))
+      .addFile(mod1, cfgBuildContext.buildFile(mod1, pythonFile("mod1.py")))
+      .build();
+    assertSummary(summaries.summary("mod2.f"), true);
+    assertThat(summaries.isParameterUserControlled("mod1.sink", 0)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod1.identity", 0)).isTrue();
+  }
+
+  @Test
+  public void configuration() {
+    TaintConfiguration configuration = new TaintConfiguration(java.util.Collections.singleton("mod.read"), java.util.Collections.singleton("mod.clean"));
+    FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")),
+      "def read(): pass",
+      "def clean(x): return x",
+      "def f(): return read()",
+      "def g(x): return clean(x)",
+      "def h(): return input()");
+    TaintSummaries summaries = new TaintSummaries.Builder(configuration, TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(fileInput, new CfgBuildContext().buildFile(fileInput, pythonFile("mod.py")))
+      .build();
+    assertThat(summaries.configuration()).isSameAs(configuration);
+    assertSummary(summaries.summary("mod.f"), true);
+    assertSummary(summaries.summary("mod.g"), false);
+    assertSummary(summaries.summary("mod.h"), false);
+  }
+
+  @Test
+  public void step_budget() {
+    FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")),
+      "def f(x): return input()",
+      "def g(x): return x",
+      "def h(x): return f(x)",
+      "def k(x): return h(x)",
+      "k(input())");
+    // each analysis of a function, or of the module, executes one instruction.
+    // The budget is checked before each component, in the order of the names of their functions, even within a level
+    TaintSummaries summaries = summaries(fileInput, 0);
+    assertSummary(summaries.summary("mod.f"), true);
+    assertSummary(summaries.summary("mod.g"), false, 0);
+    assertSummary(summaries.summary("mod.h"), false, 0);
+    assertSummary(summaries.summary("mod.k"), false, 0);
+    // summaries of g, h and k, and the calls of f
+    assertThat(summaries.functionsOverBudget()).isEqualTo(4);
+
+    summaries = summaries(fileInput, 1);
+    assertSummary(summaries.summary("mod.g"), false, 0);
+    assertSummary(summaries.summary("mod.h"), false, 0);
+
+    // all the summaries are computed, then the budget is exhausted by the analysis of the calls of the module
+    summaries = summaries(fileInput, 4);
+    assertSummary(summaries.summary("mod.h"), true);
+    assertSummary(summaries.summary("mod.k"), true);
+    assertThat(summaries.isParameterUserControlled("mod.k", 0)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.h", 0)).isFalse();
+    assertThat(summaries.functionsOverBudget()).isEqualTo(4);
+
+    summaries = summaries(fileInput, 8);
+    assertThat(summaries.isParameterUserControlled("mod.h", 0)).isTrue();
+    assertThat(summaries.functionsOverBudget()).isZero();
+  }
+
+  @Test
+  public void parameters_sharing_the_last_bit() {
+    StringBuilder parameters = new StringBuilder("p0");
+    for (int i = 1; i < 70; i++) {
+      parameters.append(", p").append(i);
+    }
+    TaintSummaries summaries = summaries(
+      "def f(" + parameters + "): return p65",
+      "def sink(" + parameters + "): pass",
+      "sink(" + parameters.toString().replace("p65", "input()") + ")");
+    TaintSummary summary = summaries.summary("mod.f");
+    assertThat(summary.propagates(61)).isFalse();
+    // the parameters from index 62 on are not distinguished
+    assertThat(summary.propagates(62)).isTrue();
+    assertThat(summary.propagates(65)).isTrue();
+    assertThat(summary.propagates(69)).isTrue();
+    assertThat(summary.isSanitizer()).isFalse();
+    assertThat(TaintSummary.unknown(summary.signature()).propagates(69)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.sink", 61)).isFalse();
+    assertThat(summaries.isParameterUserControlled("mod.sink", 65)).isTrue();
+    assertThat(summaries.isParameterUserControlled("mod.sink", 62)).isTrue();
+  }
+
+  @Test
+  public void empty() {
+    TaintSummaries summaries = TaintSummaries.empty();
+    assertThat(summaries.summary("mod.f")).isNull();
+    assertThat(summaries.functionsOverBudget()).isZero();
+    assertThat(summaries.configuration()).isSameAs(TaintConfiguration.defaultConfiguration());
+  }
+
+  private static TaintSummaries summaries(FileInput fileInput, long maxSteps) {
+    return new TaintSummaries.Builder(TaintConfiguration.defaultConfiguration(), maxSteps)
+      .addFile(fileInput, new CfgBuildContext().buildFile(fileInput, pythonFile("mod.py")))
+      .build();
+  }
+
+  static TaintSummaries summaries(String... lines) {
+    FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("mod.py")), lines);
+    return new TaintSummaries.Builder(TaintConfiguration.defaultConfiguration(), TaintSummaries.DEFAULT_MAX_STEPS)
+      .addFile(fileInput, new CfgBuildContext().buildFile(fileInput, pythonFile("mod.py")))
+      .build();
+  }
+
+  private static void assertSummary(TaintSummary summary, boolean returnsUserControlledData, int... propagatedParameters) {
+    assertThat(summary.returnsUserControlledData()).as("returns user-controlled data").isEqualTo(returnsUserControlledData);
+    for (int parameter = 0; parameter < 4; parameter++) {
+      boolean propagated = false;
+      for (int propagatedParameter : propagatedParameters) {
+        propagated |= propagatedParameter == parameter;
+      }
+      assertThat(summary.propagates(parameter)).as("propagates parameter " + parameter).isEqualTo(propagated);
+    }
+  }
+}
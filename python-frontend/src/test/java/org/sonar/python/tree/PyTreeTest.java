@@ -0,0 +1,73 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import java.util.Arrays;
+import java.util.RandomAccess;
+import org.junit.Test;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PyTreeTest {
+
+  @Test
+  public void children_accessors() {
+    FunctionDef functionDef = PythonTestUtils.getFirstDescendant(PythonTestUtils.parse("def f(x): pass"), t -> t.is(Kind.FUNCDEF));
+    PyTree tree = (PyTree) functionDef;
+    assertThat(tree.childrenCount()).isEqualTo(tree.children().size());
+    for (int i = 0; i < tree.childrenCount(); i++) {
+      assertThat(tree.child(i)).isSameAs(tree.children().get(i));
+    }
+    assertThat(tree.children()).doesNotContainNull();
+    // the list is a view which is not retained by the node
+    assertThat(tree.children()).isNotSameAs(tree.children()).isEqualTo(tree.children()).isInstanceOf(RandomAccess.class);
+    assertThat(tree.child(0)).isSameAs(functionDef.defKeyword());
+
+    PyTree token = (PyTree) functionDef.defKeyword();
+    assertThat(token.childrenCount()).isZero();
+    assertThat(token.children()).isEmpty();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void children_are_unmodifiable() {
+    PyTree tree = (PyTree) PythonTestUtils.parse("x = 1");
+    tree.children().set(0, null);
+  }
+
+  @Test
+  public void children_builders() {
+    Tree[] trees = TreeUtils.tokens(PythonTestUtils.parse("x")).toArray(new Tree[0]);
+    assertThat(trees).hasSize(2);
+    // a null-free array is reused
+    assertThat(PyTree.nonNullChildren(trees)).isSameAs(trees);
+    assertThat(PyTree.nonNullChildren(trees[0], null, trees[1])).containsExactly(trees[0], trees[1]);
+    assertThat(PyTree.nonNullChildren(null, null)).isSameAs(PyTree.NO_CHILDREN);
+    assertThat(PyTree.nonNullChildren()).isSameAs(PyTree.NO_CHILDREN);
+
+    assertThat(new PyTree.ChildrenBuilder(0).build()).isSameAs(PyTree.NO_CHILDREN);
+    assertThat(new PyTree.ChildrenBuilder(5).add(trees[0]).add(null).build()).containsExactly(trees[0]);
+    assertThat(new PyTree.ChildrenBuilder(0).addAll(Arrays.asList(trees[0], null, trees[1])).add(trees[0]).build())
+      .containsExactly(trees[0], trees[1], trees[0]);
+  }
+}
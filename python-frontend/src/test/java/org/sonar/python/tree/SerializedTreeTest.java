@@ -0,0 +1,256 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.plugins.python.api.tree.Trivia;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.tree.SerializedTree.Node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SerializedTreeTest {
+
+  private static final PythonParser PARSER = PythonParser.create();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void round_trip() {
+    String code = code("# comment", "def foo(x):", "  return x + 'é'");
+    FileInput fileInput = PythonTestUtils.parse(code);
+    SerializedTree serialized = SerializedTree.read(serialize(fileInput, code));
+
+    assertThat(serialized.nodeCount()).isEqualTo(PythonTestUtils.getAllDescendant(fileInput, t -> true).size() + 1);
+    assertSameTree(fileInput, serialized.root());
+    assertThat(serialized.root().parent()).isNull();
+
+    List<Token> tokens = TreeUtils.tokens(fileInput);
+    assertThat(serialized.tokenCount()).isEqualTo(tokens.size());
+    assertThat(serialized.sourceTokenCount()).isEqualTo(tokens.size());
+    SerializedTree.TokenData def = serialized.token(0);
+    assertThat(def.value()).isEqualTo("def");
+    assertThat(def.typeName()).isEqualTo("PythonKeyword.DEF");
+    assertThat(def.trivia()).hasSize(1);
+    assertThat(def.trivia().get(0).value()).isEqualTo("# comment");
+    assertThat(def.trivia().get(0).line()).isEqualTo(1);
+    assertThat(def.trivia().get(0).column()).isZero();
+    assertThat(serialized.token(1).trivia()).isEmpty();
+  }
+
+  @Test
+  public void symbols() {
+    String code = code("def foo(x):", "  return x");
+    FileInput fileInput = PythonTestUtils.parse(new SymbolTableBuilder("", PythonTestUtils.pythonFile("mod.py")), code);
+    SerializedTree serialized = SerializedTree.read(serialize(fileInput, code));
+
+    List<Node> names = nodesOfKind(serialized, Kind.NAME);
+    assertThat(names).hasSize(3);
+    Node foo = names.get(0);
+    assertThat(foo.symbol().name()).isEqualTo("foo");
+    assertThat(foo.symbol().fullyQualifiedName()).isEqualTo("mod.foo");
+    assertThat(foo.symbol().kind()).isEqualTo(Symbol.Kind.FUNCTION);
+    assertThat(foo.usageKind()).isEqualTo(Usage.Kind.FUNC_DECLARATION);
+
+    Node parameter = names.get(1);
+    Node read = names.get(2);
+    assertThat(parameter.symbol().index()).isEqualTo(read.symbol().index());
+    assertThat(parameter.symbol().fullyQualifiedName()).isNull();
+    assertThat(parameter.usageKind()).isEqualTo(Usage.Kind.PARAMETER);
+    assertThat(read.usageKind()).isEqualTo(Usage.Kind.OTHER);
+    assertThat(serialized.symbolCount()).isEqualTo(2);
+    assertThat(serialized.root().symbol()).isNull();
+    assertThat(serialized.root().usageKind()).isNull();
+  }
+
+  @Test
+  public void memory_mapped_file() throws IOException {
+    FileInput fileInput = PythonTestUtils.parse("a = b.c(1)");
+    Path path = temporaryFolder.newFile("tree.bin").toPath();
+    TreeSerializer.serialize(fileInput, PARSER.lex("a = b.c(1)"), path);
+    SerializedTree serialized = SerializedTree.read(path);
+    assertSameTree(fileInput, serialized.root());
+    assertThat(serialized.node(1)).isEqualTo(serialized.root().children().get(0));
+    assertThat(serialized.node(1)).isNotEqualTo(serialized.root());
+    assertThat(serialized.node(1).parent()).isEqualTo(serialized.root());
+  }
+
+  @Test
+  public void rebuilt_tree() {
+    String code = code(
+      "# comment",
+      "def foo(x):",
+      "  if x:",
+      "    return f'{x + 1} items' # trailing",
+      "  return x");
+    FileInput fileInput = PythonTestUtils.parse(new SymbolTableBuilder("", PythonTestUtils.pythonFile("mod.py")), code);
+    SerializedTree serialized = SerializedTree.read(serialize(fileInput, code));
+    // the tokens of the formatted expression follow the tokens of the lexer
+    assertThat(serialized.tokenCount()).isEqualTo(serialized.sourceTokenCount() + 3);
+    FileInput rebuilt = serialized.fileInput(PARSER);
+    assertThat(rebuilt).isNotSameAs(fileInput);
+    assertSameTree(fileInput, rebuilt);
+    assertThat(serialized.fileInput(PARSER)).isSameAs(rebuilt);
+
+    assertThat(serialized.root().tree()).isSameAs(rebuilt);
+    assertThat(serialized.node(rebuilt)).isEqualTo(serialized.root());
+    assertThat(serialized.node(fileInput)).isNull();
+    List<Tree> names = PythonTestUtils.getAllDescendant(rebuilt, t -> t.is(Kind.NAME));
+    List<Node> nameNodes = nodesOfKind(serialized, Kind.NAME);
+    assertThat(names).hasSameSizeAs(nameNodes);
+    for (int i = 0; i < names.size(); i++) {
+      assertThat(serialized.node(names.get(i))).isEqualTo(nameNodes.get(i));
+      assertThat(nameNodes.get(i).tree()).isSameAs(names.get(i));
+    }
+    // parameter and return value share the symbol id of the parameter
+    assertThat(serialized.node(names.get(1)).symbol().index()).isEqualTo(serialized.node(names.get(names.size() - 1)).symbol().index());
+  }
+
+  @Test
+  public void tokens_without_node() {
+    // the comma of an expression statement has no node in the typed tree
+    String code = code("def f(): 'a', 'b'; pass");
+    FileInput fileInput = PythonTestUtils.parse(code);
+    SerializedTree serialized = SerializedTree.read(serialize(fileInput, code));
+    assertThat(serialized.sourceTokenCount()).isEqualTo(TreeUtils.tokens(fileInput).size() + 1);
+    assertSameTree(fileInput, serialized.fileInput(PARSER));
+  }
+
+  @Test
+  public void rebuilt_resource_files() throws IOException {
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(Paths.get("src/test/resources"))) {
+      files = paths.filter(path -> path.toString().endsWith(".py")).collect(Collectors.toList());
+    }
+    int rebuiltFiles = 0;
+    for (Path file : files) {
+      String code = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      FileInput fileInput;
+      try {
+        fileInput = new PythonTreeMaker().fileInput(PARSER.parse(code));
+      } catch (RuntimeException e) {
+        // files with syntax errors
+        continue;
+      }
+      assertSameTree(fileInput, SerializedTree.read(serialize(fileInput, code)).fileInput(PARSER));
+      rebuiltFiles++;
+    }
+    assertThat(rebuiltFiles).isGreaterThan(50);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void tree_not_rebuilt() {
+    SerializedTree.read(serialize(PythonTestUtils.parse("x"), "x")).root().tree();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void invalid_content() {
+    SerializedTree.read(new byte[] {1, 2, 3});
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsupported_version() {
+    byte[] bytes = serialize(PythonTestUtils.parse("x"), "x");
+    bytes[7] = 42;
+    SerializedTree.read(bytes);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void invalid_index() {
+    SerializedTree.read(serialize(PythonTestUtils.parse("x"), "x")).node(1000);
+  }
+
+  private static String code(String... lines) {
+    return String.join(System.getProperty("line.separator"), lines);
+  }
+
+  private static byte[] serialize(FileInput fileInput, String code) {
+    return TreeSerializer.serialize(fileInput, PARSER.lex(code));
+  }
+
+  private static void assertSameTree(Tree tree, Node node) {
+    assertThat(node.kind()).isEqualTo(tree.getKind());
+    if (tree.is(Kind.TOKEN)) {
+      Token token = (Token) tree;
+      assertThat(node.token().value()).isEqualTo(token.value());
+      assertThat(node.token().line()).isEqualTo(token.line());
+      assertThat(node.token().column()).isEqualTo(token.column());
+    } else {
+      assertThat(node.token()).isNull();
+    }
+    List<Tree> children = tree.children();
+    List<Node> nodeChildren = node.children();
+    assertThat(nodeChildren).hasSize(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      assertThat(nodeChildren.get(i).parent()).isEqualTo(node);
+      assertSameTree(children.get(i), nodeChildren.get(i));
+    }
+  }
+
+  private static void assertSameTree(Tree tree, Tree rebuilt) {
+    assertThat(rebuilt.getKind()).isEqualTo(tree.getKind());
+    if (tree.is(Kind.TOKEN)) {
+      Token token = (Token) tree;
+      Token rebuiltToken = (Token) rebuilt;
+      assertThat(rebuiltToken.value()).isEqualTo(token.value());
+      assertThat(rebuiltToken.type()).isEqualTo(token.type());
+      assertThat(rebuiltToken.line()).isEqualTo(token.line());
+      assertThat(rebuiltToken.column()).isEqualTo(token.column());
+      assertThat(rebuiltToken.trivia()).extracting(Trivia::value).containsExactlyElementsOf(token.trivia().stream().map(Trivia::value).collect(Collectors.toList()));
+    }
+    List<Tree> children = tree.children();
+    List<Tree> rebuiltChildren = rebuilt.children();
+    assertThat(rebuiltChildren).hasSize(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      assertThat(rebuiltChildren.get(i).parent()).isSameAs(rebuilt);
+      assertSameTree(children.get(i), rebuiltChildren.get(i));
+    }
+  }
+
+  private static List<Node> nodesOfKind(SerializedTree serialized, Kind kind) {
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < serialized.nodeCount(); i++) {
+      if (serialized.node(i).kind() == kind) {
+        nodes.add(serialized.node(i));
+      }
+    }
+    return nodes;
+  }
+}
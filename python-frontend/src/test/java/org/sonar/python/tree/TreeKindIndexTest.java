@@ -0,0 +1,80 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2020 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.tree;
+
+import java.util.List;
+import org.junit.Test;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TreeKindIndexTest {
+
+  @Test
+  public void nodes_in_document_order() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f(): pass",
+      "def g():",
+      "  def h(): pass");
+    TreeKindIndex index = ((FileInputImpl) fileInput).kindIndex();
+    assertThat(index).isSameAs(((FileInputImpl) fileInput).kindIndex());
+
+    List<Tree> functionDefs = index.nodes(Kind.FUNCDEF);
+    assertThat(functionDefs).extracting(t -> ((FunctionDef) t).name().name()).containsExactly("f", "g", "h");
+    assertThat(functionDefs).isEqualTo(PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Kind.FUNCDEF)));
+    assertThat(index.nodes(Kind.FILE_INPUT)).containsExactly(fileInput);
+    assertThat(index.nodes(Kind.CLASSDEF)).isEmpty();
+  }
+
+  @Test
+  public void descendants() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def f(): a",
+      "def g():",
+      "  b",
+      "  def h(): c",
+      "d");
+    TreeKindIndex index = ((FileInputImpl) fileInput).kindIndex();
+    List<Tree> functionDefs = index.nodes(Kind.FUNCDEF);
+    assertThat(names(index.descendants(functionDefs.get(0), Kind.NAME))).containsExactly("f", "a");
+    assertThat(names(index.descendants(functionDefs.get(1), Kind.NAME))).containsExactly("g", "b", "h", "c");
+    assertThat(names(index.descendants(functionDefs.get(2), Kind.NAME))).containsExactly("h", "c");
+    assertThat(names(index.descendants(fileInput, Kind.NAME))).containsExactly("f", "a", "g", "b", "h", "c", "d");
+    assertThat(index.descendants(functionDefs.get(1), Kind.FUNCDEF)).containsExactly(functionDefs.get(2));
+    assertThat(index.descendants(functionDefs.get(2), Kind.FUNCDEF)).isEmpty();
+    assertThat(index.contains(functionDefs.get(2))).isTrue();
+    assertThat(index.contains(PythonTestUtils.parse("x"))).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void descendants_of_foreign_tree() {
+    TreeKindIndex index = ((FileInputImpl) PythonTestUtils.parse("x")).kindIndex();
+    index.descendants(PythonTestUtils.parse("y"), Kind.NAME);
+  }
+
+  private static String[] names(List<Tree> trees) {
+    return trees.stream().map(t -> ((Name) t).name()).toArray(String[]::new);
+  }
+}
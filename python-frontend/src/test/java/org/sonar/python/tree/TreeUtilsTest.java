@@ -117,6 +117,23 @@ public class TreeUtilsTest {
     assertThat(TreeUtils.hasDescendant(fileInput, t -> t.is(Kind.IF_STMT))).isFalse();
   }
 
+  @Test
+  public void descendantsOfKind() {
+    FileInput fileInput = parse("class A:\n  def foo(): pass\ndef bar(): pass");
+    ClassDef classDef = (ClassDef) fileInput.statements().statements().get(0);
+    assertThat(TreeUtils.descendantsOfKind(fileInput, Kind.FUNCDEF)).extracting(t -> ((FunctionDef) t).name().name()).containsExactly("foo", "bar");
+    assertThat(TreeUtils.descendantsOfKind(classDef, Kind.FUNCDEF)).extracting(t -> ((FunctionDef) t).name().name()).containsExactly("foo");
+    assertThat(TreeUtils.hasDescendantOfKind(classDef, Kind.IF_STMT, Kind.PASS_STMT)).isTrue();
+    assertThat(TreeUtils.hasDescendantOfKind(classDef, Kind.IF_STMT)).isFalse();
+
+    // tree which is not attached to a file input
+    FunctionDef detached = (FunctionDef) new PythonTreeMaker().fileInput(PythonParser.create().parse("def f(): pass")).statements().statements().get(0);
+    ((FunctionDefImpl) detached).setParent(null);
+    assertThat(TreeUtils.descendantsOfKind(detached, Kind.PASS_STMT)).hasSize(1);
+    assertThat(TreeUtils.hasDescendantOfKind(detached, Kind.NAME)).isTrue();
+    assertThat(TreeUtils.hasDescendantOfKind(detached, Kind.IF_STMT)).isFalse();
+  }
+
   @Test
   public void getSymbolFromTree() {
     assertThat(TreeUtils.getSymbolFromTree(null)).isEmpty();
@@ -21,6 +21,7 @@ package org.sonar.python.types;
 
 import org.junit.Test;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.types.InferredType;
 import org.sonar.python.semantic.ClassSymbolImpl;
 import org.sonar.python.semantic.SymbolImpl;
 
@@ -50,4 +51,21 @@ public class InferredTypesTest {
     assertThat(or(runtimeType(a), runtimeType(b))).isNotEqualTo(anyType());
     assertThat(or(runtimeType(a), runtimeType(b))).isEqualTo(or(runtimeType(b), runtimeType(a)));
   }
+
+  @Test
+  public void interned_types() {
+    ClassSymbolImpl a = new ClassSymbolImpl("a", "a");
+    ClassSymbolImpl otherA = new ClassSymbolImpl("a", "a");
+    ClassSymbolImpl b = new ClassSymbolImpl("b", "b");
+    assertThat(runtimeType(a)).isSameAs(runtimeType(a));
+    assertThat(runtimeType(otherA)).isEqualTo(runtimeType(a)).isNotSameAs(runtimeType(a));
+    assertThat(runtimeType(TypeShed.typeShedClass("int"))).isSameAs(InferredTypes.INT);
+
+    InferredType aOrB = or(runtimeType(a), runtimeType(b));
+    assertThat(or(runtimeType(b), runtimeType(a))).isEqualTo(aOrB);
+    assertThat(or(aOrB, runtimeType(a))).isSameAs(aOrB);
+    assertThat(or(runtimeType(b), aOrB)).isSameAs(aOrB);
+    assertThat(or(aOrB, or(runtimeType(b), runtimeType(a)))).isSameAs(aOrB);
+    assertThat(or(runtimeType(otherA), runtimeType(b))).isEqualTo(aOrB);
+  }
 }
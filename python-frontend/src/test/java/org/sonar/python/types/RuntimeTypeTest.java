@@ -19,7 +19,10 @@
  */
 package org.sonar.python.types;
 
+import java.util.Optional;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.python.semantic.ClassSymbolImpl;
 import org.sonar.python.semantic.SymbolImpl;
 
@@ -114,6 +117,18 @@ public class RuntimeTypeTest {
     assertThat(new RuntimeType(y).canHaveMember("foo")).isTrue();
   }
 
+  @Test
+  public void canHaveMember_memoized() {
+    ClassSymbol x = Mockito.mock(ClassSymbol.class);
+    Mockito.when(x.resolveMember("foo")).thenReturn(Optional.of(new SymbolImpl("foo", null)));
+    RuntimeType xType = new RuntimeType(x);
+    assertThat(xType.canHaveMember("foo")).isTrue();
+    assertThat(xType.canHaveMember("foo")).isTrue();
+    assertThat(xType.canHaveMember("bar")).isFalse();
+    Mockito.verify(x, Mockito.times(1)).resolveMember("foo");
+    Mockito.verify(x, Mockito.times(2)).hasUnresolvedTypeHierarchy();
+  }
+
   @Test
   public void test_equals() {
     RuntimeType aType = new RuntimeType(a);
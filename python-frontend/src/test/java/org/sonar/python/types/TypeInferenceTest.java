@@ -19,13 +19,24 @@
  */
 package org.sonar.python.types;
 
+import java.util.List;
 import org.junit.Test;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.semantic.SymbolImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.getAllDescendant;
+import static org.sonar.python.PythonTestUtils.getFirstDescendant;
+import static org.sonar.python.PythonTestUtils.getLastDescendant;
 import static org.sonar.python.PythonTestUtils.lastExpression;
 import static org.sonar.python.PythonTestUtils.lastExpressionInFunction;
+import static org.sonar.python.PythonTestUtils.parse;
 import static org.sonar.python.types.InferredTypes.BOOL;
 import static org.sonar.python.types.InferredTypes.COMPLEX;
 import static org.sonar.python.types.InferredTypes.DICT;
@@ -304,4 +315,53 @@ public class TypeInferenceTest {
       "c = 42 if '' else c",
       "c").type()).isEqualTo(anyType());
   }
+
+  @Test
+  public void propagations_in_dependency_order() {
+    int assignmentCount = 2_000;
+    StringBuilder code = new StringBuilder("def f():\n  x0 = 42\n");
+    for (int i = assignmentCount - 1; i > 0; i--) {
+      // assignments appear in the reverse order of their dependencies
+      code.append("  if cond: x").append(i).append(" = x").append(i - 1).append("\n");
+    }
+    code.append("  x").append(assignmentCount - 1).append("\n");
+    FunctionDef functionDef = getFirstDescendant(parse(code.toString()), t -> t.is(Tree.Kind.FUNCDEF));
+    TypeInferenceStatistics statistics = TypeInference.inferTypes(functionDef);
+    assertThat(statistics.propagationSteps()).isEqualTo(assignmentCount);
+    assertThat(statistics.functionsOverBudget()).isZero();
+    Name lastName = getLastDescendant(functionDef, t -> t.is(Tree.Kind.NAME));
+    assertThat(lastName.type()).isEqualTo(INT);
+  }
+
+  @Test
+  public void inference_is_deferred_to_first_type_query_within_function() {
+    FileInput fileInput = parse(
+      "def f():",
+      "  x = 42",
+      "  x",
+      "def g():",
+      "  y = 'abc'",
+      "  z = y",
+      "  y.capitalize");
+    List<FunctionDef> functionDefs = getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF));
+    Name x = getLastDescendant(functionDefs.get(0), t -> t.is(Tree.Kind.NAME));
+    Name y = getFirstDescendant(functionDefs.get(1).body(), t -> t.is(Tree.Kind.NAME));
+    DeferredTypeInference inferenceOfF = ((SymbolImpl) x.symbol()).deferredTypeInference();
+    DeferredTypeInference inferenceOfG = ((SymbolImpl) y.symbol()).deferredTypeInference();
+    assertThat(inferenceOfF).isNotSameAs(inferenceOfG);
+    assertThat(inferenceOfF.statistics()).isNull();
+    assertThat(inferenceOfG.statistics()).isNull();
+
+    assertThat(x.type()).isEqualTo(INT);
+    TypeInferenceStatistics statisticsOfF = inferenceOfF.statistics();
+    assertThat(statisticsOfF.propagationSteps()).isEqualTo(1);
+    assertThat(inferenceOfG.statistics()).isNull();
+    // inference is run only once
+    assertThat(x.type()).isEqualTo(INT);
+    assertThat(inferenceOfF.statistics()).isSameAs(statisticsOfF);
+
+    QualifiedExpression memberAccess = getLastDescendant(functionDefs.get(1), t -> t.is(Tree.Kind.QUALIFIED_EXPR));
+    assertThat(memberAccess.symbol().fullyQualifiedName()).isEqualTo("str.capitalize");
+    assertThat(inferenceOfG.statistics().propagationSteps()).isEqualTo(3);
+  }
 }
@@ -19,8 +19,14 @@
  */
 package org.sonar.python.types;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.Test;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
+import org.sonar.plugins.python.api.symbols.FunctionSymbol;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.python.semantic.FunctionSymbolImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,4 +56,70 @@ public class TypeShedTest {
     ClassSymbol noneType = TypeShed.typeShedClass("NoneType");
     assertThat(noneType.superClasses()).isEmpty();
   }
+
+  @Test
+  public void precompiled_symbols() {
+    Map<String, Symbol> precompiled = TypeShed.typeShedSymbols();
+    Map<String, Symbol> parsed = TypeShed.parseBuiltins();
+    assertThat(precompiled.keySet()).isEqualTo(parsed.keySet());
+    for (String fullyQualifiedName : parsed.keySet()) {
+      assertThat(describe(precompiled.get(fullyQualifiedName))).isEqualTo(describe(parsed.get(fullyQualifiedName)));
+    }
+    ClassSymbol str = TypeShed.typeShedClass("str");
+    FunctionSymbolImpl lower = (FunctionSymbolImpl) str.resolveMember("lower").get();
+    assertThat(lower.owner()).isSameAs(str);
+    assertThat(InferredTypes.typeClass(lower.declaredReturnType())).isSameAs(str);
+  }
+
+  @Test
+  public void missing_precompiled_symbols() {
+    Map<String, Symbol> symbols = TypeShed.load("missing.symbols");
+    assertThat(symbols.keySet()).isEqualTo(TypeShed.typeShedSymbols().keySet());
+    assertThat(symbols.get("int")).isNotSameAs(TypeShed.typeShedClass("int"));
+  }
+
+  @Test
+  public void stub_module_symbols() {
+    Set<Symbol> zipfileSymbols = TypeShed.stubModuleSymbols("zipfile");
+    ClassSymbol zipFile = (ClassSymbol) zipfileSymbols.stream().filter(s -> "ZipFile".equals(s.name())).findFirst().get();
+    assertThat(zipFile.fullyQualifiedName()).isEqualTo("zipfile.ZipFile");
+    FunctionSymbol extractall = (FunctionSymbol) zipFile.resolveMember("extractall").get();
+    assertThat(extractall.fullyQualifiedName()).isEqualTo("zipfile.ZipFile.extractall");
+    assertThat(extractall.parameters()).extracting(FunctionSymbol.Parameter::name).containsExactly("self", "path", "members", "pwd");
+    assertThat(TypeShed.stubModuleSymbols("zipfile")).isSameAs(zipfileSymbols);
+
+    assertThat(TypeShed.stubModuleSymbols("http.cookies")).extracting(Symbol::fullyQualifiedName).contains("http.cookies.SimpleCookie");
+    assertThat(TypeShed.stubModuleSymbols("collections")).extracting(Symbol::fullyQualifiedName).contains("collections.deque");
+    assertThat(TypeShed.stubModuleSymbols("http")).isNull();
+    assertThat(TypeShed.stubModuleSymbols("unknown")).isNull();
+    assertThat(TypeShed.cachedStubModulesCount()).isBetween(1, TypeShed.MAX_CACHED_STUB_MODULES);
+  }
+
+  private static String describe(Symbol symbol) {
+    StringBuilder description = new StringBuilder()
+      .append(symbol.getClass().getSimpleName()).append(' ')
+      .append(symbol.kind()).append(' ')
+      .append(symbol.name()).append(' ')
+      .append(symbol.fullyQualifiedName());
+    if (symbol instanceof ClassSymbol) {
+      ClassSymbol classSymbol = (ClassSymbol) symbol;
+      description
+        .append(" superClasses=").append(classSymbol.superClasses().stream().map(Symbol::fullyQualifiedName).collect(Collectors.toList()))
+        .append(" unresolved=").append(classSymbol.hasUnresolvedTypeHierarchy())
+        .append(" members=").append(classSymbol.declaredMembers().stream().map(TypeShedTest::describe).sorted().collect(Collectors.toList()));
+    } else if (symbol instanceof FunctionSymbol) {
+      FunctionSymbolImpl functionSymbol = (FunctionSymbolImpl) symbol;
+      description
+        .append(" parameters=").append(functionSymbol.parameters().stream()
+          .map(p -> p.name() + ":" + p.hasDefaultValue() + ":" + p.isKeywordOnly() + ":" + p.isPositionalOnly())
+          .collect(Collectors.toList()))
+        .append(' ').append(functionSymbol.hasVariadicParameter())
+        .append(' ').append(functionSymbol.isInstanceMethod())
+        .append(' ').append(functionSymbol.hasDecorators())
+        .append(' ').append(functionSymbol.isStub())
+        .append(' ').append(functionSymbol.declaredReturnType())
+        .append(" owner=").append(functionSymbol.owner() == null ? null : functionSymbol.owner().fullyQualifiedName());
+    }
+    return description.toString();
+  }
 }
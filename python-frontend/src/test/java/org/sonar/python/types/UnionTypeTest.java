@@ -21,7 +21,10 @@ package org.sonar.python.types;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.types.InferredType;
 import org.sonar.python.semantic.ClassSymbolImpl;
 import org.sonar.python.semantic.SymbolImpl;
@@ -93,6 +96,29 @@ public class UnionTypeTest {
     assertThat(aOrB.equals(aOrB)).isTrue();
   }
 
+  @Test
+  public void interning() {
+    assertThat(or(a, b)).isSameAs(or(a, b));
+    assertThat(or(a, b)).isSameAs(or(b, a));
+    assertThat(or(or(a, b), c)).isSameAs(or(a, or(b, c)));
+    assertThat(or(or(a, c), or(b, d))).isSameAs(or(or(d, c), or(b, a)));
+    // runtime types of distinct definitions of the same class are equal, but they do not share their unions
+    InferredType otherA = new RuntimeType(new ClassSymbolImpl("a", "a"));
+    assertThat(or(otherA, b)).isNotSameAs(or(a, b)).isEqualTo(or(a, b));
+  }
+
+  @Test
+  public void canHaveMember_memoized() {
+    ClassSymbol x = Mockito.mock(ClassSymbol.class);
+    Mockito.when(x.fullyQualifiedName()).thenReturn("x");
+    Mockito.when(x.resolveMember("foo")).thenReturn(Optional.empty());
+    InferredType xOrA = or(new RuntimeType(x), a);
+    assertThat(xOrA.canHaveMember("foo")).isFalse();
+    assertThat(xOrA.canHaveMember("foo")).isFalse();
+    assertThat(or(a, xOrA).canHaveMember("foo")).isFalse();
+    Mockito.verify(x, Mockito.times(1)).resolveMember("foo");
+  }
+
   @Test
   public void test_hashCode() {
     assertThat(or(a, b).hashCode()).isEqualTo(or(a, b).hashCode());
@@ -40,6 +40,8 @@ import org.sonar.plugins.python.pylint.PylintRuleRepository;
 import org.sonar.plugins.python.pylint.PylintSensor;
 import org.sonar.plugins.python.warnings.DefaultAnalysisWarningsWrapper;
 import org.sonar.plugins.python.xunit.PythonXUnitSensor;
+import org.sonar.python.cfg.CfgBuildContext;
+import org.sonar.python.taint.TaintSummaries;
 
 public class PythonPlugin implements Plugin {
 
@@ -69,6 +71,37 @@ public class PythonPlugin implements Plugin {
         .onQualifiers(Qualifiers.PROJECT)
         .defaultValue("py")
         .build(),
+      PropertyDefinition.builder(PythonScanner.CFG_MAX_STATEMENTS_KEY)
+        .index(11)
+        .name("Control flow graph statements limit")
+        .description("Maximum number of statements of a function, or of the top-level code of a file, whose control flow graph is built. " +
+          "Rules based on the control flow graph do not analyze larger functions.")
+        .category(PYTHON_CATEGORY)
+        .subCategory(GENERAL)
+        .onQualifiers(Qualifiers.PROJECT)
+        .defaultValue(Integer.toString(CfgBuildContext.DEFAULT_MAX_STATEMENTS))
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PythonScanner.CFG_MAX_BLOCKS_KEY)
+        .index(12)
+        .name("Control flow graph blocks limit")
+        .description("Maximum number of blocks of a control flow graph. Rules based on the control flow graph do not analyze functions with larger graphs.")
+        .category(PYTHON_CATEGORY)
+        .subCategory(GENERAL)
+        .onQualifiers(Qualifiers.PROJECT)
+        .defaultValue(Integer.toString(CfgBuildContext.DEFAULT_MAX_BLOCKS))
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PythonScanner.TAINT_MAX_STEPS_KEY)
+        .index(13)
+        .name("Taint analysis steps limit")
+        .description("Maximum number of steps of the taint analysis of a project. Functions not analyzed within this budget are assumed to return a value depending on all their parameters.")
+        .category(PYTHON_CATEGORY)
+        .subCategory(GENERAL)
+        .onQualifiers(Qualifiers.PROJECT)
+        // PropertyType.LONG is deprecated: the value is parsed as a long by the scanner
+        .defaultValue(Long.toString(TaintSummaries.DEFAULT_MAX_STEPS))
+        .build(),
 
 
       Python.class,
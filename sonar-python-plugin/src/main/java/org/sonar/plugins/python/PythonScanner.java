@@ -27,10 +27,12 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextRange;
@@ -54,11 +56,19 @@ import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.cpd.PythonCpdAnalyzer;
+import org.sonar.python.LocationIndex;
 import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.cfg.CfgBuildContext;
 import org.sonar.python.metrics.FileLinesVisitor;
 import org.sonar.python.metrics.FileMetrics;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.FunctionSummaries;
+import org.sonar.python.semantic.FunctionSummariesConsumer;
+import org.sonar.python.semantic.ModuleDependencyGraph;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolUtils;
+import org.sonar.python.taint.TaintSummaries;
+import org.sonar.python.taint.TaintSummariesConsumer;
 import org.sonar.python.tree.PythonTreeMaker;
 
 import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
@@ -66,14 +76,23 @@ import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
 public class PythonScanner extends Scanner {
 
   private static final Logger LOG = Loggers.get(PythonScanner.class);
+  static final String CFG_MAX_STATEMENTS_KEY = "sonar.python.cfg.maxStatements";
+  static final String CFG_MAX_BLOCKS_KEY = "sonar.python.cfg.maxBlocks";
+  static final String TAINT_MAX_STEPS_KEY = "sonar.python.taint.maxSteps";
 
   private final PythonParser parser;
   private final Map<InputFile, String> packageNames = new HashMap<>();
+  private final Map<InputFile, String> moduleNames = new HashMap<>();
   private final PythonChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
   private final NoSonarFilter noSonarFilter;
   private final PythonCpdAnalyzer cpdAnalyzer;
   private final Map<String, Set<Symbol>> globalSymbolsByModuleName = SymbolUtils.externalModulesSymbols();
+  private final Map<String, Set<String>> importedNamesByModuleName = new HashMap<>();
+  private final ProjectLevelSymbolTable projectLevelSymbolTable;
+  private final ModuleDependencyGraph moduleDependencyGraph;
+  private final CfgBuildContext cfgBuildContext;
+  private final FunctionSummaries functionSummaries;
 
 
   public PythonScanner(
@@ -86,10 +105,59 @@ public class PythonScanner extends Scanner {
     this.noSonarFilter = noSonarFilter;
     this.cpdAnalyzer = new PythonCpdAnalyzer(context);
     this.parser = PythonParser.create();
-
+    this.cfgBuildContext = new CfgBuildContext(
+      context.config().getInt(CFG_MAX_STATEMENTS_KEY).orElse(CfgBuildContext.DEFAULT_MAX_STATEMENTS),
+      context.config().getInt(CFG_MAX_BLOCKS_KEY).orElse(CfgBuildContext.DEFAULT_MAX_BLOCKS));
+
+    // function summaries need the control flow graphs of all the files, which are built again when each file is analyzed:
+    // each kind of summary is only computed for the checks which read it
+    boolean callSummaries = checks.all().stream().anyMatch(FunctionSummariesConsumer.class::isInstance);
+    boolean taintSummaries = checks.all().stream().anyMatch(TaintSummariesConsumer.class::isInstance);
+    FunctionSummaries.Builder functionSummariesBuilder = null;
+    if (callSummaries || taintSummaries) {
+      functionSummariesBuilder = new FunctionSummaries.Builder(callSummaries, taintSummaries,
+        context.config().getLong(TAINT_MAX_STEPS_KEY).orElse(TaintSummaries.DEFAULT_MAX_STEPS));
+    }
     // computes "globalSymbolsByModuleName"
-    GlobalSymbolsScanner globalSymbolsStep = new GlobalSymbolsScanner(context);
+    GlobalSymbolsScanner globalSymbolsStep = new GlobalSymbolsScanner(context, functionSummariesBuilder);
     globalSymbolsStep.execute(files, context);
+    this.projectLevelSymbolTable = ProjectLevelSymbolTable.from(globalSymbolsByModuleName);
+    this.functionSummaries = functionSummariesBuilder == null ? FunctionSummaries.empty() : buildFunctionSummaries(functionSummariesBuilder);
+    this.moduleDependencyGraph = new ModuleDependencyGraph(importedNamesByModuleName);
+  }
+
+  private static FunctionSummaries buildFunctionSummaries(FunctionSummaries.Builder functionSummariesBuilder) {
+    FunctionSummaries functionSummaries = functionSummariesBuilder.build();
+    LOG.debug("Call graph of {} functions computed", functionSummaries.callGraph().functions().size());
+    int functionsOverBudget = functionSummaries.taint().functionsOverBudget();
+    if (functionsOverBudget > 0) {
+      LOG.info("Taint analysis of {} functions not completed: the budget of steps set by \"{}\" was exhausted", functionsOverBudget, TAINT_MAX_STEPS_KEY);
+    }
+    return functionSummaries;
+  }
+
+  /**
+   * Files ordered by strongly connected components of the module dependency graph: a file is analyzed after the files it imports.
+   * Files which are not part of the graph, because their global symbols could not be computed, are analyzed last.
+   */
+  List<InputFile> analysisOrder(List<InputFile> files) {
+    Map<String, InputFile> filesByModuleName = new HashMap<>();
+    moduleNames.forEach((inputFile, moduleName) -> filesByModuleName.put(moduleName, inputFile));
+    Set<InputFile> orderedFiles = new LinkedHashSet<>();
+    for (Set<String> component : moduleDependencyGraph.stronglyConnectedComponents()) {
+      component.stream().map(filesByModuleName::get).forEach(orderedFiles::add);
+    }
+    orderedFiles.retainAll(files);
+    orderedFiles.addAll(files);
+    return new ArrayList<>(orderedFiles);
+  }
+
+  ModuleDependencyGraph moduleDependencyGraph() {
+    return moduleDependencyGraph;
+  }
+
+  FunctionSummaries functionSummaries() {
+    return functionSummaries;
   }
 
   @Override
@@ -97,6 +165,17 @@ public class PythonScanner extends Scanner {
     return "rules execution";
   }
 
+  @Override
+  void execute(List<InputFile> files, SensorContext context) {
+    super.execute(files, context);
+    List<String> skippedForSize = cfgBuildContext.skippedForSize();
+    if (!skippedForSize.isEmpty()) {
+      LOG.info("{} control flow graphs exceeding the size limits ({} statements, {} blocks) were not analyzed, see debug logs for their location",
+        skippedForSize.size(), cfgBuildContext.maxStatements(), cfgBuildContext.maxBlocks());
+      LOG.debug("Control flow graphs exceeding the size limits: {}", String.join(", ", skippedForSize));
+    }
+  }
+
   @Override
   protected void scanFile(InputFile inputFile) {
     PythonFile pythonFile = SonarQubePythonFile.create(inputFile);
@@ -104,7 +183,8 @@ public class PythonScanner extends Scanner {
     try {
       AstNode astNode = parser.parse(pythonFile.content());
       FileInput parse = new PythonTreeMaker().fileInput(astNode);
-      visitorContext = new PythonVisitorContext(parse, pythonFile, getWorkingDirectory(context), packageNames.get(inputFile), globalSymbolsByModuleName);
+      visitorContext = new PythonVisitorContext(parse, pythonFile, getWorkingDirectory(context), packageNames.get(inputFile), projectLevelSymbolTable, cfgBuildContext,
+        functionSummaries);
       saveMeasures(inputFile, visitorContext);
     } catch (RecognitionException e) {
       visitorContext = new PythonVisitorContext(pythonFile, e);
@@ -125,7 +205,7 @@ public class PythonScanner extends Scanner {
       }
     }
     SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext);
-    saveIssues(inputFile, visitorContext.getIssues());
+    saveIssues(inputFile, visitorContext.getIssues(), visitorContext.locationIndex());
 
     if (visitorContext.rootTree() != null) {
       new SymbolVisitor(context.newSymbolTable().onFile(inputFile)).visitFileInput(visitorContext.rootTree());
@@ -143,7 +223,7 @@ public class PythonScanner extends Scanner {
     LOG.warn("Unable to analyze file: " + file.toString(), e);
   }
 
-  private void saveIssues(InputFile inputFile, List<PreciseIssue> issues) {
+  private void saveIssues(InputFile inputFile, List<PreciseIssue> issues, @Nullable LocationIndex locationIndex) {
     for (PreciseIssue preciseIssue : issues) {
       RuleKey ruleKey = checks.ruleKey(preciseIssue.check());
       NewIssue newIssue = context
@@ -155,7 +235,7 @@ public class PythonScanner extends Scanner {
         newIssue.gap(cost.doubleValue());
       }
 
-      NewIssueLocation primaryLocation = newLocation(inputFile, newIssue, preciseIssue.primaryLocation());
+      NewIssueLocation primaryLocation = newLocation(inputFile, newIssue, preciseIssue.primaryLocation(), locationIndex);
       newIssue.at(primaryLocation);
 
       Deque<NewIssueLocation> secondaryLocationsFlow = new ArrayDeque<>();
@@ -165,10 +245,10 @@ public class PythonScanner extends Scanner {
         if (fileId != null) {
           InputFile issueLocationFile = component(fileId, context);
           if (issueLocationFile != null) {
-            secondaryLocationsFlow.addFirst(newLocation(issueLocationFile, newIssue, secondaryLocation));
+            secondaryLocationsFlow.addFirst(newLocation(issueLocationFile, newIssue, secondaryLocation, null));
           }
         } else {
-          newIssue.addLocation(newLocation(inputFile, newIssue, secondaryLocation));
+          newIssue.addLocation(newLocation(inputFile, newIssue, secondaryLocation, locationIndex));
         }
       }
 
@@ -190,13 +270,19 @@ public class PythonScanner extends Scanner {
     return inputFile;
   }
 
-  private static NewIssueLocation newLocation(InputFile inputFile, NewIssue issue, IssueLocation location) {
+  /**
+   * @param locationIndex index of the file of the location, used to select whole lines. Null when the location is in another file.
+   */
+  private static NewIssueLocation newLocation(InputFile inputFile, NewIssue issue, IssueLocation location, @Nullable LocationIndex locationIndex) {
     NewIssueLocation newLocation = issue.newLocation()
       .on(inputFile);
     if (location.startLine() != IssueLocation.UNDEFINED_LINE) {
       TextRange range;
-      if (location.startLineOffset() == IssueLocation.UNDEFINED_OFFSET) {
-        range = inputFile.selectLine(location.startLine());
+      int line = location.startLine();
+      if (location.startLineOffset() == IssueLocation.UNDEFINED_OFFSET && locationIndex != null && line <= locationIndex.lineCount()) {
+        range = inputFile.newRange(line, 0, line, locationIndex.lineLength(line));
+      } else if (location.startLineOffset() == IssueLocation.UNDEFINED_OFFSET) {
+        range = inputFile.selectLine(line);
       } else {
         range = inputFile.newRange(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset());
       }
@@ -246,8 +332,12 @@ public class PythonScanner extends Scanner {
 
   private class GlobalSymbolsScanner extends Scanner {
 
-    private GlobalSymbolsScanner(SensorContext context) {
+    @Nullable
+    private final FunctionSummaries.Builder functionSummariesBuilder;
+
+    private GlobalSymbolsScanner(SensorContext context, @Nullable FunctionSummaries.Builder functionSummariesBuilder) {
       super(context);
+      this.functionSummariesBuilder = functionSummariesBuilder;
     }
 
     @Override
@@ -264,6 +354,12 @@ public class PythonScanner extends Scanner {
       String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, inputFile.filename());
       PythonFile pythonFile = SonarQubePythonFile.create(inputFile);
       globalSymbolsByModuleName.put(fullyQualifiedModuleName, SymbolUtils.globalSymbols(astRoot, packageName, pythonFile));
+      moduleNames.put(inputFile, fullyQualifiedModuleName);
+      importedNamesByModuleName.put(fullyQualifiedModuleName, ModuleDependencyGraph.importedModuleNames(astRoot, packageName));
+      if (functionSummariesBuilder != null) {
+        // the symbols of the tree were computed by "globalSymbols": calls are resolved like in the rest of the analysis
+        functionSummariesBuilder.addFile(astRoot, pythonFile, cfgBuildContext);
+      }
     }
 
     @Override
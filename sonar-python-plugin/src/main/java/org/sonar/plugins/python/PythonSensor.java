@@ -81,7 +81,7 @@ public final class PythonSensor implements Sensor {
     List<InputFile> mainFiles = getInputFiles(Type.MAIN, context);
     List<InputFile> testFiles = getInputFiles(Type.TEST, context);
     PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, mainFiles);
-    scanner.execute(mainFiles, context);
+    scanner.execute(scanner.analysisOrder(mainFiles), context);
     if (!testFiles.isEmpty()) {
       new TestHighlightingScanner(context).execute(testFiles, context);
     }
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -65,8 +66,11 @@ import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.plugins.python.api.PythonCheck;
 import org.sonar.plugins.python.api.PythonCustomRuleRepository;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.python.checks.CheckList;
+import org.sonar.python.checks.hotspots.OsExecCheck;
+import org.sonar.python.semantic.FunctionSummariesConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -116,6 +120,14 @@ public class PythonSensorTest {
     }
   }
 
+  @Rule(key = "callSummaries")
+  public static class CallSummariesRule extends PythonSubscriptionCheck implements FunctionSummariesConsumer {
+    @Override
+    public void initialize(Context context) {
+      // only reads the summaries
+    }
+  }
+
   private final File baseDir = new File("src/test/resources/org/sonar/plugins/python/sensor").getAbsoluteFile();
 
   private SensorContextTester context;
@@ -283,6 +295,77 @@ public class PythonSensorTest {
     assertThat(flow.locations().get(1).inputComponent()).isEqualTo(modFile);
   }
 
+  @Test
+  public void function_summaries() {
+    InputFile mainFile = inputFile("main.py");
+    InputFile modFile = inputFile("mod.py");
+    ActiveRules rules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "callSummaries"))
+        .build())
+      .build();
+    PythonChecks checks = new PythonChecks(new CheckFactory(rules)).addChecks(CheckList.REPOSITORY_KEY, Collections.singletonList(CallSummariesRule.class));
+    PythonScanner scanner = new PythonScanner(context, checks, mock(FileLinesContextFactory.class),
+      new NoSonarFilter(), Arrays.asList(mainFile, modFile));
+    assertThat(scanner.functionSummaries().callGraph().functions()).containsExactly("mod.add");
+    assertThat(scanner.functionSummaries().summary("mod.add").neverReturns()).isFalse();
+    assertThat(scanner.functionSummaries().summary("mod.add").returnsNone()).isFalse();
+    assertThat(scanner.functionSummaries().taint().summary("mod.add")).isNull();
+  }
+
+  @Test
+  public void taint_summaries() {
+    InputFile mainFile = inputFile("main.py");
+    InputFile modFile = inputFile("mod.py");
+    PythonScanner scanner = new PythonScanner(context, checksReadingFunctionSummaries(), mock(FileLinesContextFactory.class),
+      new NoSonarFilter(), Arrays.asList(mainFile, modFile));
+    // the hotspot rules only read the taint summaries
+    assertThat(scanner.functionSummaries().callGraph().functions()).isEmpty();
+    assertThat(scanner.functionSummaries().taint().summary("mod.add").propagates(0)).isTrue();
+  }
+
+  @Test
+  public void no_function_summaries_without_rule_reading_them() {
+    activeRules = new ActiveRulesBuilder().build();
+    InputFile mainFile = inputFile("main.py");
+    InputFile modFile = inputFile("mod.py");
+    PythonScanner scanner = new PythonScanner(context, new PythonChecks(new CheckFactory(activeRules)), mock(FileLinesContextFactory.class),
+      new NoSonarFilter(), Arrays.asList(mainFile, modFile));
+    assertThat(scanner.functionSummaries().callGraph().functions()).isEmpty();
+  }
+
+  @Test
+  public void taint_max_steps() {
+    InputFile mainFile = inputFile("main.py");
+    InputFile file1 = inputFile("file1.py");
+    context.setSettings(new MapSettings().setProperty("sonar.python.taint.maxSteps", "0"));
+    PythonScanner scanner = new PythonScanner(context, checksReadingFunctionSummaries(), mock(FileLinesContextFactory.class),
+      new NoSonarFilter(), Arrays.asList(mainFile, file1));
+    assertThat(scanner.functionSummaries().taint().functionsOverBudget()).isEqualTo(3);
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains("Taint analysis of 3 functions not completed: the budget of steps set by \"sonar.python.taint.maxSteps\" was exhausted");
+  }
+
+  private static PythonChecks checksReadingFunctionSummaries() {
+    ActiveRules rules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, OsExecCheck.CHECK_KEY))
+        .build())
+      .build();
+    return new PythonChecks(new CheckFactory(rules)).addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks());
+  }
+
+  @Test
+  public void module_dependencies() {
+    activeRules = new ActiveRulesBuilder().build();
+    InputFile mainFile = inputFile("main.py");
+    InputFile modFile = inputFile("mod.py");
+    PythonScanner scanner = new PythonScanner(context, new PythonChecks(new CheckFactory(activeRules)), mock(FileLinesContextFactory.class),
+      new NoSonarFilter(), Arrays.asList(mainFile, modFile));
+    assertThat(scanner.moduleDependencyGraph().importedModules("main")).containsExactly("mod");
+    assertThat(scanner.analysisOrder(Arrays.asList(mainFile, modFile))).containsExactly(modFile, mainFile);
+  }
+
   @Test
   public void test_test_file_highlighting() throws IOException {
     activeRules = new ActiveRulesBuilder().build();
@@ -362,6 +445,22 @@ public class PythonSensorTest {
       .hasCauseInstanceOf(FileNotFoundException.class);
   }
 
+  @Test
+  public void cfg_size_limits() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S1763"))
+        .build())
+      .build();
+    inputFile(FILE_2);
+    logTester.setLevel(LoggerLevel.DEBUG);
+    context.setSettings(new MapSettings().setProperty("sonar.python.cfg.maxStatements", "3"));
+    sensor().execute(context);
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains("1 control flow graphs exceeding the size limits (3 statements, 10000 blocks) were not analyzed, see debug logs for their location");
+    assertThat(logTester.logs(LoggerLevel.DEBUG)).contains("Control flow graphs exceeding the size limits: file2.py:1");
+  }
+
   @Test
   public void parse_error() {
     inputFile("parse_error.py");